@@ -0,0 +1,56 @@
+package com.hostel.bench;
+
+import com.hostel.dao.ColumnarInMemoryDatabase;
+import com.hostel.dao.ConcurrentInMemoryDatabase;
+import com.hostel.dao.DatabaseOperations;
+import com.hostel.dao.InMemoryDatabase;
+import com.hostel.dao.MySQLDatabase;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+/**
+ * Creates an empty store for a benchmark trial. The MySQL backend points at a throwaway
+ * database given by {@code -Dhostel.bench.url}, {@code .user} and {@code .pass}; its tables are
+ * truncated before every trial.
+ */
+final class Backends {
+    static final String URL = System.getProperty("hostel.bench.url",
+            "jdbc:mysql://localhost:3306/hostel_bench?rewriteBatchedStatements=true&useServerPrepStmts=true&createDatabaseIfNotExist=true");
+    static final String USER = System.getProperty("hostel.bench.user", "root");
+    static final String PASS = System.getProperty("hostel.bench.pass", "password");
+
+    private Backends() {}
+
+    static DatabaseOperations open(String backend, int threads) throws Exception {
+        switch (backend) {
+            case "memory":
+                if (threads > 1) throw new IllegalStateException("InMemoryDatabase is single-threaded; run it with -t 1 or use the concurrent backend");
+                return new InMemoryDatabase();
+            case "columnar":
+                if (threads > 1) throw new IllegalStateException("ColumnarInMemoryDatabase is single-threaded; run it with -t 1 or use the concurrent backend");
+                return new ColumnarInMemoryDatabase();
+            case "concurrent":
+                return new ConcurrentInMemoryDatabase();
+            case "mysql": {
+                MySQLDatabase db = new MySQLDatabase(URL, USER, PASS, Math.max(4, threads));
+                db.connect();
+                try (Connection c = DriverManager.getConnection(URL, USER, PASS); Statement st = c.createStatement()) {
+                    st.execute("SET FOREIGN_KEY_CHECKS = 0");
+                    st.execute("TRUNCATE TABLE allocations");
+                    st.execute("TRUNCATE TABLE students");
+                    st.execute("TRUNCATE TABLE rooms");
+                    st.execute("SET FOREIGN_KEY_CHECKS = 1");
+                }
+                return db;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown backend " + backend);
+        }
+    }
+
+    static void close(DatabaseOperations db) {
+        if (db instanceof MySQLDatabase) ((MySQLDatabase) db).close();
+    }
+}
@@ -0,0 +1,48 @@
+package com.hostel.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Runs {@link DaoBenchmark} once per thread count with the GC (allocation) profiler and writes
+ * one JSON result file per run, e.g. {@code jmh-result-t4.json}.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar [threads=1,4,16] [backends=memory,columnar,concurrent,mysql] [out=results] [extra JMH include regex]
+ * </pre>
+ * The single-threaded {@code memory} and {@code columnar} backends are only run with one thread. For ad-hoc runs use
+ * JMH directly: {@code java -cp target/benchmarks.jar org.openjdk.jmh.Main -prof gc -rf json ...}.
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws Exception {
+        String threads = "1,4,16";
+        String backends = "memory,columnar,concurrent,mysql";
+        String out = "results";
+        String include = DaoBenchmark.class.getSimpleName();
+        for (String a : args) {
+            if (a.startsWith("threads=")) threads = a.substring(8);
+            else if (a.startsWith("backends=")) backends = a.substring(9);
+            else if (a.startsWith("out=")) out = a.substring(4);
+            else include = a;
+        }
+        new File(out).mkdirs();
+        for (String t : threads.split(",")) {
+            int n = Integer.parseInt(t.trim());
+            String[] selected = n > 1 ? backends.replaceAll("(^|,)(memory|columnar)(?=,|$)", "").replaceAll("^,|,$", "").split(",") : backends.split(",");
+            if (selected.length == 0 || selected[0].isEmpty()) continue;
+            ChainedOptionsBuilder opts = new OptionsBuilder()
+                    .include(include)
+                    .threads(n)
+                    .param("backend", selected)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(new File(out, "jmh-result-t" + n + ".json").getPath());
+            new Runner(opts.build()).run();
+        }
+    }
+}
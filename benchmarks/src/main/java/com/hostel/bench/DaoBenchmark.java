@@ -0,0 +1,160 @@
+package com.hostel.bench;
+
+import com.hostel.dao.BulkResult;
+import com.hostel.dao.DatabaseOperations;
+import com.hostel.model.Room;
+import com.hostel.model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.AbstractList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DAO hot paths against a preloaded dataset. Each trial loads {@code rooms} rooms of
+ * {@link #ROOM_CAPACITY} beds and {@code students} students, then fills half of every room so
+ * allocation benchmarks always find spare beds. Allocate and deallocate each get a per-thread
+ * student whose state is reset before every invocation, so both measure a steady state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DaoBenchmark {
+    static final int ROOM_CAPACITY = 4;
+
+    @Param({"memory", "columnar", "concurrent", "mysql"})
+    public String backend;
+
+    @Param({"1000", "100000", "1000000"})
+    public int students;
+
+    @Param({"100", "10000", "100000"})
+    public int rooms;
+
+    DatabaseOperations db;
+    int[] roomIds;
+    final AtomicInteger nextRoll = new AtomicInteger();
+    final AtomicInteger nextThread = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void load(BenchmarkParams params) throws Exception {
+        db = Backends.open(backend, params.getThreads());
+        roomIds = new int[rooms];
+        for (int i = 0; i < rooms; i++) roomIds[i] = db.addRoom(new Room(0, "B" + i, ROOM_CAPACITY, 0));
+        List<Student> roster = new AbstractList<Student>() {
+            @Override
+            public Student get(int i) { return new Student("Student " + (i + 1), "s" + (i + 1) + "@hostel.test", String.valueOf(i + 1)); }
+
+            @Override
+            public int size() { return students; }
+        };
+        BulkResult loaded = db.addStudents(roster);
+        if (loaded.getFailed() > 0) throw new IllegalStateException("Dataset load failed: " + loaded.getErrors().get(0));
+        Map<Integer, Integer> plan = new LinkedHashMap<>();
+        List<Integer> ids = loaded.getIds();
+        for (int i = 0; i < ids.size() && i < rooms * (ROOM_CAPACITY / 2); i++) plan.put(ids.get(i), roomIds[i % rooms]);
+        db.allocateRooms(plan);
+        nextRoll.set(students + 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        Backends.close(db);
+    }
+
+    int addBenchStudent() throws Exception {
+        String roll = String.valueOf(nextRoll.getAndIncrement());
+        return db.addStudent(new Student("Bench " + roll, null, roll));
+    }
+
+    /** A student owned by one benchmark thread, cycling through rooms starting at a per-thread offset. */
+    public abstract static class ThreadStudent {
+        int studentId;
+        int roomCursor;
+
+        @Setup(Level.Trial)
+        public void init(DaoBenchmark b) throws Exception {
+            studentId = b.addBenchStudent();
+            roomCursor = b.nextThread.getAndIncrement();
+        }
+
+        int nextRoom(DaoBenchmark b) {
+            return b.roomIds[Math.floorMod(roomCursor++, b.roomIds.length)];
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Unallocated extends ThreadStudent {
+        @Setup(Level.Invocation)
+        public void reset(DaoBenchmark b) throws Exception {
+            b.db.deallocateStudent(studentId);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Allocated extends ThreadStudent {
+        @Setup(Level.Invocation)
+        public void reset(DaoBenchmark b) throws Exception {
+            for (int tries = 0; tries < b.roomIds.length && b.db.getAllocatedRoomForStudent(studentId) == null; tries++) {
+                b.db.allocateRoom(studentId, nextRoom(b));
+            }
+        }
+    }
+
+    @Benchmark
+    public int addStudent() throws Exception {
+        return addBenchStudent();
+    }
+
+    @Benchmark
+    public boolean allocateRoom(Unallocated u) throws Exception {
+        return db.allocateRoom(u.studentId, u.nextRoom(this));
+    }
+
+    @Benchmark
+    public boolean deallocateStudent(Allocated a) throws Exception {
+        return db.deallocateStudent(a.studentId);
+    }
+
+    @Benchmark
+    public List<Room> getAvailableRooms() throws Exception {
+        return db.getAvailableRooms();
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> getAllAllocations() throws Exception {
+        return db.getAllAllocations();
+    }
+
+    /** The occupancy report as three full scans, which {@code StatisticsDatabase} replaces with running counters. */
+    @Benchmark
+    public void report(Blackhole bh) throws Exception {
+        List<Room> allRooms = db.getAllRooms();
+        List<Student> all = db.getAllStudents();
+        Map<Integer, Integer> allocs = db.getAllAllocations();
+        bh.consume(allRooms.size());
+        bh.consume(all.size());
+        bh.consume(allocs.size());
+        bh.consume(allRooms.stream().mapToInt(r -> r.getCapacity() - r.getOccupied()).sum());
+    }
+}
@@ -1,4 +1,6 @@
 -- Schema for Hostel Room Allocation
+-- MySQLDatabase.connect() also creates and upgrades these tables from the versioned
+-- scripts in src/main/resources/db/migration; this file is for a manual first setup.
 CREATE DATABASE IF NOT EXISTS hostel_db;
 USE hostel_db;
 
@@ -6,7 +8,9 @@ CREATE TABLE IF NOT EXISTS students (
   id INT AUTO_INCREMENT PRIMARY KEY,
   name VARCHAR(100) NOT NULL,
   email VARCHAR(100),
-  roll_no VARCHAR(50)
+  roll_no VARCHAR(50),
+  UNIQUE KEY uq_students_roll_no (roll_no),
+  UNIQUE KEY uq_students_email (email)
 );
 
 CREATE TABLE IF NOT EXISTS rooms (
@@ -21,8 +25,19 @@ CREATE TABLE IF NOT EXISTS allocations (
   student_id INT NOT NULL,
   room_id INT NOT NULL,
   allocated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  UNIQUE KEY uq_allocations_student (student_id),
   FOREIGN KEY (student_id) REFERENCES students(id),
   FOREIGN KEY (room_id) REFERENCES rooms(id)
 );
 
+CREATE TABLE IF NOT EXISTS waitlist (
+  student_id INT PRIMARY KEY,
+  room_id INT NULL,
+  priority INT NOT NULL DEFAULT 0,
+  seq BIGINT NOT NULL,
+  enqueued_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  FOREIGN KEY (student_id) REFERENCES students(id) ON DELETE CASCADE,
+  FOREIGN KEY (room_id) REFERENCES rooms(id) ON DELETE CASCADE
+);
+
 INSERT INTO rooms (number,capacity,occupied) VALUES ('A101',2,0),('A102',2,0),('B201',1,0);
@@ -1,30 +1,96 @@
 package com.hostel;
 
+import com.hostel.dao.CachingDatabase;
+import com.hostel.dao.ConcurrentInMemoryDatabase;
 import com.hostel.dao.DatabaseOperations;
+import com.hostel.dao.DurableInMemoryDatabase;
 import com.hostel.dao.InMemoryDatabase;
+import com.hostel.dao.InMemoryWaitlistStore;
 import com.hostel.dao.MySQLDatabase;
+import com.hostel.dao.WaitlistDatabase;
+import com.hostel.dao.WaitlistStore;
 import com.hostel.exception.DatabaseException;
 import com.hostel.exception.InvalidInputException;
+import com.hostel.exception.SchemaMigrationException;
+import com.hostel.http.HostelHttpServer;
+import com.hostel.metrics.MetricsDatabase;
 import com.hostel.model.Student;
 import com.hostel.model.Room;
+import com.hostel.model.RoomWithOccupants;
+import com.hostel.model.StudentWithRoom;
+import com.hostel.model.WaitlistEntry;
 import com.hostel.service.AllocationService;
 
+import javax.management.JMException;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.List;
-import java.util.Map;
 import java.util.Scanner;
 
 public class App {
     public static void main(String[] args) {
-        DatabaseOperations db = new MySQLDatabase();
+        // --http[=port] serves the JSON API instead of the console menu
+        boolean http = args.length > 0 && args[0].startsWith("--http");
+        MySQLDatabase mysql = new MySQLDatabase();
+        MetricsDatabase metrics = new MetricsDatabase(mysql);
+        DatabaseOperations db = metrics;
+        WaitlistStore waitlistStore = mysql.waitlistStore();
         try {
             db.connect();
+            // login lookups rarely change; serve repeats from memory
+            db = new CachingDatabase(metrics, 10_000, 5 * 60_000);
+        } catch (SchemaMigrationException e) {
+            // the server is there but its schema is not what this build expects; an embedded store
+            // would hide that and split the data, so stop instead
+            System.err.println("Database schema migration failed: " + e.getMessage());
+            System.exit(1);
+            return;
         } catch (DatabaseException e) {
             System.err.println("DB connection failed: " + e.getMessage());
-            System.err.println("Falling back to in-memory database for demo.");
-            db = new InMemoryDatabase();
+            System.err.println("Falling back to embedded database in ./hostel-data.");
+            try {
+                DurableInMemoryDatabase durable = DurableInMemoryDatabase.open(Paths.get("hostel-data"));
+                waitlistStore = durable.waitlistStore();
+                metrics = new MetricsDatabase(durable);
+            } catch (DatabaseException ex) {
+                System.err.println("Embedded database unavailable: " + ex.getMessage());
+                System.err.println("Falling back to in-memory database for demo.");
+                waitlistStore = new InMemoryWaitlistStore();
+                metrics = new MetricsDatabase(http ? new ConcurrentInMemoryDatabase() : new InMemoryDatabase());
+            }
+            db = metrics;
+        }
+        try {
+            metrics.registerMBeans("hostel");
+        } catch (JMException e) {
+            System.err.println("JMX metrics unavailable: " + e.getMessage());
+        }
+
+        if (http) {
+            int port = args[0].startsWith("--http=") ? Integer.parseInt(args[0].substring("--http=".length())) : 8080;
+            try {
+                HostelHttpServer server = new HostelHttpServer(db, waitlistStore, port, 256, 30, "admin");
+                server.start();
+                System.out.println("Serving the hostel API on http://localhost:" + server.getPort() + "/api/");
+            } catch (IOException | DatabaseException e) {
+                System.err.println("Could not start HTTP server: " + e.getMessage());
+            }
+            return;
         }
 
-        AllocationService service = new AllocationService(db);
+        WaitlistDatabase waitlist;
+        try {
+            waitlist = new WaitlistDatabase(db, waitlistStore);
+        } catch (DatabaseException e) {
+            System.err.println("Waitlist unavailable, starting with an empty one: " + e.getMessage());
+            try {
+                waitlist = new WaitlistDatabase(db, new InMemoryWaitlistStore());
+            } catch (DatabaseException ex) {
+                throw new IllegalStateException(ex); // the in-memory store cannot fail
+            }
+        }
+        db = waitlist;
+        AllocationService service = new AllocationService(waitlist);
         Scanner sc = new Scanner(System.in);
 
         while (true) {
@@ -68,17 +134,16 @@ public class App {
                                 System.out.print("Roll No (numeric): ");
                                 String roll = sc.nextLine();
                                 Student s = new Student(name, email, roll);
-                                service.addStudent(s);
+                                int sid = service.addStudent(s);
                                 System.out.println("Student added with roll=" + roll);
-                                // Auto-allocate immediately
+                                // Auto-allocate immediately, or wait for the next free bed
                                 try {
-                                    List<Room> avail = db.getAvailableRooms();
-                                    if (avail.isEmpty()) {
-                                        System.out.println("No available rooms; student added without allocation");
+                                    int pos = service.allocateOrWaitlist(sid, null, 0);
+                                    if (pos > 0) {
+                                        System.out.println("No available rooms; student waitlisted at position " + pos);
                                     } else {
-                                        int rid = avail.get(0).getId();
-                                        service.allocateRoom(Integer.parseInt(roll), rid);
-                                        System.out.println("Auto-allocated student " + roll + " to room " + rid);
+                                        Room room = db.getAllocatedRoomForStudent(sid);
+                                        System.out.println("Auto-allocated student " + roll + " to room " + room.getId());
                                     }
                                 } catch (DatabaseException | InvalidInputException ex) {
                                     System.err.println("Allocation error: " + ex.getMessage());
@@ -97,8 +162,9 @@ public class App {
                                 int sid = Integer.parseInt(sc.nextLine());
                                 System.out.print("Room ID to allocate to: ");
                                 int rid = Integer.parseInt(sc.nextLine());
-                                service.allocateRoom(sid, rid);
-                                System.out.println("Allocated student " + sid + " to room " + rid);
+                                int pos = service.allocateOrWaitlist(sid, rid, 0);
+                                if (pos > 0) System.out.println("Room is full; student waitlisted for it at position " + pos);
+                                else System.out.println("Allocated student " + sid + " to room " + rid);
                                 break;
                             }
                             case "4": { // Deallocate
@@ -109,23 +175,15 @@ public class App {
                                 break;
                             }
                             case "5": { // Show all rooms with occupants
-                                List<Room> rooms = db.getAllRooms();
-                                Map<Integer,Integer> allocs = db.getAllAllocations();
                                 System.out.println("RoomID | Number | Capacity | Occupied | Occupants");
-                                for (Room r : rooms) {
+                                for (RoomWithOccupants ro : db.getRoomsWithOccupants()) {
+                                    Room r = ro.getRoom();
                                     StringBuilder occStr = new StringBuilder();
-                                    int count = r.getOccupied();
-                                    // find students allocated to this room
-                                    for (Map.Entry<Integer,Integer> e : allocs.entrySet()) {
-                                        if (e.getValue() == r.getId()) {
-                                            Student st = db.getStudent(e.getKey());
-                                            if (st != null) {
-                                                if (occStr.length() > 0) occStr.append("; ");
-                                                occStr.append(st.getName()).append(" (").append(st.getId()).append(")");
-                                            }
-                                        }
+                                    for (Student st : ro.getOccupants()) {
+                                        if (occStr.length() > 0) occStr.append("; ");
+                                        occStr.append(st.getName()).append(" (").append(st.getId()).append(")");
                                     }
-                                    System.out.printf("%6d | %6s | %8d | %8d | %s\n", r.getId(), r.getNumber(), r.getCapacity(), count, occStr.toString());
+                                    System.out.printf("%6d | %6s | %8d | %8d | %s\n", r.getId(), r.getNumber(), r.getCapacity(), r.getOccupied(), occStr.toString());
                                 }
                                 break;
                             }
@@ -148,12 +206,13 @@ public class App {
                                 break;
                             }
                             case "8": { // Show students list with allocated room
-                                List<Student> studs = db.getAllStudents();
+                                List<StudentWithRoom> studs = db.getStudentsWithRooms();
                                 if (studs.isEmpty()) System.out.println("No students");
                                 else {
                                     System.out.println("Roll | Name | Email | AllocatedRoom");
-                                    for (Student st : studs) {
-                                        Room room = db.getAllocatedRoomForStudent(st.getId());
+                                    for (StudentWithRoom sr : studs) {
+                                        Student st = sr.getStudent();
+                                        Room room = sr.getRoom();
                                         String rn = (room == null) ? "-" : room.getNumber();
                                         System.out.printf("%4d | %s | %s | %s\n", st.getId(), st.getName(), st.getEmail(), rn);
                                     }
@@ -181,8 +240,7 @@ public class App {
                 System.out.print("Enter name: ");
                 String name = sc.nextLine();
                 try {
-                    int sid = Integer.parseInt(roll.trim());
-                    Student s = db.getStudent(sid);
+                    Student s = db.getStudentByRollNo(roll);
                     if (s == null) {
                         System.out.println("Student not found");
                         continue;
@@ -191,11 +249,13 @@ public class App {
                         System.out.println("Name and roll do not match");
                         continue;
                     }
-                    Room room = db.getAllocatedRoomForStudent(sid);
-                    if (room == null) System.out.println("No room allocated yet");
+                    Room room = db.getAllocatedRoomForStudent(s.getId());
+                    WaitlistEntry waiting = waitlist.getEntry(s.getId());
+                    if (room == null && waiting != null) {
+                        String where = waiting.getRoomId() == null ? "any room" : "room " + waiting.getRoomId();
+                        System.out.println("No room allocated yet; waitlisted for " + where + " at position " + waitlist.getPosition(s.getId()));
+                    } else if (room == null) System.out.println("No room allocated yet");
                     else System.out.printf("Allocated Room ID=%d Label=%s\n", room.getId(), room.getNumber());
-                } catch (NumberFormatException nfe) {
-                    System.out.println("Invalid roll number");
                 } catch (DatabaseException dbe) {
                     System.err.println("Error: " + dbe.getMessage());
                 }
@@ -208,212 +268,3 @@ public class App {
         }
     }
 }
-package com.hostel;
-
-import com.hostel.dao.DatabaseOperations;
-import com.hostel.dao.MySQLDatabase;
-import com.hostel.dao.InMemoryDatabase;
-import com.hostel.exception.DatabaseException;
-import com.hostel.exception.InvalidInputException;
-import com.hostel.model.Student;
-import com.hostel.service.AllocationService;
-
-import java.util.Scanner;
-
-public class App {
-    public static void main(String[] args) {
-        DatabaseOperations db = new MySQLDatabase();
-        try {
-            db.connect();
-        } catch (DatabaseException e) {
-            System.err.println("DB connection failed: " + e.getMessage());
-            System.err.println("Falling back to in-memory database for demo.");
-            db = new InMemoryDatabase();
-        }
-
-        AllocationService service = new AllocationService(db);
-        Scanner sc = new Scanner(System.in);
-
-        while (true) {
-            System.out.println("Login:\n1. Admin\n2. Student\n3. Exit");
-            System.out.print("Choose: ");
-            String choice = sc.nextLine();
-            if (choice.equals("1")) {
-                System.out.print("Admin password: ");
-                String pass = sc.nextLine();
-                if (!"admin".equalsIgnoreCase(pass == null ? "" : pass.trim())) {
-                    System.out.println("Invalid password");
-                    continue;
-                }
-                // admin menu
-                while (true) {
-                    System.out.println("Admin Menu:\n1.Add student\n2.Delete student\n3.Manual allocate student to room\n4.Auto allocate student to first available room\n5.Deallocate student\n6.Show all rooms\n7.Show available rooms\n8.Change room label\n9.Show students\n10.Logout");
-                    System.out.print("Choose: ");
-                    String a = sc.nextLine();
-                    try {
-                        switch (a) {
-                            // admin menu (MIT HOSTEL MANAGEMENT SYSTEM layout)
-                            while (true) {
-                                System.out.println("\nAdmin Menu:\n1. Add Room\n2. Allocate Room to Student\n3. View All Allocations\n4. View all student's list\n5. Generate Reports\n6. Logout");
-                                System.out.print("Enter choice: ");
-                                String a = sc.nextLine();
-                                System.out.print("Roll No (numeric): ");
-                                    switch (a) {
-                                        case "1": {
-                                            // Add Room
-                                            System.out.print("Room label: ");
-                                            String label = sc.nextLine();
-                                            System.out.print("Capacity (default 2): ");
-                                            String capS = sc.nextLine();
-                                            int cap = 2;
-                                            try { if (!capS.isBlank()) cap = Integer.parseInt(capS); } catch (Exception ignored) {}
-                                            int rid = db.addRoom(new com.hostel.model.Room(0, label, cap, 0));
-                                            System.out.println("Added room id=" + rid);
-                                            break;
-                                        }
-                                        case "2": {
-                                            // Allocate Room to Student (manual)
-                                            System.out.print("Student Roll/ID to allocate: ");
-                                            int sid = Integer.parseInt(sc.nextLine());
-                                            System.out.print("Room ID to allocate to: ");
-                                            int rid = Integer.parseInt(sc.nextLine());
-                                            while (true) {
-                                                System.out.println("\nAdmin Menu:\n1. Add Student\n2. Add Room\n3. Allocate Room to Student\n4. View All Allocations\n5. View all student's list\n6. Generate Reports\n7. Logout");
-                                                System.out.print("Enter choice: ");
-                                                String a = sc.nextLine();
-                                        case "3": {
-                                                    switch (a) {
-                                                        case "1": {
-                                                            // Add Student
-                                                            System.out.print("Name: ");
-                                                            String name = sc.nextLine();
-                                                            System.out.print("Email: ");
-                                                            String email = sc.nextLine();
-                                                            System.out.print("Roll No (numeric): ");
-                                                            String roll = sc.nextLine();
-                                                            Student s = new Student(name, email, roll);
-                                                            service.addStudent(s);
-                                                            System.out.println("Student added with roll=" + roll);
-                                                            // allocation choice
-                                                            System.out.println("Allocate now? 1. Manually allocate 2. Allocate automatically 3. Skip");
-                                                            System.out.print("Choose: ");
-                                                            String choiceAlloc = sc.nextLine();
-                                                            if (choiceAlloc.equals("1")) {
-                                                                System.out.print("Room ID to allocate to: ");
-                                                                int rid = Integer.parseInt(sc.nextLine());
-                                                                service.allocateRoom(Integer.parseInt(roll), rid);
-                                                                System.out.println("Allocated student " + roll + " to room " + rid);
-                                                            } else if (choiceAlloc.equals("2")) {
-                                                                var avail = db.getAvailableRooms();
-                                                                if (avail.isEmpty()) System.out.println("No available rooms");
-                                                                else {
-                                                                    int rid = avail.get(0).getId();
-                                                                    service.allocateRoom(Integer.parseInt(roll), rid);
-                                                                    System.out.println("Auto-allocated student " + roll + " to room " + rid);
-                                                                }
-                                                            } else {
-                                                                System.out.println("Skipping allocation for now");
-                                                            }
-                                                            break;
-                                                        }
-                                                        case "2": {
-                                                            // Add Room
-                                                            System.out.print("Room label: ");
-                                                            String label = sc.nextLine();
-                                                            System.out.print("Capacity (default 2): ");
-                                                            String capS = sc.nextLine();
-                                                            int cap = 2;
-                                                            try { if (!capS.isBlank()) cap = Integer.parseInt(capS); } catch (Exception ignored) {}
-                                                            int rid = db.addRoom(new com.hostel.model.Room(0, label, cap, 0));
-                                                            System.out.println("Added room id=" + rid);
-                                                            break;
-                                                        }
-                                                        case "3": {
-                                                            // Allocate Room to Student (manual)
-                                                            System.out.print("Student Roll/ID to allocate: ");
-                                                            int sid = Integer.parseInt(sc.nextLine());
-                                                            System.out.print("Room ID to allocate to: ");
-                                                            int rid = Integer.parseInt(sc.nextLine());
-                                                            service.allocateRoom(sid, rid);
-                                                            System.out.println("Allocated student " + sid + " to room " + rid);
-                                                            break;
-                                                        }
-                                                        case "4": {
-                                                            // View All Allocations
-                                                            var allocs = db.getAllAllocations();
-                                                            if (allocs.isEmpty()) System.out.println("No allocations");
-                                                            else {
-                                                                System.out.println("StudentRoll | StudentName | RoomLabel");
-                                                                for (var e : allocs.entrySet()) {
-                                                                    int sid = e.getKey();
-                                                                    int rid = e.getValue();
-                                                                    var s = db.getStudent(sid);
-                                                                    var r = db.getAllRooms().stream().filter(x->x.getId()==rid).findFirst().orElse(null);
-                                                                    String rn = r==null?"-":r.getNumber();
-                                                                    System.out.printf("%10d | %s | %s\n", sid, s==null?"-":s.getName(), rn);
-                                                                }
-                                                            }
-                                                            break;
-                                                        }
-                                                        case "5": {
-                                                            // View all student's list
-                                                            var studs = db.getAllStudents();
-                                                            if (studs.isEmpty()) System.out.println("No students");
-                                                            else {
-                                                                System.out.println("Roll | Name | AllocatedRoom");
-                                                                for (var st : studs) {
-                                                                    var room = db.getAllocatedRoomForStudent(st.getId());
-                                                                    String rn = (room == null) ? "-" : room.getNumber();
-                                                                    System.out.printf("%4d | %s | %s\n", st.getId(), st.getName(), rn);
-                                                                }
-                                                            }
-                                                            break;
-                                                        }
-                                                        case "6": {
-                                                            // Generate Reports
-                                                            var allRooms = db.getAllRooms();
-                                                            var students = db.getAllStudents();
-                                                            var allocs = db.getAllAllocations();
-                                                            int allocatedCount = allocs.size();
-                                                            int totalRooms = allRooms.size();
-                                                            int totalStudents = students.size();
-                                                            int availableSlots = allRooms.stream().mapToInt(r->r.getCapacity()-r.getOccupied()).sum();
-                                                            System.out.println("Report:");
-                                                            System.out.println("Total rooms: " + totalRooms);
-                                                            System.out.println("Total students: " + totalStudents);
-                                                            System.out.println("Allocated students: " + allocatedCount);
-                                                            System.out.println("Available slots: " + availableSlots);
-                                                            break;
-                                                        }
-                                                        case "7": {
-                                                            System.out.println("Logging out");
-                                                            break;
-                                                        }
-                try {
-                    int sid = Integer.parseInt(roll);
-                    Student s = db.getStudent(sid);
-                    if (s == null) {
-                        System.out.println("Student not found");
-                        continue;
-                    }
-                    if (!s.getName().equalsIgnoreCase(name)) {
-                        System.out.println("Name and roll do not match");
-                        continue;
-                    }
-                    var room = db.getAllocatedRoomForStudent(sid);
-                    if (room == null) System.out.println("No room allocated yet");
-                    else System.out.printf("Allocated Room ID=%d Label=%s\n", room.getId(), room.getNumber());
-                } catch (NumberFormatException nfe) {
-                    System.out.println("Invalid roll number");
-                } catch (DatabaseException dbe) {
-                    System.err.println("Error: " + dbe.getMessage());
-                }
-            } else if (choice.equals("3")) {
-                System.out.println("Bye");
-                return;
-            } else {
-                System.out.println("Invalid option");
-            }
-        }
-    }
-}
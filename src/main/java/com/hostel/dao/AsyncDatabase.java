@@ -0,0 +1,192 @@
+package com.hostel.dao;
+
+import com.hostel.model.Room;
+import com.hostel.model.RoomWithOccupants;
+import com.hostel.model.Student;
+import com.hostel.model.StudentWithRoom;
+import com.hostel.model.Transfer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a blocking {@link DatabaseOperations} on an executor. By default that is one virtual
+ * thread per call when the JVM has them (Java 21+), else a fixed pool of platform threads with a
+ * bounded queue; when the queue is full the call fails fast with
+ * {@link RejectedExecutionException} instead of piling up. The wrapped store must be thread-safe.
+ */
+public class AsyncDatabase implements AsyncDatabaseOperations, AutoCloseable {
+    private interface Call<T> {
+        T call() throws Exception;
+    }
+
+    private final DatabaseOperations db;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final long timeoutMillis;
+
+    /** @param timeoutMillis per-call timeout, or 0 for none */
+    public AsyncDatabase(DatabaseOperations db, long timeoutMillis) {
+        this(db, defaultExecutor(Runtime.getRuntime().availableProcessors() * 4, 10_000), true, timeoutMillis);
+    }
+
+    /** Uses {@code executor}, which the caller keeps ownership of. */
+    public AsyncDatabase(DatabaseOperations db, ExecutorService executor, long timeoutMillis) {
+        this(db, executor, false, timeoutMillis);
+    }
+
+    private AsyncDatabase(DatabaseOperations db, ExecutorService executor, boolean ownsExecutor, long timeoutMillis) {
+        this.db = db;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * A virtual-thread-per-task executor where available, otherwise {@code platformThreads}
+     * daemon threads that queue at most {@code queueCapacity} calls.
+     */
+    public static ExecutorService defaultExecutor(int platformThreads, int queueCapacity) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // pre-21 JVM: fall through to platform threads
+        }
+        AtomicInteger n = new AtomicInteger();
+        return new ThreadPoolExecutor(platformThreads, platformThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "hostel-db-async-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    public DatabaseOperations getDelegate() { return db; }
+
+    private <T> CompletableFuture<T> submit(Call<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                if (result.isDone()) return; // cancelled or timed out while queued
+                try {
+                    result.complete(call.call());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        // cancel(), orTimeout() or our own timeout: stop the worker too
+        result.whenComplete((v, e) -> {
+            if (e != null) task.cancel(true);
+        });
+        if (timeoutMillis > 0) result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<Integer> addStudent(Student s) { return submit(() -> db.addStudent(s)); }
+
+    @Override
+    public CompletableFuture<BulkResult> addStudents(Iterable<Student> students) { return submit(() -> db.addStudents(students)); }
+
+    @Override
+    public CompletableFuture<Integer> addRoom(Room r) { return submit(() -> db.addRoom(r)); }
+
+    @Override
+    public CompletableFuture<Boolean> allocateRoom(int studentId, int roomId) { return submit(() -> db.allocateRoom(studentId, roomId)); }
+
+    @Override
+    public CompletableFuture<Integer> allocateRooms(Map<Integer, Integer> assignments) { return submit(() -> db.allocateRooms(assignments)); }
+
+    @Override
+    public CompletableFuture<Boolean> deallocateStudent(int studentId) { return submit(() -> db.deallocateStudent(studentId)); }
+
+    @Override
+    public CompletableFuture<Integer> deallocateReturningRoom(int studentId) { return submit(() -> db.deallocateReturningRoom(studentId)); }
+
+    @Override
+    public CompletableFuture<Integer> deallocateStudents(Collection<Integer> studentIds) { return submit(() -> db.deallocateStudents(studentIds)); }
+
+    @Override
+    public CompletableFuture<Integer> vacateRooms(Collection<Integer> roomIds) { return submit(() -> db.vacateRooms(roomIds)); }
+
+    @Override
+    public CompletableFuture<Integer> vacateByLabelPrefix(String prefix) { return submit(() -> db.vacateByLabelPrefix(prefix)); }
+
+    @Override
+    public CompletableFuture<Boolean> transferStudent(int studentId, int toRoomId) { return submit(() -> db.transferStudent(studentId, toRoomId)); }
+
+    @Override
+    public CompletableFuture<Boolean> swapStudents(int studentA, int studentB) { return submit(() -> db.swapStudents(studentA, studentB)); }
+
+    @Override
+    public CompletableFuture<Integer> applyTransfers(List<Transfer> transfers) { return submit(() -> db.applyTransfers(transfers)); }
+
+    @Override
+    public CompletableFuture<Boolean> deleteStudent(int studentId) { return submit(() -> db.deleteStudent(studentId)); }
+
+    @Override
+    public CompletableFuture<Integer> deleteReturningRoom(int studentId) { return submit(() -> db.deleteReturningRoom(studentId)); }
+
+    @Override
+    public CompletableFuture<Boolean> changeRoomNumber(int roomId, String newNumber) { return submit(() -> db.changeRoomNumber(roomId, newNumber)); }
+
+    @Override
+    public CompletableFuture<Student> getStudent(int studentId) { return submit(() -> db.getStudent(studentId)); }
+
+    @Override
+    public CompletableFuture<Student> getStudentByRollNo(String rollNo) { return submit(() -> db.getStudentByRollNo(rollNo)); }
+
+    @Override
+    public CompletableFuture<Student> getStudentByEmail(String email) { return submit(() -> db.getStudentByEmail(email)); }
+
+    @Override
+    public CompletableFuture<Room> getAllocatedRoomForStudent(int studentId) { return submit(() -> db.getAllocatedRoomForStudent(studentId)); }
+
+    @Override
+    public CompletableFuture<List<Student>> getAllStudents() { return submit(db::getAllStudents); }
+
+    @Override
+    public CompletableFuture<List<Room>> getAllRooms() { return submit(db::getAllRooms); }
+
+    @Override
+    public CompletableFuture<List<Room>> getAvailableRooms() { return submit(db::getAvailableRooms); }
+
+    @Override
+    public CompletableFuture<Map<Integer, Integer>> getAllAllocations() { return submit(db::getAllAllocations); }
+
+    @Override
+    public CompletableFuture<Room> findFirstAvailableRoom() { return submit(db::findFirstAvailableRoom); }
+
+    @Override
+    public CompletableFuture<Room> findBestFitRoom(int beds) { return submit(() -> db.findBestFitRoom(beds)); }
+
+    @Override
+    public CompletableFuture<Long> countFreeBeds() { return submit(db::countFreeBeds); }
+
+    @Override
+    public CompletableFuture<List<RoomWithOccupants>> getRoomsWithOccupants() { return submit(db::getRoomsWithOccupants); }
+
+    @Override
+    public CompletableFuture<List<StudentWithRoom>> getStudentsWithRooms() { return submit(db::getStudentsWithRooms); }
+
+    /** Shuts down the executor if this instance created it; queued calls still run. */
+    @Override
+    public void close() {
+        if (ownsExecutor) executor.shutdown();
+    }
+}
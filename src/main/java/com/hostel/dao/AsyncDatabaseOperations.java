@@ -0,0 +1,51 @@
+package com.hostel.dao;
+
+import com.hostel.model.Room;
+import com.hostel.model.RoomWithOccupants;
+import com.hostel.model.Student;
+import com.hostel.model.StudentWithRoom;
+import com.hostel.model.Transfer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link DatabaseOperations}: each call returns at once and its
+ * future completes with the result, or exceptionally with the {@code DatabaseException} /
+ * {@code InvalidInputException} the blocking call would have thrown. Cancelling a returned
+ * future, or letting it time out, interrupts the call if it is still running.
+ */
+public interface AsyncDatabaseOperations {
+    CompletableFuture<Integer> addStudent(Student s);
+    CompletableFuture<BulkResult> addStudents(Iterable<Student> students);
+    CompletableFuture<Integer> addRoom(Room r);
+    CompletableFuture<Boolean> allocateRoom(int studentId, int roomId);
+    CompletableFuture<Integer> allocateRooms(Map<Integer, Integer> assignments);
+    CompletableFuture<Boolean> deallocateStudent(int studentId);
+    CompletableFuture<Integer> deallocateReturningRoom(int studentId);
+    CompletableFuture<Integer> deallocateStudents(Collection<Integer> studentIds);
+    CompletableFuture<Integer> vacateRooms(Collection<Integer> roomIds);
+    CompletableFuture<Integer> vacateByLabelPrefix(String prefix);
+    CompletableFuture<Boolean> transferStudent(int studentId, int toRoomId);
+    CompletableFuture<Boolean> swapStudents(int studentA, int studentB);
+    CompletableFuture<Integer> applyTransfers(List<Transfer> transfers);
+    CompletableFuture<Boolean> deleteStudent(int studentId);
+    CompletableFuture<Integer> deleteReturningRoom(int studentId);
+    CompletableFuture<Boolean> changeRoomNumber(int roomId, String newNumber);
+
+    CompletableFuture<Student> getStudent(int studentId);
+    CompletableFuture<Student> getStudentByRollNo(String rollNo);
+    CompletableFuture<Student> getStudentByEmail(String email);
+    CompletableFuture<Room> getAllocatedRoomForStudent(int studentId);
+    CompletableFuture<List<Student>> getAllStudents();
+    CompletableFuture<List<Room>> getAllRooms();
+    CompletableFuture<List<Room>> getAvailableRooms();
+    CompletableFuture<Map<Integer, Integer>> getAllAllocations();
+    CompletableFuture<Room> findFirstAvailableRoom();
+    CompletableFuture<Room> findBestFitRoom(int beds);
+    CompletableFuture<Long> countFreeBeds();
+    CompletableFuture<List<RoomWithOccupants>> getRoomsWithOccupants();
+    CompletableFuture<List<StudentWithRoom>> getStudentsWithRooms();
+}
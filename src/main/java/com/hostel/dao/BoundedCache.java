@@ -0,0 +1,117 @@
+package com.hostel.dao;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Size-bounded segmented LRU cache with optional time-to-live. New entries start in a probation
+ * segment and are promoted to a protected segment (80% of the capacity) on their second hit, so a
+ * burst of one-off lookups evicts other one-offs instead of the frequently used entries.
+ *
+ * <p>Fills are guarded by a stamp: take {@link #stamp()} before reading the backing store and
+ * pass it to {@link #putIfFresh}; the value is dropped if an invalidation happened in between,
+ * so a slow reader cannot re-cache data a concurrent writer just invalidated.
+ */
+public class BoundedCache<K, V> {
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) { this.value = value; this.expiresAt = expiresAt; }
+    }
+
+    private final int maxSize;
+    private final int protectedMax;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Entry<V>> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    private long invalidations;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    /** @param ttlMillis time to live per entry, or 0 to keep entries until evicted or invalidated */
+    public BoundedCache(int maxSize, long ttlMillis) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be at least 1");
+        this.maxSize = maxSize;
+        this.protectedMax = Math.max(1, maxSize * 4 / 5);
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> e = protectedSegment.get(key);
+        if (e == null) {
+            e = probation.remove(key);
+            if (e != null && !expired(e)) {
+                protectedSegment.put(key, e);
+                if (protectedSegment.size() > protectedMax) {
+                    // demote the least recently used protected entry back to probation
+                    Iterator<Map.Entry<K, Entry<V>>> it = protectedSegment.entrySet().iterator();
+                    Map.Entry<K, Entry<V>> lru = it.next();
+                    it.remove();
+                    probation.put(lru.getKey(), lru.getValue());
+                }
+            }
+        }
+        if (e == null) {
+            misses++;
+            return null;
+        }
+        if (expired(e)) {
+            protectedSegment.remove(key);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return e.value;
+    }
+
+    private boolean expired(Entry<V> e) {
+        return ttlNanos > 0 && System.nanoTime() - e.expiresAt > 0;
+    }
+
+    public synchronized long stamp() { return invalidations; }
+
+    public synchronized void put(K key, V value) {
+        Entry<V> e = new Entry<>(value, ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0);
+        if (protectedSegment.containsKey(key)) {
+            protectedSegment.put(key, e);
+            return;
+        }
+        probation.put(key, e);
+        while (probation.size() + protectedSegment.size() > maxSize) {
+            LinkedHashMap<K, Entry<V>> victims = probation.isEmpty() ? protectedSegment : probation;
+            Iterator<K> it = victims.keySet().iterator();
+            it.next();
+            it.remove();
+            evictions++;
+        }
+    }
+
+    /** Caches {@code value} unless something was invalidated since {@code stamp}. */
+    public synchronized void putIfFresh(K key, V value, long stamp) {
+        if (stamp == invalidations) put(key, value);
+    }
+
+    /** Returns the removed value, if it was cached. */
+    public synchronized V invalidate(K key) {
+        invalidations++;
+        Entry<V> e = probation.remove(key);
+        if (e == null) e = protectedSegment.remove(key);
+        return e == null ? null : e.value;
+    }
+
+    public synchronized void invalidateAll() {
+        invalidations++;
+        probation.clear();
+        protectedSegment.clear();
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(probation.size() + protectedSegment.size(), hits, misses, evictions, expirations);
+    }
+}
@@ -0,0 +1,48 @@
+package com.hostel.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk write. Rows are numbered from 0 in input order; each row either
+ * gets the generated id or a {@link RowError}, and a bad row never aborts the load.
+ */
+public class BulkResult {
+    public static class RowError {
+        private final int row;
+        private final String message;
+
+        public RowError(int row, String message) { this.row = row; this.message = message; }
+
+        public int getRow() { return row; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() { return "row " + row + ": " + message; }
+    }
+
+    private final List<Integer> ids = new ArrayList<>();
+    private final List<RowError> errors = new ArrayList<>();
+
+    /** Registers the next input row and returns its index. */
+    public int addRow() {
+        ids.add(-1);
+        return ids.size() - 1;
+    }
+
+    public void succeeded(int row, int id) { ids.set(row, id); }
+
+    public void failed(int row, String message) {
+        ids.set(row, -1);
+        errors.add(new RowError(row, message));
+    }
+
+    public int getRowCount() { return ids.size(); }
+    public int getSucceeded() { return ids.size() - errors.size(); }
+    public int getFailed() { return errors.size(); }
+
+    /** Generated id per row, -1 for rejected rows. */
+    public List<Integer> getIds() { return Collections.unmodifiableList(ids); }
+    public List<RowError> getErrors() { return Collections.unmodifiableList(errors); }
+}
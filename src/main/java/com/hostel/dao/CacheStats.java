@@ -0,0 +1,31 @@
+package com.hostel.dao;
+
+/** Point-in-time counters of a {@link BoundedCache}. */
+public class CacheStats {
+    private final int size;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+
+    public CacheStats(int size, long hits, long misses, long evictions, long expirations) {
+        this.size = size; this.hits = hits; this.misses = misses; this.evictions = evictions; this.expirations = expirations;
+    }
+
+    public int getSize() { return size; }
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public long getEvictions() { return evictions; }
+    public long getExpirations() { return expirations; }
+
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("size=%d hits=%d misses=%d hitRate=%.1f%% evictions=%d expirations=%d",
+                size, hits, misses, getHitRate() * 100, evictions, expirations);
+    }
+}
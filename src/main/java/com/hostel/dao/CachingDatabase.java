@@ -0,0 +1,290 @@
+package com.hostel.dao;
+
+import com.hostel.exception.DatabaseException;
+import com.hostel.exception.InvalidInputException;
+import com.hostel.model.Room;
+import com.hostel.model.Student;
+import com.hostel.model.Transfer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-through cache in front of any store for the login path: students by id, rooms by id and
+ * each student's room id (including "no room"), plus the student id behind each roll number and
+ * email, resolved through the id cache. Every write that can change one of those entries
+ * invalidates exactly the affected keys; a deallocation whose room is not cached invalidates all
+ * cached rooms since the room id is not known.
+ */
+public class CachingDatabase extends ForwardingDatabase {
+    private static final int NO_ROOM = -1;
+
+    private final BoundedCache<Integer, Student> students;
+    private final BoundedCache<Integer, Room> rooms;
+    private final BoundedCache<Integer, Integer> studentRooms;
+    private final BoundedCache<String, Integer> rollNos;
+    private final BoundedCache<String, Integer> emails;
+
+    /** @param ttlMillis time to live per entry, or 0 for none */
+    public CachingDatabase(DatabaseOperations delegate, int maxEntries, long ttlMillis) {
+        super(delegate);
+        this.students = new BoundedCache<>(maxEntries, ttlMillis);
+        this.rooms = new BoundedCache<>(maxEntries, ttlMillis);
+        this.studentRooms = new BoundedCache<>(maxEntries, ttlMillis);
+        this.rollNos = new BoundedCache<>(maxEntries, ttlMillis);
+        this.emails = new BoundedCache<>(maxEntries, ttlMillis);
+    }
+
+    public CacheStats getStudentCacheStats() { return students.getStats(); }
+    public CacheStats getRoomCacheStats() { return rooms.getStats(); }
+    public CacheStats getStudentRoomCacheStats() { return studentRooms.getStats(); }
+    public CacheStats getRollNoCacheStats() { return rollNos.getStats(); }
+    public CacheStats getEmailCacheStats() { return emails.getStats(); }
+
+    @Override
+    public Student getStudent(int studentId) throws DatabaseException {
+        Student s = students.get(studentId);
+        if (s != null) return s;
+        long stamp = students.stamp();
+        s = delegate.getStudent(studentId);
+        if (s != null) students.putIfFresh(studentId, s, stamp);
+        return s;
+    }
+
+    @Override
+    public Student getStudentByRollNo(String rollNo) throws DatabaseException {
+        if (rollNo == null) return null;
+        String key = rollNo.trim();
+        Integer id = rollNos.get(key);
+        if (id != null) {
+            Student s = getStudent(id);
+            if (StudentKeys.sameRollNo(s, key)) return s;
+            rollNos.invalidate(key);
+        }
+        long keyStamp = rollNos.stamp();
+        long studentStamp = students.stamp();
+        Student s = delegate.getStudentByRollNo(rollNo);
+        if (s != null) {
+            rollNos.putIfFresh(key, s.getId(), keyStamp);
+            students.putIfFresh(s.getId(), s, studentStamp);
+        }
+        return s;
+    }
+
+    @Override
+    public Student getStudentByEmail(String email) throws DatabaseException {
+        String key = StudentKeys.email(email);
+        if (key == null) return null;
+        Integer id = emails.get(key);
+        if (id != null) {
+            Student s = getStudent(id);
+            if (s != null && key.equals(StudentKeys.email(s.getEmail()))) return s;
+            emails.invalidate(key);
+        }
+        long keyStamp = emails.stamp();
+        long studentStamp = students.stamp();
+        Student s = delegate.getStudentByEmail(email);
+        if (s != null) {
+            emails.putIfFresh(key, s.getId(), keyStamp);
+            students.putIfFresh(s.getId(), s, studentStamp);
+        }
+        return s;
+    }
+
+    @Override
+    public Room getAllocatedRoomForStudent(int studentId) throws DatabaseException {
+        Integer rid = studentRooms.get(studentId);
+        if (rid != null) {
+            if (rid == NO_ROOM) return null;
+            Room r = rooms.get(rid);
+            if (r != null) return r;
+        }
+        long mappingStamp = studentRooms.stamp();
+        long roomStamp = rooms.stamp();
+        Room r = delegate.getAllocatedRoomForStudent(studentId);
+        studentRooms.putIfFresh(studentId, r == null ? NO_ROOM : r.getId(), mappingStamp);
+        if (r != null) rooms.putIfFresh(r.getId(), r, roomStamp);
+        return r;
+    }
+
+    @Override
+    public int addStudent(Student s) throws DatabaseException, InvalidInputException {
+        int id = delegate.addStudent(s);
+        forgetStudent(id);
+        forgetKeys(s);
+        return id;
+    }
+
+    @Override
+    public BulkResult addStudents(Iterable<Student> list) throws DatabaseException {
+        BulkResult result = delegate.addStudents(list);
+        for (int id : result.getIds()) {
+            if (id > 0) forgetStudent(id);
+        }
+        // the roster may be a one-shot iterable, so the added keys cannot be read back
+        rollNos.invalidateAll();
+        emails.invalidateAll();
+        return result;
+    }
+
+    @Override
+    public boolean allocateRoom(int studentId, int roomId) throws DatabaseException, InvalidInputException {
+        try {
+            return delegate.allocateRoom(studentId, roomId);
+        } finally {
+            studentRooms.invalidate(studentId);
+            rooms.invalidate(roomId);
+        }
+    }
+
+    @Override
+    public int allocateRooms(Map<Integer, Integer> assignments) throws DatabaseException, InvalidInputException {
+        try {
+            return delegate.allocateRooms(assignments);
+        } finally {
+            for (Map.Entry<Integer, Integer> e : assignments.entrySet()) {
+                studentRooms.invalidate(e.getKey());
+                rooms.invalidate(e.getValue());
+            }
+        }
+    }
+
+    @Override
+    public boolean deallocateStudent(int studentId) throws DatabaseException {
+        try {
+            return delegate.deallocateStudent(studentId);
+        } finally {
+            forgetAllocation(studentId);
+        }
+    }
+
+    @Override
+    public int deallocateReturningRoom(int studentId) throws DatabaseException {
+        try {
+            return delegate.deallocateReturningRoom(studentId);
+        } finally {
+            forgetAllocation(studentId);
+        }
+    }
+
+    @Override
+    public int deallocateStudents(Collection<Integer> studentIds) throws DatabaseException {
+        try {
+            return delegate.deallocateStudents(studentIds);
+        } finally {
+            for (int id : studentIds) forgetAllocation(id);
+        }
+    }
+
+    /** Which students lived there is not known, so every cached mapping goes. */
+    @Override
+    public int vacateRooms(Collection<Integer> roomIds) throws DatabaseException {
+        try {
+            return delegate.vacateRooms(roomIds);
+        } finally {
+            studentRooms.invalidateAll();
+            for (int id : roomIds) rooms.invalidate(id);
+        }
+    }
+
+    @Override
+    public int vacateByLabelPrefix(String prefix) throws DatabaseException, InvalidInputException {
+        try {
+            return delegate.vacateByLabelPrefix(prefix);
+        } finally {
+            studentRooms.invalidateAll();
+            rooms.invalidateAll();
+        }
+    }
+
+    @Override
+    public boolean transferStudent(int studentId, int toRoomId) throws DatabaseException, InvalidInputException {
+        try {
+            return delegate.transferStudent(studentId, toRoomId);
+        } finally {
+            forgetAllocation(studentId);
+            rooms.invalidate(toRoomId);
+        }
+    }
+
+    @Override
+    public boolean swapStudents(int studentA, int studentB) throws DatabaseException, InvalidInputException {
+        try {
+            return delegate.swapStudents(studentA, studentB);
+        } finally {
+            forgetAllocation(studentA);
+            forgetAllocation(studentB);
+        }
+    }
+
+    @Override
+    public int applyTransfers(List<Transfer> transfers) throws DatabaseException, InvalidInputException {
+        try {
+            return delegate.applyTransfers(transfers);
+        } finally {
+            for (Transfer t : transfers) {
+                forgetAllocation(t.getStudentId());
+                rooms.invalidate(t.getToRoomId());
+            }
+        }
+    }
+
+    @Override
+    public boolean deleteStudent(int studentId) throws DatabaseException {
+        try {
+            return delegate.deleteStudent(studentId);
+        } finally {
+            forgetDeleted(studentId);
+        }
+    }
+
+    @Override
+    public int deleteReturningRoom(int studentId) throws DatabaseException {
+        try {
+            return delegate.deleteReturningRoom(studentId);
+        } finally {
+            forgetDeleted(studentId);
+        }
+    }
+
+    @Override
+    public boolean changeRoomNumber(int roomId, String newNumber) throws DatabaseException, InvalidInputException {
+        try {
+            return delegate.changeRoomNumber(roomId, newNumber);
+        } finally {
+            rooms.invalidate(roomId);
+        }
+    }
+
+    @Override
+    public int addRoom(Room r) throws DatabaseException, InvalidInputException {
+        int id = delegate.addRoom(r);
+        rooms.invalidate(id);
+        return id;
+    }
+
+    private void forgetStudent(int studentId) {
+        students.invalidate(studentId);
+        studentRooms.invalidate(studentId);
+    }
+
+    private void forgetDeleted(int studentId) {
+        forgetAllocation(studentId);
+        Student gone = students.invalidate(studentId);
+        if (gone != null) forgetKeys(gone);
+    }
+
+    /** Uncached students' keys stay mapped; the lookup drops them when the id no longer matches. */
+    private void forgetKeys(Student s) {
+        if (s.getRollNo() != null) rollNos.invalidate(s.getRollNo().trim());
+        String email = StudentKeys.email(s.getEmail());
+        if (email != null) emails.invalidate(email);
+    }
+
+    private void forgetAllocation(int studentId) {
+        Integer rid = studentRooms.invalidate(studentId);
+        if (rid == null) rooms.invalidateAll();
+        else if (rid != NO_ROOM) rooms.invalidate(rid);
+    }
+}
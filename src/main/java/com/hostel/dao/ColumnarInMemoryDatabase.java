@@ -0,0 +1,524 @@
+package com.hostel.dao;
+
+import com.hostel.exception.DatabaseException;
+import com.hostel.exception.InvalidInputException;
+import com.hostel.model.Room;
+import com.hostel.model.Student;
+import com.hostel.model.Transfer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * {@link InMemoryDatabase} with primitive, column-oriented storage. Rooms are parallel
+ * {@code int[]} capacity/occupied columns plus a label column, indexed directly by room id.
+ * Students sit in slot columns found through an {@link IntIntHashMap} from id to slot, and
+ * allocations are an {@link IntIntHashMap} from student id to room id. Vacancies are bitsets
+ * (vacant rooms, and rooms by free-bed count), so allocating and deallocating only update
+ * array cells and bits and allocate nothing. {@link Room} and {@link Student} objects are
+ * built on read. Same semantics and seed data as InMemoryDatabase; not thread-safe.
+ */
+public class ColumnarInMemoryDatabase implements DatabaseOperations {
+    private static final int NONE = -1;
+    /** Rooms with this many free beds or more share the last bucket, which best fit scans. */
+    private static final int FREE_BUCKETS = 64;
+
+    // rooms, indexed by id; slot 0 unused
+    private int roomCount;
+    private int[] capacity = new int[16];
+    private int[] occupied = new int[16];
+    private String[] labels = new String[16];
+    private final Bits vacant = new Bits();
+    private final Bits[] byFree = new Bits[FREE_BUCKETS + 1];
+    private long freeBeds;
+
+    // students, by slot
+    private final IntIntHashMap slotOf;
+    private int[] ids;
+    private String[] names;
+    private String[] emails;
+    private String[] rollNos; // null when the roll number is just the id
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeSlotCount;
+    // unique email index, normalised email -> slot; roll numbers resolve through slotOf
+    private final HashMap<String, Integer> slotByEmail = new HashMap<>();
+
+    // student ids in ascending order for keyset pages; may hold deleted ids, rebuilt when out of order
+    private int[] sortedIds = new int[16];
+    private int sortedCount;
+    private boolean sortedValid = true;
+
+    private final IntIntHashMap allocations; // studentId -> roomId
+
+    /**
+     * Growable bitset. Unlike {@link java.util.BitSet}, clearing a bit is O(1) (BitSet rescans for
+     * its highest set word), and a lower bound on the first non-empty word keeps
+     * {@code nextSetBit(0)} from rescanning leading zeros.
+     */
+    private static final class Bits {
+        private long[] words = new long[4];
+        private int low; // no set bit below word index low
+
+        void set(int i) {
+            int w = i >>> 6;
+            if (w >= words.length) words = Arrays.copyOf(words, Math.max(words.length * 2, w + 1));
+            words[w] |= 1L << i;
+            if (w < low) low = w;
+        }
+
+        void clear(int i) {
+            int w = i >>> 6;
+            if (w < words.length) words[w] &= ~(1L << i);
+        }
+
+        int nextSetBit(int from) {
+            int w = from >>> 6;
+            if (w <= low) {
+                while (low < words.length && words[low] == 0) low++;
+                if (low == words.length) return -1;
+                if (w < low) return (low << 6) + Long.numberOfTrailingZeros(words[low]);
+            }
+            if (w >= words.length) return -1;
+            long word = words[w] & (-1L << from);
+            while (true) {
+                if (word != 0) return (w << 6) + Long.numberOfTrailingZeros(word);
+                if (++w == words.length) return -1;
+                word = words[w];
+            }
+        }
+    }
+
+    public ColumnarInMemoryDatabase() {
+        this(1024);
+    }
+
+    /** @param expectedStudents initial sizing, to avoid rehashing while loading */
+    public ColumnarInMemoryDatabase(int expectedStudents) {
+        int n = Math.max(16, expectedStudents);
+        slotOf = new IntIntHashMap(n, NONE);
+        allocations = new IntIntHashMap(n, NONE);
+        ids = new int[n];
+        names = new String[n];
+        emails = new String[n];
+        rollNos = new String[n];
+        // seed 4 rooms with capacity 2 each
+        for (int i = 1; i <= 4; i++) putRoom("R" + i, 2, 0);
+    }
+
+    @Override
+    public void connect() throws DatabaseException {
+        // in-memory has no external connection
+    }
+
+    // ---- rooms ----
+
+    private int putRoom(String label, int cap, int occ) {
+        int id = ++roomCount;
+        if (id >= capacity.length) {
+            int n = capacity.length * 2;
+            capacity = Arrays.copyOf(capacity, n);
+            occupied = Arrays.copyOf(occupied, n);
+            labels = Arrays.copyOf(labels, n);
+        }
+        capacity[id] = cap;
+        occupied[id] = occ;
+        labels[id] = label;
+        int free = Math.max(0, cap - occ);
+        freeBeds += free;
+        link(id, free);
+        return id;
+    }
+
+    private static int bucket(int free) {
+        return Math.min(free, FREE_BUCKETS);
+    }
+
+    private void link(int roomId, int free) {
+        if (free == 0) return;
+        vacant.set(roomId);
+        int b = bucket(free);
+        if (byFree[b] == null) byFree[b] = new Bits();
+        byFree[b].set(roomId);
+    }
+
+    private void unlink(int roomId, int free) {
+        if (free == 0) return;
+        vacant.clear(roomId);
+        byFree[bucket(free)].clear(roomId);
+    }
+
+    /** Moves a room's occupancy by {@code delta} and keeps the vacancy bits in step. */
+    private void occupy(int roomId, int delta) {
+        int before = Math.max(0, capacity[roomId] - occupied[roomId]);
+        occupied[roomId] = Math.max(0, occupied[roomId] + delta);
+        int after = Math.max(0, capacity[roomId] - occupied[roomId]);
+        if (before == after) return;
+        freeBeds += after - before;
+        unlink(roomId, before);
+        link(roomId, after);
+    }
+
+    private boolean roomExists(int roomId) {
+        return roomId >= 1 && roomId <= roomCount;
+    }
+
+    private Room room(int id) {
+        return new Room(id, labels[id], capacity[id], occupied[id]);
+    }
+
+    @Override
+    public int addRoom(Room r) throws DatabaseException, InvalidInputException {
+        if (r.getNumber() == null || r.getNumber().isBlank()) throw new InvalidInputException("Room label required");
+        return putRoom(r.getNumber(), r.getCapacity(), r.getOccupied());
+    }
+
+    @Override
+    public boolean changeRoomNumber(int roomId, String newNumber) throws DatabaseException, InvalidInputException {
+        if (!roomExists(roomId)) throw new InvalidInputException("Room not found");
+        labels[roomId] = newNumber;
+        return true;
+    }
+
+    @Override
+    public List<Room> getAllRooms() throws DatabaseException {
+        List<Room> list = new ArrayList<>(roomCount);
+        for (int id = 1; id <= roomCount; id++) list.add(room(id));
+        return list;
+    }
+
+    @Override
+    public List<Room> getAvailableRooms() throws DatabaseException {
+        List<Room> list = new ArrayList<>();
+        for (int id = vacant.nextSetBit(1); id >= 0; id = vacant.nextSetBit(id + 1)) list.add(room(id));
+        return list;
+    }
+
+    @Override
+    public Room findFirstAvailableRoom() throws DatabaseException {
+        int id = vacant.nextSetBit(1);
+        return id < 0 ? null : room(id);
+    }
+
+    @Override
+    public Room findBestFitRoom(int beds) throws DatabaseException {
+        for (int b = Math.max(1, beds); b < FREE_BUCKETS; b++) {
+            if (byFree[b] == null) continue;
+            int id = byFree[b].nextSetBit(0);
+            if (id >= 0) return room(id);
+        }
+        Bits big = byFree[FREE_BUCKETS];
+        if (big == null) return null;
+        int best = NONE, bestFree = Integer.MAX_VALUE;
+        for (int id = big.nextSetBit(0); id >= 0; id = big.nextSetBit(id + 1)) {
+            int free = capacity[id] - occupied[id];
+            if (free >= beds && free < bestFree) {
+                best = id;
+                bestFree = free;
+            }
+        }
+        return best == NONE ? null : room(best);
+    }
+
+    @Override
+    public long countFreeBeds() throws DatabaseException {
+        return freeBeds;
+    }
+
+    @Override
+    public Iterator<Room> availableRooms() throws DatabaseException {
+        return new Iterator<Room>() {
+            private int next = vacant.nextSetBit(1);
+
+            @Override
+            public boolean hasNext() { return next >= 0; }
+
+            @Override
+            public Room next() {
+                if (next < 0) throw new NoSuchElementException();
+                Room r = room(next);
+                next = vacant.nextSetBit(next + 1);
+                return r;
+            }
+        };
+    }
+
+    @Override
+    public List<Room> getRoomsPage(int afterId, int limit) throws DatabaseException {
+        List<Room> out = new ArrayList<>();
+        for (int id = Math.max(1, afterId + 1); id <= roomCount && out.size() < limit; id++) out.add(room(id));
+        return out;
+    }
+
+    // ---- students ----
+
+    private Student student(int slot) {
+        int id = ids[slot];
+        Student s = new Student(names[slot], emails[slot], rollNos[slot] == null ? Integer.toString(id) : rollNos[slot]);
+        s.setId(id);
+        return s;
+    }
+
+    @Override
+    public int addStudent(Student s) throws DatabaseException, InvalidInputException {
+        if (s.getName() == null || s.getName().isBlank()) throw new InvalidInputException("Name required");
+        if (s.getRollNo() == null || s.getRollNo().isBlank()) throw new InvalidInputException("Roll number required");
+        int id;
+        try {
+            id = Integer.parseInt(s.getRollNo());
+        } catch (NumberFormatException e) {
+            throw new InvalidInputException("Roll number must be numeric and will be used as student ID");
+        }
+        if (slotOf.containsKey(id)) throw new InvalidInputException("Student with this roll number already exists");
+        String email = StudentKeys.email(s.getEmail());
+        if (email != null && slotByEmail.containsKey(email)) throw new InvalidInputException("Student with this email already exists");
+        s.setId(id);
+        int slot = freeSlotCount > 0 ? freeSlots[--freeSlotCount] : newSlot();
+        if (email != null) slotByEmail.put(email, slot);
+        ids[slot] = id;
+        names[slot] = s.getName();
+        emails[slot] = s.getEmail();
+        rollNos[slot] = s.getRollNo().equals(Integer.toString(id)) ? null : s.getRollNo();
+        slotOf.put(id, slot);
+        if (sortedValid && (sortedCount == 0 || id > sortedIds[sortedCount - 1])) {
+            if (sortedCount == sortedIds.length) sortedIds = Arrays.copyOf(sortedIds, sortedCount * 2);
+            sortedIds[sortedCount++] = id;
+        } else {
+            sortedValid = false;
+        }
+        return id;
+    }
+
+    private int newSlot() {
+        if (slotCount == ids.length) {
+            int n = ids.length * 2;
+            ids = Arrays.copyOf(ids, n);
+            names = Arrays.copyOf(names, n);
+            emails = Arrays.copyOf(emails, n);
+            rollNos = Arrays.copyOf(rollNos, n);
+        }
+        return slotCount++;
+    }
+
+    @Override
+    public Student getStudent(int studentId) throws DatabaseException {
+        int slot = slotOf.get(studentId);
+        return slot == NONE ? null : student(slot);
+    }
+
+    @Override
+    public Student getStudentByRollNo(String rollNo) throws DatabaseException {
+        Integer id = StudentKeys.idOf(rollNo);
+        int slot = id == null ? NONE : slotOf.get(id);
+        if (slot == NONE) return null;
+        String stored = rollNos[slot] == null ? Integer.toString(id) : rollNos[slot];
+        return stored.trim().equals(rollNo.trim()) ? student(slot) : null;
+    }
+
+    @Override
+    public Student getStudentByEmail(String email) throws DatabaseException {
+        String key = StudentKeys.email(email);
+        Integer slot = key == null ? null : slotByEmail.get(key);
+        return slot == null ? null : student(slot);
+    }
+
+    @Override
+    public boolean deleteStudent(int studentId) throws DatabaseException {
+        return deleteReturningRoom(studentId) >= 0;
+    }
+
+    @Override
+    public int deleteReturningRoom(int studentId) throws DatabaseException {
+        int slot = slotOf.remove(studentId);
+        if (slot == NONE) return -1;
+        int rid = deallocateReturningRoom(studentId);
+        String email = StudentKeys.email(emails[slot]);
+        if (email != null) slotByEmail.remove(email);
+        names[slot] = null;
+        emails[slot] = null;
+        rollNos[slot] = null;
+        if (freeSlotCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+        freeSlots[freeSlotCount++] = slot;
+        // sortedIds keeps the deleted id; drop the list once stale ids dominate it
+        if (sortedCount > 2 * slotOf.size() + 64) sortedValid = false;
+        return rid;
+    }
+
+    @Override
+    public List<Student> getAllStudents() throws DatabaseException {
+        List<Student> list = new ArrayList<>(slotOf.size());
+        slotOf.forEach((id, slot) -> list.add(student(slot)));
+        return list;
+    }
+
+    private void ensureSorted() {
+        if (sortedValid) return;
+        if (sortedIds.length < slotOf.size()) sortedIds = new int[Math.max(16, slotOf.size())];
+        sortedCount = 0;
+        slotOf.forEach((id, slot) -> sortedIds[sortedCount++] = id);
+        Arrays.sort(sortedIds, 0, sortedCount);
+        sortedValid = true;
+    }
+
+    /** Index in sortedIds of the first id greater than {@code afterId}. */
+    private int firstAfter(int afterId) {
+        int i = Arrays.binarySearch(sortedIds, 0, sortedCount, afterId);
+        return i >= 0 ? i + 1 : -(i + 1);
+    }
+
+    @Override
+    public List<Student> getStudentsPage(int afterId, int limit) throws DatabaseException {
+        ensureSorted();
+        List<Student> out = new ArrayList<>(Math.min(limit, slotOf.size()));
+        for (int i = firstAfter(afterId); i < sortedCount && out.size() < limit; i++) {
+            int slot = slotOf.get(sortedIds[i]);
+            if (slot != NONE) out.add(student(slot));
+        }
+        return out;
+    }
+
+    // ---- allocations ----
+
+    @Override
+    public boolean allocateRoom(int studentId, int roomId) throws DatabaseException, InvalidInputException {
+        if (!slotOf.containsKey(studentId)) throw new InvalidInputException("Student not found");
+        if (!roomExists(roomId)) throw new InvalidInputException("Room not found");
+        if (allocations.containsKey(studentId)) throw new InvalidInputException("Student already allocated to a room");
+        if (occupied[roomId] >= capacity[roomId]) return false;
+        occupy(roomId, 1);
+        allocations.put(studentId, roomId);
+        return true;
+    }
+
+    @Override
+    public int allocateRooms(Map<Integer, Integer> assignments) throws DatabaseException, InvalidInputException {
+        IntIntHashMap perRoom = new IntIntHashMap(assignments.size(), 0);
+        for (Map.Entry<Integer, Integer> e : assignments.entrySet()) {
+            int sid = e.getKey(), rid = e.getValue();
+            if (!slotOf.containsKey(sid)) throw new InvalidInputException("Student not found: " + sid);
+            if (allocations.containsKey(sid)) throw new InvalidInputException("Student already allocated to a room: " + sid);
+            if (!roomExists(rid)) throw new InvalidInputException("Room not found: " + rid);
+            perRoom.put(rid, perRoom.get(rid) + 1);
+        }
+        InvalidInputException[] full = new InvalidInputException[1];
+        perRoom.forEach((rid, n) -> {
+            if (full[0] == null && occupied[rid] + n > capacity[rid]) {
+                full[0] = new InvalidInputException("Room " + labels[rid] + " does not have " + n + " free beds");
+            }
+        });
+        if (full[0] != null) throw full[0];
+        perRoom.forEach(this::occupy);
+        for (Map.Entry<Integer, Integer> e : assignments.entrySet()) allocations.put(e.getKey(), e.getValue());
+        return assignments.size();
+    }
+
+    @Override
+    public int applyTransfers(List<Transfer> transfers) throws DatabaseException, InvalidInputException {
+        TransferPlan plan = TransferPlan.resolve(transfers, sid -> {
+            int rid = allocations.get(sid);
+            return rid == NONE ? null : rid;
+        });
+        plan.checkCapacity(rid -> roomExists(rid) ? room(rid) : null);
+        for (int i = 0; i < plan.size; i++) allocations.put(plan.students[i], plan.to[i]);
+        for (Map.Entry<Integer, Integer> e : plan.delta.entrySet()) occupy(e.getKey(), e.getValue());
+        return plan.size;
+    }
+
+    @Override
+    public boolean deallocateStudent(int studentId) throws DatabaseException {
+        return deallocateReturningRoom(studentId) != 0;
+    }
+
+    @Override
+    public int deallocateReturningRoom(int studentId) throws DatabaseException {
+        int rid = allocations.remove(studentId);
+        if (rid == NONE) return 0;
+        if (roomExists(rid)) occupy(rid, -1);
+        return rid;
+    }
+
+    @Override
+    public int vacateRooms(Collection<Integer> roomIds) throws DatabaseException {
+        boolean[] vacate = new boolean[roomCount + 1];
+        boolean any = false;
+        for (int id : roomIds) {
+            if (roomExists(id)) any = vacate[id] = true;
+        }
+        if (!any) return 0;
+        // the map can't be mutated mid-visit, so collect the leavers first
+        int[][] gone = {new int[16]};
+        int[] n = new int[1];
+        allocations.forEach((sid, rid) -> {
+            if (rid < vacate.length && vacate[rid]) {
+                if (n[0] == gone[0].length) gone[0] = Arrays.copyOf(gone[0], n[0] * 2);
+                gone[0][n[0]++] = sid;
+            }
+        });
+        for (int i = 0; i < n[0]; i++) allocations.remove(gone[0][i]);
+        for (int id = 1; id <= roomCount; id++) {
+            if (vacate[id] && occupied[id] != 0) occupy(id, -occupied[id]);
+        }
+        return n[0];
+    }
+
+    @Override
+    public int vacateByLabelPrefix(String prefix) throws DatabaseException, InvalidInputException {
+        if (prefix == null || prefix.isEmpty()) throw new InvalidInputException("Label prefix required");
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 1; id <= roomCount; id++) {
+            if (labels[id] != null && labels[id].startsWith(prefix)) ids.add(id);
+        }
+        return vacateRooms(ids);
+    }
+
+    @Override
+    public Room getAllocatedRoomForStudent(int studentId) throws DatabaseException {
+        int rid = allocations.get(studentId);
+        return rid == NONE ? null : room(rid);
+    }
+
+    @Override
+    public Map<Integer, Integer> getAllAllocations() throws DatabaseException {
+        Map<Integer, Integer> out = new HashMap<>(allocations.size() * 4 / 3 + 1);
+        allocations.forEach(out::put);
+        return out;
+    }
+
+    @Override
+    public Map<Integer, Integer> getAllocationsPage(int afterStudentId, int limit) throws DatabaseException {
+        ensureSorted();
+        Map<Integer, Integer> out = new LinkedHashMap<>();
+        for (int i = firstAfter(afterStudentId); i < sortedCount && out.size() < limit; i++) {
+            int rid = allocations.get(sortedIds[i]);
+            if (rid != NONE) out.put(sortedIds[i], rid);
+        }
+        return out;
+    }
+
+    // streams walk the columns a page at a time so writes between pages do not break them
+    private static final int STREAM_PAGE = 1024;
+
+    @Override
+    public Stream<Student> streamStudents() throws DatabaseException {
+        return Pages.stream(this::getStudentsPage, Student::getId, STREAM_PAGE);
+    }
+
+    @Override
+    public Stream<Room> streamRooms() throws DatabaseException {
+        return Pages.stream(this::getRoomsPage, Room::getId, STREAM_PAGE);
+    }
+
+    @Override
+    public Stream<Map.Entry<Integer, Integer>> streamAllocations() throws DatabaseException {
+        Pages.Fetcher<Map.Entry<Integer, Integer>> fetcher = (after, limit) -> new ArrayList<>(getAllocationsPage(after, limit).entrySet());
+        return Pages.stream(fetcher, Map.Entry::getKey, STREAM_PAGE);
+    }
+}
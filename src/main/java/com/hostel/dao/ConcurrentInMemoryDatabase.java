@@ -0,0 +1,373 @@
+package com.hostel.dao;
+
+import com.hostel.exception.DatabaseException;
+import com.hostel.exception.InvalidInputException;
+import com.hostel.model.Room;
+import com.hostel.model.Student;
+import com.hostel.model.Transfer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe counterpart of {@link InMemoryDatabase} with no global lock. Each room keeps its
+ * occupancy in an {@link AtomicInteger} that is only raised by compare-and-set while below
+ * capacity, so no interleaving of {@link #allocateRoom} calls can overbook a room. A student's
+ * allocation is claimed with {@code putIfAbsent}; whichever step fails second undoes the first.
+ */
+public class ConcurrentInMemoryDatabase implements DatabaseOperations {
+    /** Live room state; {@link #snapshot()} hands out immutable {@link Room}s to callers. */
+    private static final class Slot {
+        final int id;
+        final int capacity;
+        volatile String number;
+        final AtomicInteger occupied;
+        // occupants a transfer let in without a counted bed (rings of full rooms); never shown to readers
+        final AtomicInteger owed = new AtomicInteger();
+
+        Slot(int id, String number, int capacity, int occupied) {
+            this.id = id;
+            this.number = number;
+            this.capacity = capacity;
+            this.occupied = new AtomicInteger(occupied);
+        }
+
+        boolean tryClaim() {
+            return tryClaim(1);
+        }
+
+        boolean tryClaim(int beds) {
+            while (true) {
+                int o = occupied.get();
+                if (o + beds > capacity) return false;
+                if (occupied.compareAndSet(o, o + beds)) return true;
+            }
+        }
+
+        void release() {
+            release(1);
+        }
+
+        /** Claims a bed, or when the room is full, counts the occupant in {@link #owed} instead. */
+        void claimOrOwe() {
+            if (!tryClaim()) owed.incrementAndGet();
+        }
+
+        /** Frees beds, settling anything {@link #owed} first so the counter stays the true occupancy. */
+        void release(int beds) {
+            while (beds > 0) {
+                int d = owed.get();
+                if (d == 0) break;
+                int pay = Math.min(d, beds);
+                if (owed.compareAndSet(d, d - pay)) beds -= pay;
+            }
+            if (beds == 0) return;
+            while (true) {
+                int o = occupied.get();
+                if (o == 0 || occupied.compareAndSet(o, Math.max(0, o - beds))) return;
+            }
+        }
+
+        boolean hasVacancy() { return occupied.get() < capacity; }
+
+        Room snapshot() { return new Room(id, number, capacity, occupied.get()); }
+    }
+
+    private final ConcurrentHashMap<Integer, Student> students = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Slot> rooms = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Integer> allocations = new ConcurrentHashMap<>(); // studentId -> roomId
+    // unique email index, claimed before the id so two concurrent adds cannot share an email
+    private final ConcurrentHashMap<String, Integer> byEmail = new ConcurrentHashMap<>();
+    // transfer batches run one at a time; allocate and deallocate never take it
+    private final Object transferLock = new Object();
+    private final AtomicInteger roomIdSeq = new AtomicInteger(1);
+
+    public ConcurrentInMemoryDatabase() {
+        this(true);
+    }
+
+    /** @param seed whether to add the four demo rooms InMemoryDatabase starts with */
+    ConcurrentInMemoryDatabase(boolean seed) {
+        if (!seed) return;
+        for (int i = 1; i <= 4; i++) {
+            int id = roomIdSeq.getAndIncrement();
+            rooms.put(id, new Slot(id, "R" + i, 2, 0));
+        }
+    }
+
+    // recovery hooks: put rows back with their original ids, bypassing validation and occupancy updates
+
+    void restoreRoom(int id, String number, int capacity, int occupied) {
+        rooms.put(id, new Slot(id, number, capacity, occupied));
+        roomIdSeq.accumulateAndGet(id + 1, Math::max);
+    }
+
+    void restoreStudent(Student s) {
+        students.put(s.getId(), s);
+        String email = StudentKeys.email(s.getEmail());
+        if (email != null) byEmail.put(email, s.getId());
+    }
+
+    void restoreAllocation(int studentId, int roomId) {
+        allocations.put(studentId, roomId);
+    }
+
+    @Override
+    public void connect() throws DatabaseException {
+        // in-memory has no external connection
+    }
+
+    @Override
+    public int addRoom(Room r) throws DatabaseException, InvalidInputException {
+        if (r.getNumber() == null || r.getNumber().isBlank()) throw new InvalidInputException("Room label required");
+        int id = roomIdSeq.getAndIncrement();
+        rooms.put(id, new Slot(id, r.getNumber(), r.getCapacity(), Math.min(r.getOccupied(), r.getCapacity())));
+        return id;
+    }
+
+    @Override
+    public int addStudent(Student s) throws DatabaseException, InvalidInputException {
+        if (s.getName() == null || s.getName().isBlank()) throw new InvalidInputException("Name required");
+        if (s.getRollNo() == null || s.getRollNo().isBlank()) throw new InvalidInputException("Roll number required");
+        int id;
+        try {
+            id = Integer.parseInt(s.getRollNo());
+        } catch (NumberFormatException e) {
+            throw new InvalidInputException("Roll number must be numeric and will be used as student ID");
+        }
+        s.setId(id);
+        String email = StudentKeys.email(s.getEmail());
+        if (email != null && byEmail.putIfAbsent(email, id) != null) throw new InvalidInputException("Student with this email already exists");
+        if (students.putIfAbsent(id, s) != null) {
+            if (email != null) byEmail.remove(email, id);
+            throw new InvalidInputException("Student with this roll number already exists");
+        }
+        return id;
+    }
+
+    @Override
+    public boolean allocateRoom(int studentId, int roomId) throws DatabaseException, InvalidInputException {
+        if (!students.containsKey(studentId)) throw new InvalidInputException("Student not found");
+        Slot r = rooms.get(roomId);
+        if (r == null) throw new InvalidInputException("Room not found");
+        if (allocations.containsKey(studentId)) throw new InvalidInputException("Student already allocated to a room");
+        if (!r.tryClaim()) return false;
+        if (allocations.putIfAbsent(studentId, roomId) != null) {
+            r.release();
+            throw new InvalidInputException("Student already allocated to a room");
+        }
+        if (!students.containsKey(studentId)) {
+            // lost a race with deleteStudent; undo unless its deallocation already did
+            if (allocations.remove(studentId, roomId)) r.release();
+            throw new InvalidInputException("Student not found");
+        }
+        return true;
+    }
+
+    /**
+     * Claims the beds each room gains on balance up front, which is the capacity check. Movers are
+     * then re-pointed with {@code replace(student, from, to)}, each only into a room where this
+     * batch holds a spare claimed bed, so a room's counter never falls below its true occupancy
+     * and concurrent allocations can never overbook it. Only a ring of moves between full rooms
+     * has to let one student in first; that occupant goes into the room's private {@code owed}
+     * count rather than pushing the counter past capacity, and the first bed freed there settles
+     * it. The beds still held at the end are those rooms lose on balance and are freed. A
+     * mover deallocated meanwhile rolls the whole batch back. Batches are serialized with each
+     * other so none can carry off a student another is still moving.
+     */
+    @Override
+    public int applyTransfers(List<Transfer> transfers) throws DatabaseException, InvalidInputException {
+        synchronized (transferLock) {
+            return transfer(transfers);
+        }
+    }
+
+    /** Swap resolved under the transfer lock, so no other batch moves either student in between. */
+    @Override
+    public boolean swapStudents(int studentA, int studentB) throws DatabaseException, InvalidInputException {
+        synchronized (transferLock) {
+            return transfer(TransferPlan.swap(this, studentA, studentB)) > 0;
+        }
+    }
+
+    private int transfer(List<Transfer> transfers) throws DatabaseException, InvalidInputException {
+        TransferPlan plan = TransferPlan.resolve(transfers, allocations::get);
+        Map<Integer, Integer> held = new HashMap<>(); // roomId -> beds counted for this batch but not occupied by anyone
+        Map<Integer, ArrayDeque<Integer>> arrivals = new HashMap<>(); // roomId -> movers still to go there
+        ArrayDeque<Integer> ready = new ArrayDeque<>(); // rooms that may have both a held bed and an arrival
+        try {
+            for (Map.Entry<Integer, Integer> e : plan.delta.entrySet()) {
+                if (e.getValue() <= 0) continue;
+                Slot r = rooms.get(e.getKey());
+                if (r == null) throw new InvalidInputException("Room not found: " + e.getKey());
+                if (!r.tryClaim(e.getValue())) throw new InvalidInputException("Room " + r.number + " does not have " + e.getValue() + " free beds");
+                held.put(e.getKey(), e.getValue());
+                ready.add(e.getKey());
+            }
+            for (int i = 0; i < plan.size; i++) arrivals.computeIfAbsent(plan.to[i], k -> new ArrayDeque<>()).add(i);
+            int[] order = new int[plan.size];
+            for (int moved = 0; moved < plan.size; moved++) {
+                Integer room = null;
+                while (room == null && !ready.isEmpty()) {
+                    int r = ready.pop();
+                    if (held.getOrDefault(r, 0) > 0 && arrivals.containsKey(r)) room = r;
+                }
+                if (room == null) {
+                    // only rings of full rooms are left
+                    room = arrivals.keySet().iterator().next();
+                    rooms.get(room).claimOrOwe();
+                    held.merge(room, 1, Integer::sum);
+                }
+                ArrayDeque<Integer> queue = arrivals.get(room);
+                int i = queue.poll();
+                if (queue.isEmpty()) arrivals.remove(room);
+                if (!allocations.replace(plan.students[i], plan.from[i], plan.to[i])) {
+                    undo(plan, order, moved, held);
+                    throw new InvalidInputException("Student " + plan.students[i] + " was deallocated during the transfers");
+                }
+                order[moved] = i;
+                held.merge(plan.to[i], -1, Integer::sum);
+                held.merge(plan.from[i], 1, Integer::sum);
+                ready.push(room);
+                ready.push(plan.from[i]);
+            }
+        } finally {
+            for (Map.Entry<Integer, Integer> e : held.entrySet()) {
+                if (e.getValue() > 0) rooms.get(e.getKey()).release(e.getValue());
+            }
+        }
+        return plan.size;
+    }
+
+    /** Moves the first {@code moved} movers of {@code order} back, newest first, keeping {@code held} exact. */
+    private void undo(TransferPlan plan, int[] order, int moved, Map<Integer, Integer> held) {
+        for (int k = moved - 1; k >= 0; k--) {
+            int i = order[k];
+            if (held.getOrDefault(plan.from[i], 0) == 0) {
+                // its old bed went to a later mover that has since left on its own
+                rooms.get(plan.from[i]).claimOrOwe();
+                held.merge(plan.from[i], 1, Integer::sum);
+            }
+            // a mover deallocated from its new room meanwhile stays out; that caller already freed the bed
+            if (allocations.replace(plan.students[i], plan.to[i], plan.from[i])) {
+                held.merge(plan.from[i], -1, Integer::sum);
+                held.merge(plan.to[i], 1, Integer::sum);
+            }
+        }
+    }
+
+    @Override
+    public List<Room> getAvailableRooms() throws DatabaseException {
+        List<Room> list = new ArrayList<>();
+        for (Slot r : rooms.values()) {
+            if (r.hasVacancy()) list.add(r.snapshot());
+        }
+        return list;
+    }
+
+    @Override
+    public boolean deleteStudent(int studentId) throws DatabaseException {
+        return deleteReturningRoom(studentId) >= 0;
+    }
+
+    @Override
+    public int deleteReturningRoom(int studentId) throws DatabaseException {
+        Student s = students.remove(studentId);
+        if (s == null) return -1;
+        String email = StudentKeys.email(s.getEmail());
+        if (email != null) byEmail.remove(email, studentId);
+        return deallocateReturningRoom(studentId);
+    }
+
+    @Override
+    public boolean deallocateStudent(int studentId) throws DatabaseException {
+        return deallocateReturningRoom(studentId) != 0;
+    }
+
+    @Override
+    public int deallocateReturningRoom(int studentId) throws DatabaseException {
+        Integer rid = allocations.remove(studentId);
+        if (rid == null) return 0;
+        Slot r = rooms.get(rid);
+        if (r != null) r.release();
+        return rid;
+    }
+
+    /**
+     * One pass over the allocations; each leaver is removed only if still in the room it was seen
+     * in, and releases its own bed, so concurrent allocations into these rooms stay counted.
+     */
+    @Override
+    public int vacateRooms(Collection<Integer> roomIds) throws DatabaseException {
+        Set<Integer> vacate = new HashSet<>(roomIds);
+        int done = 0;
+        for (Map.Entry<Integer, Integer> e : allocations.entrySet()) {
+            Integer rid = e.getValue();
+            if (!vacate.contains(rid) || !allocations.remove(e.getKey(), rid)) continue;
+            Slot r = rooms.get(rid);
+            if (r != null) r.release();
+            done++;
+        }
+        return done;
+    }
+
+    @Override
+    public boolean changeRoomNumber(int roomId, String newNumber) throws DatabaseException, InvalidInputException {
+        Slot r = rooms.get(roomId);
+        if (r == null) throw new InvalidInputException("Room not found");
+        r.number = newNumber;
+        return true;
+    }
+
+    @Override
+    public List<Room> getAllRooms() throws DatabaseException {
+        List<Room> list = new ArrayList<>(rooms.size());
+        for (Slot r : rooms.values()) list.add(r.snapshot());
+        return list;
+    }
+
+    @Override
+    public Student getStudent(int studentId) throws DatabaseException {
+        return students.get(studentId);
+    }
+
+    @Override
+    public Student getStudentByRollNo(String rollNo) throws DatabaseException {
+        Integer id = StudentKeys.idOf(rollNo);
+        Student s = id == null ? null : students.get(id);
+        return StudentKeys.sameRollNo(s, rollNo) ? s : null;
+    }
+
+    @Override
+    public Student getStudentByEmail(String email) throws DatabaseException {
+        String key = StudentKeys.email(email);
+        Integer id = key == null ? null : byEmail.get(key);
+        return id == null ? null : students.get(id);
+    }
+
+    @Override
+    public Room getAllocatedRoomForStudent(int studentId) throws DatabaseException {
+        Integer rid = allocations.get(studentId);
+        if (rid == null) return null;
+        Slot r = rooms.get(rid);
+        return r == null ? null : r.snapshot();
+    }
+
+    @Override
+    public List<Student> getAllStudents() throws DatabaseException {
+        return new ArrayList<>(students.values());
+    }
+
+    @Override
+    public Map<Integer, Integer> getAllAllocations() throws DatabaseException {
+        return new HashMap<>(allocations);
+    }
+}
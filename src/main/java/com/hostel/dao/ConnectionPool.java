@@ -0,0 +1,165 @@
+package com.hostel.dao;
+
+import com.hostel.exception.DatabaseException;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded JDBC connection pool. At most {@code maxSize} connections are leased at once; callers
+ * beyond that wait up to {@code maxWaitMillis} and then get a {@link DatabaseException}.
+ * Idle connections are reused most-recent-first, re-validated after sitting unused and
+ * closed once idle for longer than {@code idleTimeoutMillis}.
+ */
+public class ConnectionPool implements AutoCloseable {
+    private static final long VALIDATE_AFTER_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final int VALIDATE_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final String user;
+    private final String pass;
+    private final int maxSize;
+    private final long maxWaitNanos;
+    private final long idleTimeoutNanos;
+    private final int statementCacheSize;
+
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private volatile boolean closed;
+
+    private final LongAdder leases = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder totalWait = new LongAdder();
+    private final AtomicLong maxWait = new AtomicLong();
+    final LongAdder statementHits = new LongAdder();
+    final LongAdder statementMisses = new LongAdder();
+
+    public ConnectionPool(String url, String user, String pass, int maxSize, long maxWaitMillis,
+                          long idleTimeoutMillis, int statementCacheSize) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be at least 1");
+        this.url = url;
+        this.user = user;
+        this.pass = pass;
+        this.maxSize = maxSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /** Leases a connection; close the returned handle to give it back. */
+    public PooledConnection lease() throws DatabaseException {
+        if (closed) throw new DatabaseException("Connection pool is closed", null);
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                timeouts.increment();
+                throw new DatabaseException("Timed out after " + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos)
+                        + "ms waiting for one of " + maxSize + " connections", null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException("Interrupted while waiting for a connection", e);
+        }
+        try {
+            PooledConnection c = takeIdle();
+            if (c == null) c = open();
+            c.leased = true;
+            long waited = System.nanoTime() - start;
+            leases.increment();
+            totalWait.add(waited);
+            maxWait.accumulateAndGet(waited, Math::max);
+            return c;
+        } catch (DatabaseException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeIdle() {
+        PooledConnection c;
+        while ((c = idle.pollFirst()) != null) {
+            long idleFor = System.nanoTime() - c.lastUsed;
+            if (idleFor > idleTimeoutNanos) {
+                discard(c);
+            } else if (idleFor > VALIDATE_AFTER_NANOS && !isValid(c)) {
+                discard(c);
+            } else {
+                return c;
+            }
+        }
+        return null;
+    }
+
+    private PooledConnection open() throws DatabaseException {
+        try {
+            Connection raw = DriverManager.getConnection(url, user, pass);
+            created.increment();
+            return new PooledConnection(this, raw, statementCacheSize);
+        } catch (SQLException e) {
+            throw new DatabaseException("Unable to connect: " + e.getMessage(), e);
+        }
+    }
+
+    void release(PooledConnection c) {
+        try {
+            if (closed || c.connection().isClosed()) {
+                discard(c);
+                return;
+            }
+            if (!c.connection().getAutoCommit()) {
+                c.connection().rollback();
+                c.connection().setAutoCommit(true);
+            }
+            c.lastUsed = System.nanoTime();
+            idle.addFirst(c);
+            evictIdle();
+        } catch (SQLException e) {
+            discard(c);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /** Closes connections that have sat idle past the timeout; the oldest are at the tail. */
+    private void evictIdle() {
+        PooledConnection c;
+        while ((c = idle.peekLast()) != null && System.nanoTime() - c.lastUsed > idleTimeoutNanos) {
+            if (idle.removeLastOccurrence(c)) discard(c);
+        }
+    }
+
+    private static boolean isValid(PooledConnection c) {
+        try {
+            return c.connection().isValid(VALIDATE_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(PooledConnection c) {
+        evicted.increment();
+        c.closeQuietly();
+    }
+
+    public PoolStats getStats() {
+        int idleCount = idle.size();
+        return new PoolStats(maxSize - permits.availablePermits(), idleCount, leases.sum(), timeouts.sum(),
+                created.sum(), evicted.sum(), totalWait.sum(), maxWait.get(), statementHits.sum(), statementMisses.sum());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        PooledConnection c;
+        while ((c = idle.pollFirst()) != null) c.closeQuietly();
+    }
+}
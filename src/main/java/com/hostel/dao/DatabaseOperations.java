@@ -3,22 +3,286 @@ package com.hostel.dao;
 import com.hostel.exception.DatabaseException;
 import com.hostel.exception.InvalidInputException;
 import com.hostel.model.Room;
+import com.hostel.model.RoomWithOccupants;
 import com.hostel.model.Student;
+import com.hostel.model.StudentWithRoom;
+import com.hostel.model.Transfer;
 
 import java.util.List;
 
 public interface DatabaseOperations {
     void connect() throws DatabaseException;
     int addStudent(Student s) throws DatabaseException, InvalidInputException;
+
+    /**
+     * Adds many students in one pass. Invalid rows are reported in the result instead of
+     * aborting the load; a {@link DatabaseException} means the store itself failed.
+     */
+    default BulkResult addStudents(Iterable<Student> students) throws DatabaseException {
+        BulkResult result = new BulkResult();
+        for (Student s : students) {
+            int row = result.addRow();
+            try {
+                result.succeeded(row, addStudent(s));
+            } catch (InvalidInputException e) {
+                result.failed(row, e.getMessage());
+            }
+        }
+        return result;
+    }
     boolean allocateRoom(int studentId, int roomId) throws DatabaseException, InvalidInputException;
+
+    /**
+     * Applies a studentId -&gt; roomId plan and returns how many allocations were made.
+     * Implementations that can do so apply the plan all-or-nothing in one transaction and reject it
+     * with {@link InvalidInputException} when a room no longer has the beds the plan needs.
+     */
+    default int allocateRooms(java.util.Map<Integer,Integer> assignments) throws DatabaseException, InvalidInputException {
+        int done = 0;
+        for (java.util.Map.Entry<Integer,Integer> e : assignments.entrySet()) {
+            if (allocateRoom(e.getKey(), e.getValue())) done++;
+        }
+        return done;
+    }
     List<Room> getAvailableRooms() throws DatabaseException;
+
+    /** Lowest-id room with at least one free bed, or null when everything is full. */
+    default Room findFirstAvailableRoom() throws DatabaseException {
+        Room best = null;
+        for (Room r : getAvailableRooms()) {
+            if (best == null || r.getId() < best.getId()) best = r;
+        }
+        return best;
+    }
+
+    /** Room with the fewest free beds that still has at least {@code beds} free (lowest id on ties), or null. */
+    default Room findBestFitRoom(int beds) throws DatabaseException {
+        Room best = null;
+        for (Room r : getAvailableRooms()) {
+            int free = r.getCapacity() - r.getOccupied();
+            if (free < beds) continue;
+            int bestFree = best == null ? Integer.MAX_VALUE : best.getCapacity() - best.getOccupied();
+            if (free < bestFree || (free == bestFree && r.getId() < best.getId())) best = r;
+        }
+        return best;
+    }
+
+    /** Total free beds across all rooms. */
+    default long countFreeBeds() throws DatabaseException {
+        long free = 0;
+        for (Room r : getAvailableRooms()) free += r.getCapacity() - r.getOccupied();
+        return free;
+    }
+
+    /**
+     * Rooms with a free bed, in id order. Stores that index vacancies return a live view
+     * without copying; do not write to the store while iterating.
+     */
+    default java.util.Iterator<Room> availableRooms() throws DatabaseException {
+        List<Room> rooms = getAvailableRooms();
+        rooms.sort(java.util.Comparator.comparingInt(Room::getId));
+        return rooms.iterator();
+    }
     boolean deleteStudent(int studentId) throws DatabaseException;
     boolean deallocateStudent(int studentId) throws DatabaseException;
+
+    /**
+     * {@link #deallocateStudent} that also says which bed was freed: the room id, or 0 if the
+     * student had no room. Stores find the room while removing the allocation; this default reads
+     * it first.
+     */
+    default int deallocateReturningRoom(int studentId) throws DatabaseException {
+        Room r = getAllocatedRoomForStudent(studentId);
+        return deallocateStudent(studentId) && r != null ? r.getId() : 0;
+    }
+
+    /** {@link #deleteStudent} returning the room freed as {@link #deallocateReturningRoom} does, or -1 if there was no such student. */
+    default int deleteReturningRoom(int studentId) throws DatabaseException {
+        Room r = getAllocatedRoomForStudent(studentId);
+        if (!deleteStudent(studentId)) return -1;
+        return r == null ? 0 : r.getId();
+    }
+
+    /**
+     * Deallocates every listed student and returns how many had a room; unknown or unallocated ids
+     * are skipped. Stores that can do so run this as a few set-based statements per chunk of ids,
+     * each chunk committed on its own.
+     */
+    default int deallocateStudents(java.util.Collection<Integer> studentIds) throws DatabaseException {
+        int done = 0;
+        for (int id : studentIds) {
+            if (deallocateStudent(id)) done++;
+        }
+        return done;
+    }
+
+    /** Empties the listed rooms and returns how many students lost their bed; unknown ids are skipped. See {@link #deallocateStudents}. */
+    default int vacateRooms(java.util.Collection<Integer> roomIds) throws DatabaseException {
+        java.util.Set<Integer> rooms = new java.util.HashSet<>(roomIds);
+        List<Integer> students = new java.util.ArrayList<>();
+        for (java.util.Map.Entry<Integer,Integer> e : getAllAllocations().entrySet()) {
+            if (rooms.contains(e.getValue())) students.add(e.getKey());
+        }
+        return deallocateStudents(students);
+    }
+
+    /** Empties every room whose label starts with {@code prefix} (say a block, "B-"); see {@link #vacateRooms}. */
+    default int vacateByLabelPrefix(String prefix) throws DatabaseException, InvalidInputException {
+        if (prefix == null || prefix.isEmpty()) throw new InvalidInputException("Label prefix required");
+        List<Integer> ids = new java.util.ArrayList<>();
+        for (Room r : getAllRooms()) {
+            if (r.getNumber() != null && r.getNumber().startsWith(prefix)) ids.add(r.getId());
+        }
+        return vacateRooms(ids);
+    }
+
+    /**
+     * Moves an allocated student to another room in one step, so a failure never leaves the student
+     * without a bed. Returns false when the student is already in that room; a full or unknown room
+     * is rejected with {@link InvalidInputException}.
+     */
+    default boolean transferStudent(int studentId, int toRoomId) throws DatabaseException, InvalidInputException {
+        return applyTransfers(java.util.Collections.singletonList(new Transfer(studentId, toRoomId))) == 1;
+    }
+
+    /** Exchanges the rooms of two allocated students; works when both rooms are full. False if they share a room. */
+    default boolean swapStudents(int studentA, int studentB) throws DatabaseException, InvalidInputException {
+        return applyTransfers(TransferPlan.swap(this, studentA, studentB)) > 0;
+    }
+
+    /**
+     * Moves every listed student (each must be allocated, and listed once) and returns how many
+     * changed room. Only each room's net change has to fit, so moves around a ring of full rooms
+     * are accepted. The stores in this package apply the batch all-or-nothing; this default checks
+     * the plan up front and then moves students one at a time.
+     */
+    default int applyTransfers(List<Transfer> transfers) throws DatabaseException, InvalidInputException {
+        TransferPlan plan = TransferPlan.resolve(transfers, sid -> {
+            Room r = getAllocatedRoomForStudent(sid);
+            return r == null ? null : r.getId();
+        });
+        java.util.Map<Integer,Room> rooms = new java.util.HashMap<>();
+        for (Room r : getAllRooms()) rooms.put(r.getId(), r);
+        plan.checkCapacity(rooms::get);
+        // free every source bed first so moves around a ring of full rooms can land
+        for (int i = 0; i < plan.size; i++) deallocateStudent(plan.students[i]);
+        for (int i = 0; i < plan.size; i++) {
+            if (!allocateRoom(plan.students[i], plan.to[i])) throw new InvalidInputException("Room " + plan.to[i] + " filled up during the transfers");
+        }
+        return plan.size;
+    }
     boolean changeRoomNumber(int roomId, String newNumber) throws DatabaseException, InvalidInputException;
     List<Room> getAllRooms() throws DatabaseException;
     Student getStudent(int studentId) throws DatabaseException;
+
+    /**
+     * The student with exactly this roll number, or null. Roll numbers are unique in every store;
+     * the in-memory stores and MySQL answer from an index, this default scans.
+     */
+    default Student getStudentByRollNo(String rollNo) throws DatabaseException {
+        if (rollNo == null) return null;
+        String key = rollNo.trim();
+        for (Student s : getAllStudents()) {
+            if (s.getRollNo() != null && s.getRollNo().trim().equals(key)) return s;
+        }
+        return null;
+    }
+
+    /** The student with this email, compared ignoring case and surrounding spaces, or null; see {@link #getStudentByRollNo}. */
+    default Student getStudentByEmail(String email) throws DatabaseException {
+        String key = StudentKeys.email(email);
+        if (key == null) return null;
+        for (Student s : getAllStudents()) {
+            if (key.equals(StudentKeys.email(s.getEmail()))) return s;
+        }
+        return null;
+    }
     Room getAllocatedRoomForStudent(int studentId) throws DatabaseException;
     java.util.List<Student> getAllStudents() throws DatabaseException;
     int addRoom(Room r) throws DatabaseException, InvalidInputException;
     java.util.Map<Integer,Integer> getAllAllocations() throws DatabaseException;
+
+    /** Every room with its occupants, ordered by room id, built from one read of each table. */
+    default List<RoomWithOccupants> getRoomsWithOccupants() throws DatabaseException {
+        java.util.Map<Integer,Student> byId = new java.util.HashMap<>();
+        for (Student s : getAllStudents()) byId.put(s.getId(), s);
+        java.util.Map<Integer,List<Student>> byRoom = new java.util.HashMap<>();
+        for (java.util.Map.Entry<Integer,Integer> e : getAllAllocations().entrySet()) {
+            Student s = byId.get(e.getKey());
+            if (s != null) byRoom.computeIfAbsent(e.getValue(), k -> new java.util.ArrayList<>()).add(s);
+        }
+        List<Room> rooms = getAllRooms();
+        rooms.sort(java.util.Comparator.comparingInt(Room::getId));
+        List<RoomWithOccupants> out = new java.util.ArrayList<>(rooms.size());
+        for (Room r : rooms) out.add(new RoomWithOccupants(r, byRoom.getOrDefault(r.getId(), java.util.Collections.emptyList())));
+        return out;
+    }
+
+    /** Every student with their allocated room (or null), ordered by student id. */
+    default List<StudentWithRoom> getStudentsWithRooms() throws DatabaseException {
+        java.util.Map<Integer,Room> rooms = new java.util.HashMap<>();
+        for (Room r : getAllRooms()) rooms.put(r.getId(), r);
+        java.util.Map<Integer,Integer> allocs = getAllAllocations();
+        List<Student> students = getAllStudents();
+        students.sort(java.util.Comparator.comparingInt(Student::getId));
+        List<StudentWithRoom> out = new java.util.ArrayList<>(students.size());
+        for (Student s : students) {
+            Integer rid = allocs.get(s.getId());
+            out.add(new StudentWithRoom(s, rid == null ? null : rooms.get(rid)));
+        }
+        return out;
+    }
+
+    /**
+     * Keyset page: up to {@code limit} students with id greater than {@code afterId}, ordered by id.
+     * Start with {@code Integer.MIN_VALUE} and pass the last id seen to get the next page.
+     */
+    default List<Student> getStudentsPage(int afterId, int limit) throws DatabaseException {
+        return getAllStudents().stream().filter(s -> s.getId() > afterId)
+                .sorted(java.util.Comparator.comparingInt(Student::getId)).limit(limit).collect(java.util.stream.Collectors.toList());
+    }
+
+    /**
+     * {@link #getStudentsPage} with each student's room (or null). MySQL reads the page in one
+     * joined query; this default looks each room up, which the in-memory stores answer from a map.
+     */
+    default List<StudentWithRoom> getStudentsWithRoomsPage(int afterId, int limit) throws DatabaseException {
+        List<Student> page = getStudentsPage(afterId, limit);
+        List<StudentWithRoom> out = new java.util.ArrayList<>(page.size());
+        for (Student s : page) out.add(new StudentWithRoom(s, getAllocatedRoomForStudent(s.getId())));
+        return out;
+    }
+
+    /** Keyset page of rooms ordered by id; see {@link #getStudentsPage}. */
+    default List<Room> getRoomsPage(int afterId, int limit) throws DatabaseException {
+        return getAllRooms().stream().filter(r -> r.getId() > afterId)
+                .sorted(java.util.Comparator.comparingInt(Room::getId)).limit(limit).collect(java.util.stream.Collectors.toList());
+    }
+
+    /** Keyset page of studentId -&gt; roomId, in student id order; see {@link #getStudentsPage}. */
+    default java.util.Map<Integer,Integer> getAllocationsPage(int afterStudentId, int limit) throws DatabaseException {
+        java.util.Map<Integer,Integer> page = new java.util.LinkedHashMap<>();
+        getAllAllocations().entrySet().stream().filter(e -> e.getKey() > afterStudentId)
+                .sorted(java.util.Map.Entry.comparingByKey()).limit(limit).forEach(e -> page.put(e.getKey(), e.getValue()));
+        return page;
+    }
+
+    /**
+     * All students, read lazily where the store supports it. Close the stream (try-with-resources)
+     * to release any cursor it holds; read failures surface as
+     * {@link com.hostel.exception.UncheckedDatabaseException}.
+     */
+    default java.util.stream.Stream<Student> streamStudents() throws DatabaseException {
+        return getAllStudents().stream();
+    }
+
+    /** All rooms, read lazily where supported; see {@link #streamStudents}. */
+    default java.util.stream.Stream<Room> streamRooms() throws DatabaseException {
+        return getAllRooms().stream();
+    }
+
+    /** All studentId -&gt; roomId allocations, read lazily where supported; see {@link #streamStudents}. */
+    default java.util.stream.Stream<java.util.Map.Entry<Integer,Integer>> streamAllocations() throws DatabaseException {
+        return getAllAllocations().entrySet().stream();
+    }
 }
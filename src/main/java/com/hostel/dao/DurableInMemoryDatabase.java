@@ -0,0 +1,771 @@
+package com.hostel.dao;
+
+import com.hostel.exception.DatabaseException;
+import com.hostel.exception.InvalidInputException;
+import com.hostel.model.Room;
+import com.hostel.model.Student;
+import com.hostel.model.Transfer;
+import com.hostel.model.WaitlistEntry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * {@link ConcurrentInMemoryDatabase} that survives restarts. Every successful mutation is applied
+ * in memory and appended to a {@link WriteAheadLog} under one lock, so log order is apply order;
+ * the caller then waits for the fsync outside the lock, where concurrent writers share it. If an
+ * append or fsync fails, memory may hold a change the log does not, so every later write (and
+ * checkpoint) is rejected until the store is reopened from disk.
+ * Every {@code checkpointEvery} records a compact snapshot of the whole store is written in the
+ * background, after which the log segments it covers are deleted. {@link #open} loads the
+ * snapshot through a memory-mapped buffer and replays the remaining log records. The waitlist
+ * entries handed out by {@link #waitlistStore} are logged and snapshotted the same way.
+ *
+ * <p>Directory layout: {@code snapshot.bin} plus {@code wal-<first lsn>.log} segments.
+ */
+public class DurableInMemoryDatabase extends ForwardingDatabase implements AutoCloseable {
+    private static final int SNAPSHOT_MAGIC = 0x484F5354; // "HOST"
+    private static final int SNAPSHOT_VERSION = 2; // 2 added the waitlist; version 1 files still load
+    private static final String SNAPSHOT = "snapshot.bin";
+    private static final long DEFAULT_CHECKPOINT_EVERY = 100_000;
+
+    private static final byte ADD_STUDENT = 1, ADD_ROOM = 2, ALLOCATE = 3, DEALLOCATE = 4, DELETE_STUDENT = 5, RELABEL = 6,
+            TRANSFER = 7, VACATE_ROOMS = 8, DEALLOCATE_STUDENTS = 9, ALLOCATE_ROOMS = 10, WAITLIST_PUT = 11, WAITLIST_REMOVE = 12;
+
+    private final ConcurrentInMemoryDatabase store;
+    private final Path dir;
+    private final long checkpointEvery;
+    private final ExecutorService checkpointer;
+    private final AtomicBoolean checkpointing = new AtomicBoolean();
+    private final Object checkpointLock = new Object();
+    private WriteAheadLog wal; // guarded by this
+    private final Map<Integer, WaitlistEntry> waitlist = new HashMap<>(); // guarded by this
+    private volatile long snapshotLsn;
+    private volatile DatabaseException failure; // set once by the first failed append or fsync
+
+    private DurableInMemoryDatabase(ConcurrentInMemoryDatabase store, Path dir, long checkpointEvery) {
+        super(store);
+        this.store = store;
+        this.dir = dir;
+        this.checkpointEvery = checkpointEvery;
+        this.checkpointer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "snapshot-writer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static DurableInMemoryDatabase open(Path dir) throws DatabaseException {
+        return open(dir, DEFAULT_CHECKPOINT_EVERY);
+    }
+
+    /**
+     * Recovers the store kept in {@code dir}, creating it (seeded like {@link InMemoryDatabase})
+     * when the directory holds no data yet.
+     */
+    public static DurableInMemoryDatabase open(Path dir, long checkpointEvery) throws DatabaseException {
+        try {
+            Files.createDirectories(dir);
+            DurableInMemoryDatabase db = new DurableInMemoryDatabase(new ConcurrentInMemoryDatabase(false), dir, checkpointEvery);
+            long lsn = db.loadSnapshot();
+            db.snapshotLsn = lsn;
+            for (Path segment : segments(dir)) lsn = WriteAheadLog.replay(segment, lsn, db::redo);
+            boolean fresh = lsn == 0;
+            db.wal = new WriteAheadLog(dir.resolve(segmentName(lsn + 1)), lsn);
+            if (fresh) {
+                for (int i = 1; i <= 4; i++) db.addRoom(new Room(0, "R" + i, 2, 0));
+            }
+            return db;
+        } catch (IOException | InvalidInputException e) {
+            throw new DatabaseException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void connect() throws DatabaseException {
+        // recovered in open()
+    }
+
+    // ---- mutations: apply, log, then wait for the group fsync ----
+
+    private interface Mutation<T> {
+        T apply() throws DatabaseException, InvalidInputException;
+    }
+
+    /** Call under the lock before applying a mutation. */
+    private void checkWritable() throws DatabaseException {
+        DatabaseException f = failure;
+        if (f != null) throw new DatabaseException("Store is read-only after a write-ahead log failure; reopen it to recover (" + f.getMessage() + ")", f);
+    }
+
+    private long log(ByteBuffer record) throws DatabaseException {
+        try {
+            return wal.append(record);
+        } catch (IOException e) {
+            throw fail(new DatabaseException("Write-ahead log append failed: " + e.getMessage(), e));
+        }
+    }
+
+    private void awaitDurable(WriteAheadLog w, long lsn) throws DatabaseException {
+        try {
+            w.sync(lsn);
+        } catch (IOException e) {
+            throw fail(new DatabaseException("Write-ahead log sync failed: " + e.getMessage(), e));
+        }
+        if (lsn - snapshotLsn >= checkpointEvery && checkpointing.compareAndSet(false, true)) {
+            checkpointer.execute(() -> {
+                try {
+                    checkpoint();
+                } catch (DatabaseException e) {
+                    System.err.println("Snapshot failed: " + e.getMessage());
+                } finally {
+                    checkpointing.set(false);
+                }
+            });
+        }
+    }
+
+    private DatabaseException fail(DatabaseException e) {
+        if (failure == null) failure = e;
+        return e;
+    }
+
+    @Override
+    public int addStudent(Student s) throws DatabaseException, InvalidInputException {
+        WriteAheadLog w;
+        long lsn;
+        int id;
+        synchronized (this) {
+            checkWritable();
+            id = store.addStudent(s);
+            w = wal;
+            lsn = log(studentRecord(s));
+        }
+        awaitDurable(w, lsn);
+        return id;
+    }
+
+    /** One record per accepted row but a single fsync for the whole batch. */
+    @Override
+    public BulkResult addStudents(Iterable<Student> students) throws DatabaseException {
+        BulkResult result = new BulkResult();
+        WriteAheadLog w = null;
+        long lsn = 0;
+        for (Student s : students) {
+            int row = result.addRow();
+            synchronized (this) {
+                checkWritable();
+                try {
+                    result.succeeded(row, store.addStudent(s));
+                } catch (InvalidInputException e) {
+                    result.failed(row, e.getMessage());
+                    continue;
+                }
+                if (w != null && w != wal) awaitDurable(w, lsn); // a checkpoint rotated the log mid-batch
+                w = wal;
+                lsn = log(studentRecord(s));
+            }
+        }
+        if (w != null) awaitDurable(w, lsn);
+        return result;
+    }
+
+    @Override
+    public int addRoom(Room r) throws DatabaseException, InvalidInputException {
+        WriteAheadLog w;
+        long lsn;
+        int id;
+        synchronized (this) {
+            checkWritable();
+            id = store.addRoom(r);
+            w = wal;
+            lsn = log(roomRecord(id, r.getNumber(), r.getCapacity(), Math.min(r.getOccupied(), r.getCapacity())));
+        }
+        awaitDurable(w, lsn);
+        return id;
+    }
+
+    @Override
+    public boolean allocateRoom(int studentId, int roomId) throws DatabaseException, InvalidInputException {
+        return mutate(() -> store.allocateRoom(studentId, roomId), () -> pairRecord(ALLOCATE, studentId, roomId));
+    }
+
+    /**
+     * All-or-nothing: the whole plan is checked under the lock, so no other write can take the
+     * beds before it is applied, and it is logged as one record behind a single fsync.
+     */
+    @Override
+    public int allocateRooms(Map<Integer, Integer> assignments) throws DatabaseException, InvalidInputException {
+        if (assignments.isEmpty()) return 0;
+        WriteAheadLog w;
+        long lsn;
+        synchronized (this) {
+            checkWritable();
+            checkPlan(assignments);
+            List<Integer> done = new ArrayList<>();
+            try {
+                for (Map.Entry<Integer, Integer> e : assignments.entrySet()) {
+                    if (!store.allocateRoom(e.getKey(), e.getValue())) throw new InvalidInputException("Room " + e.getValue() + " filled up during the plan");
+                    done.add(e.getKey());
+                }
+            } catch (InvalidInputException e) {
+                for (int sid : done) store.deallocateStudent(sid);
+                throw e;
+            }
+            w = wal;
+            lsn = log(allocationsRecord(assignments));
+        }
+        awaitDurable(w, lsn);
+        return assignments.size();
+    }
+
+    /** Rejects the plan unless every student exists unallocated and every room has the beds it needs. */
+    private void checkPlan(Map<Integer, Integer> assignments) throws DatabaseException, InvalidInputException {
+        Map<Integer, Integer> perRoom = new HashMap<>();
+        for (Map.Entry<Integer, Integer> e : assignments.entrySet()) {
+            if (store.getStudent(e.getKey()) == null) throw new InvalidInputException("Student not found: " + e.getKey());
+            if (store.getAllocatedRoomForStudent(e.getKey()) != null) throw new InvalidInputException("Student already allocated to a room: " + e.getKey());
+            perRoom.merge(e.getValue(), 1, Integer::sum);
+        }
+        Map<Integer, Room> rooms = new HashMap<>();
+        for (Room r : store.getAllRooms()) rooms.put(r.getId(), r);
+        for (Map.Entry<Integer, Integer> e : perRoom.entrySet()) {
+            Room r = rooms.get(e.getKey());
+            if (r == null) throw new InvalidInputException("Room not found: " + e.getKey());
+            if (r.getOccupied() + e.getValue() > r.getCapacity()) {
+                throw new InvalidInputException("Room " + r.getNumber() + " does not have " + e.getValue() + " free beds");
+            }
+        }
+    }
+
+    @Override
+    public boolean deallocateStudent(int studentId) throws DatabaseException {
+        return deallocateReturningRoom(studentId) != 0;
+    }
+
+    @Override
+    public int deallocateReturningRoom(int studentId) throws DatabaseException {
+        return mutateReturning(() -> store.deallocateReturningRoom(studentId), 0, () -> intRecord(DEALLOCATE, studentId));
+    }
+
+    @Override
+    public int deallocateStudents(Collection<Integer> studentIds) throws DatabaseException {
+        return bulkUnchecked(DEALLOCATE_STUDENTS, studentIds);
+    }
+
+    @Override
+    public int vacateRooms(Collection<Integer> roomIds) throws DatabaseException {
+        return bulkUnchecked(VACATE_ROOMS, roomIds);
+    }
+
+    /** The prefix is resolved to room ids under the lock, and those ids are what gets logged. */
+    @Override
+    public int vacateByLabelPrefix(String prefix) throws DatabaseException, InvalidInputException {
+        if (prefix == null || prefix.isEmpty()) throw new InvalidInputException("Label prefix required");
+        return bulk(VACATE_ROOMS, () -> {
+            List<Integer> ids = new ArrayList<>();
+            for (Room r : store.getAllRooms()) {
+                if (r.getNumber() != null && r.getNumber().startsWith(prefix)) ids.add(r.getId());
+            }
+            return ids;
+        });
+    }
+
+    /** Applies a bulk write to the ids under the lock and logs them as one record when anything changed. */
+    private int bulk(byte type, Mutation<List<Integer>> ids) throws DatabaseException, InvalidInputException {
+        WriteAheadLog w;
+        long lsn;
+        int n;
+        synchronized (this) {
+            checkWritable();
+            List<Integer> list = ids.apply();
+            n = type == VACATE_ROOMS ? store.vacateRooms(list) : store.deallocateStudents(list);
+            if (n == 0) return 0;
+            w = wal;
+            lsn = log(idsRecord(type, list));
+        }
+        awaitDurable(w, lsn);
+        return n;
+    }
+
+    private int bulkUnchecked(byte type, Collection<Integer> ids) throws DatabaseException {
+        try {
+            return bulk(type, () -> new ArrayList<>(ids));
+        } catch (InvalidInputException e) {
+            throw new IllegalStateException(e); // bulk vacates never reject input
+        }
+    }
+
+    @Override
+    public boolean transferStudent(int studentId, int toRoomId) throws DatabaseException, InvalidInputException {
+        return transfer(() -> Collections.singletonList(new Transfer(studentId, toRoomId))) == 1;
+    }
+
+    @Override
+    public boolean swapStudents(int studentA, int studentB) throws DatabaseException, InvalidInputException {
+        return transfer(() -> TransferPlan.swap(store, studentA, studentB)) > 0;
+    }
+
+    @Override
+    public int applyTransfers(List<Transfer> transfers) throws DatabaseException, InvalidInputException {
+        return transfer(() -> transfers);
+    }
+
+    /** Resolves and applies a batch under the lock and logs it as one record, which replays all-or-nothing. */
+    private int transfer(Mutation<List<Transfer>> batch) throws DatabaseException, InvalidInputException {
+        WriteAheadLog w;
+        long lsn;
+        int moved;
+        synchronized (this) {
+            checkWritable();
+            List<Transfer> transfers = batch.apply();
+            moved = store.applyTransfers(transfers);
+            if (moved == 0) return 0;
+            w = wal;
+            lsn = log(transferRecord(transfers));
+        }
+        awaitDurable(w, lsn);
+        return moved;
+    }
+
+    @Override
+    public boolean deleteStudent(int studentId) throws DatabaseException {
+        return deleteReturningRoom(studentId) >= 0;
+    }
+
+    @Override
+    public int deleteReturningRoom(int studentId) throws DatabaseException {
+        return mutateReturning(() -> store.deleteReturningRoom(studentId), -1, () -> intRecord(DELETE_STUDENT, studentId));
+    }
+
+    @Override
+    public boolean changeRoomNumber(int roomId, String newNumber) throws DatabaseException, InvalidInputException {
+        return mutate(() -> store.changeRoomNumber(roomId, newNumber), () -> relabelRecord(roomId, newNumber));
+    }
+
+    private interface Record {
+        ByteBuffer encode();
+    }
+
+    /** Runs {@code m} and logs {@code r} only when it reports a change. */
+    private boolean mutate(Mutation<Boolean> m, Record r) throws DatabaseException, InvalidInputException {
+        WriteAheadLog w;
+        long lsn;
+        synchronized (this) {
+            checkWritable();
+            if (!m.apply()) return false;
+            w = wal;
+            lsn = log(r.encode());
+        }
+        awaitDurable(w, lsn);
+        return true;
+    }
+
+    /** Like {@link #mutate} for deallocate/delete, which report the freed room and never reject input; {@code unchanged} means no-op. */
+    private int mutateReturning(Mutation<Integer> m, int unchanged, Record r) throws DatabaseException {
+        WriteAheadLog w;
+        long lsn;
+        int result;
+        synchronized (this) {
+            checkWritable();
+            try {
+                result = m.apply();
+            } catch (InvalidInputException e) {
+                throw new IllegalStateException(e);
+            }
+            if (result == unchanged) return result;
+            w = wal;
+            lsn = log(r.encode());
+        }
+        awaitDurable(w, lsn);
+        return result;
+    }
+
+    /** A {@link WaitlistStore} kept in this store's log and snapshots, so the queues survive a restart. */
+    public WaitlistStore waitlistStore() {
+        return new WaitlistStore() {
+            @Override
+            public List<WaitlistEntry> loadAll() {
+                synchronized (DurableInMemoryDatabase.this) {
+                    return new ArrayList<>(waitlist.values());
+                }
+            }
+
+            @Override
+            public void put(WaitlistEntry e) throws DatabaseException {
+                waitlistWrite(() -> {
+                    waitlist.put(e.getStudentId(), e);
+                    return true;
+                }, () -> waitlistRecord(e));
+            }
+
+            @Override
+            public void remove(int studentId) throws DatabaseException {
+                waitlistWrite(() -> waitlist.remove(studentId) != null, () -> intRecord(WAITLIST_REMOVE, studentId));
+            }
+        };
+    }
+
+    private void waitlistWrite(Mutation<Boolean> m, Record r) throws DatabaseException {
+        try {
+            mutate(m, r);
+        } catch (InvalidInputException e) {
+            throw new IllegalStateException(e); // waitlist writes never reject input
+        }
+    }
+
+    // ---- checkpoints ----
+
+    /**
+     * Writes a snapshot of the current state and deletes the log segments it covers. Writers are
+     * only blocked while the state is copied and the log is rotated, not while the file is written.
+     * Checkpoints run one at a time, whether called here or started in the background.
+     */
+    public void checkpoint() throws DatabaseException {
+        synchronized (checkpointLock) {
+            writeCheckpoint();
+        }
+    }
+
+    private void writeCheckpoint() throws DatabaseException {
+        List<Room> rooms;
+        List<Student> students;
+        Map<Integer, Integer> allocations;
+        List<WaitlistEntry> waiting;
+        long lsn;
+        WriteAheadLog old;
+        try {
+            synchronized (this) {
+                checkWritable(); // a snapshot now would make the unlogged change durable
+                rooms = store.getAllRooms();
+                students = store.getAllStudents();
+                allocations = store.getAllAllocations();
+                waiting = new ArrayList<>(waitlist.values());
+                old = wal;
+                lsn = old.getLastLsn();
+                if (lsn == snapshotLsn) return;
+                wal = new WriteAheadLog(dir.resolve(segmentName(lsn + 1)), lsn);
+            }
+            old.close();
+            writeSnapshot(lsn, rooms, students, allocations, waiting);
+            snapshotLsn = lsn;
+            for (Path segment : segments(dir)) {
+                if (firstLsn(segment) <= lsn) Files.deleteIfExists(segment);
+            }
+        } catch (IOException e) {
+            throw new DatabaseException("Snapshot failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void writeSnapshot(long lsn, List<Room> rooms, List<Student> students, Map<Integer, Integer> allocations,
+                               List<WaitlistEntry> waiting) throws IOException {
+        Path tmp = dir.resolve(SNAPSHOT + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            SnapshotWriter out = new SnapshotWriter(ch);
+            out.ensure(20).putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putLong(lsn).putInt(rooms.size());
+            for (Room r : rooms) {
+                out.ensure(12).putInt(r.getId()).putInt(r.getCapacity()).putInt(r.getOccupied());
+                out.string(r.getNumber());
+            }
+            out.ensure(4).putInt(students.size());
+            for (Student s : students) {
+                out.ensure(4).putInt(s.getId());
+                out.string(s.getName());
+                out.string(s.getEmail());
+                out.string(s.getRollNo());
+            }
+            out.ensure(4).putInt(allocations.size());
+            for (Map.Entry<Integer, Integer> e : allocations.entrySet()) out.ensure(8).putInt(e.getKey()).putInt(e.getValue());
+            out.ensure(4).putInt(waiting.size());
+            for (WaitlistEntry e : waiting) {
+                out.ensure(20).putInt(e.getStudentId()).putInt(e.getRoomId() == null ? 0 : e.getRoomId()).putInt(e.getPriority()).putLong(e.getSeq());
+            }
+            out.finish();
+            ch.force(true);
+        }
+        Files.move(tmp, dir.resolve(SNAPSHOT), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /** Buffered channel writer that keeps a running CRC and appends it on {@link #finish}. */
+    private static final class SnapshotWriter {
+        private final FileChannel ch;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(1 << 20);
+        private final CRC32 crc = new CRC32();
+
+        SnapshotWriter(FileChannel ch) { this.ch = ch; }
+
+        ByteBuffer ensure(int n) throws IOException {
+            if (buf.remaining() < n) flush();
+            return buf;
+        }
+
+        void string(String s) throws IOException {
+            if (s == null) {
+                ensure(4).putInt(-1);
+                return;
+            }
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            ensure(4).putInt(b.length);
+            if (b.length > buf.capacity()) {
+                flush();
+                ByteBuffer big = ByteBuffer.wrap(b);
+                crc.update(big.duplicate());
+                while (big.hasRemaining()) ch.write(big);
+            } else {
+                ensure(b.length).put(b);
+            }
+        }
+
+        private void flush() throws IOException {
+            buf.flip();
+            crc.update(buf.duplicate());
+            while (buf.hasRemaining()) ch.write(buf);
+            buf.clear();
+        }
+
+        void finish() throws IOException {
+            flush();
+            buf.putInt((int) crc.getValue()).flip();
+            while (buf.hasRemaining()) ch.write(buf);
+        }
+    }
+
+    /** Restores {@code snapshot.bin} if present and returns the LSN it covers, else 0. */
+    private long loadSnapshot() throws IOException {
+        Path file = dir.resolve(SNAPSHOT);
+        if (!Files.exists(file)) return 0;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < 24) throw new IOException("Snapshot " + file + " is truncated");
+            MappedByteBuffer in = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32 crc = new CRC32();
+            crc.update(in.duplicate().limit((int) size - 4));
+            if ((int) crc.getValue() != in.getInt((int) size - 4)) throw new IOException("Snapshot " + file + " failed its checksum");
+            if (in.getInt() != SNAPSHOT_MAGIC) throw new IOException(file + " is not a snapshot");
+            int version = in.getInt();
+            if (version < 1 || version > SNAPSHOT_VERSION) throw new IOException("Unsupported snapshot version " + version);
+            long lsn = in.getLong();
+            for (int n = in.getInt(); n > 0; n--) {
+                int id = in.getInt(), capacity = in.getInt(), occupied = in.getInt();
+                store.restoreRoom(id, string(in), capacity, occupied);
+            }
+            for (int n = in.getInt(); n > 0; n--) {
+                int id = in.getInt();
+                Student s = new Student(string(in), string(in), string(in));
+                s.setId(id);
+                store.restoreStudent(s);
+            }
+            for (int n = in.getInt(); n > 0; n--) store.restoreAllocation(in.getInt(), in.getInt());
+            if (version >= 2) {
+                for (int n = in.getInt(); n > 0; n--) restoreWaitlistEntry(in);
+            }
+            return lsn;
+        }
+    }
+
+    // ---- log records ----
+
+    private void redo(long lsn, ByteBuffer in) throws IOException {
+        byte type = in.get();
+        try {
+            switch (type) {
+                case ADD_STUDENT: {
+                    int id = in.getInt();
+                    Student s = new Student(string(in), string(in), string(in));
+                    s.setId(id);
+                    store.restoreStudent(s);
+                    break;
+                }
+                case ADD_ROOM: {
+                    int id = in.getInt(), capacity = in.getInt(), occupied = in.getInt();
+                    store.restoreRoom(id, string(in), capacity, occupied);
+                    break;
+                }
+                case ALLOCATE:
+                    if (!store.allocateRoom(in.getInt(), in.getInt())) throw new InvalidInputException("Room is full");
+                    break;
+                case ALLOCATE_ROOMS:
+                    for (int n = in.getInt(); n > 0; n--) {
+                        if (!store.allocateRoom(in.getInt(), in.getInt())) throw new InvalidInputException("Room is full");
+                    }
+                    break;
+                case DEALLOCATE:
+                    store.deallocateStudent(in.getInt());
+                    break;
+                case DELETE_STUDENT:
+                    store.deleteStudent(in.getInt());
+                    break;
+                case RELABEL:
+                    store.changeRoomNumber(in.getInt(), string(in));
+                    break;
+                case TRANSFER: {
+                    List<Transfer> transfers = new ArrayList<>();
+                    for (int n = in.getInt(); n > 0; n--) transfers.add(new Transfer(in.getInt(), in.getInt()));
+                    store.applyTransfers(transfers);
+                    break;
+                }
+                case VACATE_ROOMS:
+                    store.vacateRooms(ints(in));
+                    break;
+                case DEALLOCATE_STUDENTS:
+                    store.deallocateStudents(ints(in));
+                    break;
+                case WAITLIST_PUT:
+                    restoreWaitlistEntry(in);
+                    break;
+                case WAITLIST_REMOVE:
+                    waitlist.remove(in.getInt());
+                    break;
+                default:
+                    throw new IOException("Unknown log record type " + type + " at lsn " + lsn);
+            }
+        } catch (DatabaseException | InvalidInputException e) {
+            throw new IOException("Log record " + lsn + " does not apply to the recovered state: " + e.getMessage(), e);
+        }
+    }
+
+    private static ByteBuffer studentRecord(Student s) {
+        byte[] name = bytes(s.getName()), email = bytes(s.getEmail()), roll = bytes(s.getRollNo());
+        ByteBuffer b = ByteBuffer.allocate(1 + 4 + 12 + len(name) + len(email) + len(roll));
+        b.put(ADD_STUDENT).putInt(s.getId());
+        put(b, name);
+        put(b, email);
+        put(b, roll);
+        return b.flip();
+    }
+
+    private static ByteBuffer roomRecord(int id, String number, int capacity, int occupied) {
+        byte[] label = bytes(number);
+        ByteBuffer b = ByteBuffer.allocate(1 + 12 + 4 + len(label));
+        b.put(ADD_ROOM).putInt(id).putInt(capacity).putInt(occupied);
+        put(b, label);
+        return b.flip();
+    }
+
+    private static ByteBuffer relabelRecord(int roomId, String number) {
+        byte[] label = bytes(number);
+        ByteBuffer b = ByteBuffer.allocate(1 + 4 + 4 + len(label));
+        b.put(RELABEL).putInt(roomId);
+        put(b, label);
+        return b.flip();
+    }
+
+    private static ByteBuffer transferRecord(List<Transfer> transfers) {
+        ByteBuffer b = ByteBuffer.allocate(1 + 4 + 8 * transfers.size());
+        b.put(TRANSFER).putInt(transfers.size());
+        for (Transfer t : transfers) b.putInt(t.getStudentId()).putInt(t.getToRoomId());
+        return b.flip();
+    }
+
+    private static ByteBuffer allocationsRecord(Map<Integer, Integer> assignments) {
+        ByteBuffer b = ByteBuffer.allocate(1 + 4 + 8 * assignments.size());
+        b.put(ALLOCATE_ROOMS).putInt(assignments.size());
+        for (Map.Entry<Integer, Integer> e : assignments.entrySet()) b.putInt(e.getKey()).putInt(e.getValue());
+        return b.flip();
+    }
+
+    /** Room 0 stands for "any room"; store ids start at 1. */
+    private static ByteBuffer waitlistRecord(WaitlistEntry e) {
+        ByteBuffer b = ByteBuffer.allocate(1 + 20);
+        b.put(WAITLIST_PUT).putInt(e.getStudentId()).putInt(e.getRoomId() == null ? 0 : e.getRoomId()).putInt(e.getPriority()).putLong(e.getSeq());
+        return b.flip();
+    }
+
+    private void restoreWaitlistEntry(ByteBuffer in) {
+        int studentId = in.getInt(), roomId = in.getInt(), priority = in.getInt();
+        waitlist.put(studentId, new WaitlistEntry(studentId, roomId == 0 ? null : roomId, priority, in.getLong()));
+    }
+
+    private static ByteBuffer idsRecord(byte type, List<Integer> ids) {
+        ByteBuffer b = ByteBuffer.allocate(1 + 4 + 4 * ids.size());
+        b.put(type).putInt(ids.size());
+        for (int id : ids) b.putInt(id);
+        return b.flip();
+    }
+
+    private static List<Integer> ints(ByteBuffer in) {
+        List<Integer> ids = new ArrayList<>();
+        for (int n = in.getInt(); n > 0; n--) ids.add(in.getInt());
+        return ids;
+    }
+
+    private static ByteBuffer pairRecord(byte type, int a, int b) {
+        return ByteBuffer.allocate(9).put(type).putInt(a).putInt(b).flip();
+    }
+
+    private static ByteBuffer intRecord(byte type, int a) {
+        return ByteBuffer.allocate(5).put(type).putInt(a).flip();
+    }
+
+    private static byte[] bytes(String s) {
+        return s == null ? null : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int len(byte[] b) {
+        return b == null ? 0 : b.length;
+    }
+
+    private static void put(ByteBuffer b, byte[] s) {
+        if (s == null) b.putInt(-1);
+        else b.putInt(s.length).put(s);
+    }
+
+    private static String string(ByteBuffer in) {
+        int n = in.getInt();
+        if (n < 0) return null;
+        byte[] b = new byte[n];
+        in.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    // ---- segments ----
+
+    private static String segmentName(long firstLsn) {
+        return String.format("wal-%020d.log", firstLsn);
+    }
+
+    private static long firstLsn(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(4, name.length() - 4));
+    }
+
+    private static List<Path> segments(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().matches("wal-\\d{20}\\.log"))
+                    .sorted()
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    /** Flushes and closes the log; the store must not be written afterwards. */
+    @Override
+    public void close() throws DatabaseException {
+        checkpointer.shutdown();
+        try {
+            synchronized (this) {
+                wal.close();
+            }
+        } catch (IOException e) {
+            throw new DatabaseException(e.getMessage(), e);
+        }
+    }
+}
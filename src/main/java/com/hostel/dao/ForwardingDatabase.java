@@ -0,0 +1,158 @@
+package com.hostel.dao;
+
+import com.hostel.exception.DatabaseException;
+import com.hostel.exception.InvalidInputException;
+import com.hostel.model.Room;
+import com.hostel.model.RoomWithOccupants;
+import com.hostel.model.Student;
+import com.hostel.model.StudentWithRoom;
+import com.hostel.model.Transfer;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Base for decorators: forwards every {@link DatabaseOperations} call, including the default
+ * methods, to the wrapped store so its own optimised versions are used. Subclasses override
+ * only what they intercept.
+ */
+public abstract class ForwardingDatabase implements DatabaseOperations {
+    protected final DatabaseOperations delegate;
+
+    protected ForwardingDatabase(DatabaseOperations delegate) { this.delegate = delegate; }
+
+    public DatabaseOperations getDelegate() { return delegate; }
+
+    @Override
+    public void connect() throws DatabaseException { delegate.connect(); }
+
+    @Override
+    public int addStudent(Student s) throws DatabaseException, InvalidInputException { return delegate.addStudent(s); }
+
+    @Override
+    public BulkResult addStudents(Iterable<Student> students) throws DatabaseException { return delegate.addStudents(students); }
+
+    @Override
+    public boolean allocateRoom(int studentId, int roomId) throws DatabaseException, InvalidInputException {
+        return delegate.allocateRoom(studentId, roomId);
+    }
+
+    @Override
+    public int allocateRooms(Map<Integer, Integer> assignments) throws DatabaseException, InvalidInputException {
+        return delegate.allocateRooms(assignments);
+    }
+
+    @Override
+    public List<Room> getAvailableRooms() throws DatabaseException { return delegate.getAvailableRooms(); }
+
+    @Override
+    public Room findFirstAvailableRoom() throws DatabaseException { return delegate.findFirstAvailableRoom(); }
+
+    @Override
+    public Room findBestFitRoom(int beds) throws DatabaseException { return delegate.findBestFitRoom(beds); }
+
+    @Override
+    public long countFreeBeds() throws DatabaseException { return delegate.countFreeBeds(); }
+
+    @Override
+    public Iterator<Room> availableRooms() throws DatabaseException { return delegate.availableRooms(); }
+
+    @Override
+    public boolean deleteStudent(int studentId) throws DatabaseException { return delegate.deleteStudent(studentId); }
+
+    @Override
+    public boolean deallocateStudent(int studentId) throws DatabaseException { return delegate.deallocateStudent(studentId); }
+
+    @Override
+    public int deallocateReturningRoom(int studentId) throws DatabaseException { return delegate.deallocateReturningRoom(studentId); }
+
+    @Override
+    public int deleteReturningRoom(int studentId) throws DatabaseException { return delegate.deleteReturningRoom(studentId); }
+
+    @Override
+    public int deallocateStudents(Collection<Integer> studentIds) throws DatabaseException { return delegate.deallocateStudents(studentIds); }
+
+    @Override
+    public int vacateRooms(Collection<Integer> roomIds) throws DatabaseException { return delegate.vacateRooms(roomIds); }
+
+    @Override
+    public int vacateByLabelPrefix(String prefix) throws DatabaseException, InvalidInputException { return delegate.vacateByLabelPrefix(prefix); }
+
+    @Override
+    public boolean transferStudent(int studentId, int toRoomId) throws DatabaseException, InvalidInputException {
+        return delegate.transferStudent(studentId, toRoomId);
+    }
+
+    @Override
+    public boolean swapStudents(int studentA, int studentB) throws DatabaseException, InvalidInputException {
+        return delegate.swapStudents(studentA, studentB);
+    }
+
+    @Override
+    public int applyTransfers(List<Transfer> transfers) throws DatabaseException, InvalidInputException { return delegate.applyTransfers(transfers); }
+
+    @Override
+    public boolean changeRoomNumber(int roomId, String newNumber) throws DatabaseException, InvalidInputException {
+        return delegate.changeRoomNumber(roomId, newNumber);
+    }
+
+    @Override
+    public List<Room> getAllRooms() throws DatabaseException { return delegate.getAllRooms(); }
+
+    @Override
+    public Student getStudent(int studentId) throws DatabaseException { return delegate.getStudent(studentId); }
+
+    @Override
+    public Student getStudentByRollNo(String rollNo) throws DatabaseException { return delegate.getStudentByRollNo(rollNo); }
+
+    @Override
+    public Student getStudentByEmail(String email) throws DatabaseException { return delegate.getStudentByEmail(email); }
+
+    @Override
+    public Room getAllocatedRoomForStudent(int studentId) throws DatabaseException {
+        return delegate.getAllocatedRoomForStudent(studentId);
+    }
+
+    @Override
+    public List<Student> getAllStudents() throws DatabaseException { return delegate.getAllStudents(); }
+
+    @Override
+    public int addRoom(Room r) throws DatabaseException, InvalidInputException { return delegate.addRoom(r); }
+
+    @Override
+    public Map<Integer, Integer> getAllAllocations() throws DatabaseException { return delegate.getAllAllocations(); }
+
+    @Override
+    public List<RoomWithOccupants> getRoomsWithOccupants() throws DatabaseException { return delegate.getRoomsWithOccupants(); }
+
+    @Override
+    public List<StudentWithRoom> getStudentsWithRooms() throws DatabaseException { return delegate.getStudentsWithRooms(); }
+
+    @Override
+    public List<Student> getStudentsPage(int afterId, int limit) throws DatabaseException { return delegate.getStudentsPage(afterId, limit); }
+
+    @Override
+    public List<StudentWithRoom> getStudentsWithRoomsPage(int afterId, int limit) throws DatabaseException {
+        return delegate.getStudentsWithRoomsPage(afterId, limit);
+    }
+
+    @Override
+    public List<Room> getRoomsPage(int afterId, int limit) throws DatabaseException { return delegate.getRoomsPage(afterId, limit); }
+
+    @Override
+    public Map<Integer, Integer> getAllocationsPage(int afterStudentId, int limit) throws DatabaseException {
+        return delegate.getAllocationsPage(afterStudentId, limit);
+    }
+
+    @Override
+    public Stream<Student> streamStudents() throws DatabaseException { return delegate.streamStudents(); }
+
+    @Override
+    public Stream<Room> streamRooms() throws DatabaseException { return delegate.streamRooms(); }
+
+    @Override
+    public Stream<Map.Entry<Integer, Integer>> streamAllocations() throws DatabaseException { return delegate.streamAllocations(); }
+}
@@ -4,27 +4,37 @@ import com.hostel.exception.DatabaseException;
 import com.hostel.exception.InvalidInputException;
 import com.hostel.model.Room;
 import com.hostel.model.Student;
+import com.hostel.model.Transfer;
 
 import java.util.*;
 
 public class InMemoryDatabase implements DatabaseOperations {
-    private final Map<Integer, Student> students = new HashMap<>();
-    private final Map<Integer, Room> rooms = new HashMap<>();
-    private final Map<Integer, Integer> allocations = new HashMap<>(); // studentId -> roomId
+    // sorted by id so keyset pages are a tailMap walk
+    private final TreeMap<Integer, Student> students = new TreeMap<>();
+    private final TreeMap<Integer, Room> rooms = new TreeMap<>();
+    private final TreeMap<Integer, Integer> allocations = new TreeMap<>(); // studentId -> roomId
+    private final VacancyIndex vacancies = new VacancyIndex();
+    // unique email index; roll numbers need none since the roll number is the id
+    private final HashMap<String, Integer> byEmail = new HashMap<>();
     private int roomIdSeq = 1;
 
     public InMemoryDatabase() {
         // seed 4 rooms with capacity 2 each
-        addRoom(new Room(0, "R1", 2, 0));
-        addRoom(new Room(0, "R2", 2, 0));
-        addRoom(new Room(0, "R3", 2, 0));
-        addRoom(new Room(0, "R4", 2, 0));
+        seedRoom(new Room(0, "R1", 2, 0));
+        seedRoom(new Room(0, "R2", 2, 0));
+        seedRoom(new Room(0, "R3", 2, 0));
+        seedRoom(new Room(0, "R4", 2, 0));
     }
 
-    private void addRoom(Room r) {
+    private void seedRoom(Room r) {
         int id = roomIdSeq++;
         Room room = new Room(id, r.getNumber(), r.getCapacity(), r.getOccupied());
-        rooms.put(id, room);
+        putRoom(room);
+    }
+
+    private void putRoom(Room room) {
+        rooms.put(room.getId(), room);
+        vacancies.update(room.getId(), room.getCapacity() - room.getOccupied());
     }
 
     @Override
@@ -32,7 +42,7 @@ public class InMemoryDatabase implements DatabaseOperations {
         if (r.getNumber() == null || r.getNumber().isBlank()) throw new InvalidInputException("Room label required");
         int id = roomIdSeq++;
         Room room = new Room(id, r.getNumber(), r.getCapacity(), r.getOccupied());
-        rooms.put(id, room);
+        putRoom(room);
         return id;
     }
 
@@ -52,8 +62,11 @@ public class InMemoryDatabase implements DatabaseOperations {
             throw new InvalidInputException("Roll number must be numeric and will be used as student ID");
         }
         if (students.containsKey(id)) throw new InvalidInputException("Student with this roll number already exists");
+        String email = StudentKeys.email(s.getEmail());
+        if (email != null && byEmail.containsKey(email)) throw new InvalidInputException("Student with this email already exists");
         s.setId(id);
         students.put(id, s);
+        if (email != null) byEmail.put(email, id);
         return id;
     }
 
@@ -66,39 +79,151 @@ public class InMemoryDatabase implements DatabaseOperations {
         if (allocations.containsKey(studentId)) throw new InvalidInputException("Student already allocated to a room");
         if (r.getOccupied() >= r.getCapacity()) return false;
         Room updated = new Room(r.getId(), r.getNumber(), r.getCapacity(), r.getOccupied() + 1);
-        rooms.put(r.getId(), updated);
+        putRoom(updated);
         allocations.put(studentId, roomId);
         return true;
     }
 
     @Override
-    public java.util.List<Room> getAvailableRooms() throws DatabaseException {
-        List<Room> list = new ArrayList<>();
-        for (Room r : rooms.values()) {
-            if (r.getOccupied() < r.getCapacity()) list.add(r);
+    public int allocateRooms(Map<Integer, Integer> assignments) throws DatabaseException, InvalidInputException {
+        Map<Integer, Integer> perRoom = new HashMap<>();
+        for (Map.Entry<Integer, Integer> e : assignments.entrySet()) {
+            if (!students.containsKey(e.getKey())) throw new InvalidInputException("Student not found: " + e.getKey());
+            if (allocations.containsKey(e.getKey())) throw new InvalidInputException("Student already allocated to a room: " + e.getKey());
+            if (!rooms.containsKey(e.getValue())) throw new InvalidInputException("Room not found: " + e.getValue());
+            perRoom.merge(e.getValue(), 1, Integer::sum);
+        }
+        for (Map.Entry<Integer, Integer> e : perRoom.entrySet()) {
+            Room r = rooms.get(e.getKey());
+            if (r.getOccupied() + e.getValue() > r.getCapacity()) {
+                throw new InvalidInputException("Room " + r.getNumber() + " does not have " + e.getValue() + " free beds");
+            }
+        }
+        for (Map.Entry<Integer, Integer> e : perRoom.entrySet()) {
+            Room r = rooms.get(e.getKey());
+            putRoom(new Room(r.getId(), r.getNumber(), r.getCapacity(), r.getOccupied() + e.getValue()));
         }
+        allocations.putAll(assignments);
+        return assignments.size();
+    }
+
+    @Override
+    public java.util.List<Room> getAvailableRooms() throws DatabaseException {
+        List<Room> list = new ArrayList<>(vacancies.vacantRoomCount());
+        for (Iterator<Integer> it = vacancies.vacantRooms(); it.hasNext(); ) list.add(rooms.get(it.next()));
         return list;
     }
 
+    @Override
+    public Room findFirstAvailableRoom() throws DatabaseException {
+        int id = vacancies.firstVacant();
+        return id < 0 ? null : rooms.get(id);
+    }
+
+    @Override
+    public Room findBestFitRoom(int beds) throws DatabaseException {
+        int id = vacancies.bestFit(beds);
+        return id < 0 ? null : rooms.get(id);
+    }
+
+    @Override
+    public long countFreeBeds() throws DatabaseException {
+        return vacancies.freeBeds();
+    }
+
+    @Override
+    public Iterator<Room> availableRooms() throws DatabaseException {
+        Iterator<Integer> ids = vacancies.vacantRooms();
+        return new Iterator<Room>() {
+            @Override
+            public boolean hasNext() { return ids.hasNext(); }
+
+            @Override
+            public Room next() { return rooms.get(ids.next()); }
+        };
+    }
+
     @Override
     public boolean deleteStudent(int studentId) throws DatabaseException {
-        if (!students.containsKey(studentId)) return false;
+        return deleteReturningRoom(studentId) >= 0;
+    }
+
+    @Override
+    public int deleteReturningRoom(int studentId) throws DatabaseException {
+        if (!students.containsKey(studentId)) return -1;
         // deallocate if allocated
-        deallocateStudent(studentId);
-        students.remove(studentId);
-        return true;
+        int rid = deallocateReturningRoom(studentId);
+        Student s = students.remove(studentId);
+        String email = StudentKeys.email(s.getEmail());
+        if (email != null) byEmail.remove(email);
+        return rid;
     }
 
     @Override
     public boolean deallocateStudent(int studentId) throws DatabaseException {
+        return deallocateReturningRoom(studentId) != 0;
+    }
+
+    @Override
+    public int deallocateReturningRoom(int studentId) throws DatabaseException {
         Integer rid = allocations.remove(studentId);
-        if (rid == null) return false;
+        if (rid == null) return 0;
         Room r = rooms.get(rid);
         if (r != null) {
             Room updated = new Room(r.getId(), r.getNumber(), r.getCapacity(), Math.max(0, r.getOccupied() - 1));
-            rooms.put(r.getId(), updated);
+            putRoom(updated);
         }
-        return true;
+        return rid;
+    }
+
+    @Override
+    public int deallocateStudents(Collection<Integer> studentIds) throws DatabaseException {
+        Map<Integer, Integer> freed = new HashMap<>();
+        int done = 0;
+        for (int id : studentIds) {
+            Integer rid = allocations.remove(id);
+            if (rid == null) continue;
+            freed.merge(rid, 1, Integer::sum);
+            done++;
+        }
+        for (Map.Entry<Integer, Integer> e : freed.entrySet()) {
+            Room r = rooms.get(e.getKey());
+            if (r != null) putRoom(new Room(r.getId(), r.getNumber(), r.getCapacity(), Math.max(0, r.getOccupied() - e.getValue())));
+        }
+        return done;
+    }
+
+    @Override
+    public int vacateRooms(Collection<Integer> roomIds) throws DatabaseException {
+        Set<Integer> vacate = new HashSet<>();
+        for (int id : roomIds) {
+            if (rooms.containsKey(id)) vacate.add(id);
+        }
+        if (vacate.isEmpty()) return 0;
+        int done = 0;
+        for (Iterator<Integer> it = allocations.values().iterator(); it.hasNext(); ) {
+            if (vacate.contains(it.next())) {
+                it.remove();
+                done++;
+            }
+        }
+        for (int id : vacate) {
+            Room r = rooms.get(id);
+            if (r.getOccupied() != 0) putRoom(new Room(id, r.getNumber(), r.getCapacity(), 0));
+        }
+        return done;
+    }
+
+    @Override
+    public int applyTransfers(List<Transfer> transfers) throws DatabaseException, InvalidInputException {
+        TransferPlan plan = TransferPlan.resolve(transfers, allocations::get);
+        plan.checkCapacity(rooms::get);
+        for (int i = 0; i < plan.size; i++) allocations.put(plan.students[i], plan.to[i]);
+        for (Map.Entry<Integer, Integer> e : plan.delta.entrySet()) {
+            Room r = rooms.get(e.getKey());
+            putRoom(new Room(r.getId(), r.getNumber(), r.getCapacity(), Math.max(0, r.getOccupied() + e.getValue())));
+        }
+        return plan.size;
     }
 
     @Override
@@ -106,7 +231,7 @@ public class InMemoryDatabase implements DatabaseOperations {
         Room r = rooms.get(roomId);
         if (r == null) throw new InvalidInputException("Room not found");
         Room updated = new Room(r.getId(), newNumber, r.getCapacity(), r.getOccupied());
-        rooms.put(r.getId(), updated);
+        putRoom(updated);
         return true;
     }
 
@@ -120,6 +245,20 @@ public class InMemoryDatabase implements DatabaseOperations {
         return students.get(studentId);
     }
 
+    @Override
+    public Student getStudentByRollNo(String rollNo) throws DatabaseException {
+        Integer id = StudentKeys.idOf(rollNo);
+        Student s = id == null ? null : students.get(id);
+        return StudentKeys.sameRollNo(s, rollNo) ? s : null;
+    }
+
+    @Override
+    public Student getStudentByEmail(String email) throws DatabaseException {
+        String key = StudentKeys.email(email);
+        Integer id = key == null ? null : byEmail.get(key);
+        return id == null ? null : students.get(id);
+    }
+
     @Override
     public Room getAllocatedRoomForStudent(int studentId) throws DatabaseException {
         Integer rid = allocations.get(studentId);
@@ -136,4 +275,52 @@ public class InMemoryDatabase implements DatabaseOperations {
     public java.util.Map<Integer,Integer> getAllAllocations() throws DatabaseException {
         return new HashMap<>(allocations);
     }
+
+    private static <V> List<V> page(TreeMap<Integer, V> map, int afterId, int limit) {
+        List<V> out = new ArrayList<>(Math.min(limit, map.size()));
+        for (V v : map.tailMap(afterId, false).values()) {
+            if (out.size() == limit) break;
+            out.add(v);
+        }
+        return out;
+    }
+
+    @Override
+    public List<Student> getStudentsPage(int afterId, int limit) throws DatabaseException {
+        return page(students, afterId, limit);
+    }
+
+    @Override
+    public List<Room> getRoomsPage(int afterId, int limit) throws DatabaseException {
+        return page(rooms, afterId, limit);
+    }
+
+    @Override
+    public Map<Integer, Integer> getAllocationsPage(int afterStudentId, int limit) throws DatabaseException {
+        Map<Integer, Integer> out = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Integer> e : allocations.tailMap(afterStudentId, false).entrySet()) {
+            if (out.size() == limit) break;
+            out.put(e.getKey(), e.getValue());
+        }
+        return out;
+    }
+
+    // streams walk the maps a page at a time so writes between pages do not break them
+    private static final int STREAM_PAGE = 1024;
+
+    @Override
+    public java.util.stream.Stream<Student> streamStudents() throws DatabaseException {
+        return Pages.stream(this::getStudentsPage, Student::getId, STREAM_PAGE);
+    }
+
+    @Override
+    public java.util.stream.Stream<Room> streamRooms() throws DatabaseException {
+        return Pages.stream(this::getRoomsPage, Room::getId, STREAM_PAGE);
+    }
+
+    @Override
+    public java.util.stream.Stream<Map.Entry<Integer, Integer>> streamAllocations() throws DatabaseException {
+        Pages.Fetcher<Map.Entry<Integer, Integer>> fetcher = (after, limit) -> new ArrayList<>(getAllocationsPage(after, limit).entrySet());
+        return Pages.stream(fetcher, Map.Entry::getKey, STREAM_PAGE);
+    }
 }
@@ -0,0 +1,28 @@
+package com.hostel.dao;
+
+import com.hostel.model.WaitlistEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** {@link WaitlistStore} for the in-memory stores; the queues last as long as the process. */
+public class InMemoryWaitlistStore implements WaitlistStore {
+    private final Map<Integer, WaitlistEntry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public List<WaitlistEntry> loadAll() {
+        return new ArrayList<>(entries.values());
+    }
+
+    @Override
+    public void put(WaitlistEntry e) {
+        entries.put(e.getStudentId(), e);
+    }
+
+    @Override
+    public void remove(int studentId) {
+        entries.remove(studentId);
+    }
+}
@@ -0,0 +1,153 @@
+package com.hostel.dao;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing int -&gt; int map with linear probing and backward-shift deletion, so lookups and
+ * updates never box and, short of a resize, never allocate. Key 0 marks an empty slot and is
+ * kept out of the table in its own field. Not thread-safe.
+ */
+class IntIntHashMap {
+    interface Visitor {
+        void accept(int key, int value);
+    }
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private final int missing;
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+    private boolean hasZero;
+    private int zeroValue;
+
+    /** @param missing value returned by lookups for absent keys */
+    IntIntHashMap(int expected, int missing) {
+        this.missing = missing;
+        int cap = Integer.highestOneBit(Math.max(4, (int) (expected / LOAD_FACTOR)) - 1) << 1;
+        allocate(cap);
+    }
+
+    private void allocate(int cap) {
+        keys = new int[cap];
+        values = new int[cap];
+        mask = cap - 1;
+        resizeAt = (int) (cap * LOAD_FACTOR);
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    int size() { return size; }
+
+    boolean containsKey(int key) {
+        if (key == 0) return hasZero;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) return true;
+            if (k == 0) return false;
+        }
+    }
+
+    int get(int key) {
+        if (key == 0) return hasZero ? zeroValue : missing;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) return values[i];
+            if (k == 0) return missing;
+        }
+    }
+
+    /** Maps {@code key} to {@code value} and returns the previous value, or the missing marker. */
+    int put(int key, int value) {
+        if (key == 0) {
+            int old = hasZero ? zeroValue : missing;
+            if (!hasZero) size++;
+            hasZero = true;
+            zeroValue = value;
+            return old;
+        }
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) {
+                int old = values[i];
+                values[i] = value;
+                return old;
+            }
+            if (k == 0) {
+                keys[i] = key;
+                values[i] = value;
+                if (++size > resizeAt) rehash(keys.length << 1);
+                return missing;
+            }
+        }
+    }
+
+    /** Removes {@code key} and returns its value, or the missing marker. */
+    int remove(int key) {
+        if (key == 0) {
+            if (!hasZero) return missing;
+            hasZero = false;
+            size--;
+            return zeroValue;
+        }
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == 0) return missing;
+            if (k == key) {
+                int old = values[i];
+                shiftBack(i);
+                size--;
+                return old;
+            }
+        }
+    }
+
+    /** Closes the gap at {@code hole} by moving back later entries of the same probe run. */
+    private void shiftBack(int hole) {
+        for (int i = (hole + 1) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == 0) break;
+            int home = mix(k) & mask;
+            // move k into the hole unless its home slot lies cyclically in (hole, i]
+            if (hole <= i ? (home <= hole || home > i) : (home <= hole && home > i)) {
+                keys[hole] = k;
+                values[hole] = values[i];
+                hole = i;
+            }
+        }
+        keys[hole] = 0;
+        values[hole] = 0;
+    }
+
+    private void rehash(int cap) {
+        int[] oldKeys = keys, oldValues = values;
+        allocate(cap);
+        for (int i = 0; i < oldKeys.length; i++) {
+            int k = oldKeys[i];
+            if (k == 0) continue;
+            int j = mix(k) & mask;
+            while (keys[j] != 0) j = (j + 1) & mask;
+            keys[j] = k;
+            values[j] = oldValues[i];
+        }
+    }
+
+    void forEach(Visitor v) {
+        if (hasZero) v.accept(0, zeroValue);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) v.accept(keys[i], values[i]);
+        }
+    }
+
+    void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, 0);
+        hasZero = false;
+        size = 0;
+    }
+}
@@ -2,124 +2,538 @@ package com.hostel.dao;
 
 import com.hostel.exception.DatabaseException;
 import com.hostel.exception.InvalidInputException;
+import com.hostel.exception.UncheckedDatabaseException;
 import com.hostel.model.Room;
+import com.hostel.model.RoomWithOccupants;
 import com.hostel.model.Student;
+import com.hostel.model.StudentWithRoom;
+import com.hostel.model.Transfer;
+import com.hostel.model.WaitlistEntry;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+/**
+ * MySQL-backed store. Safe to share between threads: every call leases its own connection
+ * from a bounded {@link ConnectionPool}, and each pooled connection caches the prepared
+ * statements used here.
+ */
 public class MySQLDatabase implements DatabaseOperations {
-    private Connection conn;
+    private ConnectionPool pool;
+    private List<SchemaMigrator.Migration> migrations = java.util.Collections.emptyList();
 
-    // Update these or use environment variables
-    private final String URL = "jdbc:mysql://localhost:3306/hostel_db";
-    private final String USER = "root";
-    private final String PASS = "password";
+    private final String URL;
+    private final String USER;
+    private final String PASS;
+    private final int poolSize;
+
+    // rows per executeBatch/commit in bulk writes
+    private static final int BATCH_SIZE = 1000;
+    private static final long POOL_MAX_WAIT_MILLIS = 5_000;
+    private static final long POOL_IDLE_TIMEOUT_MILLIS = 10 * 60_000;
+    private static final int STATEMENT_CACHE_SIZE = 64;
+    private static final int MAX_TX_ATTEMPTS = 3;
+    private static final int ER_DUP_ENTRY = 1062;
+    // ids per IN-list statement (transfer locks, bulk vacate); short chunks are padded so the statement stays cached
+    private static final int ID_CHUNK = 500;
+    private static final String IN_CHUNK = "(" + String.join(",", java.util.Collections.nCopies(ID_CHUNK, "?")) + ")";
+    private static final String LOCK_ALLOCATIONS = "SELECT student_id, room_id FROM allocations WHERE student_id IN " + IN_CHUNK + " FOR UPDATE";
+
+    // Update these defaults or use the four-argument constructor
+    public MySQLDatabase() {
+        this("jdbc:mysql://localhost:3306/hostel_db?rewriteBatchedStatements=true&useServerPrepStmts=true", "root", "password", 10);
+    }
+
+    public MySQLDatabase(String url, String user, String pass, int poolSize) {
+        this.URL = url;
+        this.USER = user;
+        this.PASS = pass;
+        this.poolSize = poolSize;
+    }
 
     @Override
     public void connect() throws DatabaseException {
-        try {
-            conn = DriverManager.getConnection(URL, USER, PASS);
-        } catch (SQLException e) {
-            throw new DatabaseException("Unable to connect: " + e.getMessage(), e);
+        ConnectionPool p = new ConnectionPool(URL, USER, PASS, poolSize, POOL_MAX_WAIT_MILLIS, POOL_IDLE_TIMEOUT_MILLIS, STATEMENT_CACHE_SIZE);
+        // open one connection up front so a bad URL or password fails here, and bring the schema up to date
+        try (PooledConnection c = p.lease()) {
+            migrations = new SchemaMigrator().migrate(c.connection());
+            pool = p;
+        } catch (DatabaseException e) {
+            p.close();
+            throw e;
         }
     }
 
+    /** Lease counts, wait times and statement cache hit rate of the connection pool. */
+    public PoolStats getPoolStats() {
+        return pool.getStats();
+    }
+
+    /** Schema migrations applied to the connected database, oldest first. */
+    public List<SchemaMigrator.Migration> getAppliedMigrations() {
+        return migrations;
+    }
+
+    public void close() {
+        if (pool != null) pool.close();
+    }
+
+    private PooledConnection lease() throws DatabaseException {
+        if (pool == null) throw new DatabaseException("Not connected", null);
+        return pool.lease();
+    }
+
     @Override
     public int addStudent(Student s) throws DatabaseException, InvalidInputException {
         if (s.getName() == null || s.getName().isBlank()) throw new InvalidInputException("Name required");
         String sql = "INSERT INTO students (name,email,roll_no) VALUES (?,?,?)";
-        try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            ps.setString(1, s.getName());
-            ps.setString(2, s.getEmail());
-            ps.setString(3, s.getRollNo());
+        try (PooledConnection c = lease()) {
+            PreparedStatement ps = c.prepare(sql, Statement.RETURN_GENERATED_KEYS);
+            bindStudent(ps, s);
             ps.executeUpdate();
-            ResultSet rs = ps.getGeneratedKeys();
-            if (rs.next()) return rs.getInt(1);
-            return -1;
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                if (!rs.next()) return -1;
+                s.setId(rs.getInt(1));
+                return s.getId();
+            }
         } catch (SQLException e) {
+            if (e.getErrorCode() == ER_DUP_ENTRY) throw new InvalidInputException(duplicateMessage(e));
             throw new DatabaseException(e.getMessage(), e);
         }
     }
 
+    /** Message for a unique-key violation on students, naming the column the V3 indexes guard. */
+    private static String duplicateMessage(SQLException e) {
+        String m = String.valueOf(e.getMessage());
+        if (m.contains("uq_students_email")) return "Student with this email already exists";
+        if (m.contains("uq_students_roll_no")) return "Student with this roll number already exists";
+        return m;
+    }
+
+    @Override
+    public BulkResult addStudents(Iterable<Student> students) throws DatabaseException {
+        String sql = "INSERT INTO students (name,email,roll_no) VALUES (?,?,?)";
+        BulkResult result = new BulkResult();
+        List<Student> chunk = new ArrayList<>(BATCH_SIZE);
+        List<Integer> rows = new ArrayList<>(BATCH_SIZE);
+        try (PooledConnection c = lease()) {
+            Connection conn = c.connection();
+            try {
+                conn.setAutoCommit(false);
+                PreparedStatement ps = c.prepare(sql, Statement.RETURN_GENERATED_KEYS);
+                for (Student s : students) {
+                    int row = result.addRow();
+                    if (s.getName() == null || s.getName().isBlank()) {
+                        result.failed(row, "Name required");
+                        continue;
+                    }
+                    chunk.add(s);
+                    rows.add(row);
+                    if (chunk.size() == BATCH_SIZE) flushStudents(conn, ps, chunk, rows, result);
+                }
+                if (!chunk.isEmpty()) flushStudents(conn, ps, chunk, rows, result);
+                return result;
+            } catch (SQLException e) {
+                rollbackQuietly(conn);
+                throw new DatabaseException(e.getMessage(), e);
+            }
+        }
+    }
+
+    private static void flushStudents(Connection conn, PreparedStatement ps, List<Student> chunk, List<Integer> rows, BulkResult result) throws SQLException {
+        for (Student s : chunk) {
+            bindStudent(ps, s);
+            ps.addBatch();
+        }
+        try {
+            ps.executeBatch();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                for (int row : rows) result.succeeded(row, keys.next() ? keys.getInt(1) : -1);
+            }
+        } catch (BatchUpdateException e) {
+            // a single bad row fails the whole rewritten INSERT; redo this chunk row by row to isolate it
+            conn.rollback();
+            ps.clearBatch();
+            for (int i = 0; i < chunk.size(); i++) {
+                bindStudent(ps, chunk.get(i));
+                try {
+                    ps.executeUpdate();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        result.succeeded(rows.get(i), keys.next() ? keys.getInt(1) : -1);
+                    }
+                } catch (SQLException rowError) {
+                    result.failed(rows.get(i), rowError.getErrorCode() == ER_DUP_ENTRY ? duplicateMessage(rowError) : rowError.getMessage());
+                }
+            }
+        }
+        conn.commit();
+        chunk.clear();
+        rows.clear();
+    }
+
+    // blank email and roll number are stored as NULL, which the unique indexes allow any number of times
+    private static void bindStudent(PreparedStatement ps, Student s) throws SQLException {
+        ps.setString(1, s.getName());
+        ps.setString(2, trimToNull(s.getEmail()));
+        ps.setString(3, trimToNull(s.getRollNo()));
+    }
+
+    private static String trimToNull(String v) {
+        return v == null || v.isBlank() ? null : v.trim();
+    }
+
+    private static void rollbackQuietly(Connection conn) {
+        try {
+            conn.rollback();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    /** Unit of work run by {@link #inTransaction}; may throw one checked exception of its own. */
+    private interface TxWork<T, X extends Exception> {
+        T run(PooledConnection c) throws SQLException, DatabaseException, X;
+    }
+
+    /**
+     * Runs {@code work} in one transaction on a leased connection and commits it. Deadlocks and
+     * lock wait timeouts roll back and retry up to {@link #MAX_TX_ATTEMPTS} times; anything else
+     * rolls back and is rethrown.
+     */
+    private <T, X extends Exception> T inTransaction(TxWork<T, X> work) throws DatabaseException, X {
+        for (int attempt = 1; ; attempt++) {
+            try (PooledConnection c = lease()) {
+                Connection conn = c.connection();
+                try {
+                    conn.setAutoCommit(false);
+                    T result = work.run(c);
+                    conn.commit();
+                    return result;
+                } catch (SQLException e) {
+                    rollbackQuietly(conn);
+                    if (attempt < MAX_TX_ATTEMPTS && isRetryable(e)) continue;
+                    throw new DatabaseException(e.getMessage(), e);
+                } catch (Exception e) {
+                    rollbackQuietly(conn);
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static boolean isRetryable(SQLException e) {
+        // 1213 = deadlock, 1205 = lock wait timeout
+        return e instanceof SQLTransientException || "40001".equals(e.getSQLState())
+                || e.getErrorCode() == 1213 || e.getErrorCode() == 1205;
+    }
+
     @Override
     public boolean allocateRoom(int studentId, int roomId) throws DatabaseException, InvalidInputException {
-        String check = "SELECT capacity,occupied FROM rooms WHERE id = ?";
-        String upd = "UPDATE rooms SET occupied = occupied + 1 WHERE id = ?";
+        // the conditional UPDATE takes the room's row lock, so concurrent callers can never push occupied past capacity
+        String claim = "UPDATE rooms SET occupied = occupied + 1 WHERE id = ? AND occupied < capacity";
         String ins = "INSERT INTO allocations (student_id,room_id) VALUES (?,?)";
-        try (PreparedStatement ps = conn.prepareStatement(check)) {
+        String exists = "SELECT 1 FROM rooms WHERE id = ?";
+        return inTransaction(c -> {
+            PreparedStatement ps = c.prepare(claim);
             ps.setInt(1, roomId);
-            ResultSet rs = ps.executeQuery();
-            if (!rs.next()) throw new InvalidInputException("Room not found");
-            int cap = rs.getInt("capacity");
-            int occ = rs.getInt("occupied");
-            if (occ >= cap) return false;
-            try (PreparedStatement p2 = conn.prepareStatement(upd)) {
-                p2.setInt(1, roomId);
-                p2.executeUpdate();
-            }
-            try (PreparedStatement p3 = conn.prepareStatement(ins)) {
-                p3.setInt(1, studentId);
-                p3.setInt(2, roomId);
-                p3.executeUpdate();
+            if (ps.executeUpdate() == 0) {
+                // full or missing; only this path pays for the extra lookup
+                PreparedStatement pe = c.prepare(exists);
+                pe.setInt(1, roomId);
+                try (ResultSet rs = pe.executeQuery()) {
+                    if (!rs.next()) throw new InvalidInputException("Room not found");
+                }
+                return false;
+            }
+            PreparedStatement pi = c.prepare(ins);
+            pi.setInt(1, studentId);
+            pi.setInt(2, roomId);
+            try {
+                pi.executeUpdate();
+            } catch (SQLIntegrityConstraintViolationException e) {
+                // 1062 = unique student_id, otherwise the student foreign key
+                if (e.getErrorCode() == 1062) throw new InvalidInputException("Student already allocated to a room");
+                throw new InvalidInputException("Student not found");
             }
             return true;
-        } catch (SQLException e) {
-            throw new DatabaseException(e.getMessage(), e);
+        });
+    }
+
+    @Override
+    public int allocateRooms(java.util.Map<Integer,Integer> assignments) throws DatabaseException, InvalidInputException {
+        if (assignments.isEmpty()) return 0;
+        java.util.Map<Integer,Integer> perRoom = new java.util.LinkedHashMap<>();
+        for (int rid : assignments.values()) perRoom.merge(rid, 1, Integer::sum);
+        String upd = "UPDATE rooms SET occupied = occupied + ? WHERE id = ? AND occupied + ? <= capacity";
+        String ins = "INSERT INTO allocations (student_id,room_id) VALUES (?,?)";
+        return inTransaction(c -> {
+            PreparedStatement ps = c.prepare(upd);
+            for (java.util.Map.Entry<Integer,Integer> e : perRoom.entrySet()) {
+                ps.setInt(1, e.getValue());
+                ps.setInt(2, e.getKey());
+                ps.setInt(3, e.getValue());
+                ps.addBatch();
+            }
+            int[] counts = ps.executeBatch();
+            int i = 0;
+            for (java.util.Map.Entry<Integer,Integer> e : perRoom.entrySet()) {
+                if (counts[i++] == 0) {
+                    throw new InvalidInputException("Room " + e.getKey() + " not found or does not have " + e.getValue() + " free beds");
+                }
+            }
+            PreparedStatement pi = c.prepare(ins);
+            int pending = 0;
+            try {
+                for (java.util.Map.Entry<Integer,Integer> e : assignments.entrySet()) {
+                    pi.setInt(1, e.getKey());
+                    pi.setInt(2, e.getValue());
+                    pi.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        pi.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) pi.executeBatch();
+            } catch (BatchUpdateException e) {
+                pi.clearBatch();
+                if (e.getErrorCode() == 1062) throw new InvalidInputException("A student in the plan is already allocated to a room");
+                throw e;
+            }
+            return assignments.size();
+        });
+    }
+
+    /** Removes the student's allocation and frees its bed, returning the room (0 for none); the caller owns the transaction. */
+    private static int releaseBed(PooledConnection c, int studentId) throws SQLException {
+        String sel = "SELECT room_id FROM allocations WHERE student_id = ? FOR UPDATE";
+        String del = "DELETE FROM allocations WHERE student_id = ?";
+        String upd = "UPDATE rooms SET occupied = occupied - 1 WHERE id = ? AND occupied > 0";
+        PreparedStatement ps = c.prepare(sel);
+        ps.setInt(1, studentId);
+        int rid;
+        try (ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) return 0;
+            rid = rs.getInt(1);
         }
+        PreparedStatement pd = c.prepare(del);
+        pd.setInt(1, studentId);
+        pd.executeUpdate();
+        PreparedStatement pu = c.prepare(upd);
+        pu.setInt(1, rid);
+        pu.executeUpdate();
+        return rid;
     }
 
     @Override
     public boolean deleteStudent(int studentId) throws DatabaseException {
-        String delAlloc = "DELETE FROM allocations WHERE student_id = ?";
+        return deleteReturningRoom(studentId) >= 0;
+    }
+
+    @Override
+    public int deleteReturningRoom(int studentId) throws DatabaseException {
         String delStu = "DELETE FROM students WHERE id = ?";
-        try (PreparedStatement p = conn.prepareStatement(delAlloc)) {
-            p.setInt(1, studentId);
-            p.executeUpdate();
-        } catch (SQLException e) {
-            throw new DatabaseException(e.getMessage(), e);
-        }
-        try (PreparedStatement p2 = conn.prepareStatement(delStu)) {
-            p2.setInt(1, studentId);
-            int affected = p2.executeUpdate();
-            return affected > 0;
-        } catch (SQLException e) {
-            throw new DatabaseException(e.getMessage(), e);
-        }
+        return inTransaction(c -> {
+            int rid = releaseBed(c, studentId);
+            PreparedStatement ps = c.prepare(delStu);
+            ps.setInt(1, studentId);
+            return ps.executeUpdate() > 0 ? rid : -1;
+        });
     }
 
     @Override
     public boolean deallocateStudent(int studentId) throws DatabaseException {
-        String sel = "SELECT room_id FROM allocations WHERE student_id = ?";
-        String upd = "UPDATE rooms SET occupied = occupied - 1 WHERE id = ? AND occupied > 0";
-        String del = "DELETE FROM allocations WHERE student_id = ?";
-        try (PreparedStatement ps = conn.prepareStatement(sel)) {
-            ps.setInt(1, studentId);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                int rid = rs.getInt(1);
-                try (PreparedStatement p2 = conn.prepareStatement(upd)) {
-                    p2.setInt(1, rid);
-                    p2.executeUpdate();
+        return deallocateReturningRoom(studentId) != 0;
+    }
+
+    @Override
+    public int deallocateReturningRoom(int studentId) throws DatabaseException {
+        return inTransaction(c -> releaseBed(c, studentId));
+    }
+
+    /** Binds {@code ids[start..end)} to an {@link #IN_CHUNK} statement, repeating the last id as padding. */
+    private static void bindChunk(PreparedStatement ps, int[] ids, int start, int end) throws SQLException {
+        for (int i = 0; i < ID_CHUNK; i++) ps.setInt(i + 1, ids[Math.min(start + i, end - 1)]);
+    }
+
+    private static int[] toIds(java.util.Collection<Integer> ids) {
+        return ids.stream().distinct().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Per chunk of ids, one transaction: count the leavers per room while locking their rows, one
+     * batch freeing those beds, and one DELETE for the whole chunk.
+     */
+    @Override
+    public int deallocateStudents(java.util.Collection<Integer> studentIds) throws DatabaseException {
+        int[] ids = toIds(studentIds);
+        String count = "SELECT room_id, COUNT(*) FROM allocations WHERE student_id IN " + IN_CHUNK + " GROUP BY room_id FOR UPDATE";
+        String free = "UPDATE rooms SET occupied = GREATEST(0, occupied - ?) WHERE id = ?";
+        String del = "DELETE FROM allocations WHERE student_id IN " + IN_CHUNK;
+        int done = 0;
+        for (int start = 0; start < ids.length; start += ID_CHUNK) {
+            int from = start, end = Math.min(ids.length, start + ID_CHUNK);
+            done += inTransaction(c -> {
+                PreparedStatement ps = c.prepare(count);
+                bindChunk(ps, ids, from, end);
+                PreparedStatement pf = c.prepare(free);
+                boolean any = false;
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        pf.setInt(1, rs.getInt(2));
+                        pf.setInt(2, rs.getInt(1));
+                        pf.addBatch();
+                        any = true;
+                    }
                 }
+                if (!any) return 0;
+                pf.executeBatch();
+                PreparedStatement pd = c.prepare(del);
+                bindChunk(pd, ids, from, end);
+                return pd.executeUpdate();
+            });
+        }
+        return done;
+    }
+
+    /** Per chunk of rooms, one transaction: zero their occupancy (taking the room locks), then one DELETE. */
+    @Override
+    public int vacateRooms(java.util.Collection<Integer> roomIds) throws DatabaseException {
+        int[] ids = toIds(roomIds);
+        String reset = "UPDATE rooms SET occupied = 0 WHERE id IN " + IN_CHUNK;
+        String del = "DELETE FROM allocations WHERE room_id IN " + IN_CHUNK;
+        int done = 0;
+        for (int start = 0; start < ids.length; start += ID_CHUNK) {
+            int from = start, end = Math.min(ids.length, start + ID_CHUNK);
+            done += inTransaction(c -> {
+                PreparedStatement pr = c.prepare(reset);
+                bindChunk(pr, ids, from, end);
+                pr.executeUpdate();
+                PreparedStatement pd = c.prepare(del);
+                bindChunk(pd, ids, from, end);
+                return pd.executeUpdate();
+            });
+        }
+        return done;
+    }
+
+    @Override
+    public int vacateByLabelPrefix(String prefix) throws DatabaseException, InvalidInputException {
+        if (prefix == null || prefix.isEmpty()) throw new InvalidInputException("Label prefix required");
+        String sel = "SELECT id FROM rooms WHERE number LIKE ? ESCAPE '!'";
+        List<Integer> ids = new ArrayList<>();
+        try (PooledConnection c = lease()) {
+            PreparedStatement ps = c.prepare(sel);
+            ps.setString(1, prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%");
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) ids.add(rs.getInt(1));
             }
         } catch (SQLException e) {
             throw new DatabaseException(e.getMessage(), e);
         }
-        try (PreparedStatement p3 = conn.prepareStatement(del)) {
-            p3.setInt(1, studentId);
-            p3.executeUpdate();
+        return vacateRooms(ids);
+    }
+
+    /**
+     * One transaction: lock the movers' allocation rows (one round trip per chunk of ids), check
+     * the plan, then one batch claiming the beds rooms gain on balance (guarded against
+     * overbooking like {@link #allocateRooms}), one batch freeing the beds rooms lose, and one batch
+     * re-pointing the allocations per chunk of movers. Rooms are updated in id order.
+     */
+    @Override
+    public int applyTransfers(List<Transfer> transfers) throws DatabaseException, InvalidInputException {
+        if (transfers.isEmpty()) return 0;
+        Transfer[] moves = transfers.toArray(new Transfer[0]);
+        String claim = "UPDATE rooms SET occupied = occupied + ? WHERE id = ? AND occupied + ? <= capacity";
+        String free = "UPDATE rooms SET occupied = GREATEST(0, occupied - ?) WHERE id = ?";
+        String move = "UPDATE allocations SET room_id = ? WHERE student_id = ?";
+        return inTransaction(c -> {
+            java.util.Map<Integer,Integer> current = new java.util.HashMap<>();
+            PreparedStatement pl = c.prepare(LOCK_ALLOCATIONS);
+            for (int start = 0; start < moves.length; start += ID_CHUNK) {
+                int end = Math.min(moves.length, start + ID_CHUNK);
+                for (int i = 0; i < ID_CHUNK; i++) pl.setInt(i + 1, moves[Math.min(start + i, end - 1)].getStudentId());
+                try (ResultSet rs = pl.executeQuery()) {
+                    while (rs.next()) current.put(rs.getInt(1), rs.getInt(2));
+                }
+            }
+            TransferPlan plan = TransferPlan.resolve(transfers, current::get);
+            if (plan.size == 0) return 0;
+            List<java.util.Map.Entry<Integer,Integer>> gains = new ArrayList<>(), losses = new ArrayList<>();
+            for (java.util.Map.Entry<Integer,Integer> e : plan.delta.entrySet()) (e.getValue() > 0 ? gains : losses).add(e);
+            if (!gains.isEmpty()) {
+                PreparedStatement pc = c.prepare(claim);
+                for (java.util.Map.Entry<Integer,Integer> e : gains) {
+                    pc.setInt(1, e.getValue());
+                    pc.setInt(2, e.getKey());
+                    pc.setInt(3, e.getValue());
+                    pc.addBatch();
+                }
+                int[] counts = pc.executeBatch();
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0) {
+                        java.util.Map.Entry<Integer,Integer> e = gains.get(i);
+                        throw new InvalidInputException("Room " + e.getKey() + " not found or does not have " + e.getValue() + " free beds");
+                    }
+                }
+            }
+            if (!losses.isEmpty()) {
+                PreparedStatement pf = c.prepare(free);
+                for (java.util.Map.Entry<Integer,Integer> e : losses) {
+                    pf.setInt(1, -e.getValue());
+                    pf.setInt(2, e.getKey());
+                    pf.addBatch();
+                }
+                pf.executeBatch();
+            }
+            PreparedStatement pm = c.prepare(move);
+            for (int i = 0; i < plan.size; i++) {
+                pm.setInt(1, plan.to[i]);
+                pm.setInt(2, plan.students[i]);
+                pm.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0 || i == plan.size - 1) pm.executeBatch();
+            }
+            return plan.size;
+        });
+    }
+
+    /** Both rows locked and re-pointed in one statement; occupancy does not change. */
+    @Override
+    public boolean swapStudents(int studentA, int studentB) throws DatabaseException, InvalidInputException {
+        String sel = "SELECT student_id, room_id FROM allocations WHERE student_id IN (?,?) FOR UPDATE";
+        String upd = "UPDATE allocations SET room_id = CASE student_id WHEN ? THEN ? ELSE ? END WHERE student_id IN (?,?)";
+        return inTransaction(c -> {
+            PreparedStatement ps = c.prepare(sel);
+            ps.setInt(1, studentA);
+            ps.setInt(2, studentB);
+            java.util.Map<Integer,Integer> current = new java.util.HashMap<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) current.put(rs.getInt(1), rs.getInt(2));
+            }
+            Integer ra = current.get(studentA), rb = current.get(studentB);
+            if (ra == null) throw new InvalidInputException("Student " + studentA + " not found or not allocated to a room");
+            if (rb == null) throw new InvalidInputException("Student " + studentB + " not found or not allocated to a room");
+            if (ra.equals(rb)) return false;
+            PreparedStatement pu = c.prepare(upd);
+            pu.setInt(1, studentA);
+            pu.setInt(2, rb);
+            pu.setInt(3, ra);
+            pu.setInt(4, studentA);
+            pu.setInt(5, studentB);
+            pu.executeUpdate();
             return true;
-        } catch (SQLException e) {
-            throw new DatabaseException(e.getMessage(), e);
-        }
+        });
     }
 
     @Override
     public boolean changeRoomNumber(int roomId, String newNumber) throws DatabaseException, InvalidInputException {
         String upd = "UPDATE rooms SET number = ? WHERE id = ?";
-        try (PreparedStatement ps = conn.prepareStatement(upd)) {
+        try (PooledConnection c = lease()) {
+            PreparedStatement ps = c.prepare(upd);
             ps.setString(1, newNumber);
             ps.setInt(2, roomId);
             int affected = ps.executeUpdate();
@@ -131,46 +545,90 @@ public class MySQLDatabase implements DatabaseOperations {
 
     @Override
     public List<Room> getAllRooms() throws DatabaseException {
-        String sql = "SELECT id,number,capacity,occupied FROM rooms";
-        List<Room> list = new ArrayList<>();
-        try (Statement st = conn.createStatement()) {
-            ResultSet rs = st.executeQuery(sql);
-            while (rs.next()) {
-                list.add(new Room(rs.getInt("id"), rs.getString("number"), rs.getInt("capacity"), rs.getInt("occupied")));
+        return queryRooms("SELECT id,number,capacity,occupied FROM rooms");
+    }
+
+    @Override
+    public List<Room> getAvailableRooms() throws DatabaseException {
+        return queryRooms("SELECT id,number,capacity,occupied FROM rooms WHERE occupied < capacity");
+    }
+
+    @Override
+    public Room findFirstAvailableRoom() throws DatabaseException {
+        List<Room> r = queryRooms("SELECT id,number,capacity,occupied FROM rooms WHERE occupied < capacity ORDER BY id LIMIT 1");
+        return r.isEmpty() ? null : r.get(0);
+    }
+
+    @Override
+    public Room findBestFitRoom(int beds) throws DatabaseException {
+        String sql = "SELECT id,number,capacity,occupied FROM rooms WHERE capacity - occupied >= ? ORDER BY capacity - occupied, id LIMIT 1";
+        try (PooledConnection c = lease()) {
+            PreparedStatement ps = c.prepare(sql);
+            ps.setInt(1, Math.max(1, beds));
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? readRoom(rs) : null;
             }
-            return list;
         } catch (SQLException e) {
             throw new DatabaseException(e.getMessage(), e);
         }
     }
 
     @Override
-    public List<Room> getAvailableRooms() throws DatabaseException {
-        String sql = "SELECT id,number,capacity,occupied FROM rooms WHERE occupied < capacity";
+    public long countFreeBeds() throws DatabaseException {
+        String sql = "SELECT COALESCE(SUM(capacity - occupied),0) FROM rooms WHERE occupied < capacity";
+        try (PooledConnection c = lease(); ResultSet rs = c.prepare(sql).executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            throw new DatabaseException(e.getMessage(), e);
+        }
+    }
+
+    private List<Room> queryRooms(String sql) throws DatabaseException {
         List<Room> list = new ArrayList<>();
-        try (Statement st = conn.createStatement()) {
-            ResultSet rs = st.executeQuery(sql);
-            while (rs.next()) {
-                list.add(new Room(rs.getInt("id"), rs.getString("number"), rs.getInt("capacity"), rs.getInt("occupied")));
-            }
+        try (PooledConnection c = lease(); ResultSet rs = c.prepare(sql).executeQuery()) {
+            while (rs.next()) list.add(readRoom(rs));
             return list;
         } catch (SQLException e) {
             throw new DatabaseException(e.getMessage(), e);
         }
     }
 
+    private static Room readRoom(ResultSet rs) throws SQLException {
+        return new Room(rs.getInt("id"), rs.getString("number"), rs.getInt("capacity"), rs.getInt("occupied"));
+    }
+
+    private static Student readStudent(ResultSet rs) throws SQLException {
+        Student s = new Student(rs.getString("name"), rs.getString("email"), rs.getString("roll_no"));
+        s.setId(rs.getInt("id"));
+        return s;
+    }
+
     @Override
     public Student getStudent(int studentId) throws DatabaseException {
-        String sql = "SELECT id,name,email,roll_no FROM students WHERE id = ?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, studentId);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                Student s = new Student(rs.getString("name"), rs.getString("email"), rs.getString("roll_no"));
-                s.setId(rs.getInt("id"));
-                return s;
+        return findStudent("SELECT id,name,email,roll_no FROM students WHERE id = ?", studentId);
+    }
+
+    // both answered from the V3 unique indexes; email comparison is case-insensitive under the default collation
+    @Override
+    public Student getStudentByRollNo(String rollNo) throws DatabaseException {
+        String key = trimToNull(rollNo);
+        return key == null ? null : findStudent("SELECT id,name,email,roll_no FROM students WHERE roll_no = ?", key);
+    }
+
+    @Override
+    public Student getStudentByEmail(String email) throws DatabaseException {
+        String key = trimToNull(email);
+        return key == null ? null : findStudent("SELECT id,name,email,roll_no FROM students WHERE email = ?", key);
+    }
+
+    private Student findStudent(String sql, Object key) throws DatabaseException {
+        try (PooledConnection c = lease()) {
+            PreparedStatement ps = c.prepare(sql);
+            ps.setObject(1, key);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return readStudent(rs);
+                return null;
             }
-            return null;
         } catch (SQLException e) {
             throw new DatabaseException(e.getMessage(), e);
         }
@@ -179,11 +637,13 @@ public class MySQLDatabase implements DatabaseOperations {
     @Override
     public Room getAllocatedRoomForStudent(int studentId) throws DatabaseException {
         String sql = "SELECT r.id,r.number,r.capacity,r.occupied FROM rooms r JOIN allocations a ON r.id = a.room_id WHERE a.student_id = ?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (PooledConnection c = lease()) {
+            PreparedStatement ps = c.prepare(sql);
             ps.setInt(1, studentId);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) return new Room(rs.getInt("id"), rs.getString("number"), rs.getInt("capacity"), rs.getInt("occupied"));
-            return null;
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return readRoom(rs);
+                return null;
+            }
         } catch (SQLException e) {
             throw new DatabaseException(e.getMessage(), e);
         }
@@ -193,13 +653,8 @@ public class MySQLDatabase implements DatabaseOperations {
     public java.util.List<Student> getAllStudents() throws DatabaseException {
         String sql = "SELECT id,name,email,roll_no FROM students";
         java.util.List<Student> list = new ArrayList<>();
-        try (Statement st = conn.createStatement()) {
-            ResultSet rs = st.executeQuery(sql);
-            while (rs.next()) {
-                Student s = new Student(rs.getString("name"), rs.getString("email"), rs.getString("roll_no"));
-                s.setId(rs.getInt("id"));
-                list.add(s);
-            }
+        try (PooledConnection c = lease(); ResultSet rs = c.prepare(sql).executeQuery()) {
+            while (rs.next()) list.add(readStudent(rs));
             return list;
         } catch (SQLException e) {
             throw new DatabaseException(e.getMessage(), e);
@@ -210,14 +665,16 @@ public class MySQLDatabase implements DatabaseOperations {
     public int addRoom(Room r) throws DatabaseException, InvalidInputException {
         if (r.getNumber() == null || r.getNumber().isBlank()) throw new InvalidInputException("Room label required");
         String sql = "INSERT INTO rooms (number,capacity,occupied) VALUES (?,?,?)";
-        try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (PooledConnection c = lease()) {
+            PreparedStatement ps = c.prepare(sql, Statement.RETURN_GENERATED_KEYS);
             ps.setString(1, r.getNumber());
             ps.setInt(2, r.getCapacity());
             ps.setInt(3, r.getOccupied());
             ps.executeUpdate();
-            ResultSet rs = ps.getGeneratedKeys();
-            if (rs.next()) return rs.getInt(1);
-            return -1;
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                if (rs.next()) return rs.getInt(1);
+                return -1;
+            }
         } catch (SQLException e) {
             throw new DatabaseException(e.getMessage(), e);
         }
@@ -227,8 +684,7 @@ public class MySQLDatabase implements DatabaseOperations {
     public java.util.Map<Integer,Integer> getAllAllocations() throws DatabaseException {
         String sql = "SELECT student_id, room_id FROM allocations";
         java.util.Map<Integer,Integer> m = new java.util.HashMap<>();
-        try (Statement st = conn.createStatement()) {
-            ResultSet rs = st.executeQuery(sql);
+        try (PooledConnection c = lease(); ResultSet rs = c.prepare(sql).executeQuery()) {
             while (rs.next()) {
                 m.put(rs.getInt("student_id"), rs.getInt("room_id"));
             }
@@ -237,4 +693,217 @@ public class MySQLDatabase implements DatabaseOperations {
             throw new DatabaseException(e.getMessage(), e);
         }
     }
+
+    @Override
+    public List<RoomWithOccupants> getRoomsWithOccupants() throws DatabaseException {
+        String sql = "SELECT r.id,r.number,r.capacity,r.occupied,s.id AS sid,s.name,s.email,s.roll_no FROM rooms r "
+                + "LEFT JOIN allocations a ON a.room_id = r.id LEFT JOIN students s ON s.id = a.student_id ORDER BY r.id, s.id";
+        List<RoomWithOccupants> list = new ArrayList<>();
+        try (PooledConnection c = lease(); ResultSet rs = c.prepare(sql).executeQuery()) {
+            Room current = null;
+            List<Student> occupants = null;
+            while (rs.next()) {
+                if (current == null || current.getId() != rs.getInt("id")) {
+                    if (current != null) list.add(new RoomWithOccupants(current, occupants));
+                    current = readRoom(rs);
+                    occupants = new ArrayList<>();
+                }
+                int sid = rs.getInt("sid");
+                if (!rs.wasNull()) {
+                    Student s = new Student(rs.getString("name"), rs.getString("email"), rs.getString("roll_no"));
+                    s.setId(sid);
+                    occupants.add(s);
+                }
+            }
+            if (current != null) list.add(new RoomWithOccupants(current, occupants));
+            return list;
+        } catch (SQLException e) {
+            throw new DatabaseException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<StudentWithRoom> getStudentsWithRooms() throws DatabaseException {
+        String sql = "SELECT s.id,s.name,s.email,s.roll_no,r.id AS rid,r.number,r.capacity,r.occupied FROM students s "
+                + "LEFT JOIN allocations a ON a.student_id = s.id LEFT JOIN rooms r ON r.id = a.room_id ORDER BY s.id";
+        List<StudentWithRoom> list = new ArrayList<>();
+        try (PooledConnection c = lease(); ResultSet rs = c.prepare(sql).executeQuery()) {
+            while (rs.next()) {
+                Student s = readStudent(rs);
+                int rid = rs.getInt("rid");
+                Room room = rs.wasNull() ? null : new Room(rid, rs.getString("number"), rs.getInt("capacity"), rs.getInt("occupied"));
+                list.add(new StudentWithRoom(s, room));
+            }
+            return list;
+        } catch (SQLException e) {
+            throw new DatabaseException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<StudentWithRoom> getStudentsWithRoomsPage(int afterId, int limit) throws DatabaseException {
+        String sql = "SELECT s.id,s.name,s.email,s.roll_no,r.id AS rid,r.number,r.capacity,r.occupied FROM students s "
+                + "LEFT JOIN allocations a ON a.student_id = s.id LEFT JOIN rooms r ON r.id = a.room_id WHERE s.id > ? ORDER BY s.id LIMIT ?";
+        List<StudentWithRoom> list = new ArrayList<>();
+        queryPage(sql, afterId, limit, rs -> {
+            Student s = readStudent(rs);
+            int rid = rs.getInt("rid");
+            list.add(new StudentWithRoom(s, rs.wasNull() ? null : new Room(rid, rs.getString("number"), rs.getInt("capacity"), rs.getInt("occupied"))));
+        });
+        return list;
+    }
+
+    @Override
+    public List<Student> getStudentsPage(int afterId, int limit) throws DatabaseException {
+        List<Student> list = new ArrayList<>();
+        queryPage("SELECT id,name,email,roll_no FROM students WHERE id > ? ORDER BY id LIMIT ?", afterId, limit, rs -> list.add(readStudent(rs)));
+        return list;
+    }
+
+    @Override
+    public List<Room> getRoomsPage(int afterId, int limit) throws DatabaseException {
+        List<Room> list = new ArrayList<>();
+        queryPage("SELECT id,number,capacity,occupied FROM rooms WHERE id > ? ORDER BY id LIMIT ?", afterId, limit, rs -> list.add(readRoom(rs)));
+        return list;
+    }
+
+    @Override
+    public java.util.Map<Integer,Integer> getAllocationsPage(int afterStudentId, int limit) throws DatabaseException {
+        java.util.Map<Integer,Integer> m = new java.util.LinkedHashMap<>();
+        queryPage("SELECT student_id, room_id FROM allocations WHERE student_id > ? ORDER BY student_id LIMIT ?", afterStudentId, limit,
+                rs -> m.put(rs.getInt(1), rs.getInt(2)));
+        return m;
+    }
+
+    private interface RowReader<T> {
+        T read(ResultSet rs) throws SQLException;
+    }
+
+    private interface RowHandler {
+        void accept(ResultSet rs) throws SQLException;
+    }
+
+    private void queryPage(String sql, int after, int limit, RowHandler handler) throws DatabaseException {
+        try (PooledConnection c = lease()) {
+            PreparedStatement ps = c.prepare(sql);
+            ps.setInt(1, after);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) handler.accept(rs);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Stream<Student> streamStudents() throws DatabaseException {
+        return streamQuery("SELECT id,name,email,roll_no FROM students ORDER BY id", MySQLDatabase::readStudent);
+    }
+
+    @Override
+    public Stream<Room> streamRooms() throws DatabaseException {
+        return streamQuery("SELECT id,number,capacity,occupied FROM rooms ORDER BY id", MySQLDatabase::readRoom);
+    }
+
+    @Override
+    public Stream<java.util.Map.Entry<Integer,Integer>> streamAllocations() throws DatabaseException {
+        return streamQuery("SELECT student_id, room_id FROM allocations ORDER BY student_id",
+                rs -> new java.util.AbstractMap.SimpleImmutableEntry<>(rs.getInt(1), rs.getInt(2)));
+    }
+
+    /** A {@link WaitlistStore} on the {@code waitlist} table, sharing this database's connection pool. */
+    public WaitlistStore waitlistStore() {
+        return new WaitlistStore() {
+            @Override
+            public List<WaitlistEntry> loadAll() throws DatabaseException {
+                String sel = "SELECT student_id, room_id, priority, seq FROM waitlist";
+                List<WaitlistEntry> out = new ArrayList<>();
+                try (PooledConnection c = lease()) {
+                    try (ResultSet rs = c.prepare(sel).executeQuery()) {
+                        while (rs.next()) {
+                            int roomId = rs.getInt(2);
+                            out.add(new WaitlistEntry(rs.getInt(1), rs.wasNull() ? null : roomId, rs.getInt(3), rs.getLong(4)));
+                        }
+                    }
+                } catch (SQLException e) {
+                    throw new DatabaseException(e.getMessage(), e);
+                }
+                return out;
+            }
+
+            @Override
+            public void put(WaitlistEntry e) throws DatabaseException {
+                String ins = "INSERT INTO waitlist (student_id,room_id,priority,seq) VALUES (?,?,?,?) "
+                        + "ON DUPLICATE KEY UPDATE room_id = VALUES(room_id), priority = VALUES(priority), seq = VALUES(seq)";
+                try (PooledConnection c = lease()) {
+                    PreparedStatement ps = c.prepare(ins);
+                    ps.setInt(1, e.getStudentId());
+                    if (e.getRoomId() == null) ps.setNull(2, Types.INTEGER);
+                    else ps.setInt(2, e.getRoomId());
+                    ps.setInt(3, e.getPriority());
+                    ps.setLong(4, e.getSeq());
+                    ps.executeUpdate();
+                } catch (SQLException ex) {
+                    throw new DatabaseException(ex.getMessage(), ex);
+                }
+            }
+
+            @Override
+            public void remove(int studentId) throws DatabaseException {
+                String del = "DELETE FROM waitlist WHERE student_id = ?";
+                try (PooledConnection c = lease()) {
+                    PreparedStatement ps = c.prepare(del);
+                    ps.setInt(1, studentId);
+                    ps.executeUpdate();
+                } catch (SQLException e) {
+                    throw new DatabaseException(e.getMessage(), e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Runs {@code sql} in the driver's row-streaming mode (forward-only, fetch size
+     * Integer.MIN_VALUE) so rows arrive one at a time instead of being buffered. The stream holds
+     * a pooled connection until it is closed or fully consumed.
+     */
+    private <T> Stream<T> streamQuery(String sql, RowReader<T> reader) throws DatabaseException {
+        PooledConnection c = lease();
+        try {
+            // not from the statement cache: a streaming result set ties up the statement until closed
+            PreparedStatement ps = c.connection().prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            ResultSet rs = ps.executeQuery();
+            Runnable close = () -> {
+                try {
+                    rs.close();
+                    ps.close();
+                } catch (SQLException ignored) {
+                } finally {
+                    c.close();
+                }
+            };
+            Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super T> action) {
+                    try {
+                        if (!rs.next()) {
+                            close.run();
+                            return false;
+                        }
+                        action.accept(reader.read(rs));
+                        return true;
+                    } catch (SQLException e) {
+                        close.run();
+                        throw new UncheckedDatabaseException(new DatabaseException(e.getMessage(), e));
+                    }
+                }
+            };
+            return StreamSupport.stream(rows, false).onClose(close);
+        } catch (SQLException e) {
+            c.close();
+            throw new DatabaseException(e.getMessage(), e);
+        }
+    }
 }
@@ -0,0 +1,68 @@
+package com.hostel.dao;
+
+import com.hostel.exception.DatabaseException;
+import com.hostel.exception.UncheckedDatabaseException;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Walks a keyset-paginated read ({@code WHERE id > ? ORDER BY id LIMIT ?}) page by page, so only
+ * one page is ever held in memory. Rows written behind the cursor while walking are not revisited.
+ */
+public final class Pages {
+    /** Returns up to {@code limit} rows with key greater than {@code afterId}, in key order. */
+    public interface Fetcher<T> {
+        List<T> fetch(int afterId, int limit) throws DatabaseException;
+    }
+
+    private Pages() {}
+
+    public static <T> Iterator<List<T>> iterator(Fetcher<T> fetcher, ToIntFunction<T> key, int pageSize) {
+        if (pageSize < 1) throw new IllegalArgumentException("pageSize must be at least 1");
+        return new Iterator<List<T>>() {
+            private int after = Integer.MIN_VALUE;
+            private List<T> next;
+            private boolean done;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null && !done) {
+                    try {
+                        next = fetcher.fetch(after, pageSize);
+                    } catch (DatabaseException e) {
+                        throw new UncheckedDatabaseException(e);
+                    }
+                    if (next.isEmpty()) {
+                        next = null;
+                        done = true;
+                    } else {
+                        after = key.applyAsInt(next.get(next.size() - 1));
+                        if (next.size() < pageSize) done = true;
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public List<T> next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                List<T> page = next;
+                next = null;
+                return page;
+            }
+        };
+    }
+
+    public static <T> Stream<T> stream(Fetcher<T> fetcher, ToIntFunction<T> key, int pageSize) {
+        Iterator<List<T>> pages = iterator(fetcher, key, pageSize);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .flatMap(List::stream);
+    }
+}
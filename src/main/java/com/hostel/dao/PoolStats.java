@@ -0,0 +1,46 @@
+package com.hostel.dao;
+
+/** Point-in-time counters of a {@link ConnectionPool}; wait times are in nanoseconds. */
+public class PoolStats {
+    private final int active;
+    private final int idle;
+    private final long leases;
+    private final long timeouts;
+    private final long created;
+    private final long evicted;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+    private final long statementHits;
+    private final long statementMisses;
+
+    public PoolStats(int active, int idle, long leases, long timeouts, long created, long evicted,
+                     long totalWaitNanos, long maxWaitNanos, long statementHits, long statementMisses) {
+        this.active = active; this.idle = idle; this.leases = leases; this.timeouts = timeouts;
+        this.created = created; this.evicted = evicted; this.totalWaitNanos = totalWaitNanos;
+        this.maxWaitNanos = maxWaitNanos; this.statementHits = statementHits; this.statementMisses = statementMisses;
+    }
+
+    public int getActive() { return active; }
+    public int getIdle() { return idle; }
+    public long getLeases() { return leases; }
+    public long getTimeouts() { return timeouts; }
+    public long getCreated() { return created; }
+    public long getEvicted() { return evicted; }
+    public long getTotalWaitNanos() { return totalWaitNanos; }
+    public long getMaxWaitNanos() { return maxWaitNanos; }
+    public long getStatementHits() { return statementHits; }
+    public long getStatementMisses() { return statementMisses; }
+
+    public double getAverageWaitMillis() { return leases == 0 ? 0 : totalWaitNanos / 1e6 / leases; }
+
+    public double getStatementHitRate() {
+        long total = statementHits + statementMisses;
+        return total == 0 ? 0 : (double) statementHits / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("active=%d idle=%d leases=%d timeouts=%d created=%d evicted=%d avgWait=%.3fms maxWait=%.3fms stmtHitRate=%.1f%%",
+                active, idle, leases, timeouts, created, evicted, getAverageWaitMillis(), maxWaitNanos / 1e6, getStatementHitRate() * 100);
+    }
+}
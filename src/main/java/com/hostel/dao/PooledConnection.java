@@ -0,0 +1,77 @@
+package com.hostel.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A leased connection plus its prepared-statement cache. Statements returned by
+ * {@link #prepare} belong to the cache and must not be closed by the caller; their
+ * result sets must. Only the thread holding the lease may use it.
+ */
+public class PooledConnection implements AutoCloseable {
+    private final ConnectionPool pool;
+    private final Connection conn;
+    private final Map<String, PreparedStatement> statements;
+    volatile long lastUsed = System.nanoTime();
+    boolean leased;
+
+    PooledConnection(ConnectionPool pool, Connection conn, int cacheSize) {
+        this.pool = pool;
+        this.conn = conn;
+        this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= cacheSize) return false;
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    public Connection connection() { return conn; }
+
+    public PreparedStatement prepare(String sql) throws SQLException {
+        return prepare(sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    public PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "K:" + sql : sql;
+        PreparedStatement ps = statements.get(key);
+        if (ps != null && !ps.isClosed()) {
+            pool.statementHits.increment();
+            return ps;
+        }
+        pool.statementMisses.increment();
+        ps = conn.prepareStatement(sql, autoGeneratedKeys);
+        statements.put(key, ps);
+        return ps;
+    }
+
+    /** Returns the connection to the pool. */
+    @Override
+    public void close() {
+        if (!leased) return;
+        leased = false;
+        pool.release(this);
+    }
+
+    void closeQuietly() {
+        for (PreparedStatement ps : statements.values()) closeQuietly(ps);
+        statements.clear();
+        try {
+            conn.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private static void closeQuietly(Statement st) {
+        try {
+            st.close();
+        } catch (SQLException ignored) {
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.hostel.dao;
+
+import com.hostel.exception.DatabaseException;
+import com.hostel.exception.SchemaMigrationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Applies the numbered scripts under {@code db/migration} on the classpath in version order and
+ * records each in {@code schema_version} with a checksum. Editing a script after it has been
+ * applied is an error; add a new version instead. Index and table creation that already exists
+ * (for example in a database built from {@code sql/schema.sql}), and dropping an index that is
+ * already gone, counts as applied.
+ */
+public class SchemaMigrator {
+    // add new scripts here in version order
+    private static final String[] SCRIPTS = {
+            "V1__baseline.sql",
+            "V2__lookup_indexes.sql",
+            "V3__unique_student_keys.sql",
+            "V4__waitlist.sql",
+    };
+    private static final String LOCK_NAME = "hostel_schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+    // MySQL errors meaning the object a script creates is already there
+    private static final int ER_TABLE_EXISTS = 1050;
+    private static final int ER_DUP_KEYNAME = 1061;
+    // ... or that an index a script drops is already gone
+    private static final int ER_CANT_DROP_FIELD_OR_KEY = 1091;
+
+    public static class Migration {
+        private final int version;
+        private final String description;
+        private final long checksum;
+        private final String sql;
+
+        Migration(int version, String description, long checksum, String sql) {
+            this.version = version; this.description = description; this.checksum = checksum; this.sql = sql;
+        }
+
+        public int getVersion() { return version; }
+        public String getDescription() { return description; }
+        public long getChecksum() { return checksum; }
+
+        @Override
+        public String toString() { return "V" + version + " " + description; }
+    }
+
+    private final List<Migration> migrations;
+
+    public SchemaMigrator() throws DatabaseException {
+        List<Migration> list = new ArrayList<>();
+        for (String name : SCRIPTS) list.add(load(name));
+        this.migrations = Collections.unmodifiableList(list);
+    }
+
+    public List<Migration> getMigrations() { return migrations; }
+
+    private static Migration load(String name) throws DatabaseException {
+        int sep = name.indexOf("__");
+        int version = Integer.parseInt(name.substring(1, sep));
+        String description = name.substring(sep + 2, name.lastIndexOf('.')).replace('_', ' ');
+        try (InputStream in = SchemaMigrator.class.getResourceAsStream("/db/migration/" + name)) {
+            if (in == null) throw new SchemaMigrationException("Missing migration script " + name, null);
+            ByteArrayOutputStream buf = new ByteArrayOutputStream();
+            in.transferTo(buf);
+            String sql = buf.toString(StandardCharsets.UTF_8).replace("\r\n", "\n");
+            CRC32 crc = new CRC32();
+            crc.update(sql.getBytes(StandardCharsets.UTF_8));
+            return new Migration(version, description, crc.getValue(), sql);
+        } catch (IOException e) {
+            throw new SchemaMigrationException("Unable to read migration " + name + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Brings the schema up to date and returns every applied migration, oldest first.
+     * Holds a named lock so concurrently starting instances migrate one at a time. Failures are
+     * {@link SchemaMigrationException}s, so callers can tell them from an unreachable server.
+     */
+    public List<Migration> migrate(Connection conn) throws DatabaseException {
+        try {
+            lock(conn);
+            try {
+                try (Statement st = conn.createStatement()) {
+                    st.execute("CREATE TABLE IF NOT EXISTS schema_version (version INT PRIMARY KEY, description VARCHAR(200) NOT NULL, "
+                            + "checksum BIGINT NOT NULL, applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+                }
+                Map<Integer, Long> applied = appliedChecksums(conn);
+                List<Migration> done = new ArrayList<>();
+                for (Migration m : migrations) {
+                    Long checksum = applied.get(m.version);
+                    if (checksum == null) {
+                        apply(conn, m);
+                    } else if (checksum != m.checksum) {
+                        throw new SchemaMigrationException("Migration " + m + " was modified after it was applied (checksum "
+                                + checksum + " in database, " + m.checksum + " on classpath)", null);
+                    }
+                    done.add(m);
+                }
+                return done;
+            } finally {
+                unlock(conn);
+            }
+        } catch (SQLException e) {
+            throw new SchemaMigrationException("Schema migration failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static Map<Integer, Long> appliedChecksums(Connection conn) throws SQLException {
+        Map<Integer, Long> m = new TreeMap<>();
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) m.put(rs.getInt(1), rs.getLong(2));
+        }
+        return m;
+    }
+
+    private static void apply(Connection conn, Migration m) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            for (String sql : statements(m.sql)) {
+                try {
+                    st.execute(sql);
+                } catch (SQLException e) {
+                    int code = e.getErrorCode();
+                    if (code != ER_TABLE_EXISTS && code != ER_DUP_KEYNAME && code != ER_CANT_DROP_FIELD_OR_KEY) {
+                        throw new SQLException("V" + m.version + ": " + e.getMessage(), e.getSQLState(), e.getErrorCode(), e);
+                    }
+                }
+            }
+        }
+        try (PreparedStatement ps = conn.prepareStatement("INSERT INTO schema_version (version, description, checksum) VALUES (?,?,?)")) {
+            ps.setInt(1, m.version);
+            ps.setString(2, m.description);
+            ps.setLong(3, m.checksum);
+            ps.executeUpdate();
+        }
+    }
+
+    /** Splits a script on semicolons that end a line, dropping {@code --} comment lines. */
+    static List<String> statements(String script) {
+        List<String> out = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        for (String line : script.split("\n")) {
+            String t = line.trim();
+            if (t.isEmpty() || t.startsWith("--")) continue;
+            cur.append(line).append('\n');
+            if (t.endsWith(";")) {
+                String sql = cur.toString().trim();
+                out.add(sql.substring(0, sql.length() - 1));
+                cur.setLength(0);
+            }
+        }
+        if (cur.toString().trim().length() > 0) out.add(cur.toString().trim());
+        return out;
+    }
+
+    private static void lock(Connection conn) throws SQLException, DatabaseException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) throw new SchemaMigrationException("Timed out waiting for the schema migration lock", null);
+            }
+        }
+    }
+
+    private static void unlock(Connection conn) {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery().close();
+        } catch (SQLException ignored) {
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package com.hostel.dao;
+
+import com.hostel.exception.DatabaseException;
+import com.hostel.exception.InvalidInputException;
+import com.hostel.model.OccupancySnapshot;
+import com.hostel.model.Room;
+import com.hostel.model.Student;
+import com.hostel.model.Transfer;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Keeps occupancy totals current by updating counters on every write that passes through it,
+ * so {@link #snapshot()} is O(1) instead of three full scans. Counters start from a full scan;
+ * {@link #startVerifier} periodically re-scans, reports drift (for example from writes that
+ * bypassed this decorator) and corrects it. Single-row writes run concurrently with each other
+ * but not with a scan, so a scan always sees a consistent store. Bulk writes read the
+ * allocations they will remove or move first, so they run alone and apply the per-room changes.
+ */
+public class StatisticsDatabase extends ForwardingDatabase {
+    private final ReentrantReadWriteLock scanLock = new ReentrantReadWriteLock();
+    private final Map<Integer, int[]> roomState = new HashMap<>(); // roomId -> {capacity, occupied}
+    private int totalRooms;
+    private long totalBeds;
+    private long occupiedBeds;
+    private int totalStudents;
+    private int allocatedStudents;
+    private int fullRooms;
+    private volatile OccupancySnapshot snapshot;
+    private volatile boolean dirty;
+    private ScheduledExecutorService verifier;
+
+    public StatisticsDatabase(DatabaseOperations delegate) throws DatabaseException {
+        super(delegate);
+        resync();
+    }
+
+    /** Current totals; never blocks. */
+    public OccupancySnapshot snapshot() {
+        return snapshot;
+    }
+
+    private interface Write<T, X extends Exception> {
+        T run() throws DatabaseException, X;
+    }
+
+    private <T, X extends Exception> T write(Write<T, X> w) throws DatabaseException, X {
+        scanLock.readLock().lock();
+        try {
+            return w.run();
+        } finally {
+            scanLock.readLock().unlock();
+            // counters could not be adjusted precisely; rebuild them now that the scan lock is free
+            if (dirty) resync();
+        }
+    }
+
+    /** A write whose pre-read must not go stale: excludes other writes as well as scans. */
+    private <T, X extends Exception> T bulkWrite(Write<T, X> w) throws DatabaseException, X {
+        scanLock.writeLock().lock();
+        try {
+            return w.run();
+        } finally {
+            scanLock.writeLock().unlock();
+            if (dirty) resync();
+        }
+    }
+
+    private synchronized void publish() {
+        snapshot = new OccupancySnapshot(totalRooms, totalBeds, occupiedBeds, totalStudents, allocatedStudents, fullRooms);
+    }
+
+    private synchronized void studentsAdded(int n) {
+        totalStudents += n;
+        publish();
+    }
+
+    private synchronized void roomAdded(int id, int capacity, int occupied) {
+        roomState.put(id, new int[] {capacity, occupied});
+        totalRooms++;
+        totalBeds += capacity;
+        occupiedBeds += occupied;
+        if (occupied >= capacity) fullRooms++;
+        publish();
+    }
+
+    /** One bed in {@code roomId} taken (+1) or freed (-1) together with the matching allocation. */
+    private synchronized void occupy(int roomId, int delta, int studentsDelta) {
+        int[] st = roomState.get(roomId);
+        if (st == null) {
+            dirty = true;
+            return;
+        }
+        boolean wasFull = st[1] >= st[0];
+        st[1] += delta;
+        boolean isFull = st[1] >= st[0];
+        if (wasFull != isFull) fullRooms += isFull ? 1 : -1;
+        occupiedBeds += delta;
+        allocatedStudents += delta;
+        totalStudents += studentsDelta;
+        publish();
+    }
+
+    /** Frees one bed per entry of {@code allocations} (student id -> room id). */
+    private synchronized void release(Map<Integer, Integer> allocations) {
+        Map<Integer, Integer> freed = new HashMap<>();
+        for (int rid : allocations.values()) freed.merge(rid, 1, Integer::sum);
+        for (Map.Entry<Integer, Integer> e : freed.entrySet()) occupy(e.getKey(), -e.getValue(), 0);
+    }
+
+    @Override
+    public int addStudent(Student s) throws DatabaseException, InvalidInputException {
+        return write(() -> {
+            int id = delegate.addStudent(s);
+            if (id > 0) studentsAdded(1);
+            return id;
+        });
+    }
+
+    @Override
+    public BulkResult addStudents(Iterable<Student> students) throws DatabaseException {
+        return write(() -> {
+            BulkResult result = delegate.addStudents(students);
+            studentsAdded(result.getSucceeded());
+            return result;
+        });
+    }
+
+    @Override
+    public int addRoom(Room r) throws DatabaseException, InvalidInputException {
+        return write(() -> {
+            int id = delegate.addRoom(r);
+            if (id > 0) roomAdded(id, r.getCapacity(), Math.min(r.getOccupied(), r.getCapacity()));
+            return id;
+        });
+    }
+
+    @Override
+    public boolean allocateRoom(int studentId, int roomId) throws DatabaseException, InvalidInputException {
+        return write(() -> {
+            boolean ok = delegate.allocateRoom(studentId, roomId);
+            if (ok) occupy(roomId, 1, 0);
+            return ok;
+        });
+    }
+
+    @Override
+    public int allocateRooms(Map<Integer, Integer> assignments) throws DatabaseException, InvalidInputException {
+        return write(() -> {
+            int n = delegate.allocateRooms(assignments);
+            for (Map.Entry<Integer, Integer> e : assignments.entrySet()) {
+                // a partial, non-atomic apply: count only the rows that went in
+                if (n == assignments.size() || (n > 0 && e.getValue().equals(roomOf(e.getKey())))) occupy(e.getValue(), 1, 0);
+            }
+            return n;
+        });
+    }
+
+    @Override
+    public boolean deallocateStudent(int studentId) throws DatabaseException {
+        return deallocateReturningRoom(studentId) != 0;
+    }
+
+    @Override
+    public int deallocateReturningRoom(int studentId) throws DatabaseException {
+        return write(() -> {
+            int freed = delegate.deallocateReturningRoom(studentId);
+            if (freed != 0) occupy(freed, -1, 0);
+            return freed;
+        });
+    }
+
+    @Override
+    public int deallocateStudents(Collection<Integer> studentIds) throws DatabaseException {
+        return bulkWrite(() -> {
+            Map<Integer, Integer> before = new HashMap<>();
+            for (int sid : studentIds) {
+                Integer rid = roomOf(sid);
+                if (rid != null) before.put(sid, rid);
+            }
+            int n = delegate.deallocateStudents(studentIds);
+            if (n > 0) release(before);
+            return n;
+        });
+    }
+
+    /**
+     * Rooms lose the beds of the allocations in them. Occupancy no allocation accounts for (a room
+     * added with students already counted) is left to {@link #verify()} to reconcile.
+     */
+    @Override
+    public int vacateRooms(Collection<Integer> roomIds) throws DatabaseException {
+        return bulkWrite(() -> {
+            Map<Integer, Integer> before = allocationsIn(new HashSet<>(roomIds));
+            int n = delegate.vacateRooms(roomIds);
+            if (n > 0) release(before);
+            return n;
+        });
+    }
+
+    @Override
+    public int vacateByLabelPrefix(String prefix) throws DatabaseException, InvalidInputException {
+        return bulkWrite(() -> {
+            Set<Integer> rooms = new HashSet<>();
+            if (prefix != null && !prefix.isEmpty()) {
+                for (Room r : delegate.getAllRooms()) {
+                    if (r.getNumber() != null && r.getNumber().startsWith(prefix)) rooms.add(r.getId());
+                }
+            }
+            Map<Integer, Integer> before = allocationsIn(rooms);
+            int n = delegate.vacateByLabelPrefix(prefix);
+            if (n > 0) release(before);
+            return n;
+        });
+    }
+
+    @Override
+    public boolean transferStudent(int studentId, int toRoomId) throws DatabaseException, InvalidInputException {
+        return write(() -> {
+            Room before = delegate.getAllocatedRoomForStudent(studentId);
+            boolean ok = delegate.transferStudent(studentId, toRoomId);
+            if (ok) {
+                if (before != null) occupy(before.getId(), -1, 0);
+                else dirty = true;
+                occupy(toRoomId, 1, 0);
+            }
+            return ok;
+        });
+    }
+
+    /** A swap leaves every room's occupancy as it was. */
+    @Override
+    public boolean swapStudents(int studentA, int studentB) throws DatabaseException, InvalidInputException {
+        return write(() -> delegate.swapStudents(studentA, studentB));
+    }
+
+    /** The stores apply a batch all-or-nothing, so every listed move happened once n is not 0. */
+    @Override
+    public int applyTransfers(List<Transfer> transfers) throws DatabaseException, InvalidInputException {
+        return bulkWrite(() -> {
+            Map<Integer, Integer> before = new HashMap<>();
+            for (Transfer t : transfers) before.put(t.getStudentId(), roomOf(t.getStudentId()));
+            int n = delegate.applyTransfers(transfers);
+            if (n == 0) return 0;
+            for (Transfer t : transfers) {
+                Integer from = before.get(t.getStudentId());
+                if (from == null || from == t.getToRoomId()) continue;
+                occupy(from, -1, 0);
+                occupy(t.getToRoomId(), 1, 0);
+            }
+            return n;
+        });
+    }
+
+    @Override
+    public boolean deleteStudent(int studentId) throws DatabaseException {
+        return deleteReturningRoom(studentId) >= 0;
+    }
+
+    @Override
+    public int deleteReturningRoom(int studentId) throws DatabaseException {
+        return write(() -> {
+            int freed = delegate.deleteReturningRoom(studentId);
+            if (freed > 0) occupy(freed, -1, -1);
+            else if (freed == 0) studentsAdded(-1);
+            return freed;
+        });
+    }
+
+    private Integer roomOf(int studentId) throws DatabaseException {
+        Room r = delegate.getAllocatedRoomForStudent(studentId);
+        return r == null ? null : r.getId();
+    }
+
+    private Map<Integer, Integer> allocationsIn(Set<Integer> rooms) throws DatabaseException {
+        Map<Integer, Integer> out = new HashMap<>();
+        if (rooms.isEmpty()) return out;
+        for (Map.Entry<Integer, Integer> e : delegate.getAllAllocations().entrySet()) {
+            if (rooms.contains(e.getValue())) out.put(e.getKey(), e.getValue());
+        }
+        return out;
+    }
+
+    /** Rebuilds every counter from a full scan of the wrapped store. */
+    public void resync() throws DatabaseException {
+        scanLock.writeLock().lock();
+        try {
+            install(scan());
+        } finally {
+            scanLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Compares the counters against a full scan. On drift the difference is reported on stderr
+     * and the counters are replaced by the scanned values. Returns true when they matched.
+     */
+    public boolean verify() throws DatabaseException {
+        scanLock.writeLock().lock();
+        try {
+            Scan fresh = scan();
+            OccupancySnapshot current = snapshot;
+            boolean ok = fresh.snapshot.equals(current);
+            if (!ok) System.err.println("Occupancy statistics drifted: counted " + current + ", scanned " + fresh.snapshot);
+            install(fresh);
+            return ok;
+        } finally {
+            scanLock.writeLock().unlock();
+        }
+    }
+
+    /** Runs {@link #verify()} every {@code periodMillis} on a daemon thread. */
+    public synchronized void startVerifier(long periodMillis) {
+        if (verifier != null) return;
+        verifier = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "occupancy-verifier");
+            t.setDaemon(true);
+            return t;
+        });
+        verifier.scheduleWithFixedDelay(() -> {
+            try {
+                verify();
+            } catch (DatabaseException | RuntimeException e) {
+                System.err.println("Occupancy verification failed: " + e.getMessage());
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopVerifier() {
+        if (verifier != null) {
+            verifier.shutdownNow();
+            verifier = null;
+        }
+    }
+
+    private static final class Scan {
+        final Map<Integer, int[]> rooms = new HashMap<>();
+        OccupancySnapshot snapshot;
+    }
+
+    private Scan scan() throws DatabaseException {
+        Scan s = new Scan();
+        long beds = 0, occupied = 0;
+        int full = 0;
+        try (Stream<Room> rooms = delegate.streamRooms()) {
+            for (Room r : (Iterable<Room>) rooms::iterator) {
+                s.rooms.put(r.getId(), new int[] {r.getCapacity(), r.getOccupied()});
+                beds += r.getCapacity();
+                occupied += r.getOccupied();
+                if (r.getOccupied() >= r.getCapacity()) full++;
+            }
+        }
+        long studentCount;
+        try (Stream<Student> students = delegate.streamStudents()) {
+            studentCount = students.count();
+        }
+        long allocationCount;
+        try (Stream<Map.Entry<Integer, Integer>> allocations = delegate.streamAllocations()) {
+            allocationCount = allocations.count();
+        }
+        s.snapshot = new OccupancySnapshot(s.rooms.size(), beds, occupied, (int) studentCount, (int) allocationCount, full);
+        return s;
+    }
+
+    private synchronized void install(Scan s) {
+        roomState.clear();
+        roomState.putAll(s.rooms);
+        OccupancySnapshot o = s.snapshot;
+        totalRooms = o.getTotalRooms();
+        totalBeds = o.getTotalBeds();
+        occupiedBeds = o.getOccupiedBeds();
+        totalStudents = o.getTotalStudents();
+        allocatedStudents = o.getAllocatedStudents();
+        fullRooms = o.getFullRooms();
+        dirty = false;
+        snapshot = o;
+    }
+}
@@ -0,0 +1,31 @@
+package com.hostel.dao;
+
+import com.hostel.model.Student;
+
+import java.util.Locale;
+
+/** Keys of the unique student indexes, normalised the way MySQL's default collation compares them. */
+final class StudentKeys {
+    private StudentKeys() {}
+
+    /** Trimmed, lower-cased email, or null for a missing or blank one (those are not indexed). */
+    static String email(String email) {
+        if (email == null || email.isBlank()) return null;
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Student id a numeric roll number maps to in the in-memory stores, or null if it is not numeric. */
+    static Integer idOf(String rollNo) {
+        if (rollNo == null) return null;
+        try {
+            return Integer.parseInt(rollNo.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** Whether {@code s}'s roll number is exactly {@code rollNo}, ignoring surrounding spaces. */
+    static boolean sameRollNo(Student s, String rollNo) {
+        return s != null && s.getRollNo() != null && s.getRollNo().trim().equals(rollNo.trim());
+    }
+}
@@ -0,0 +1,96 @@
+package com.hostel.dao;
+
+import com.hostel.exception.DatabaseException;
+import com.hostel.exception.InvalidInputException;
+import com.hostel.model.Room;
+import com.hostel.model.Transfer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A batch of transfers resolved against the current allocations: each mover's source room and
+ * each room's net change in occupancy. Since the batch is applied as a whole only the net change
+ * has to fit, so a cycle of moves between full rooms (a swap is the smallest) nets to zero and is
+ * accepted. Moves to the room a student is already in are dropped.
+ */
+final class TransferPlan {
+    /** Current room of a student, or null when not allocated (or unknown). */
+    interface Allocations {
+        Integer roomOf(int studentId) throws DatabaseException;
+    }
+
+    /** Current state of a room, or null when there is no such room. */
+    interface Rooms {
+        Room get(int roomId) throws DatabaseException;
+    }
+
+    final int[] students;
+    final int[] from;
+    final int[] to;
+    final int size;
+    /** roomId -&gt; net change in occupancy, ascending room id, zero entries left out */
+    final TreeMap<Integer, Integer> delta = new TreeMap<>();
+
+    private TransferPlan(int n) {
+        students = new int[n];
+        from = new int[n];
+        to = new int[n];
+        size = n;
+    }
+
+    static TransferPlan resolve(List<Transfer> transfers, Allocations current) throws DatabaseException, InvalidInputException {
+        Set<Integer> seen = new HashSet<>();
+        int[] sid = new int[transfers.size()], src = new int[transfers.size()], dst = new int[transfers.size()];
+        int n = 0;
+        for (Transfer t : transfers) {
+            if (!seen.add(t.getStudentId())) throw new InvalidInputException("Student " + t.getStudentId() + " appears more than once in the transfers");
+            Integer room = current.roomOf(t.getStudentId());
+            if (room == null) throw new InvalidInputException("Student " + t.getStudentId() + " not found or not allocated to a room");
+            if (room == t.getToRoomId()) continue;
+            sid[n] = t.getStudentId();
+            src[n] = room;
+            dst[n] = t.getToRoomId();
+            n++;
+        }
+        TransferPlan p = new TransferPlan(n);
+        System.arraycopy(sid, 0, p.students, 0, n);
+        System.arraycopy(src, 0, p.from, 0, n);
+        System.arraycopy(dst, 0, p.to, 0, n);
+        for (int i = 0; i < n; i++) {
+            p.delta.merge(p.from[i], -1, Integer::sum);
+            p.delta.merge(p.to[i], 1, Integer::sum);
+        }
+        p.delta.values().removeIf(d -> d == 0);
+        return p;
+    }
+
+    /**
+     * Checks that every room the plan fills on balance exists and has the beds. Rooms that lose or
+     * break even are sources of current allocations, so they exist.
+     */
+    void checkCapacity(Rooms rooms) throws DatabaseException, InvalidInputException {
+        for (Map.Entry<Integer, Integer> e : delta.entrySet()) {
+            if (e.getValue() <= 0) continue;
+            Room r = rooms.get(e.getKey());
+            if (r == null) throw new InvalidInputException("Room not found: " + e.getKey());
+            if (r.getOccupied() + e.getValue() > r.getCapacity()) {
+                throw new InvalidInputException("Room " + r.getNumber() + " does not have " + e.getValue() + " free beds");
+            }
+        }
+    }
+
+    /** The two moves that exchange the rooms of {@code a} and {@code b}; empty when they share a room. */
+    static List<Transfer> swap(DatabaseOperations db, int a, int b) throws DatabaseException, InvalidInputException {
+        Room ra = db.getAllocatedRoomForStudent(a), rb = db.getAllocatedRoomForStudent(b);
+        if (ra == null) throw new InvalidInputException("Student " + a + " not found or not allocated to a room");
+        if (rb == null) throw new InvalidInputException("Student " + b + " not found or not allocated to a room");
+        if (a == b || ra.getId() == rb.getId()) return Collections.emptyList();
+        return Arrays.asList(new Transfer(a, rb.getId()), new Transfer(b, ra.getId()));
+    }
+}
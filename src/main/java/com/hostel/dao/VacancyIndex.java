@@ -0,0 +1,76 @@
+package com.hostel.dao;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Index of rooms by free beds, kept current by the store on every write so vacancy queries
+ * never scan all rooms: first vacant room and best fit in O(log n), free-bed total in O(1).
+ * Not thread-safe; the owning store serialises access.
+ */
+public class VacancyIndex {
+    private final Map<Integer, Integer> freeOf = new HashMap<>();            // roomId -> free beds
+    private final TreeMap<Integer, TreeSet<Integer>> byFree = new TreeMap<>(); // free beds -> roomIds
+    private final TreeSet<Integer> vacant = new TreeSet<>();                  // roomIds with free > 0
+    private long freeBeds;
+
+    /** Records the current number of free beds of a room, adding it if new. */
+    public void update(int roomId, int free) {
+        free = Math.max(0, free);
+        Integer old = freeOf.put(roomId, free);
+        if (old != null) {
+            if (old == free) return;
+            unlink(roomId, old);
+        }
+        freeBeds += free;
+        if (free > 0) {
+            byFree.computeIfAbsent(free, k -> new TreeSet<>()).add(roomId);
+            vacant.add(roomId);
+        }
+    }
+
+    public void remove(int roomId) {
+        Integer old = freeOf.remove(roomId);
+        if (old != null) unlink(roomId, old);
+    }
+
+    private void unlink(int roomId, int free) {
+        freeBeds -= free;
+        if (free == 0) return;
+        TreeSet<Integer> ids = byFree.get(free);
+        ids.remove(roomId);
+        if (ids.isEmpty()) byFree.remove(free);
+        vacant.remove(roomId);
+    }
+
+    /** Lowest room id with a free bed, or -1. */
+    public int firstVacant() {
+        return vacant.isEmpty() ? -1 : vacant.first();
+    }
+
+    /** Room with the fewest free beds that still has at least {@code beds} (lowest id on ties), or -1. */
+    public int bestFit(int beds) {
+        Map.Entry<Integer, TreeSet<Integer>> e = byFree.ceilingEntry(Math.max(1, beds));
+        return e == null ? -1 : e.getValue().first();
+    }
+
+    public long freeBeds() { return freeBeds; }
+
+    public int vacantRoomCount() { return vacant.size(); }
+
+    /** Live, read-only view of vacant room ids in id order; do not write to the store while iterating. */
+    public Iterator<Integer> vacantRooms() {
+        return Collections.unmodifiableSet(vacant).iterator();
+    }
+
+    public void clear() {
+        freeOf.clear();
+        byFree.clear();
+        vacant.clear();
+        freeBeds = 0;
+    }
+}
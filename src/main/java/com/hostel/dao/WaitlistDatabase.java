@@ -0,0 +1,273 @@
+package com.hostel.dao;
+
+import com.hostel.exception.DatabaseException;
+import com.hostel.exception.InvalidInputException;
+import com.hostel.model.Room;
+import com.hostel.model.Transfer;
+import com.hostel.model.WaitlistEntry;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Waitlist in front of any store. Students queue for a specific room or for any room, ordered by
+ * priority and then first come, first served. Every write through this decorator that frees a
+ * bed (deallocating, deleting or transferring a student, vacating rooms, adding a room) hands it
+ * to the best waiting student before the write returns, so nobody has to poll. Queues are
+ * ordered sets per room plus one for "any room", so serving a head is O(log n); entries are
+ * written through to a {@link WaitlistStore}. Store writes run unlocked; only the queue updates
+ * and the hand-out of freed beds hold this decorator's lock, and not at all while nobody is
+ * waiting. Allocations made around it are only noticed when the next bed frees up.
+ */
+public class WaitlistDatabase extends ForwardingDatabase {
+    private static final Comparator<WaitlistEntry> ORDER =
+            Comparator.comparingInt((WaitlistEntry e) -> -e.getPriority()).thenComparingLong(WaitlistEntry::getSeq);
+
+    private final WaitlistStore store;
+    // the queues and nextSeq are guarded by lock; byStudent is also read without it to skip the
+    // lock entirely while nobody is waiting
+    private final Object lock = new Object();
+    private final Map<Integer, TreeSet<WaitlistEntry>> byRoom = new HashMap<>();
+    private final TreeSet<WaitlistEntry> anyRoom = new TreeSet<>(ORDER);
+    private final Map<Integer, WaitlistEntry> byStudent = new ConcurrentHashMap<>();
+    private long nextSeq = 1;
+
+    public WaitlistDatabase(DatabaseOperations delegate, WaitlistStore store) throws DatabaseException {
+        super(delegate);
+        this.store = store;
+        for (WaitlistEntry e : store.loadAll()) {
+            index(e);
+            nextSeq = Math.max(nextSeq, e.getSeq() + 1);
+        }
+    }
+
+    /**
+     * Puts the student in line for {@code roomId}, or for any room when it is null, replacing an
+     * earlier place. A matching free bed is handed out at once. Returns the place in the queue,
+     * or 0 when the student got a bed straight away.
+     */
+    public int enqueue(int studentId, Integer roomId, int priority) throws DatabaseException, InvalidInputException {
+        if (delegate.getStudent(studentId) == null) throw new InvalidInputException("Student not found");
+        if (delegate.getAllocatedRoomForStudent(studentId) != null) throw new InvalidInputException("Student already allocated to a room");
+        if (roomId != null) {
+            List<Room> page = delegate.getRoomsPage(roomId - 1, 1);
+            if (page.isEmpty() || page.get(0).getId() != roomId) throw new InvalidInputException("Room not found");
+        }
+        WaitlistEntry e;
+        synchronized (lock) {
+            e = new WaitlistEntry(studentId, roomId, priority, nextSeq++);
+            store.put(e);
+            WaitlistEntry old = byStudent.get(studentId);
+            if (old != null) unindex(old);
+            index(e);
+            if (roomId != null) fill(roomId);
+        }
+        if (roomId == null && delegate.findFirstAvailableRoom() != null) fillAll(e);
+        return getPosition(studentId);
+    }
+
+    /** Takes the student off the waitlist; false if they were not on it. */
+    public boolean dequeue(int studentId) throws DatabaseException {
+        if (!byStudent.containsKey(studentId)) return false;
+        synchronized (lock) {
+            WaitlistEntry e = byStudent.get(studentId);
+            if (e == null) return false;
+            drop(e);
+            return true;
+        }
+    }
+
+    /** The student's entry, or null when not waiting. */
+    public WaitlistEntry getEntry(int studentId) {
+        return byStudent.get(studentId);
+    }
+
+    /** 1-based place in the student's own queue, or 0 when not waiting. O(place). */
+    public int getPosition(int studentId) {
+        if (!byStudent.containsKey(studentId)) return 0;
+        synchronized (lock) {
+            WaitlistEntry e = byStudent.get(studentId);
+            if (e == null) return 0;
+            return queue(e).headSet(e).size() + 1;
+        }
+    }
+
+    public int size() {
+        return byStudent.size();
+    }
+
+    // ---- writes that take a waiting student off the list ----
+
+    @Override
+    public boolean allocateRoom(int studentId, int roomId) throws DatabaseException, InvalidInputException {
+        boolean ok = delegate.allocateRoom(studentId, roomId);
+        if (ok) dequeue(studentId);
+        return ok;
+    }
+
+    @Override
+    public int allocateRooms(Map<Integer, Integer> assignments) throws DatabaseException, InvalidInputException {
+        int n = delegate.allocateRooms(assignments);
+        if (n > 0 && !byStudent.isEmpty()) {
+            for (int sid : assignments.keySet()) dequeue(sid);
+        }
+        return n;
+    }
+
+    // ---- writes that free beds ----
+
+    @Override
+    public boolean deallocateStudent(int studentId) throws DatabaseException {
+        if (byStudent.isEmpty()) return delegate.deallocateStudent(studentId);
+        return deallocateReturningRoom(studentId) != 0;
+    }
+
+    @Override
+    public int deallocateReturningRoom(int studentId) throws DatabaseException {
+        int freed = delegate.deallocateReturningRoom(studentId);
+        if (freed > 0) fillLocked(freed);
+        return freed;
+    }
+
+    @Override
+    public boolean deleteStudent(int studentId) throws DatabaseException {
+        if (byStudent.isEmpty()) return delegate.deleteStudent(studentId);
+        return deleteReturningRoom(studentId) >= 0;
+    }
+
+    @Override
+    public int deleteReturningRoom(int studentId) throws DatabaseException {
+        int freed = delegate.deleteReturningRoom(studentId);
+        if (freed >= 0) dequeue(studentId);
+        if (freed > 0) fillLocked(freed);
+        return freed;
+    }
+
+    @Override
+    public int deallocateStudents(Collection<Integer> studentIds) throws DatabaseException {
+        if (byStudent.isEmpty()) return delegate.deallocateStudents(studentIds);
+        Set<Integer> rooms = new LinkedHashSet<>();
+        for (int sid : studentIds) {
+            Room r = delegate.getAllocatedRoomForStudent(sid);
+            if (r != null) rooms.add(r.getId());
+        }
+        int n = delegate.deallocateStudents(studentIds);
+        if (n > 0) {
+            for (int rid : rooms) fillLocked(rid);
+        }
+        return n;
+    }
+
+    @Override
+    public int vacateRooms(Collection<Integer> roomIds) throws DatabaseException {
+        int n = delegate.vacateRooms(roomIds);
+        for (int rid : new LinkedHashSet<>(roomIds)) {
+            if (byStudent.isEmpty()) break;
+            fillLocked(rid);
+        }
+        return n;
+    }
+
+    @Override
+    public int vacateByLabelPrefix(String prefix) throws DatabaseException, InvalidInputException {
+        int n = delegate.vacateByLabelPrefix(prefix);
+        fillAll(null);
+        return n;
+    }
+
+    @Override
+    public boolean transferStudent(int studentId, int toRoomId) throws DatabaseException, InvalidInputException {
+        if (byStudent.isEmpty()) return delegate.transferStudent(studentId, toRoomId);
+        Room before = delegate.getAllocatedRoomForStudent(studentId);
+        boolean ok = delegate.transferStudent(studentId, toRoomId);
+        if (ok && before != null) fillLocked(before.getId());
+        return ok;
+    }
+
+    @Override
+    public int applyTransfers(List<Transfer> transfers) throws DatabaseException, InvalidInputException {
+        int n = delegate.applyTransfers(transfers);
+        if (n > 0) fillAll(null);
+        return n;
+    }
+
+    @Override
+    public int addRoom(Room r) throws DatabaseException, InvalidInputException {
+        int id = delegate.addRoom(r);
+        if (id > 0) fillLocked(id);
+        return id;
+    }
+
+    // ---- queues ----
+
+    private TreeSet<WaitlistEntry> queue(WaitlistEntry e) {
+        return e.getRoomId() == null ? anyRoom : byRoom.get(e.getRoomId());
+    }
+
+    private void index(WaitlistEntry e) {
+        byStudent.put(e.getStudentId(), e);
+        if (e.getRoomId() == null) anyRoom.add(e);
+        else byRoom.computeIfAbsent(e.getRoomId(), k -> new TreeSet<>(ORDER)).add(e);
+    }
+
+    private void unindex(WaitlistEntry e) {
+        byStudent.remove(e.getStudentId());
+        TreeSet<WaitlistEntry> q = queue(e);
+        q.remove(e);
+        if (q.isEmpty() && q != anyRoom) byRoom.remove(e.getRoomId());
+    }
+
+    private void drop(WaitlistEntry e) throws DatabaseException {
+        store.remove(e.getStudentId());
+        unindex(e);
+    }
+
+    /**
+     * Caller holds {@code lock}. Gives free beds in the room to the better of its own queue's head and the any-room head,
+     * until the room is full or nobody is waiting for it. Entries for students who were deleted
+     * or housed some other way are dropped on the way.
+     */
+    private void fill(int roomId) throws DatabaseException {
+        while (true) {
+            TreeSet<WaitlistEntry> own = byRoom.get(roomId);
+            WaitlistEntry a = own == null ? null : own.first(), b = anyRoom.isEmpty() ? null : anyRoom.first();
+            WaitlistEntry head = a == null ? b : b == null || ORDER.compare(a, b) <= 0 ? a : b;
+            if (head == null) return;
+            try {
+                if (!delegate.allocateRoom(head.getStudentId(), roomId)) return;
+            } catch (InvalidInputException e) {
+                // only a stale entry is dropped; a missing room must not empty the queue
+                int sid = head.getStudentId();
+                if (delegate.getStudent(sid) != null && delegate.getAllocatedRoomForStudent(sid) == null) return;
+            }
+            drop(head);
+        }
+    }
+
+    /** {@link #fill} for a write that has already gone to the store; skips the lock while nobody waits. */
+    private void fillLocked(int roomId) throws DatabaseException {
+        if (byStudent.isEmpty()) return;
+        synchronized (lock) {
+            fill(roomId);
+        }
+    }
+
+    /**
+     * For writes that may free beds anywhere: offers every room with a free bed, stopping early
+     * once {@code until} (when not null) has been served or replaced.
+     */
+    private void fillAll(WaitlistEntry until) throws DatabaseException {
+        if (byStudent.isEmpty()) return;
+        for (Room r : delegate.getAvailableRooms()) {
+            if (byStudent.isEmpty() || until != null && byStudent.get(until.getStudentId()) != until) return;
+            fillLocked(r.getId());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.hostel.dao;
+
+import com.hostel.exception.DatabaseException;
+import com.hostel.model.WaitlistEntry;
+
+import java.util.List;
+
+/**
+ * Where {@link WaitlistDatabase} keeps its entries so that the queues survive a restart. The
+ * decorator serves every query from memory and only writes through to the store.
+ */
+public interface WaitlistStore {
+    /** Every stored entry, in any order. */
+    List<WaitlistEntry> loadAll() throws DatabaseException;
+
+    /** Stores the entry, replacing any earlier one for the same student. */
+    void put(WaitlistEntry e) throws DatabaseException;
+
+    void remove(int studentId) throws DatabaseException;
+}
@@ -0,0 +1,137 @@
+package com.hostel.dao;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of binary records. Each frame is {@code [int length][int crc32][long lsn][payload]},
+ * the CRC covering lsn and payload, so a torn write at the tail is detected and cut off on replay.
+ * {@link #append} only buffers; {@link #sync} makes everything up to an LSN durable. Concurrent
+ * callers of {@code sync} share fsyncs: one thread writes and forces the whole buffer while the
+ * others wait for it, then return without forcing again if their record was covered.
+ */
+class WriteAheadLog implements Closeable {
+    interface Replay {
+        void apply(long lsn, ByteBuffer payload) throws IOException;
+    }
+
+    private final Object appendLock = new Object();
+    private final Object syncLock = new Object();
+    private final FileChannel channel;
+    private ByteBuffer pending = ByteBuffer.allocateDirect(1 << 16);
+    private final CRC32 crc = new CRC32();
+    private long lastLsn;
+    private volatile long durableLsn;
+
+    /** Opens {@code file} for appending; the next record gets {@code lastLsn + 1}. */
+    WriteAheadLog(Path file, long lastLsn) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.lastLsn = lastLsn;
+        this.durableLsn = lastLsn;
+    }
+
+    long getLastLsn() {
+        synchronized (appendLock) {
+            return lastLsn;
+        }
+    }
+
+    /** Buffers one record and returns its LSN. */
+    long append(ByteBuffer payload) throws IOException {
+        synchronized (appendLock) {
+            int len = 8 + payload.remaining();
+            if (pending.remaining() < 8 + len) {
+                drain();
+                if (pending.capacity() < 8 + len) pending = ByteBuffer.allocateDirect(Integer.highestOneBit(8 + len) << 1);
+            }
+            long lsn = ++lastLsn;
+            crc.reset();
+            ByteBuffer lsnBytes = ByteBuffer.allocate(8).putLong(0, lsn);
+            crc.update(lsnBytes);
+            crc.update(payload.duplicate());
+            pending.putInt(len).putInt((int) crc.getValue()).putLong(lsn).put(payload);
+            return lsn;
+        }
+    }
+
+    /** Blocks until every record up to {@code lsn} is on disk. */
+    void sync(long lsn) throws IOException {
+        if (durableLsn >= lsn) return;
+        synchronized (syncLock) {
+            if (durableLsn >= lsn) return; // the previous leader's fsync covered us
+            long upTo;
+            synchronized (appendLock) {
+                drain();
+                upTo = lastLsn;
+            }
+            channel.force(false);
+            durableLsn = upTo;
+        }
+    }
+
+    private void drain() throws IOException {
+        pending.flip();
+        while (pending.hasRemaining()) channel.write(pending);
+        pending.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sync(getLastLsn());
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Feeds every intact record of {@code file} to {@code replay} in order and returns the last LSN
+     * seen (or {@code afterLsn} if none). A truncated or corrupt tail is cut off the file.
+     */
+    static long replay(Path file, long afterLsn, Replay replay) throws IOException {
+        long last = afterLsn;
+        long good = 0;
+        CRC32 crc = new CRC32();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(ch), 1 << 16));
+            byte[] body = new byte[256];
+            long size = ch.size();
+            while (true) {
+                int len, sum;
+                try {
+                    len = in.readInt();
+                    sum = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (len < 8 || good + 8 + len > size) break;
+                if (body.length < len) body = new byte[Math.max(len, body.length * 2)];
+                in.readFully(body, 0, len);
+                crc.reset();
+                crc.update(body, 0, len);
+                if ((int) crc.getValue() != sum) break;
+                ByteBuffer rec = ByteBuffer.wrap(body, 0, len);
+                long lsn = rec.getLong();
+                if (lsn > last) {
+                    replay.apply(lsn, rec.slice());
+                    last = lsn;
+                }
+                good += 8 + len;
+            }
+            if (good < size) {
+                System.err.println("Write-ahead log " + file + ": discarding " + (size - good) + " bytes of incomplete tail");
+                ch.truncate(good);
+            }
+        }
+        return last;
+    }
+}
@@ -0,0 +1,67 @@
+package com.hostel.events;
+
+/**
+ * One change made through {@link EventPublishingDatabase}. Ids that do not apply to the type
+ * are 0; {@code label}, {@code capacity} and {@code occupied} are only set for rooms added or
+ * relabelled. A transfer is a {@link Type#DEALLOCATED} followed by an {@link Type#ALLOCATED}.
+ */
+public final class ChangeEvent {
+    public enum Type { STUDENT_ADDED, ROOM_ADDED, ALLOCATED, DEALLOCATED, STUDENT_DELETED, ROOM_RELABELLED }
+
+    private final Type type;
+    private final int studentId;
+    private final int roomId;
+    private final String label;
+    private final int capacity;
+    private final int occupied;
+    private final long timeNanos;
+
+    private ChangeEvent(Type type, int studentId, int roomId, String label, int capacity, int occupied) {
+        this.type = type;
+        this.studentId = studentId;
+        this.roomId = roomId;
+        this.label = label;
+        this.capacity = capacity;
+        this.occupied = occupied;
+        this.timeNanos = System.nanoTime();
+    }
+
+    public static ChangeEvent studentAdded(int studentId) {
+        return new ChangeEvent(Type.STUDENT_ADDED, studentId, 0, null, 0, 0);
+    }
+
+    public static ChangeEvent roomAdded(int roomId, String label, int capacity, int occupied) {
+        return new ChangeEvent(Type.ROOM_ADDED, 0, roomId, label, capacity, occupied);
+    }
+
+    public static ChangeEvent allocated(int studentId, int roomId) {
+        return new ChangeEvent(Type.ALLOCATED, studentId, roomId, null, 0, 0);
+    }
+
+    /** {@code roomId} is 0 when the room was not known. */
+    public static ChangeEvent deallocated(int studentId, int roomId) {
+        return new ChangeEvent(Type.DEALLOCATED, studentId, roomId, null, 0, 0);
+    }
+
+    public static ChangeEvent studentDeleted(int studentId) {
+        return new ChangeEvent(Type.STUDENT_DELETED, studentId, 0, null, 0, 0);
+    }
+
+    public static ChangeEvent roomRelabelled(int roomId, String label) {
+        return new ChangeEvent(Type.ROOM_RELABELLED, 0, roomId, label, 0, 0);
+    }
+
+    public Type getType() { return type; }
+    public int getStudentId() { return studentId; }
+    public int getRoomId() { return roomId; }
+    public String getLabel() { return label; }
+    public int getCapacity() { return capacity; }
+    public int getOccupied() { return occupied; }
+    /** {@link System#nanoTime()} when the event was created, for measuring delivery latency. */
+    public long getTimeNanos() { return timeNanos; }
+
+    @Override
+    public String toString() {
+        return type + "{student=" + studentId + ", room=" + roomId + (label != null ? ", label=" + label : "") + "}";
+    }
+}
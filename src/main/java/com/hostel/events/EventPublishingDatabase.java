@@ -0,0 +1,333 @@
+package com.hostel.events;
+
+import com.hostel.dao.BulkResult;
+import com.hostel.dao.DatabaseOperations;
+import com.hostel.dao.ForwardingDatabase;
+import com.hostel.exception.DatabaseException;
+import com.hostel.exception.InvalidInputException;
+import com.hostel.model.Room;
+import com.hostel.model.Student;
+import com.hostel.model.Transfer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Publishes a {@link ChangeEvent} to an {@link EventRing} for every change made through it, so
+ * derived views can follow the store instead of rescanning it. Events for the same student or
+ * room come out in the order the changes were made: single-student writes hold the lock stripes
+ * of the student and of every room they touch (taken in stripe order) across the write and its
+ * events, and bulk writes (which read the affected rooms first) run alone. A write waits up to
+ * {@code maxBlockMillis} for a slow subscriber, then drops the event and counts it in
+ * {@link #getDropped()}; the write itself has already happened.
+ */
+public class EventPublishingDatabase extends ForwardingDatabase {
+    private static final int STRIPES = 64;
+
+    private final EventRing ring;
+    private final long maxBlockMillis;
+    private final ReentrantReadWriteLock bulk = new ReentrantReadWriteLock();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final AtomicLong dropped = new AtomicLong();
+
+    public EventPublishingDatabase(DatabaseOperations delegate, EventRing ring, long maxBlockMillis) {
+        super(delegate);
+        this.ring = ring;
+        this.maxBlockMillis = maxBlockMillis;
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantLock();
+    }
+
+    public EventRing getRing() { return ring; }
+
+    /** Events not published because subscribers did not keep up. */
+    public long getDropped() { return dropped.get(); }
+
+    private void publish(ChangeEvent e) {
+        if (!ring.publish(e, maxBlockMillis, TimeUnit.MILLISECONDS)) dropped.incrementAndGet();
+    }
+
+    private static int studentStripe(int studentId) {
+        return Math.floorMod(studentId * 0x9E3779B9, STRIPES);
+    }
+
+    private static int roomStripe(int roomId) {
+        return Math.floorMod(~roomId * 0x9E3779B9, STRIPES);
+    }
+
+    private interface Write<T, X extends Exception> {
+        T run() throws DatabaseException, X;
+    }
+
+    /** A write that is handed the student's room (0 for none) as it was once the locks were held. */
+    private interface RoomWrite<T, X extends Exception> {
+        T run(int room) throws DatabaseException, X;
+    }
+
+    /** Takes the given stripes in index order, so writes sharing any of them never deadlock. */
+    private int[] lock(int... stripe) {
+        int[] order = Arrays.stream(stripe).sorted().distinct().toArray();
+        for (int i : order) stripes[i].lock();
+        return order;
+    }
+
+    private void unlock(int[] order) {
+        for (int i = order.length - 1; i >= 0; i--) stripes[order[i]].unlock();
+    }
+
+    /** Runs a single-key write under the given stripes, excluded only by bulk writes. */
+    private <T, X extends Exception> T single(Write<T, X> w, int... stripe) throws DatabaseException, X {
+        bulk.readLock().lock();
+        try {
+            int[] held = lock(stripe);
+            try {
+                return w.run();
+            } finally {
+                unlock(held);
+            }
+        } finally {
+            bulk.readLock().unlock();
+        }
+    }
+
+    /**
+     * Like {@link #single} for a write on a student's current room (plus {@code toRoom}, if not 0).
+     * The room is read, its stripe taken with the student's, and the read repeated; if the student
+     * moved in between, the locks are dropped and it starts over.
+     */
+    private <T, X extends Exception> T onRoom(int studentId, int toRoom, RoomWrite<T, X> w) throws DatabaseException, X {
+        bulk.readLock().lock();
+        try {
+            while (true) {
+                int room = roomOf(studentId);
+                int[] held = lock(studentStripe(studentId), roomStripe(room), roomStripe(toRoom));
+                try {
+                    if (roomOf(studentId) == room) return w.run(room);
+                } finally {
+                    unlock(held);
+                }
+            }
+        } finally {
+            bulk.readLock().unlock();
+        }
+    }
+
+    private <T, X extends Exception> T exclusive(Write<T, X> w) throws DatabaseException, X {
+        bulk.writeLock().lock();
+        try {
+            return w.run();
+        } finally {
+            bulk.writeLock().unlock();
+        }
+    }
+
+    private int roomOf(int studentId) throws DatabaseException {
+        Room r = delegate.getAllocatedRoomForStudent(studentId);
+        return r == null ? 0 : r.getId();
+    }
+
+    // ---- students and rooms ----
+
+    @Override
+    public int addStudent(Student s) throws DatabaseException, InvalidInputException {
+        return single(() -> {
+            int id = delegate.addStudent(s);
+            if (id > 0) publish(ChangeEvent.studentAdded(id));
+            return id;
+        });
+    }
+
+    @Override
+    public BulkResult addStudents(Iterable<Student> students) throws DatabaseException {
+        return exclusive(() -> {
+            BulkResult result = delegate.addStudents(students);
+            for (int id : result.getIds()) {
+                if (id > 0) publish(ChangeEvent.studentAdded(id));
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public boolean deleteStudent(int studentId) throws DatabaseException {
+        return deleteReturningRoom(studentId) >= 0;
+    }
+
+    @Override
+    public int deleteReturningRoom(int studentId) throws DatabaseException {
+        return onRoom(studentId, 0, before -> {
+            int freed = delegate.deleteReturningRoom(studentId);
+            if (freed >= 0) {
+                if (freed != 0) publish(ChangeEvent.deallocated(studentId, freed));
+                publish(ChangeEvent.studentDeleted(studentId));
+            }
+            return freed;
+        });
+    }
+
+    @Override
+    public int addRoom(Room r) throws DatabaseException, InvalidInputException {
+        return single(() -> {
+            int id = delegate.addRoom(r);
+            if (id > 0) publish(ChangeEvent.roomAdded(id, r.getNumber(), r.getCapacity(), r.getOccupied()));
+            return id;
+        });
+    }
+
+    @Override
+    public boolean changeRoomNumber(int roomId, String newNumber) throws DatabaseException, InvalidInputException {
+        return single(() -> {
+            boolean ok = delegate.changeRoomNumber(roomId, newNumber);
+            if (ok) publish(ChangeEvent.roomRelabelled(roomId, newNumber));
+            return ok;
+        }, roomStripe(roomId));
+    }
+
+    // ---- allocations ----
+
+    @Override
+    public boolean allocateRoom(int studentId, int roomId) throws DatabaseException, InvalidInputException {
+        return single(() -> {
+            boolean ok = delegate.allocateRoom(studentId, roomId);
+            if (ok) publish(ChangeEvent.allocated(studentId, roomId));
+            return ok;
+        }, studentStripe(studentId), roomStripe(roomId));
+    }
+
+    @Override
+    public int allocateRooms(Map<Integer, Integer> assignments) throws DatabaseException, InvalidInputException {
+        return exclusive(() -> {
+            int n = delegate.allocateRooms(assignments);
+            for (Map.Entry<Integer, Integer> e : assignments.entrySet()) {
+                // a partial, non-atomic apply: publish only the rows that went in
+                if (n == assignments.size() || (n > 0 && roomOf(e.getKey()) == e.getValue())) {
+                    publish(ChangeEvent.allocated(e.getKey(), e.getValue()));
+                }
+            }
+            return n;
+        });
+    }
+
+    @Override
+    public boolean deallocateStudent(int studentId) throws DatabaseException {
+        return deallocateReturningRoom(studentId) != 0;
+    }
+
+    @Override
+    public int deallocateReturningRoom(int studentId) throws DatabaseException {
+        return onRoom(studentId, 0, before -> {
+            int freed = delegate.deallocateReturningRoom(studentId);
+            if (freed != 0) publish(ChangeEvent.deallocated(studentId, freed));
+            return freed;
+        });
+    }
+
+    @Override
+    public boolean transferStudent(int studentId, int toRoomId) throws DatabaseException, InvalidInputException {
+        return onRoom(studentId, toRoomId, before -> {
+            boolean ok = delegate.transferStudent(studentId, toRoomId);
+            if (ok) {
+                publish(ChangeEvent.deallocated(studentId, before));
+                publish(ChangeEvent.allocated(studentId, toRoomId));
+            }
+            return ok;
+        });
+    }
+
+    @Override
+    public boolean swapStudents(int studentA, int studentB) throws DatabaseException, InvalidInputException {
+        return exclusive(() -> {
+            int ra = roomOf(studentA), rb = roomOf(studentB);
+            boolean ok = delegate.swapStudents(studentA, studentB);
+            if (ok) {
+                publish(ChangeEvent.deallocated(studentA, ra));
+                publish(ChangeEvent.deallocated(studentB, rb));
+                publish(ChangeEvent.allocated(studentA, rb));
+                publish(ChangeEvent.allocated(studentB, ra));
+            }
+            return ok;
+        });
+    }
+
+    @Override
+    public int applyTransfers(List<Transfer> transfers) throws DatabaseException, InvalidInputException {
+        return exclusive(() -> {
+            Map<Integer, Integer> before = new HashMap<>();
+            for (Transfer t : transfers) before.put(t.getStudentId(), roomOf(t.getStudentId()));
+            int n = delegate.applyTransfers(transfers);
+            if (n == 0) return 0;
+            List<ChangeEvent> arrivals = new ArrayList<>();
+            for (Transfer t : transfers) {
+                int from = before.get(t.getStudentId());
+                if (from == t.getToRoomId()) continue;
+                publish(ChangeEvent.deallocated(t.getStudentId(), from));
+                arrivals.add(ChangeEvent.allocated(t.getStudentId(), t.getToRoomId()));
+            }
+            // all departures first, so a view never sees a room over capacity mid-batch
+            for (ChangeEvent e : arrivals) publish(e);
+            return n;
+        });
+    }
+
+    @Override
+    public int deallocateStudents(Collection<Integer> studentIds) throws DatabaseException {
+        return exclusive(() -> {
+            Map<Integer, Integer> before = new HashMap<>();
+            for (int sid : studentIds) {
+                int rid = roomOf(sid);
+                if (rid != 0) before.put(sid, rid);
+            }
+            int n = delegate.deallocateStudents(studentIds);
+            if (n > 0) publishVacated(before);
+            return n;
+        });
+    }
+
+    @Override
+    public int vacateRooms(Collection<Integer> roomIds) throws DatabaseException {
+        return exclusive(() -> {
+            Map<Integer, Integer> before = allocationsIn(new HashSet<>(roomIds));
+            int n = delegate.vacateRooms(roomIds);
+            if (n > 0) publishVacated(before);
+            return n;
+        });
+    }
+
+    @Override
+    public int vacateByLabelPrefix(String prefix) throws DatabaseException, InvalidInputException {
+        return exclusive(() -> {
+            Set<Integer> rooms = new HashSet<>();
+            if (prefix != null && !prefix.isEmpty()) {
+                for (Room r : delegate.getAllRooms()) {
+                    if (r.getNumber() != null && r.getNumber().startsWith(prefix)) rooms.add(r.getId());
+                }
+            }
+            Map<Integer, Integer> before = allocationsIn(rooms);
+            int n = delegate.vacateByLabelPrefix(prefix);
+            if (n > 0) publishVacated(before);
+            return n;
+        });
+    }
+
+    private Map<Integer, Integer> allocationsIn(Set<Integer> rooms) throws DatabaseException {
+        Map<Integer, Integer> out = new HashMap<>();
+        if (rooms.isEmpty()) return out;
+        for (Map.Entry<Integer, Integer> e : delegate.getAllAllocations().entrySet()) {
+            if (rooms.contains(e.getValue())) out.put(e.getKey(), e.getValue());
+        }
+        return out;
+    }
+
+    private void publishVacated(Map<Integer, Integer> before) {
+        for (Map.Entry<Integer, Integer> e : before.entrySet()) publish(ChangeEvent.deallocated(e.getKey(), e.getValue()));
+    }
+}
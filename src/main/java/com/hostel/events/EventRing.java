@@ -0,0 +1,146 @@
+package com.hostel.events;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, lock-free ring of {@link ChangeEvent}s with any number of producers and independent
+ * subscribers. Producers claim a sequence number with a CAS, write the slot and then mark it
+ * published, so readers never see a half-written slot. Every subscriber keeps its own position
+ * and reads published events in batches. A producer that would overwrite an event the slowest
+ * subscriber has not read yet waits (backpressure), up to the timeout it was given. With no
+ * subscribers nothing is kept back and old events are simply overwritten.
+ */
+public final class EventRing {
+    private static final int SPINS = 100;
+    private static final long PARK_NANOS = 50_000;
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<ChangeEvent> slots;
+    private final AtomicLongArray published; // slot -> sequence last published there
+    private final AtomicLong claimed = new AtomicLong(); // next sequence to hand out
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    // lower bound on the slowest subscriber's position, so producers rarely scan the subscribers
+    private volatile long gate;
+
+    /** @param capacity rounded up to a power of two */
+    public EventRing(int capacity) {
+        if (capacity < 2) throw new IllegalArgumentException("capacity must be at least 2");
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.slots = new AtomicReferenceArray<>(this.capacity);
+        this.published = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) published.set(i, -1);
+    }
+
+    public int getCapacity() { return capacity; }
+
+    /** Sequence number the next event will get; also the number published so far. */
+    public long getCursor() { return claimed.get(); }
+
+    /**
+     * Publishes {@code e}, waiting up to {@code timeout} for the slowest subscriber to make room.
+     * Returns false if it timed out or the thread was interrupted (the flag is kept).
+     */
+    public boolean publish(ChangeEvent e, long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        long seq;
+        for (int idle = 0; ; idle++) {
+            long c = claimed.get();
+            if (c - gate >= capacity) {
+                long g = slowest(c);
+                gate = g;
+                if (c - g >= capacity) {
+                    if (System.nanoTime() - deadline >= 0 || Thread.currentThread().isInterrupted()) return false;
+                    backOff(idle);
+                    continue;
+                }
+            }
+            if (claimed.compareAndSet(c, c + 1)) {
+                seq = c;
+                break;
+            }
+        }
+        int slot = (int) seq & mask;
+        slots.set(slot, e);
+        published.set(slot, seq);
+        return true;
+    }
+
+    private long slowest(long cursor) {
+        long min = cursor;
+        for (Subscription s : subscriptions) min = Math.min(min, s.next.get());
+        return min;
+    }
+
+    private static void backOff(int idle) {
+        if (idle < SPINS) Thread.onSpinWait();
+        else LockSupport.parkNanos(PARK_NANOS);
+    }
+
+    /** A new subscriber that sees every event published from now on. */
+    public Subscription subscribe() {
+        Subscription s = new Subscription(claimed.get());
+        subscriptions.add(s);
+        return s;
+    }
+
+    /**
+     * One reader's position in the ring. Each subscription must be polled by one thread at a
+     * time; until it is closed, producers wait for it when the ring is full.
+     */
+    public final class Subscription implements AutoCloseable {
+        private final AtomicLong next; // next sequence to read
+
+        private Subscription(long start) {
+            this.next = new AtomicLong(start);
+        }
+
+        /**
+         * Hands up to {@code maxBatch} published events to {@code handler} in order and returns
+         * how many; the position moves once per batch, which is also when producers may reuse
+         * those slots.
+         */
+        public int poll(Consumer<? super ChangeEvent> handler, int maxBatch) {
+            long start = next.get();
+            int n = 0;
+            while (n < maxBatch) {
+                long seq = start + n;
+                int slot = (int) seq & mask;
+                if (published.get(slot) != seq) break;
+                handler.accept(slots.get(slot));
+                n++;
+            }
+            if (n > 0) next.set(start + n);
+            return n;
+        }
+
+        /** Like {@link #poll}, but waits up to {@code timeout} for at least one event. */
+        public int await(Consumer<? super ChangeEvent> handler, int maxBatch, long timeout, TimeUnit unit) {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            for (int idle = 0; ; idle++) {
+                int n = poll(handler, maxBatch);
+                if (n > 0 || System.nanoTime() - deadline >= 0 || Thread.currentThread().isInterrupted()) return n;
+                backOff(idle);
+            }
+        }
+
+        /** Events published but not yet read by this subscriber. */
+        public long lag() {
+            return claimed.get() - next.get();
+        }
+
+        /** Stops this subscriber holding producers back. */
+        @Override
+        public void close() {
+            subscriptions.remove(this);
+        }
+    }
+}
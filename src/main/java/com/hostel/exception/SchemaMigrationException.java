@@ -0,0 +1,6 @@
+package com.hostel.exception;
+
+/** The database was reached but its schema could not be brought up to date. */
+public class SchemaMigrationException extends DatabaseException {
+    public SchemaMigrationException(String msg, Throwable cause) { super(msg, cause); }
+}
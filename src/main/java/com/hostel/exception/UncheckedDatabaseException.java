@@ -0,0 +1,9 @@
+package com.hostel.exception;
+
+/** Carries a {@link DatabaseException} out of a stream or iterator, which cannot throw checked exceptions. */
+public class UncheckedDatabaseException extends RuntimeException {
+    public UncheckedDatabaseException(DatabaseException cause) { super(cause.getMessage(), cause); }
+
+    @Override
+    public synchronized DatabaseException getCause() { return (DatabaseException) super.getCause(); }
+}
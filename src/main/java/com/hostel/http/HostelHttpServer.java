@@ -0,0 +1,415 @@
+package com.hostel.http;
+
+import com.hostel.dao.AsyncDatabase;
+import com.hostel.dao.DatabaseOperations;
+import com.hostel.dao.ForwardingDatabase;
+import com.hostel.dao.StatisticsDatabase;
+import com.hostel.dao.WaitlistDatabase;
+import com.hostel.dao.WaitlistStore;
+import com.hostel.exception.DatabaseException;
+import com.hostel.exception.InvalidInputException;
+import com.hostel.metrics.MetricsDatabase;
+import com.hostel.model.Room;
+import com.hostel.model.RoomWithOccupants;
+import com.hostel.model.Student;
+import com.hostel.model.StudentWithRoom;
+import com.hostel.model.WaitlistEntry;
+import com.hostel.service.AllocationService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON API over {@link AllocationService} and {@link DatabaseOperations} on the JDK's built-in
+ * HTTP server. Requests run on virtual threads where available (see
+ * {@link AsyncDatabase#defaultExecutor}); at most {@code maxConcurrent} are served at once and
+ * the rest wait briefly, then get 503. Connections are kept alive; the server's request and
+ * response time limits are set from {@code requestTimeoutSeconds} unless already configured.
+ *
+ * <pre>
+ * GET    /health
+ * GET    /api/students/{rollNo}/room?name=...   student login: own room and waitlist place (name must match)
+ * GET    /api/students?after=&amp;limit=        admin: students with rooms, keyset paged
+ * GET    /api/students?rollNo=...|email=...  admin: one student with room, from the unique indexes
+ * POST   /api/students                      admin: {name, email, rollNo[, autoAllocate]}
+ * GET    /api/students/{id}                 admin
+ * DELETE /api/students/{id}                 admin
+ * POST   /api/allocations                   admin: {studentId[, roomId]} (no roomId = first free)
+ * DELETE /api/allocations/{studentId}       admin
+ * GET    /api/rooms[?available=true|occupants=true]   admin
+ * POST   /api/rooms                         admin: {number, capacity}
+ * PUT    /api/rooms/{id}/label              admin: {label}
+ * GET    /api/reports/occupancy             admin
+ * POST   /api/waitlist                      admin: {studentId[, roomId, priority]} (no roomId = any room)
+ * GET    /api/waitlist/{studentId}          admin
+ * DELETE /api/waitlist/{studentId}          admin
+ * GET    /metrics                           per-method call metrics, Prometheus text format
+ * </pre>
+ * Admin calls need the console's admin password in an {@code X-Admin-Password} header.
+ */
+public class HostelHttpServer implements AutoCloseable {
+    private static final int MAX_BODY = 64 * 1024;
+    private static final int MAX_PAGE = 500;
+    private static final long QUEUE_WAIT_MILLIS = 2_000;
+    private static final long DEFAULT_VERIFY_PERIOD_MILLIS = 5 * 60_000;
+
+    private final DatabaseOperations db;
+    private final StatisticsDatabase stats;
+    private final WaitlistDatabase waitlist;
+    private final MetricsDatabase metrics;
+    private final AllocationService service;
+    private final byte[] adminPassword;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+    private final HttpServer server;
+
+    /**
+     * Serves {@code db}, which must be thread-safe, through a {@link StatisticsDatabase} for the
+     * report. {@code /metrics} scrapes the first {@link MetricsDatabase} in the decorator chain,
+     * or one added here if there is none.
+     */
+    public HostelHttpServer(DatabaseOperations db, int port, int maxConcurrent, int requestTimeoutSeconds, String adminPassword)
+            throws IOException, DatabaseException {
+        this(db, null, port, maxConcurrent, requestTimeoutSeconds, adminPassword);
+    }
+
+    /**
+     * With a {@code waitlistStore}, requests go through a {@link WaitlistDatabase} on top of the
+     * statistics layer, so the beds it hands out are counted in the report.
+     */
+    public HostelHttpServer(DatabaseOperations db, WaitlistStore waitlistStore, int port, int maxConcurrent,
+                            int requestTimeoutSeconds, String adminPassword) throws IOException, DatabaseException {
+        MetricsDatabase found = findMetrics(db);
+        this.metrics = found != null ? found : new MetricsDatabase(db);
+        this.stats = new StatisticsDatabase(found != null ? db : metrics);
+        this.waitlist = waitlistStore == null ? null : new WaitlistDatabase(stats, waitlistStore);
+        this.db = waitlist != null ? waitlist : stats;
+        this.service = waitlist != null ? new AllocationService(waitlist) : new AllocationService(this.db);
+        this.adminPassword = adminPassword.getBytes(StandardCharsets.UTF_8);
+        this.permits = new Semaphore(maxConcurrent);
+        configureTimeouts(requestTimeoutSeconds);
+        this.executor = AsyncDatabase.defaultExecutor(maxConcurrent, maxConcurrent * 4);
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.setExecutor(executor);
+        server.createContext("/health", ex -> send(ex, 200, "{\"status\":\"ok\"}"));
+        server.createContext("/api/", this::handle);
+        server.createContext("/metrics", this::scrape);
+    }
+
+    private static MetricsDatabase findMetrics(DatabaseOperations db) {
+        while (db instanceof ForwardingDatabase) {
+            if (db instanceof MetricsDatabase) return (MetricsDatabase) db;
+            db = ((ForwardingDatabase) db).getDelegate();
+        }
+        return null;
+    }
+
+    /** The JDK server reads these once, when the first server is created. */
+    private static void configureTimeouts(int requestTimeoutSeconds) {
+        String t = Integer.toString(requestTimeoutSeconds);
+        if (System.getProperty("sun.net.httpserver.maxReqTime") == null) System.setProperty("sun.net.httpserver.maxReqTime", t);
+        if (System.getProperty("sun.net.httpserver.maxRspTime") == null) System.setProperty("sun.net.httpserver.maxRspTime", t);
+        if (System.getProperty("sun.net.httpserver.idleInterval") == null) System.setProperty("sun.net.httpserver.idleInterval", "30");
+    }
+
+    public void start() {
+        start(DEFAULT_VERIFY_PERIOD_MILLIS);
+    }
+
+    /**
+     * Starts serving and re-checks the occupancy counters against a full scan every
+     * {@code verifyPeriodMillis}; 0 or less leaves the counters unverified.
+     */
+    public void start(long verifyPeriodMillis) {
+        if (verifyPeriodMillis > 0) stats.startVerifier(verifyPeriodMillis);
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public StatisticsDatabase getDatabase() { return stats; }
+
+    public MetricsDatabase getMetrics() { return metrics; }
+
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+        stats.stopVerifier();
+    }
+
+    private static final class HttpError extends Exception {
+        final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private void scrape(HttpExchange ex) throws IOException {
+        byte[] bytes = metrics.scrape().getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        ex.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        boolean admitted = false;
+        try {
+            admitted = permits.tryAcquire(QUEUE_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            if (!admitted) {
+                ex.getResponseHeaders().set("Retry-After", "1");
+                send(ex, 503, Json.error("Server busy, try again"));
+                return;
+            }
+            String[] path = ex.getRequestURI().getPath().substring("/api/".length()).split("/");
+            send(ex, 200, route(ex, ex.getRequestMethod(), path));
+        } catch (HttpError e) {
+            send(ex, e.status, Json.error(e.getMessage()));
+        } catch (InvalidInputException | IllegalArgumentException e) {
+            send(ex, 400, Json.error(e.getMessage()));
+        } catch (DatabaseException e) {
+            send(ex, 503, Json.error("Database error: " + e.getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            send(ex, 503, Json.error("Interrupted"));
+        } catch (RuntimeException e) {
+            send(ex, 500, Json.error("Internal error"));
+        } finally {
+            if (admitted) permits.release();
+            ex.close();
+        }
+    }
+
+    private String route(HttpExchange ex, String method, String[] p) throws DatabaseException, InvalidInputException, HttpError, IOException {
+        String resource = p[0];
+        if (resource.equals("students") && p.length == 3 && p[2].equals("room") && method.equals("GET")) {
+            return ownRoom(p[1], query(ex).get("name"));
+        }
+        requireAdmin(ex);
+        switch (resource) {
+            case "students":
+                if (p.length == 1 && method.equals("GET")) return students(query(ex));
+                if (p.length == 1 && method.equals("POST")) return addStudent(body(ex));
+                if (p.length == 2 && method.equals("GET")) return student(db.getStudent(parseId(p[1])));
+                if (p.length == 2 && method.equals("DELETE")) return deleted(db.deleteStudent(parseId(p[1])), "Student not found");
+                break;
+            case "allocations":
+                if (p.length == 1 && method.equals("POST")) return allocate(body(ex));
+                if (p.length == 2 && method.equals("DELETE")) return deleted(db.deallocateStudent(parseId(p[1])), "No allocation found");
+                break;
+            case "rooms":
+                if (p.length == 1 && method.equals("GET")) return rooms(query(ex));
+                if (p.length == 1 && method.equals("POST")) return addRoom(body(ex));
+                if (p.length == 3 && p[2].equals("label") && method.equals("PUT")) return relabel(parseId(p[1]), body(ex));
+                break;
+            case "reports":
+                if (p.length == 2 && p[1].equals("occupancy") && method.equals("GET")) return Json.occupancy(new StringBuilder(), stats.snapshot()).toString();
+                break;
+            case "waitlist":
+                if (waitlist == null) break;
+                if (p.length == 1 && method.equals("POST")) return enqueue(body(ex));
+                if (p.length == 2 && method.equals("GET")) return waitlisted(parseId(p[1]));
+                if (p.length == 2 && method.equals("DELETE")) return deleted(waitlist.dequeue(parseId(p[1])), "Student is not on the waitlist");
+                break;
+            default:
+        }
+        throw new HttpError(404, "No such endpoint: " + method + " " + ex.getRequestURI().getPath());
+    }
+
+    private void requireAdmin(HttpExchange ex) throws HttpError {
+        String given = ex.getRequestHeaders().getFirst("X-Admin-Password");
+        if (given == null || !MessageDigest.isEqual(adminPassword, given.getBytes(StandardCharsets.UTF_8))) {
+            throw new HttpError(401, "Admin password required");
+        }
+    }
+
+    // ---- endpoints ----
+
+    private String ownRoom(String rollNo, String name) throws DatabaseException, InvalidInputException, HttpError {
+        Student s = db.getStudentByRollNo(rollNo);
+        // same answer for unknown roll number and wrong name, so roll numbers cannot be probed
+        if (s == null || name == null || !s.getName().equalsIgnoreCase(name.trim())) throw new HttpError(404, "Name and roll do not match");
+        StringBuilder b = Json.room(new StringBuilder("{\"room\":"), db.getAllocatedRoomForStudent(s.getId()));
+        if (waitlist != null) Json.waitlist(b.append(",\"waitlist\":"), waitlist.getEntry(s.getId()), waitlist.getPosition(s.getId()));
+        return b.append('}').toString();
+    }
+
+    private String students(Map<String, String> q) throws DatabaseException, InvalidInputException, HttpError {
+        if (q.containsKey("rollNo")) return student(db.getStudentByRollNo(q.get("rollNo")));
+        if (q.containsKey("email")) return student(db.getStudentByEmail(q.get("email")));
+        int after = q.containsKey("after") ? Integer.parseInt(q.get("after")) : Integer.MIN_VALUE;
+        int limit = Math.min(MAX_PAGE, q.containsKey("limit") ? Integer.parseInt(q.get("limit")) : 100);
+        if (limit < 1) throw new IllegalArgumentException("limit must be at least 1");
+        List<StudentWithRoom> page = db.getStudentsWithRoomsPage(after, limit);
+        StringBuilder b = new StringBuilder("{\"students\":[");
+        for (int i = 0; i < page.size(); i++) {
+            if (i > 0) b.append(',');
+            b.append("{\"student\":");
+            Json.student(b, page.get(i).getStudent()).append(",\"room\":");
+            Json.room(b, page.get(i).getRoom()).append('}');
+        }
+        b.append(']');
+        if (page.size() == limit) b.append(",\"next\":").append(page.get(page.size() - 1).getStudent().getId());
+        return b.append('}').toString();
+    }
+
+    private String student(Student s) throws DatabaseException, InvalidInputException, HttpError {
+        if (s == null) throw new HttpError(404, "Student not found");
+        StringBuilder b = new StringBuilder("{\"student\":");
+        Json.student(b, s).append(",\"room\":");
+        return Json.room(b, db.getAllocatedRoomForStudent(s.getId())).append('}').toString();
+    }
+
+    private String addStudent(Map<String, String> body) throws DatabaseException, InvalidInputException, HttpError {
+        Student s = new Student(body.get("name"), body.get("email"), body.get("rollNo"));
+        service.addStudent(s);
+        StringBuilder b = new StringBuilder("{\"id\":").append(s.getId()).append(",\"room\":");
+        Room room = null;
+        if (Boolean.parseBoolean(body.get("autoAllocate"))) {
+            Room free = db.findFirstAvailableRoom();
+            if (free != null && db.allocateRoom(s.getId(), free.getId())) room = db.getAllocatedRoomForStudent(s.getId());
+        }
+        return Json.room(b, room).append('}').toString();
+    }
+
+    private String allocate(Map<String, String> body) throws DatabaseException, InvalidInputException, HttpError {
+        int studentId = parseId(required(body, "studentId"));
+        int roomId;
+        if (body.get("roomId") != null) {
+            roomId = parseId(body.get("roomId"));
+        } else {
+            Room free = db.findFirstAvailableRoom();
+            if (free == null) throw new HttpError(409, "No available rooms");
+            roomId = free.getId();
+        }
+        if (!db.allocateRoom(studentId, roomId)) throw new HttpError(409, "Room is full or unavailable");
+        return Json.room(new StringBuilder("{\"room\":"), db.getAllocatedRoomForStudent(studentId)).append('}').toString();
+    }
+
+    private String rooms(Map<String, String> q) throws DatabaseException, InvalidInputException, HttpError {
+        StringBuilder b = new StringBuilder("{\"rooms\":[");
+        if (Boolean.parseBoolean(q.get("occupants"))) {
+            boolean first = true;
+            for (RoomWithOccupants ro : db.getRoomsWithOccupants()) {
+                if (!first) b.append(',');
+                first = false;
+                b.append("{\"room\":");
+                Json.room(b, ro.getRoom()).append(",\"occupants\":[");
+                for (int i = 0; i < ro.getOccupants().size(); i++) {
+                    if (i > 0) b.append(',');
+                    Json.student(b, ro.getOccupants().get(i));
+                }
+                b.append("]}");
+            }
+        } else {
+            List<Room> rooms = Boolean.parseBoolean(q.get("available")) ? db.getAvailableRooms() : db.getAllRooms();
+            for (int i = 0; i < rooms.size(); i++) {
+                if (i > 0) b.append(',');
+                Json.room(b, rooms.get(i));
+            }
+        }
+        return b.append("]}").toString();
+    }
+
+    private String addRoom(Map<String, String> body) throws DatabaseException, InvalidInputException, HttpError {
+        int capacity = Integer.parseInt(required(body, "capacity"));
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be at least 1");
+        int id = db.addRoom(new Room(0, body.get("number"), capacity, 0));
+        return "{\"id\":" + id + "}";
+    }
+
+    private String enqueue(Map<String, String> body) throws DatabaseException, InvalidInputException, HttpError {
+        int studentId = parseId(required(body, "studentId"));
+        Integer roomId = body.get("roomId") == null ? null : parseId(body.get("roomId"));
+        int priority = body.get("priority") == null ? 0 : Integer.parseInt(body.get("priority"));
+        int position = service.allocateOrWaitlist(studentId, roomId, priority);
+        StringBuilder b = Json.room(new StringBuilder("{\"room\":"), db.getAllocatedRoomForStudent(studentId)).append(",\"waitlist\":");
+        return Json.waitlist(b, position == 0 ? null : waitlist.getEntry(studentId), position).append('}').toString();
+    }
+
+    private String waitlisted(int studentId) throws HttpError {
+        WaitlistEntry e = waitlist.getEntry(studentId);
+        if (e == null) throw new HttpError(404, "Student is not on the waitlist");
+        return Json.waitlist(new StringBuilder(), e, waitlist.getPosition(studentId)).toString();
+    }
+
+    private String relabel(int roomId, Map<String, String> body) throws DatabaseException, InvalidInputException, HttpError {
+        db.changeRoomNumber(roomId, required(body, "label"));
+        return "{\"updated\":true}";
+    }
+
+    private static String deleted(boolean ok, String notFound) throws HttpError {
+        if (!ok) throw new HttpError(404, notFound);
+        return "{\"deleted\":true}";
+    }
+
+    // ---- plumbing ----
+
+    private static int parseId(String s) {
+        try {
+            return Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid id: " + s);
+        }
+    }
+
+    private static String required(Map<String, String> body, String field) {
+        String v = body.get(field);
+        if (v == null) throw new IllegalArgumentException(field + " is required");
+        return v;
+    }
+
+    private static Map<String, String> query(HttpExchange ex) {
+        Map<String, String> out = new HashMap<>();
+        String q = ex.getRequestURI().getRawQuery();
+        if (q == null) return out;
+        for (String pair : q.split("&")) {
+            int eq = pair.indexOf('=');
+            String k = eq < 0 ? pair : pair.substring(0, eq);
+            String v = eq < 0 ? "" : pair.substring(eq + 1);
+            out.put(URLDecoder.decode(k, StandardCharsets.UTF_8), URLDecoder.decode(v, StandardCharsets.UTF_8));
+        }
+        return out;
+    }
+
+    private static Map<String, String> body(HttpExchange ex) throws IOException, HttpError {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        try (InputStream in = ex.getRequestBody()) {
+            byte[] chunk = new byte[8192];
+            for (int n; (n = in.read(chunk)) > 0; ) {
+                if (buf.size() + n > MAX_BODY) throw new HttpError(413, "Request body too large");
+                buf.write(chunk, 0, n);
+            }
+        }
+        return Json.parseObject(buf.toString(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange ex, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
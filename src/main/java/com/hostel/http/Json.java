@@ -0,0 +1,164 @@
+package com.hostel.http;
+
+import com.hostel.model.OccupancySnapshot;
+import com.hostel.model.Room;
+import com.hostel.model.Student;
+import com.hostel.model.WaitlistEntry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Just enough JSON for the API: writers for the model types and a reader for flat request
+ * bodies ({@code {"name": "A", "roomId": 3}}); nested objects and arrays in requests are rejected.
+ */
+final class Json {
+    private Json() {}
+
+    static String quote(String s) {
+        if (s == null) return "null";
+        StringBuilder b = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': b.append("\\\""); break;
+                case '\\': b.append("\\\\"); break;
+                case '\n': b.append("\\n"); break;
+                case '\r': b.append("\\r"); break;
+                case '\t': b.append("\\t"); break;
+                default:
+                    if (c < 0x20) b.append(String.format("\\u%04x", (int) c));
+                    else b.append(c);
+            }
+        }
+        return b.append('"').toString();
+    }
+
+    static StringBuilder student(StringBuilder b, Student s) {
+        return b.append("{\"id\":").append(s.getId())
+                .append(",\"name\":").append(quote(s.getName()))
+                .append(",\"email\":").append(quote(s.getEmail()))
+                .append(",\"rollNo\":").append(quote(s.getRollNo())).append('}');
+    }
+
+    static StringBuilder room(StringBuilder b, Room r) {
+        if (r == null) return b.append("null");
+        return b.append("{\"id\":").append(r.getId())
+                .append(",\"number\":").append(quote(r.getNumber()))
+                .append(",\"capacity\":").append(r.getCapacity())
+                .append(",\"occupied\":").append(r.getOccupied()).append('}');
+    }
+
+    /** A waitlist place, or null when the student is not waiting; a null roomId means any room. */
+    static StringBuilder waitlist(StringBuilder b, WaitlistEntry e, int position) {
+        if (e == null) return b.append("null");
+        return b.append("{\"roomId\":").append(e.getRoomId())
+                .append(",\"priority\":").append(e.getPriority())
+                .append(",\"position\":").append(position).append('}');
+    }
+
+    static StringBuilder occupancy(StringBuilder b, OccupancySnapshot o) {
+        return b.append("{\"totalRooms\":").append(o.getTotalRooms())
+                .append(",\"fullRooms\":").append(o.getFullRooms())
+                .append(",\"totalBeds\":").append(o.getTotalBeds())
+                .append(",\"occupiedBeds\":").append(o.getOccupiedBeds())
+                .append(",\"freeBeds\":").append(o.getFreeBeds())
+                .append(",\"totalStudents\":").append(o.getTotalStudents())
+                .append(",\"allocatedStudents\":").append(o.getAllocatedStudents())
+                .append(",\"unallocatedStudents\":").append(o.getUnallocatedStudents()).append('}');
+    }
+
+    static String error(String message) {
+        return "{\"error\":" + quote(message) + "}";
+    }
+
+    /** Parses a flat object; values come back as strings (numbers and booleans as written, null as null). */
+    static Map<String, String> parseObject(String text) {
+        Reader r = new Reader(text);
+        Map<String, String> out = new LinkedHashMap<>();
+        r.expect('{');
+        if (r.peek() == '}') {
+            r.pos++;
+        } else {
+            do {
+                String key = r.string();
+                r.expect(':');
+                out.put(key, r.value());
+            } while (r.next(',', '}'));
+        }
+        r.skipSpace();
+        if (r.pos != text.length()) throw new IllegalArgumentException("Trailing characters after JSON object");
+        return out;
+    }
+
+    private static final class Reader {
+        final String s;
+        int pos;
+
+        Reader(String s) { this.s = s; }
+
+        void skipSpace() {
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) pos++;
+        }
+
+        char peek() {
+            skipSpace();
+            if (pos >= s.length()) throw new IllegalArgumentException("Unexpected end of JSON");
+            return s.charAt(pos);
+        }
+
+        void expect(char c) {
+            if (peek() != c) throw new IllegalArgumentException("Expected '" + c + "' at offset " + pos);
+            pos++;
+        }
+
+        /** Consumes {@code more} (returns true) or {@code end} (returns false). */
+        boolean next(char more, char end) {
+            char c = peek();
+            pos++;
+            if (c == more) return true;
+            if (c == end) return false;
+            throw new IllegalArgumentException("Expected '" + more + "' or '" + end + "' at offset " + (pos - 1));
+        }
+
+        String string() {
+            expect('"');
+            StringBuilder b = new StringBuilder();
+            while (true) {
+                if (pos >= s.length()) throw new IllegalArgumentException("Unterminated string");
+                char c = s.charAt(pos++);
+                if (c == '"') return b.toString();
+                if (c != '\\') {
+                    b.append(c);
+                    continue;
+                }
+                if (pos >= s.length()) throw new IllegalArgumentException("Unterminated string");
+                char e = s.charAt(pos++);
+                switch (e) {
+                    case 'n': b.append('\n'); break;
+                    case 'r': b.append('\r'); break;
+                    case 't': b.append('\t'); break;
+                    case 'b': b.append('\b'); break;
+                    case 'f': b.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > s.length()) throw new IllegalArgumentException("Bad \\u escape");
+                        b.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default: b.append(e);
+                }
+            }
+        }
+
+        String value() {
+            char c = peek();
+            if (c == '"') return string();
+            if (c == '{' || c == '[') throw new IllegalArgumentException("Nested values are not supported");
+            int start = pos;
+            while (pos < s.length() && ",} \t\r\n".indexOf(s.charAt(pos)) < 0) pos++;
+            String raw = s.substring(start, pos);
+            if (raw.isEmpty()) throw new IllegalArgumentException("Missing value at offset " + start);
+            return raw.equals("null") ? null : raw;
+        }
+    }
+}
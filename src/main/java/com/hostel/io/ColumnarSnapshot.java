@@ -0,0 +1,291 @@
+package com.hostel.io;
+
+import com.hostel.dao.DatabaseOperations;
+import com.hostel.exception.DatabaseException;
+import com.hostel.exception.UncheckedDatabaseException;
+import com.hostel.model.Room;
+import com.hostel.model.Student;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Full dump of a store as one binary file, optionally GZIP-compressed. After a header come the
+ * rooms, students and allocations, each as blocks of up to {@value #BLOCK} rows stored column by
+ * column: ids as deltas from the previous id, then the other int columns, then each string
+ * column as byte lengths (-1 for null) followed by the UTF-8 bytes. A block with 0 rows ends a
+ * section. Only one block is held in memory on either side, and the file is written and read
+ * through a direct buffer on a file channel.
+ */
+public final class ColumnarSnapshot {
+    private static final int MAGIC = 0x48534E50; // "HSNP"
+    private static final int VERSION = 1;
+    private static final int BLOCK = 8192;
+    private static final int BUFFER = 1 << 20;
+    private static final byte ROOMS = 'R', STUDENTS = 'S', ALLOCATIONS = 'A', END = 'E';
+
+    private ColumnarSnapshot() {}
+
+    public static DumpResult export(DatabaseOperations db, Path file, boolean gzip) throws DatabaseException {
+        DumpResult result = new DumpResult();
+        int[] ids = new int[BLOCK], a = new int[BLOCK], b = new int[BLOCK];
+        byte[][] s1 = new byte[BLOCK][], s2 = new byte[BLOCK][], s3 = new byte[BLOCK][];
+        try (Out out = new Out(DumpFiles.create(file, gzip))) {
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+
+            out.put(ROOMS);
+            try (Stream<Room> rooms = db.streamRooms()) {
+                int n = 0, prev = 0;
+                for (Iterator<Room> it = rooms.iterator(); it.hasNext(); ) {
+                    Room r = it.next();
+                    ids[n] = r.getId();
+                    a[n] = r.getCapacity();
+                    b[n] = r.getOccupied();
+                    s1[n] = utf8(r.getNumber());
+                    result.room();
+                    if (++n == BLOCK || !it.hasNext()) {
+                        out.putInt(n);
+                        prev = out.putDeltas(ids, n, prev);
+                        out.putInts(a, n);
+                        out.putInts(b, n);
+                        out.putStrings(s1, n);
+                        n = 0;
+                    }
+                }
+            }
+            out.putInt(0);
+
+            out.put(STUDENTS);
+            try (Stream<Student> students = db.streamStudents()) {
+                int n = 0, prev = 0;
+                for (Iterator<Student> it = students.iterator(); it.hasNext(); ) {
+                    Student s = it.next();
+                    ids[n] = s.getId();
+                    s1[n] = utf8(s.getName());
+                    s2[n] = utf8(s.getEmail());
+                    s3[n] = utf8(s.getRollNo());
+                    result.student();
+                    if (++n == BLOCK || !it.hasNext()) {
+                        out.putInt(n);
+                        prev = out.putDeltas(ids, n, prev);
+                        out.putStrings(s1, n);
+                        out.putStrings(s2, n);
+                        out.putStrings(s3, n);
+                        n = 0;
+                    }
+                }
+            }
+            out.putInt(0);
+
+            out.put(ALLOCATIONS);
+            try (Stream<Map.Entry<Integer, Integer>> allocs = db.streamAllocations()) {
+                int n = 0, prev = 0;
+                for (Iterator<Map.Entry<Integer, Integer>> it = allocs.iterator(); it.hasNext(); ) {
+                    Map.Entry<Integer, Integer> e = it.next();
+                    ids[n] = e.getKey();
+                    a[n] = e.getValue();
+                    if (++n == BLOCK || !it.hasNext()) {
+                        out.putInt(n);
+                        prev = out.putDeltas(ids, n, prev);
+                        out.putInts(a, n);
+                        result.allocations(n);
+                        n = 0;
+                    }
+                }
+            }
+            out.putInt(0);
+            out.put(END);
+        } catch (IOException | UncheckedIOException | UncheckedDatabaseException e) {
+            throw DumpFiles.failure("write snapshot", e);
+        }
+        try {
+            result.bytes(Files.size(file));
+        } catch (IOException e) {
+            throw DumpFiles.failure("write snapshot", e);
+        }
+        return result;
+    }
+
+    /**
+     * Loads a snapshot made by {@link #export} into {@code db} (normally empty) and returns what
+     * went in. Students and rooms get new ids in the target store; the stored occupied counts are
+     * ignored, rooms fill up from the allocations.
+     */
+    public static DumpResult load(Path file, DatabaseOperations db) throws DatabaseException {
+        DumpResult result = new DumpResult();
+        DumpLoader loader = new DumpLoader(db, result);
+        int[] ids = new int[BLOCK], a = new int[BLOCK];
+        String[] s1 = new String[BLOCK], s2 = new String[BLOCK], s3 = new String[BLOCK];
+        try (In in = new In(DumpFiles.open(file))) {
+            if (in.getInt() != MAGIC) throw new DatabaseException("Not a hostel snapshot: " + file, null);
+            int version = in.getInt();
+            if (version != VERSION) throw new DatabaseException("Unsupported snapshot version " + version + ": " + file, null);
+            for (byte section; (section = in.get()) != END; ) {
+                int prev = 0;
+                for (int n; (n = in.getInt()) > 0; ) {
+                    if (n > BLOCK) throw new DatabaseException("Corrupt snapshot block of " + n + " rows: " + file, null);
+                    prev = in.getDeltas(ids, n, prev);
+                    switch (section) {
+                        case ROOMS:
+                            in.getInts(a, n);
+                            in.getInts(null, n); // occupied, rebuilt from the allocations
+                            in.getStrings(s1, n);
+                            for (int i = 0; i < n; i++) loader.room(ids[i], s1[i], a[i]);
+                            break;
+                        case STUDENTS:
+                            in.getStrings(s1, n);
+                            in.getStrings(s2, n);
+                            in.getStrings(s3, n);
+                            for (int i = 0; i < n; i++) loader.student(ids[i], s1[i], s2[i], s3[i]);
+                            break;
+                        case ALLOCATIONS:
+                            in.getInts(a, n);
+                            for (int i = 0; i < n; i++) loader.allocation(ids[i], a[i]);
+                            break;
+                        default:
+                            throw new DatabaseException("Corrupt snapshot section " + section + ": " + file, null);
+                    }
+                }
+            }
+            loader.finish();
+            result.bytes(Files.size(file));
+        } catch (IOException | UncheckedIOException e) {
+            throw DumpFiles.failure("read snapshot", e);
+        }
+        return result;
+    }
+
+    private static byte[] utf8(String s) {
+        return s == null ? null : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** Buffered writes to a channel. */
+    private static final class Out implements AutoCloseable {
+        private final WritableByteChannel ch;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER);
+
+        Out(WritableByteChannel ch) { this.ch = ch; }
+
+        private void room(int n) throws IOException {
+            if (buf.remaining() < n) flush();
+        }
+
+        private void flush() throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) ch.write(buf);
+            buf.clear();
+        }
+
+        void put(byte v) throws IOException { room(1); buf.put(v); }
+
+        void putInt(int v) throws IOException { room(4); buf.putInt(v); }
+
+        void putInts(int[] v, int n) throws IOException {
+            for (int i = 0; i < n; i++) putInt(v[i]);
+        }
+
+        /** Writes ids as deltas and returns the last id, the base for the next block. */
+        int putDeltas(int[] ids, int n, int prev) throws IOException {
+            for (int i = 0; i < n; i++) {
+                putInt(ids[i] - prev);
+                prev = ids[i];
+            }
+            return prev;
+        }
+
+        void putStrings(byte[][] v, int n) throws IOException {
+            for (int i = 0; i < n; i++) putInt(v[i] == null ? -1 : v[i].length);
+            for (int i = 0; i < n; i++) {
+                if (v[i] == null) continue;
+                for (int off = 0; off < v[i].length; ) {
+                    if (!buf.hasRemaining()) flush();
+                    int len = Math.min(buf.remaining(), v[i].length - off);
+                    buf.put(v[i], off, len);
+                    off += len;
+                }
+                v[i] = null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                ch.close();
+            }
+        }
+    }
+
+    /** Buffered reads from a channel; running out of input early is an {@link EOFException}. */
+    private static final class In implements AutoCloseable {
+        private final ReadableByteChannel ch;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER);
+        private byte[] scratch = new byte[256];
+
+        In(ReadableByteChannel ch) {
+            this.ch = ch;
+            buf.flip();
+        }
+
+        private void need(int n) throws IOException {
+            if (buf.remaining() >= n) return;
+            buf.compact();
+            while (buf.position() < n) {
+                if (ch.read(buf) < 0) throw new EOFException("Snapshot is truncated");
+            }
+            buf.flip();
+        }
+
+        byte get() throws IOException { need(1); return buf.get(); }
+
+        int getInt() throws IOException { need(4); return buf.getInt(); }
+
+        /** Reads n ints into {@code v}, or skips them when {@code v} is null. */
+        void getInts(int[] v, int n) throws IOException {
+            for (int i = 0; i < n; i++) {
+                int x = getInt();
+                if (v != null) v[i] = x;
+            }
+        }
+
+        int getDeltas(int[] ids, int n, int prev) throws IOException {
+            for (int i = 0; i < n; i++) {
+                prev += getInt();
+                ids[i] = prev;
+            }
+            return prev;
+        }
+
+        void getStrings(String[] v, int n) throws IOException {
+            int[] lens = new int[n];
+            getInts(lens, n);
+            for (int i = 0; i < n; i++) {
+                int len = lens[i];
+                if (len < 0) { v[i] = null; continue; }
+                if (scratch.length < len) scratch = new byte[Math.max(len, scratch.length * 2)];
+                for (int off = 0; off < len; ) {
+                    if (!buf.hasRemaining()) need(1);
+                    int k = Math.min(buf.remaining(), len - off);
+                    buf.get(scratch, off, k);
+                    off += k;
+                }
+                v[i] = new String(scratch, 0, len, StandardCharsets.UTF_8);
+            }
+        }
+
+        @Override
+        public void close() throws IOException { ch.close(); }
+    }
+}
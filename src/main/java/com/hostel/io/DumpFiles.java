@@ -0,0 +1,45 @@
+package com.hostel.io;
+
+import com.hostel.exception.DatabaseException;
+import com.hostel.exception.UncheckedDatabaseException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/** File channels for dumps, GZIP-compressed on request when writing and detected when reading. */
+final class DumpFiles {
+    static final int BUFFER = 1 << 16;
+
+    private DumpFiles() {}
+
+    /** Creates or replaces {@code path}. */
+    static WritableByteChannel create(Path path, boolean gzip) throws IOException {
+        FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        if (!gzip) return ch;
+        return Channels.newChannel(new GZIPOutputStream(Channels.newOutputStream(ch), BUFFER));
+    }
+
+    /** Opens {@code path}, decompressing it if it starts with the GZIP magic number. */
+    static ReadableByteChannel open(Path path) throws IOException {
+        FileChannel ch = FileChannel.open(path, StandardOpenOption.READ);
+        ByteBuffer head = ByteBuffer.allocate(2);
+        while (head.hasRemaining() && ch.read(head) >= 0) { }
+        ch.position(0);
+        if (head.position() < 2 || (head.get(0) & 0xFF) != 0x1F || (head.get(1) & 0xFF) != 0x8B) return ch;
+        return Channels.newChannel(new GZIPInputStream(Channels.newInputStream(ch), BUFFER));
+    }
+
+    /** The checked cause of a failed read or write, for rethrowing from the public entry points. */
+    static DatabaseException failure(String what, Exception e) {
+        if (e instanceof UncheckedDatabaseException) return ((UncheckedDatabaseException) e).getCause();
+        return new DatabaseException("Unable to " + what + ": " + e.getMessage(), e);
+    }
+}
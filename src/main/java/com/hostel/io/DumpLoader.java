@@ -0,0 +1,140 @@
+package com.hostel.io;
+
+import com.hostel.dao.BulkResult;
+import com.hostel.dao.DatabaseOperations;
+import com.hostel.exception.DatabaseException;
+import com.hostel.exception.InvalidInputException;
+import com.hostel.model.Room;
+import com.hostel.model.Student;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads dumped rows into a store, rooms first, then students, then allocations. The store hands
+ * out its own ids, so dumped ids are mapped to the new ones as rows go in; students and
+ * allocations are written in batches through {@code addStudents} and {@code allocateRooms}.
+ * Rooms start empty and fill up from the allocations, so a dumped occupied count is not trusted.
+ */
+final class DumpLoader {
+    private static final int BATCH = 5000;
+
+    private final DatabaseOperations db;
+    private final DumpResult result;
+    private final IdMap rooms = new IdMap();
+    private final IdMap students = new IdMap();
+    private final List<Student> pending = new ArrayList<>(BATCH);
+    private final int[] pendingIds = new int[BATCH];
+    private final Map<Integer, Integer> allocations = new HashMap<>();
+
+    DumpLoader(DatabaseOperations db, DumpResult result) {
+        this.db = db;
+        this.result = result;
+    }
+
+    void room(int id, String label, int capacity) throws DatabaseException {
+        try {
+            rooms.put(id, db.addRoom(new Room(0, label, capacity, 0)));
+            result.room();
+        } catch (InvalidInputException e) {
+            result.skipped("room " + id + ": " + e.getMessage());
+        }
+    }
+
+    void student(int id, String name, String email, String rollNo) throws DatabaseException {
+        pendingIds[pending.size()] = id;
+        pending.add(new Student(name, email, rollNo));
+        if (pending.size() == BATCH) flushStudents();
+    }
+
+    void allocation(int studentId, int roomId) throws DatabaseException {
+        if (!pending.isEmpty()) flushStudents();
+        int sid = students.get(studentId), rid = rooms.get(roomId);
+        if (sid < 0 || rid < 0) {
+            result.skipped("allocation " + studentId + " -> " + roomId + ": " + (sid < 0 ? "student" : "room") + " not loaded");
+            return;
+        }
+        allocations.put(sid, rid);
+        if (allocations.size() == BATCH) flushAllocations();
+    }
+
+    void finish() throws DatabaseException {
+        if (!pending.isEmpty()) flushStudents();
+        if (!allocations.isEmpty()) flushAllocations();
+    }
+
+    private void flushStudents() throws DatabaseException {
+        BulkResult r = db.addStudents(pending);
+        List<Integer> ids = r.getIds();
+        for (int i = 0; i < ids.size(); i++) {
+            if (ids.get(i) > 0) {
+                students.put(pendingIds[i], ids.get(i));
+                result.student();
+            }
+        }
+        for (BulkResult.RowError e : r.getErrors()) result.skipped("student " + pendingIds[e.getRow()] + ": " + e.getMessage());
+        pending.clear();
+    }
+
+    private void flushAllocations() throws DatabaseException {
+        try {
+            result.allocations(db.allocateRooms(allocations));
+        } catch (InvalidInputException batch) {
+            // the batch is all-or-nothing in most stores; retry row by row to keep the good ones
+            for (Map.Entry<Integer, Integer> e : allocations.entrySet()) {
+                try {
+                    if (db.allocateRoom(e.getKey(), e.getValue()) || applied(e.getKey(), e.getValue())) result.allocations(1);
+                    else result.skipped("allocation of student " + e.getKey() + ": room " + e.getValue() + " is full");
+                } catch (InvalidInputException row) {
+                    if (applied(e.getKey(), e.getValue())) result.allocations(1);
+                    else result.skipped("allocation of student " + e.getKey() + ": " + row.getMessage());
+                }
+            }
+        }
+        allocations.clear();
+    }
+
+    /** Whether a store that is not all-or-nothing already put this row in before the batch failed. */
+    private boolean applied(int studentId, int roomId) throws DatabaseException {
+        Room r = db.getAllocatedRoomForStudent(studentId);
+        return r != null && r.getId() == roomId;
+    }
+
+    /**
+     * Dumped id -&gt; new id, packed as {@code old << 32 | new} in one growing long array and
+     * binary searched, so a million ids take 8 MB and no boxing. Dumps are written in id order;
+     * anything else is sorted once on the first lookup.
+     */
+    private static final class IdMap {
+        private long[] pairs = new long[1024];
+        private int size;
+        private boolean sorted = true;
+
+        void put(int oldId, int newId) {
+            if (size == pairs.length) pairs = Arrays.copyOf(pairs, size * 2);
+            long p = (long) oldId << 32 | (newId & 0xFFFFFFFFL);
+            if (size > 0 && pairs[size - 1] >> 32 >= oldId) sorted = false;
+            pairs[size++] = p;
+        }
+
+        /** The new id, or -1 when {@code oldId} was not loaded. */
+        int get(int oldId) {
+            if (!sorted) {
+                Arrays.sort(pairs, 0, size);
+                sorted = true;
+            }
+            int lo = 0, hi = size - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int k = (int) (pairs[mid] >> 32);
+                if (k < oldId) lo = mid + 1;
+                else if (k > oldId) hi = mid - 1;
+                else return (int) pairs[mid];
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.hostel.io;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Row counts of an export or import. An import also counts the rows it skipped (a duplicate roll
+ * number, an allocation to a room that did not load, ...) and keeps the first few reasons.
+ */
+public class DumpResult {
+    private static final int MAX_ERRORS = 100;
+
+    private long students;
+    private long rooms;
+    private long allocations;
+    private long skipped;
+    private long bytes;
+    private final List<String> errors = new ArrayList<>();
+
+    void student() { students++; }
+    void room() { rooms++; }
+    void allocations(int n) { allocations += n; }
+    void bytes(long n) { bytes += n; }
+
+    void skipped(String reason) {
+        skipped++;
+        if (errors.size() < MAX_ERRORS) errors.add(reason);
+    }
+
+    public long getStudents() { return students; }
+    public long getRooms() { return rooms; }
+    public long getAllocations() { return allocations; }
+    public long getSkipped() { return skipped; }
+    /** Bytes written or read on disk, after compression. */
+    public long getBytes() { return bytes; }
+    /** Reasons for the first {@value #MAX_ERRORS} skipped rows. */
+    public List<String> getErrors() { return Collections.unmodifiableList(errors); }
+
+    @Override
+    public String toString() {
+        return students + " students, " + rooms + " rooms, " + allocations + " allocations"
+                + (skipped > 0 ? ", " + skipped + " skipped" : "") + ", " + bytes + " bytes";
+    }
+}
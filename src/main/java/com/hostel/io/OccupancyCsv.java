@@ -0,0 +1,159 @@
+package com.hostel.io;
+
+import com.hostel.dao.DatabaseOperations;
+import com.hostel.exception.DatabaseException;
+import com.hostel.exception.UncheckedDatabaseException;
+import com.hostel.model.Room;
+import com.hostel.model.Student;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Full dump of a store as three CSV files in one directory: {@code rooms.csv}
+ * ({@code id,number,capacity,occupied}), {@code students.csv} ({@code id,name,email,roll_no})
+ * and {@code allocations.csv} ({@code student_id,room_id}), each with a header line and with
+ * {@code .gz} appended when compressed. Rows are streamed from the store's {@code stream*}
+ * reads straight to buffered file channels, so memory use does not grow with the store.
+ */
+public final class OccupancyCsv {
+    public static final String ROOMS = "rooms.csv";
+    public static final String STUDENTS = "students.csv";
+    public static final String ALLOCATIONS = "allocations.csv";
+
+    private OccupancyCsv() {}
+
+    public static DumpResult export(DatabaseOperations db, Path dir, boolean gzip) throws DatabaseException {
+        DumpResult result = new DumpResult();
+        String suffix = gzip ? ".gz" : "";
+        try {
+            Files.createDirectories(dir);
+            try (Writer out = writer(dir.resolve(ROOMS + suffix), gzip); Stream<Room> rooms = db.streamRooms()) {
+                out.write("id,number,capacity,occupied\n");
+                for (Iterator<Room> it = rooms.iterator(); it.hasNext(); ) {
+                    Room r = it.next();
+                    out.write(r.getId() + "," + quote(r.getNumber()) + "," + r.getCapacity() + "," + r.getOccupied() + "\n");
+                    result.room();
+                }
+            }
+            try (Writer out = writer(dir.resolve(STUDENTS + suffix), gzip); Stream<Student> students = db.streamStudents()) {
+                out.write("id,name,email,roll_no\n");
+                for (Iterator<Student> it = students.iterator(); it.hasNext(); ) {
+                    Student s = it.next();
+                    out.write(s.getId() + "," + quote(s.getName()) + "," + quote(s.getEmail()) + "," + quote(s.getRollNo()) + "\n");
+                    result.student();
+                }
+            }
+            try (Writer out = writer(dir.resolve(ALLOCATIONS + suffix), gzip); Stream<Map.Entry<Integer, Integer>> allocs = db.streamAllocations()) {
+                out.write("student_id,room_id\n");
+                int n = 0;
+                for (Iterator<Map.Entry<Integer, Integer>> it = allocs.iterator(); it.hasNext(); n++) {
+                    Map.Entry<Integer, Integer> e = it.next();
+                    out.write(e.getKey() + "," + e.getValue() + "\n");
+                }
+                result.allocations(n);
+            }
+            for (String name : new String[] { ROOMS, STUDENTS, ALLOCATIONS }) result.bytes(Files.size(dir.resolve(name + suffix)));
+        } catch (IOException | UncheckedIOException | UncheckedDatabaseException e) {
+            throw DumpFiles.failure("write export", e);
+        }
+        return result;
+    }
+
+    /**
+     * Loads a dump made by {@link #export} into {@code db} (normally empty) and returns what went
+     * in. Each file may be plain or {@code .gz}. Students and rooms get new ids in the target
+     * store; the {@code occupied} column is ignored, rooms fill up from the allocations.
+     */
+    public static DumpResult load(Path dir, DatabaseOperations db) throws DatabaseException {
+        DumpResult result = new DumpResult();
+        DumpLoader loader = new DumpLoader(db, result);
+        try {
+            Path rooms = find(dir, ROOMS), students = find(dir, STUDENTS), allocs = find(dir, ALLOCATIONS);
+            try (BufferedReader in = reader(rooms)) {
+                for (List<String> f; (f = next(in)) != null; ) {
+                    Integer id = number(f, 0), capacity = number(f, 2);
+                    if (id == null || capacity == null) result.skipped("room row " + f + ": bad number");
+                    else loader.room(id, field(f, 1), capacity);
+                }
+            }
+            try (BufferedReader in = reader(students)) {
+                for (List<String> f; (f = next(in)) != null; ) {
+                    Integer id = number(f, 0);
+                    if (id == null) result.skipped("student row " + f + ": bad id");
+                    else loader.student(id, field(f, 1), field(f, 2), field(f, 3));
+                }
+            }
+            try (BufferedReader in = reader(allocs)) {
+                for (List<String> f; (f = next(in)) != null; ) {
+                    Integer sid = number(f, 0), rid = number(f, 1);
+                    if (sid == null || rid == null) result.skipped("allocation row " + f + ": bad id");
+                    else loader.allocation(sid, rid);
+                }
+            }
+            loader.finish();
+            result.bytes(Files.size(rooms) + Files.size(students) + Files.size(allocs));
+        } catch (IOException | UncheckedIOException e) {
+            throw DumpFiles.failure("read export", e);
+        }
+        return result;
+    }
+
+    private static Writer writer(Path path, boolean gzip) throws IOException {
+        return new BufferedWriter(Channels.newWriter(DumpFiles.create(path, gzip), StandardCharsets.UTF_8), DumpFiles.BUFFER);
+    }
+
+    private static BufferedReader reader(Path path) throws IOException {
+        return new BufferedReader(Channels.newReader(DumpFiles.open(path), StandardCharsets.UTF_8), DumpFiles.BUFFER);
+    }
+
+    private static Path find(Path dir, String name) throws IOException {
+        Path plain = dir.resolve(name), gz = dir.resolve(name + ".gz");
+        if (Files.exists(plain)) return plain;
+        if (Files.exists(gz)) return gz;
+        throw new IOException("missing " + plain);
+    }
+
+    /** Next data row, skipping blank lines and the header (first field "id" or "student_id"). */
+    private static List<String> next(BufferedReader in) throws IOException {
+        for (String line; (line = in.readLine()) != null; ) {
+            if (line.isBlank()) continue;
+            List<String> f = StudentCsvReader.parse(line);
+            String first = f.get(0).trim();
+            if (first.equals("id") || first.equals("student_id")) continue;
+            return f;
+        }
+        return null;
+    }
+
+    private static String field(List<String> f, int i) {
+        return i < f.size() && !f.get(i).isEmpty() ? f.get(i) : null;
+    }
+
+    private static Integer number(List<String> f, int i) {
+        try {
+            return i < f.size() ? Integer.valueOf(f.get(i).trim()) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** Quotes a field when needed. Line breaks become spaces, as the readers are line based. */
+    private static String quote(String v) {
+        if (v == null) return "";
+        if (v.indexOf('\n') >= 0 || v.indexOf('\r') >= 0) v = v.replace('\n', ' ').replace('\r', ' ');
+        if (v.indexOf(',') < 0 && v.indexOf('"') < 0) return v;
+        return '"' + v.replace("\"", "\"\"") + '"';
+    }
+}
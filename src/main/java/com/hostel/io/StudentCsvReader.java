@@ -0,0 +1,92 @@
+package com.hostel.io;
+
+import com.hostel.model.Student;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams students from CSV with columns {@code name,email,roll_no}. A first line whose first
+ * field is "name" is taken as the header and skipped. Fields may be double-quoted; rows are parsed lazily so a roster of
+ * any size can be fed straight into {@code DatabaseOperations.addStudents}.
+ */
+public class StudentCsvReader implements Iterable<Student>, Closeable {
+    private final BufferedReader in;
+    private boolean iterated;
+
+    public StudentCsvReader(Reader reader) {
+        this.in = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader, 1 << 16);
+    }
+
+    @Override
+    public Iterator<Student> iterator() {
+        if (iterated) throw new IllegalStateException("CSV can only be read once");
+        iterated = true;
+        return new Iterator<Student>() {
+            private String next = advance(true);
+
+            private String advance(boolean first) {
+                try {
+                    String line;
+                    while ((line = in.readLine()) != null) {
+                        if (line.isBlank()) continue;
+                        if (first && parse(line).get(0).trim().equalsIgnoreCase("name")) { first = false; continue; }
+                        return line;
+                    }
+                    return null;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public boolean hasNext() { return next != null; }
+
+            @Override
+            public Student next() {
+                if (next == null) throw new NoSuchElementException();
+                List<String> f = parse(next);
+                next = advance(false);
+                return new Student(field(f, 0), field(f, 1), field(f, 2));
+            }
+        };
+    }
+
+    private static String field(List<String> f, int i) {
+        if (i >= f.size()) return null;
+        String v = f.get(i).trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    static List<String> parse(String line) {
+        List<String> out = new ArrayList<>(3);
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') { cur.append('"'); i++; }
+                    else quoted = false;
+                } else cur.append(c);
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                out.add(cur.toString());
+                cur.setLength(0);
+            } else cur.append(c);
+        }
+        out.add(cur.toString());
+        return out;
+    }
+
+    @Override
+    public void close() throws IOException { in.close(); }
+}
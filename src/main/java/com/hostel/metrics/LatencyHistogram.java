@@ -0,0 +1,96 @@
+package com.hostel.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of durations in nanoseconds. Values below 64 ns get a bucket
+ * each; above that every power of two is split into 32 buckets, so any recorded value is
+ * reported within about 3% and the whole range up to {@code Long.MAX_VALUE} fits in under two
+ * thousand counters. {@link #record} is a couple of shifts and one atomic increment; readers see
+ * a slightly moving but never corrupt picture while writers are active.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB = 1 << SUB_BITS;           // buckets per power of two
+    private static final int LINEAR = 2 * SUB;              // values below this are exact
+    private static final int BUCKETS = LINEAR + (63 - SUB_BITS - 1) * SUB;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+
+    static int bucketOf(long nanos) {
+        if (nanos < LINEAR) return (int) Math.max(0, nanos);
+        int exp = 63 - Long.numberOfLeadingZeros(nanos);         // >= SUB_BITS + 1
+        int mantissa = (int) (nanos >>> (exp - SUB_BITS)) - SUB;   // 0 .. SUB-1
+        return LINEAR + (exp - SUB_BITS - 1) * SUB + mantissa;
+    }
+
+    /** Largest value that falls in {@code bucket}. */
+    static long upperBound(int bucket) {
+        if (bucket < LINEAR) return bucket;
+        int exp = (bucket - LINEAR) / SUB + SUB_BITS + 1;
+        long mantissa = (bucket - LINEAR) % SUB + SUB;
+        return ((mantissa + 1) << (exp - SUB_BITS)) - 1;
+    }
+
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketOf(nanos));
+        total.increment();
+        sum.add(nanos);
+    }
+
+    public long getCount() { return total.sum(); }
+
+    public long getTotalNanos() { return sum.sum(); }
+
+    public double getMeanNanos() {
+        long n = total.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /** Value at quantile {@code q} (0..1), as the upper bound of its bucket; 0 when empty. */
+    public long percentile(double q) {
+        long[] c = snapshot();
+        long n = 0;
+        for (long v : c) n += v;
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(q * n));
+        long seen = 0;
+        for (int i = 0; i < c.length; i++) {
+            seen += c[i];
+            if (seen >= rank) return upperBound(i);
+        }
+        return upperBound(c.length - 1);
+    }
+
+    public long getMaxNanos() {
+        for (int i = BUCKETS - 1; i >= 0; i--) {
+            if (counts.get(i) > 0) return upperBound(i);
+        }
+        return 0;
+    }
+
+    private long[] snapshot() {
+        long[] c = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) c[i] = counts.get(i);
+        return c;
+    }
+
+    /** Adds every count of {@code other} into this histogram. */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long v = other.counts.get(i);
+            if (v != 0) counts.addAndGet(i, v);
+        }
+        total.add(other.total.sum());
+        sum.add(other.sum.sum());
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        total.reset();
+        sum.reset();
+    }
+}
@@ -0,0 +1,35 @@
+package com.hostel.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for one method: a latency histogram (whose count is the call count), rows returned,
+ * failures ({@code DatabaseException} or unchecked) and rejections ({@code InvalidInputException}).
+ */
+public class MethodStats implements MethodStatsMXBean {
+    private final String method;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public MethodStats(String method) { this.method = method; }
+
+    public String getMethod() { return method; }
+    public LatencyHistogram getLatency() { return latency; }
+
+    void time(long startNanos) { latency.record(System.nanoTime() - startNanos); }
+    void rows(long n) { rows.add(n); }
+    void error() { errors.increment(); }
+    void rejected() { rejected.increment(); }
+
+    @Override public long getCalls() { return latency.getCount(); }
+    @Override public long getErrors() { return errors.sum(); }
+    @Override public long getRejected() { return rejected.sum(); }
+    @Override public long getRows() { return rows.sum(); }
+    @Override public double getMeanMicros() { return latency.getMeanNanos() / 1e3; }
+    @Override public double getP50Micros() { return latency.percentile(0.50) / 1e3; }
+    @Override public double getP99Micros() { return latency.percentile(0.99) / 1e3; }
+    @Override public double getP999Micros() { return latency.percentile(0.999) / 1e3; }
+    @Override public double getMaxMicros() { return latency.getMaxNanos() / 1e3; }
+}
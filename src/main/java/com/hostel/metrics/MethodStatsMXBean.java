@@ -0,0 +1,14 @@
+package com.hostel.metrics;
+
+/** JMX view of one instrumented method; times are in microseconds. */
+public interface MethodStatsMXBean {
+    long getCalls();
+    long getErrors();
+    long getRejected();
+    long getRows();
+    double getMeanMicros();
+    double getP50Micros();
+    double getP99Micros();
+    double getP999Micros();
+    double getMaxMicros();
+}
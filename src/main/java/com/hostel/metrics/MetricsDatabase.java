@@ -0,0 +1,320 @@
+package com.hostel.metrics;
+
+import com.hostel.dao.BulkResult;
+import com.hostel.dao.DatabaseOperations;
+import com.hostel.dao.ForwardingDatabase;
+import com.hostel.exception.DatabaseException;
+import com.hostel.exception.InvalidInputException;
+import com.hostel.model.Room;
+import com.hostel.model.RoomWithOccupants;
+import com.hostel.model.Student;
+import com.hostel.model.StudentWithRoom;
+import com.hostel.model.Transfer;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Times every call to the wrapped store and counts calls, rows returned, failures and
+ * rejected input per method. Recording is a {@code nanoTime} pair plus a few uncontended
+ * atomic adds, cheap enough to leave on. Read the numbers through {@link #getStats()},
+ * {@link #scrape()} (Prometheus text format) or JMX after {@link #registerMBeans}. Streams and
+ * iterators are timed until they are returned; stream rows are counted as they are consumed.
+ */
+public class MetricsDatabase extends ForwardingDatabase {
+    private final List<MethodStats> all = new ArrayList<>();
+    private final List<ObjectName> registered = new ArrayList<>();
+
+    private final MethodStats connect = stats("connect");
+    private final MethodStats addStudent = stats("addStudent");
+    private final MethodStats addStudents = stats("addStudents");
+    private final MethodStats addRoom = stats("addRoom");
+    private final MethodStats allocateRoom = stats("allocateRoom");
+    private final MethodStats allocateRooms = stats("allocateRooms");
+    private final MethodStats deallocateStudent = stats("deallocateStudent");
+    private final MethodStats deallocateStudents = stats("deallocateStudents");
+    private final MethodStats vacateRooms = stats("vacateRooms");
+    private final MethodStats vacateByLabelPrefix = stats("vacateByLabelPrefix");
+    private final MethodStats transferStudent = stats("transferStudent");
+    private final MethodStats swapStudents = stats("swapStudents");
+    private final MethodStats applyTransfers = stats("applyTransfers");
+    private final MethodStats deleteStudent = stats("deleteStudent");
+    private final MethodStats changeRoomNumber = stats("changeRoomNumber");
+    private final MethodStats getStudent = stats("getStudent");
+    private final MethodStats getStudentByRollNo = stats("getStudentByRollNo");
+    private final MethodStats getStudentByEmail = stats("getStudentByEmail");
+    private final MethodStats getAllocatedRoomForStudent = stats("getAllocatedRoomForStudent");
+    private final MethodStats getAllStudents = stats("getAllStudents");
+    private final MethodStats getAllRooms = stats("getAllRooms");
+    private final MethodStats getAvailableRooms = stats("getAvailableRooms");
+    private final MethodStats getAllAllocations = stats("getAllAllocations");
+    private final MethodStats findFirstAvailableRoom = stats("findFirstAvailableRoom");
+    private final MethodStats findBestFitRoom = stats("findBestFitRoom");
+    private final MethodStats countFreeBeds = stats("countFreeBeds");
+    private final MethodStats availableRooms = stats("availableRooms");
+    private final MethodStats getRoomsWithOccupants = stats("getRoomsWithOccupants");
+    private final MethodStats getStudentsWithRooms = stats("getStudentsWithRooms");
+    private final MethodStats getStudentsPage = stats("getStudentsPage");
+    private final MethodStats getStudentsWithRoomsPage = stats("getStudentsWithRoomsPage");
+    private final MethodStats getRoomsPage = stats("getRoomsPage");
+    private final MethodStats getAllocationsPage = stats("getAllocationsPage");
+    private final MethodStats streamStudents = stats("streamStudents");
+    private final MethodStats streamRooms = stats("streamRooms");
+    private final MethodStats streamAllocations = stats("streamAllocations");
+
+    public MetricsDatabase(DatabaseOperations delegate) {
+        super(delegate);
+    }
+
+    /** Creates and registers the counters for one method; subclasses adding methods use this too. */
+    protected final MethodStats stats(String method) {
+        MethodStats m = new MethodStats(method);
+        all.add(m);
+        return m;
+    }
+
+    public List<MethodStats> getStats() { return Collections.unmodifiableList(all); }
+
+    protected interface Call<T, X extends Exception> {
+        T call() throws DatabaseException, X;
+    }
+
+    protected final <T, X extends Exception> T timed(MethodStats m, Call<T, X> call) throws DatabaseException, X {
+        long start = System.nanoTime();
+        try {
+            T result = call.call();
+            m.rows(rowsOf(result));
+            return result;
+        } catch (Exception e) {
+            if (e instanceof InvalidInputException) m.rejected();
+            else m.error();
+            throw e;
+        } finally {
+            m.time(start);
+        }
+    }
+
+    private static long rowsOf(Object result) {
+        if (result instanceof Collection) return ((Collection<?>) result).size();
+        if (result instanceof Map) return ((Map<?, ?>) result).size();
+        if (result instanceof BulkResult) return ((BulkResult) result).getSucceeded();
+        if (result instanceof Student || result instanceof Room) return 1;
+        return 0;
+    }
+
+    private static <T> Stream<T> counted(MethodStats m, Stream<T> s) {
+        return s.peek(x -> m.rows(1));
+    }
+
+    @Override
+    public void connect() throws DatabaseException {
+        timed(connect, () -> {
+            delegate.connect();
+            return null;
+        });
+    }
+
+    @Override
+    public int addStudent(Student s) throws DatabaseException, InvalidInputException { return timed(addStudent, () -> delegate.addStudent(s)); }
+
+    @Override
+    public BulkResult addStudents(Iterable<Student> students) throws DatabaseException { return timed(addStudents, () -> delegate.addStudents(students)); }
+
+    @Override
+    public int addRoom(Room r) throws DatabaseException, InvalidInputException { return timed(addRoom, () -> delegate.addRoom(r)); }
+
+    @Override
+    public boolean allocateRoom(int studentId, int roomId) throws DatabaseException, InvalidInputException {
+        return timed(allocateRoom, () -> delegate.allocateRoom(studentId, roomId));
+    }
+
+    @Override
+    public int allocateRooms(Map<Integer, Integer> assignments) throws DatabaseException, InvalidInputException {
+        return timed(allocateRooms, () -> delegate.allocateRooms(assignments));
+    }
+
+    @Override
+    public boolean deallocateStudent(int studentId) throws DatabaseException { return timed(deallocateStudent, () -> delegate.deallocateStudent(studentId)); }
+
+    @Override
+    public int deallocateReturningRoom(int studentId) throws DatabaseException { return timed(deallocateStudent, () -> delegate.deallocateReturningRoom(studentId)); }
+
+    @Override
+    public int deallocateStudents(Collection<Integer> studentIds) throws DatabaseException {
+        return timed(deallocateStudents, () -> delegate.deallocateStudents(studentIds));
+    }
+
+    @Override
+    public int vacateRooms(Collection<Integer> roomIds) throws DatabaseException { return timed(vacateRooms, () -> delegate.vacateRooms(roomIds)); }
+
+    @Override
+    public int vacateByLabelPrefix(String prefix) throws DatabaseException, InvalidInputException {
+        return timed(vacateByLabelPrefix, () -> delegate.vacateByLabelPrefix(prefix));
+    }
+
+    @Override
+    public boolean transferStudent(int studentId, int toRoomId) throws DatabaseException, InvalidInputException {
+        return timed(transferStudent, () -> delegate.transferStudent(studentId, toRoomId));
+    }
+
+    @Override
+    public boolean swapStudents(int studentA, int studentB) throws DatabaseException, InvalidInputException {
+        return timed(swapStudents, () -> delegate.swapStudents(studentA, studentB));
+    }
+
+    @Override
+    public int applyTransfers(List<Transfer> transfers) throws DatabaseException, InvalidInputException {
+        return timed(applyTransfers, () -> delegate.applyTransfers(transfers));
+    }
+
+    @Override
+    public boolean deleteStudent(int studentId) throws DatabaseException { return timed(deleteStudent, () -> delegate.deleteStudent(studentId)); }
+
+    @Override
+    public int deleteReturningRoom(int studentId) throws DatabaseException { return timed(deleteStudent, () -> delegate.deleteReturningRoom(studentId)); }
+
+    @Override
+    public boolean changeRoomNumber(int roomId, String newNumber) throws DatabaseException, InvalidInputException {
+        return timed(changeRoomNumber, () -> delegate.changeRoomNumber(roomId, newNumber));
+    }
+
+    @Override
+    public Student getStudent(int studentId) throws DatabaseException { return timed(getStudent, () -> delegate.getStudent(studentId)); }
+
+    @Override
+    public Student getStudentByRollNo(String rollNo) throws DatabaseException { return timed(getStudentByRollNo, () -> delegate.getStudentByRollNo(rollNo)); }
+
+    @Override
+    public Student getStudentByEmail(String email) throws DatabaseException { return timed(getStudentByEmail, () -> delegate.getStudentByEmail(email)); }
+
+    @Override
+    public Room getAllocatedRoomForStudent(int studentId) throws DatabaseException {
+        return timed(getAllocatedRoomForStudent, () -> delegate.getAllocatedRoomForStudent(studentId));
+    }
+
+    @Override
+    public List<Student> getAllStudents() throws DatabaseException { return timed(getAllStudents, delegate::getAllStudents); }
+
+    @Override
+    public List<Room> getAllRooms() throws DatabaseException { return timed(getAllRooms, delegate::getAllRooms); }
+
+    @Override
+    public List<Room> getAvailableRooms() throws DatabaseException { return timed(getAvailableRooms, delegate::getAvailableRooms); }
+
+    @Override
+    public Map<Integer, Integer> getAllAllocations() throws DatabaseException { return timed(getAllAllocations, delegate::getAllAllocations); }
+
+    @Override
+    public Room findFirstAvailableRoom() throws DatabaseException { return timed(findFirstAvailableRoom, delegate::findFirstAvailableRoom); }
+
+    @Override
+    public Room findBestFitRoom(int beds) throws DatabaseException { return timed(findBestFitRoom, () -> delegate.findBestFitRoom(beds)); }
+
+    @Override
+    public long countFreeBeds() throws DatabaseException { return timed(countFreeBeds, delegate::countFreeBeds); }
+
+    @Override
+    public Iterator<Room> availableRooms() throws DatabaseException { return timed(availableRooms, delegate::availableRooms); }
+
+    @Override
+    public List<RoomWithOccupants> getRoomsWithOccupants() throws DatabaseException { return timed(getRoomsWithOccupants, delegate::getRoomsWithOccupants); }
+
+    @Override
+    public List<StudentWithRoom> getStudentsWithRooms() throws DatabaseException { return timed(getStudentsWithRooms, delegate::getStudentsWithRooms); }
+
+    @Override
+    public List<Student> getStudentsPage(int afterId, int limit) throws DatabaseException {
+        return timed(getStudentsPage, () -> delegate.getStudentsPage(afterId, limit));
+    }
+
+    @Override
+    public List<StudentWithRoom> getStudentsWithRoomsPage(int afterId, int limit) throws DatabaseException {
+        return timed(getStudentsWithRoomsPage, () -> delegate.getStudentsWithRoomsPage(afterId, limit));
+    }
+
+    @Override
+    public List<Room> getRoomsPage(int afterId, int limit) throws DatabaseException { return timed(getRoomsPage, () -> delegate.getRoomsPage(afterId, limit)); }
+
+    @Override
+    public Map<Integer, Integer> getAllocationsPage(int afterStudentId, int limit) throws DatabaseException {
+        return timed(getAllocationsPage, () -> delegate.getAllocationsPage(afterStudentId, limit));
+    }
+
+    @Override
+    public Stream<Student> streamStudents() throws DatabaseException { return counted(streamStudents, timed(streamStudents, delegate::streamStudents)); }
+
+    @Override
+    public Stream<Room> streamRooms() throws DatabaseException { return counted(streamRooms, timed(streamRooms, delegate::streamRooms)); }
+
+    @Override
+    public Stream<Map.Entry<Integer, Integer>> streamAllocations() throws DatabaseException {
+        return counted(streamAllocations, timed(streamAllocations, delegate::streamAllocations));
+    }
+
+    // ---- export ----
+
+    /**
+     * Registers one MXBean per method as {@code com.hostel:type=DatabaseMetrics,name=<name>,method=<method>}
+     * with the platform MBean server.
+     */
+    public synchronized void registerMBeans(String name) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (MethodStats m : all) {
+            ObjectName on = new ObjectName("com.hostel:type=DatabaseMetrics,name=" + ObjectName.quote(name) + ",method=" + m.getMethod());
+            server.registerMBean(m, on);
+            registered.add(on);
+        }
+    }
+
+    public synchronized void unregisterMBeans() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName on : registered) {
+            if (server.isRegistered(on)) server.unregisterMBean(on);
+        }
+        registered.clear();
+    }
+
+    /** Every method that has been called, in the Prometheus text exposition format. */
+    public String scrape() {
+        StringBuilder b = new StringBuilder();
+        b.append("# TYPE hostel_db_calls_total counter\n");
+        for (MethodStats m : all) line(b, "hostel_db_calls_total", m, null, m.getCalls());
+        b.append("# TYPE hostel_db_errors_total counter\n");
+        for (MethodStats m : all) line(b, "hostel_db_errors_total", m, null, m.getErrors());
+        b.append("# TYPE hostel_db_rejected_total counter\n");
+        for (MethodStats m : all) line(b, "hostel_db_rejected_total", m, null, m.getRejected());
+        b.append("# TYPE hostel_db_rows_total counter\n");
+        for (MethodStats m : all) line(b, "hostel_db_rows_total", m, null, m.getRows());
+        b.append("# TYPE hostel_db_latency_seconds summary\n");
+        for (MethodStats m : all) {
+            if (m.getCalls() == 0) continue;
+            LatencyHistogram h = m.getLatency();
+            line(b, "hostel_db_latency_seconds", m, "0.5", h.percentile(0.5) / 1e9);
+            line(b, "hostel_db_latency_seconds", m, "0.99", h.percentile(0.99) / 1e9);
+            line(b, "hostel_db_latency_seconds", m, "0.999", h.percentile(0.999) / 1e9);
+            line(b, "hostel_db_latency_seconds_sum", m, null, h.getTotalNanos() / 1e9);
+            line(b, "hostel_db_latency_seconds_count", m, null, h.getCount());
+        }
+        return b.toString();
+    }
+
+    private static void line(StringBuilder b, String metric, MethodStats m, String quantile, double value) {
+        if (m.getCalls() == 0) return;
+        b.append(metric).append("{method=\"").append(m.getMethod()).append('"');
+        if (quantile != null) b.append(",quantile=\"").append(quantile).append('"');
+        b.append("} ");
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) b.append((long) value);
+        else b.append(String.format(Locale.ROOT, "%.9g", value));
+        b.append('\n');
+    }
+}
@@ -0,0 +1,48 @@
+package com.hostel.model;
+
+/** Immutable occupancy totals at one point in time. */
+public class OccupancySnapshot {
+    private final int totalRooms;
+    private final long totalBeds;
+    private final long occupiedBeds;
+    private final int totalStudents;
+    private final int allocatedStudents;
+    private final int fullRooms;
+
+    public OccupancySnapshot(int totalRooms, long totalBeds, long occupiedBeds, int totalStudents, int allocatedStudents, int fullRooms) {
+        this.totalRooms = totalRooms;
+        this.totalBeds = totalBeds;
+        this.occupiedBeds = occupiedBeds;
+        this.totalStudents = totalStudents;
+        this.allocatedStudents = allocatedStudents;
+        this.fullRooms = fullRooms;
+    }
+
+    public int getTotalRooms() { return totalRooms; }
+    public long getTotalBeds() { return totalBeds; }
+    public long getOccupiedBeds() { return occupiedBeds; }
+    public long getFreeBeds() { return totalBeds - occupiedBeds; }
+    public int getTotalStudents() { return totalStudents; }
+    public int getAllocatedStudents() { return allocatedStudents; }
+    public int getUnallocatedStudents() { return totalStudents - allocatedStudents; }
+    public int getFullRooms() { return fullRooms; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof OccupancySnapshot)) return false;
+        OccupancySnapshot s = (OccupancySnapshot) o;
+        return totalRooms == s.totalRooms && totalBeds == s.totalBeds && occupiedBeds == s.occupiedBeds
+                && totalStudents == s.totalStudents && allocatedStudents == s.allocatedStudents && fullRooms == s.fullRooms;
+    }
+
+    @Override
+    public int hashCode() {
+        return java.util.Objects.hash(totalRooms, totalBeds, occupiedBeds, totalStudents, allocatedStudents, fullRooms);
+    }
+
+    @Override
+    public String toString() {
+        return "rooms=" + totalRooms + " beds=" + totalBeds + " occupied=" + occupiedBeds + " students=" + totalStudents
+                + " allocated=" + allocatedStudents + " unallocated=" + getUnallocatedStudents() + " fullRooms=" + fullRooms;
+    }
+}
@@ -0,0 +1,18 @@
+package com.hostel.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/** A room together with the students allocated to it, for listings. */
+public class RoomWithOccupants {
+    private final Room room;
+    private final List<Student> occupants;
+
+    public RoomWithOccupants(Room room, List<Student> occupants) {
+        this.room = room;
+        this.occupants = Collections.unmodifiableList(occupants);
+    }
+
+    public Room getRoom() { return room; }
+    public List<Student> getOccupants() { return occupants; }
+}
@@ -0,0 +1,29 @@
+package com.hostel.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One student's wishes for the preference solver: roommates and room label prefixes (a block
+ * such as "B-", or a floor such as "B-2"), each ranked best first, and an optional cohort to be
+ * housed with. Null lists mean no wishes of that kind.
+ */
+public class StudentPreferences {
+    private final int studentId;
+    private final List<Integer> roommates;
+    private final List<String> labelPrefixes;
+    private final String cohort;
+
+    public StudentPreferences(int studentId, List<Integer> roommates, List<String> labelPrefixes, String cohort) {
+        this.studentId = studentId;
+        this.roommates = roommates == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(roommates));
+        this.labelPrefixes = labelPrefixes == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(labelPrefixes));
+        this.cohort = cohort == null || cohort.isBlank() ? null : cohort.trim();
+    }
+
+    public int getStudentId() { return studentId; }
+    public List<Integer> getRoommates() { return roommates; }
+    public List<String> getLabelPrefixes() { return labelPrefixes; }
+    public String getCohort() { return cohort; }
+}
@@ -0,0 +1,15 @@
+package com.hostel.model;
+
+/** A student together with their allocated room, which is null when unallocated. */
+public class StudentWithRoom {
+    private final Student student;
+    private final Room room;
+
+    public StudentWithRoom(Student student, Room room) {
+        this.student = student;
+        this.room = room;
+    }
+
+    public Student getStudent() { return student; }
+    public Room getRoom() { return room; }
+}
@@ -0,0 +1,14 @@
+package com.hostel.model;
+
+/** One move in a room reshuffle: student {@code studentId} ends up in room {@code toRoomId}. */
+public class Transfer {
+    private final int studentId;
+    private final int toRoomId;
+
+    public Transfer(int studentId, int toRoomId) {
+        this.studentId = studentId; this.toRoomId = toRoomId;
+    }
+
+    public int getStudentId() { return studentId; }
+    public int getToRoomId() { return toRoomId; }
+}
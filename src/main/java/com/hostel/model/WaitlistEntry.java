@@ -0,0 +1,21 @@
+package com.hostel.model;
+
+/**
+ * A student waiting for a bed: in room {@code roomId}, or in any room when that is null. Higher
+ * priorities are served first, and {@code seq} keeps first come, first served within a priority.
+ */
+public class WaitlistEntry {
+    private final int studentId;
+    private final Integer roomId;
+    private final int priority;
+    private final long seq;
+
+    public WaitlistEntry(int studentId, Integer roomId, int priority, long seq) {
+        this.studentId = studentId; this.roomId = roomId; this.priority = priority; this.seq = seq;
+    }
+
+    public int getStudentId() { return studentId; }
+    public Integer getRoomId() { return roomId; }
+    public int getPriority() { return priority; }
+    public long getSeq() { return seq; }
+}
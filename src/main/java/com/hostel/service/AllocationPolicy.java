@@ -0,0 +1,25 @@
+package com.hostel.service;
+
+import com.hostel.model.Room;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides which room each waiting student gets during {@link AllocationService#allocateAll}.
+ * Implementations work purely in memory on the rooms they are given and must not touch the database.
+ */
+public interface AllocationPolicy {
+    /** Fills rooms in the order given, moving on only when the current one is full. */
+    AllocationPolicy FIRST_FIT = (students, rooms) -> VacancyBuckets.firstFit(students, rooms);
+    /** Tops up the rooms with the fewest free beds first, keeping empty rooms free for as long as possible. */
+    AllocationPolicy BEST_FIT = (students, rooms) -> new VacancyBuckets(rooms).assign(students, false);
+    /** Always picks a room with the most free beds, so occupancy stays level across rooms. */
+    AllocationPolicy SPREAD_EVENLY = (students, rooms) -> new VacancyBuckets(rooms).assign(students, true);
+
+    /**
+     * Returns studentId -&gt; roomId for as many of {@code studentIds} as fit, in student order.
+     * Students that do not fit are left out of the result.
+     */
+    Map<Integer, Integer> assign(List<Integer> studentIds, List<Room> rooms);
+}
@@ -1,22 +1,95 @@
 package com.hostel.service;
 
+import com.hostel.dao.BulkResult;
 import com.hostel.dao.DatabaseOperations;
+import com.hostel.dao.WaitlistDatabase;
 import com.hostel.exception.DatabaseException;
 import com.hostel.exception.InvalidInputException;
+import com.hostel.io.StudentCsvReader;
 import com.hostel.model.Student;
+import com.hostel.model.StudentPreferences;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 public class AllocationService {
     private final DatabaseOperations db;
+    private final WaitlistDatabase waitlist;
+
+    public AllocationService(DatabaseOperations db) { this.db = db; this.waitlist = null; }
 
-    public AllocationService(DatabaseOperations db) { this.db = db; }
+    /** Also lets {@link #allocateOrWaitlist} queue students for full rooms. */
+    public AllocationService(WaitlistDatabase db) { this.db = db; this.waitlist = db; }
 
-    public void addStudent(Student s) throws DatabaseException, InvalidInputException {
+    /** Adds the student and returns the id the store gave it, which is not always the roll number. */
+    public int addStudent(Student s) throws DatabaseException, InvalidInputException {
         int id = db.addStudent(s);
         if (id <= 0) throw new DatabaseException("Failed to add student", null);
+        return id;
+    }
+
+    /** Imports a {@code name,email,roll_no} CSV roster; bad rows are listed in the result. */
+    public BulkResult importStudents(Reader csv) throws DatabaseException {
+        try (StudentCsvReader reader = new StudentCsvReader(csv)) {
+            return db.addStudents(reader);
+        } catch (IOException | UncheckedIOException e) {
+            throw new DatabaseException("Unable to read roster: " + e.getMessage(), e);
+        }
     }
 
     public void allocateRoom(int studentId, int roomId) throws DatabaseException, InvalidInputException {
         boolean ok = db.allocateRoom(studentId, roomId);
         if (!ok) throw new InvalidInputException("Room is full or unavailable");
     }
+
+    /**
+     * Allocates the room ({@code roomId} null = the first free one), or when none is free puts
+     * the student on the waitlist for it. Returns the place in the queue, or 0 when allocated.
+     */
+    public int allocateOrWaitlist(int studentId, Integer roomId, int priority) throws DatabaseException, InvalidInputException {
+        if (waitlist == null) throw new InvalidInputException("No waitlist configured");
+        if (roomId != null && db.allocateRoom(studentId, roomId)) return 0;
+        return waitlist.enqueue(studentId, roomId, priority);
+    }
+
+    /**
+     * Places every student who has no room yet in a single pass using {@code policy}, then writes
+     * the whole plan back in one batch. Returns studentId -&gt; roomId for the students placed;
+     * anyone left over when beds run out stays unallocated.
+     */
+    public Map<Integer, Integer> allocateAll(AllocationPolicy policy) throws DatabaseException, InvalidInputException {
+        List<Integer> pending = pendingStudents();
+        if (pending.isEmpty()) return Collections.emptyMap();
+        Map<Integer, Integer> plan = policy.assign(pending, db.getAvailableRooms());
+        if (!plan.isEmpty()) db.allocateRooms(plan);
+        return plan;
+    }
+
+    /**
+     * Like {@link #allocateAll}, but rooms are chosen by {@code solver} to meet as many of the
+     * students' roommate, block and cohort wishes as it can within its time budget. The plan is
+     * written back in one batch; students missing from {@code prefs} have no wishes.
+     */
+    public PreferenceSolver.Solution allocateWithPreferences(PreferenceSolver solver, Collection<StudentPreferences> prefs)
+            throws DatabaseException, InvalidInputException {
+        List<Integer> pending = pendingStudents();
+        PreferenceSolver.Solution solution = solver.solve(pending, prefs, pending.isEmpty() ? Collections.emptyList() : db.getAvailableRooms());
+        if (!solution.getAssignments().isEmpty()) db.allocateRooms(solution.getAssignments());
+        return solution;
+    }
+
+    private List<Integer> pendingStudents() throws DatabaseException {
+        Map<Integer, Integer> allocated = db.getAllAllocations();
+        List<Integer> pending = new ArrayList<>();
+        for (Student s : db.getAllStudents()) {
+            if (!allocated.containsKey(s.getId())) pending.add(s.getId());
+        }
+        return pending;
+    }
 }
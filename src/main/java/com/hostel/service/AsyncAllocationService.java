@@ -0,0 +1,107 @@
+package com.hostel.service;
+
+import com.hostel.dao.AsyncDatabaseOperations;
+import com.hostel.model.Room;
+import com.hostel.model.Student;
+import com.hostel.model.StudentWithRoom;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link AllocationService} flows on an {@link AsyncDatabaseOperations}: independent reads are
+ * issued together, and bulk lookups keep at most {@code maxInFlight} calls outstanding, each
+ * finished call starting the next, so thousands of ids never need thousands of threads.
+ */
+public class AsyncAllocationService {
+    private final AsyncDatabaseOperations db;
+    private final int maxInFlight;
+
+    public AsyncAllocationService(AsyncDatabaseOperations db, int maxInFlight) {
+        if (maxInFlight < 1) throw new IllegalArgumentException("maxInFlight must be at least 1");
+        this.db = db;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /** A student with their room, or null for an unknown id; both reads run concurrently. */
+    public CompletableFuture<StudentWithRoom> lookup(int studentId) {
+        CompletableFuture<Student> student = db.getStudent(studentId);
+        CompletableFuture<Room> room = db.getAllocatedRoomForStudent(studentId);
+        return student.thenCombine(room, (s, r) -> s == null ? null : new StudentWithRoom(s, r));
+    }
+
+    /** Looks up every id; the result maps found ids, in input order, to student and room. */
+    public CompletableFuture<Map<Integer, StudentWithRoom>> lookupAll(Collection<Integer> studentIds) {
+        List<Integer> ids = new ArrayList<>(studentIds);
+        StudentWithRoom[] found = new StudentWithRoom[ids.size()];
+        AtomicInteger next = new AtomicInteger();
+        int lanes = Math.min(maxInFlight, ids.size());
+        CompletableFuture<?>[] running = new CompletableFuture<?>[lanes];
+        for (int i = 0; i < lanes; i++) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            lane(ids, found, next, done);
+            running[i] = done;
+        }
+        return CompletableFuture.allOf(running).thenApply(v -> {
+            Map<Integer, StudentWithRoom> out = new LinkedHashMap<>();
+            for (int i = 0; i < found.length; i++) {
+                if (found[i] != null) out.put(ids.get(i), found[i]);
+            }
+            return out;
+        });
+    }
+
+    /**
+     * Takes the next unclaimed id, looks it up, and repeats until none are left, then completes
+     * {@code done}. Lookups that are already complete (a cache hit, a synchronous store) are taken
+     * in a loop; only a pending one resumes the lane from its callback, so the stack stays flat.
+     */
+    private void lane(List<Integer> ids, StudentWithRoom[] found, AtomicInteger next, CompletableFuture<Void> done) {
+        while (true) {
+            int i = next.getAndIncrement();
+            if (i >= ids.size()) {
+                done.complete(null);
+                return;
+            }
+            CompletableFuture<StudentWithRoom> f = lookup(ids.get(i));
+            if (!f.isDone() || f.isCompletedExceptionally()) {
+                f.whenComplete((r, e) -> {
+                    if (e != null) done.completeExceptionally(e);
+                    else {
+                        found[i] = r;
+                        lane(ids, found, next, done);
+                    }
+                });
+                return;
+            }
+            found[i] = f.join();
+        }
+    }
+
+    /**
+     * Same as {@link AllocationService#allocateAll}, but students, allocations and vacant rooms
+     * are read concurrently rather than one after another.
+     */
+    public CompletableFuture<Map<Integer, Integer>> allocateAll(AllocationPolicy policy) {
+        CompletableFuture<List<Student>> students = db.getAllStudents();
+        CompletableFuture<Map<Integer, Integer>> allocated = db.getAllAllocations();
+        CompletableFuture<List<Room>> vacant = db.getAvailableRooms();
+        return CompletableFuture.allOf(students, allocated, vacant).thenCompose(v -> {
+            Map<Integer, Integer> taken = allocated.join();
+            List<Integer> pending = new ArrayList<>();
+            for (Student s : students.join()) {
+                if (!taken.containsKey(s.getId())) pending.add(s.getId());
+            }
+            if (pending.isEmpty()) return CompletableFuture.completedFuture(Collections.<Integer, Integer>emptyMap());
+            Map<Integer, Integer> plan = policy.assign(pending, vacant.join());
+            if (plan.isEmpty()) return CompletableFuture.completedFuture(plan);
+            return db.allocateRooms(plan).thenApply(n -> plan);
+        });
+    }
+}
@@ -0,0 +1,421 @@
+package com.hostel.service;
+
+import com.hostel.model.Room;
+import com.hostel.model.StudentPreferences;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Places students in free beds so that as many wishes as possible come true: requested
+ * roommates, preferred blocks or floors (room label prefixes) and staying with one's cohort.
+ * A greedy pass that keeps roommate groups and cohorts together builds a first plan. Rounds of
+ * local search then move and swap students until the time budget runs out or a few rounds in a
+ * row find nothing better. Each round splits the rooms into random disjoint shards and searches
+ * them in parallel on a fork/join pool. Every term of the score depends on one room's occupants
+ * only, so shards never interfere. Moves aimed at a student in another shard use where that
+ * student was when the round began, so a run that settles within its budget is reproducible
+ * for a given seed.
+ *
+ * <p>Scoring: a roommate wish met is worth {@link #ROOMMATE_POINTS} minus its rank, a label
+ * wish {@link #LABEL_POINTS} minus its rank (at least 1 each), and every pair of cohort mates
+ * sharing a room {@link #COHORT_POINTS} to each. Existing occupants stay where they are.
+ */
+public class PreferenceSolver {
+    public static final int ROOMMATE_POINTS = 8;
+    public static final int LABEL_POINTS = 4;
+    public static final int COHORT_POINTS = 1;
+    private static final int STALE_ROUNDS = 3;
+    private static final int ATTEMPTS_PER_STUDENT = 32;
+
+    private final long budgetMillis;
+    private final int parallelism;
+    private final long seed;
+
+    public PreferenceSolver(long budgetMillis) {
+        this(budgetMillis, Runtime.getRuntime().availableProcessors(), 1L);
+    }
+
+    public PreferenceSolver(long budgetMillis, int parallelism, long seed) {
+        if (budgetMillis < 0) throw new IllegalArgumentException("budgetMillis must not be negative");
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be at least 1");
+        this.budgetMillis = budgetMillis;
+        this.parallelism = parallelism;
+        this.seed = seed;
+    }
+
+    /** The plan and how well it did; {@link #getAssignments} is studentId -&gt; roomId in student order. */
+    public static final class Solution {
+        private final Map<Integer, Integer> assignments;
+        private final long score;
+        private final int satisfiedWishes;
+        private final int totalWishes;
+        private final int rounds;
+
+        Solution(Map<Integer, Integer> assignments, long score, int satisfiedWishes, int totalWishes, int rounds) {
+            this.assignments = assignments;
+            this.score = score;
+            this.satisfiedWishes = satisfiedWishes;
+            this.totalWishes = totalWishes;
+            this.rounds = rounds;
+        }
+
+        public Map<Integer, Integer> getAssignments() { return assignments; }
+        public long getScore() { return score; }
+        /** Roommate wishes met plus students housed under one of their label prefixes. */
+        public int getSatisfiedWishes() { return satisfiedWishes; }
+        /** Roommate wishes plus students with a label preference. */
+        public int getTotalWishes() { return totalWishes; }
+        public int getRounds() { return rounds; }
+    }
+
+    /**
+     * Places as many of {@code studentIds} as there are free beds in {@code rooms}; students
+     * without an entry in {@code prefs} have no wishes, and wishes for roommates outside
+     * {@code studentIds} are ignored. Students that do not fit are left out of the plan.
+     */
+    public Solution solve(List<Integer> studentIds, Collection<StudentPreferences> prefs, List<Room> rooms) {
+        long deadline = System.nanoTime() + budgetMillis * 1_000_000L;
+        Search s = new Search(studentIds, prefs, rooms);
+        s.greedy();
+        int rounds = 0;
+        int shards = Math.min(parallelism, s.roomCount / 2);
+        if (s.placed > 1 && s.roomCount > 1) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                SplittableRandom rnd = new SplittableRandom(seed);
+                for (int stale = 0; stale < STALE_ROUNDS && System.nanoTime() < deadline; rounds++) {
+                    s.shuffleShards(rnd, Math.max(1, shards));
+                    s.roundStart = s.roomOf.clone();
+                    int improved = pool.invoke(s.new Round(0, s.shardRooms.length, rnd.nextLong(), deadline));
+                    stale = improved > 0 ? 0 : stale + 1;
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+        return s.solution(rounds);
+    }
+
+    /** Solver state: students and rooms by dense index, rooms holding only the solver's students. */
+    private static final class Search {
+        final int n;
+        final int[] ids;
+        final int[][] wants;       // student -> roommate indices, best first
+        final int[][] labelWants;  // student -> prefix ids, best first
+        final int[] cohort;        // student -> cohort id, or -1
+        final int[][] cohortMembers;
+        final int[] roomOf;        // student -> room index, or -1 when unplaced
+        int placed;
+
+        final int roomCount;
+        final int[] roomIds;
+        final int[] free;          // beds available to the solver
+        final int[][] occupants;
+        final int[] count;
+        final BitSet[] matches;    // prefix id -> rooms whose label starts with it
+        final int[][] matchList;
+
+        int[] shardOf;
+        int[][] shardRooms;
+        int[] roundStart;          // roomOf as the round began; other shards change roomOf meanwhile
+
+        Search(List<Integer> studentIds, Collection<StudentPreferences> prefs, List<Room> rooms) {
+            n = studentIds.size();
+            ids = new int[n];
+            Map<Integer, Integer> indexOf = new HashMap<>(n * 2);
+            for (int i = 0; i < n; i++) {
+                ids[i] = studentIds.get(i);
+                indexOf.put(ids[i], i);
+            }
+
+            List<Room> usable = new ArrayList<>();
+            for (Room r : rooms) {
+                if (r.getCapacity() - r.getOccupied() > 0) usable.add(r);
+            }
+            roomCount = usable.size();
+            roomIds = new int[roomCount];
+            free = new int[roomCount];
+            occupants = new int[roomCount][];
+            count = new int[roomCount];
+            for (int r = 0; r < roomCount; r++) {
+                Room room = usable.get(r);
+                roomIds[r] = room.getId();
+                free[r] = room.getCapacity() - room.getOccupied();
+                occupants[r] = new int[free[r]];
+            }
+
+            wants = new int[n][];
+            labelWants = new int[n][];
+            cohort = new int[n];
+            Arrays.fill(wants, new int[0]);
+            Arrays.fill(labelWants, new int[0]);
+            Arrays.fill(cohort, -1);
+            Map<String, Integer> prefixIds = new HashMap<>();
+            Map<String, Integer> cohortIds = new HashMap<>();
+            List<String> prefixes = new ArrayList<>();
+            for (StudentPreferences p : prefs) {
+                Integer i = indexOf.get(p.getStudentId());
+                if (i == null) continue;
+                wants[i] = p.getRoommates().stream().map(indexOf::get)
+                        .filter(j -> j != null && j.intValue() != i).distinct().mapToInt(Integer::intValue).toArray();
+                labelWants[i] = p.getLabelPrefixes().stream().filter(x -> x != null && !x.isEmpty()).distinct()
+                        .mapToInt(x -> prefixIds.computeIfAbsent(x, k -> { prefixes.add(k); return prefixes.size() - 1; })).toArray();
+                if (p.getCohort() != null) cohort[i] = cohortIds.computeIfAbsent(p.getCohort(), k -> cohortIds.size());
+            }
+
+            matches = new BitSet[prefixes.size()];
+            matchList = new int[prefixes.size()][];
+            for (int p = 0; p < prefixes.size(); p++) {
+                matches[p] = new BitSet(roomCount);
+                for (int r = 0; r < roomCount; r++) {
+                    String label = usable.get(r).getNumber();
+                    if (label != null && label.startsWith(prefixes.get(p))) matches[p].set(r);
+                }
+                matchList[p] = matches[p].stream().toArray();
+            }
+
+            int[] sizes = new int[cohortIds.size()];
+            for (int c : cohort) if (c >= 0) sizes[c]++;
+            cohortMembers = new int[sizes.length][];
+            for (int c = 0; c < sizes.length; c++) cohortMembers[c] = new int[sizes[c]];
+            Arrays.fill(sizes, 0);
+            for (int i = 0; i < n; i++) if (cohort[i] >= 0) cohortMembers[cohort[i]][sizes[cohort[i]]++] = i;
+
+            roomOf = new int[n];
+            Arrays.fill(roomOf, -1);
+        }
+
+        // ---- scoring ----
+
+        int labelPoints(int i, int r) {
+            int[] w = labelWants[i];
+            for (int k = 0; k < w.length; k++) {
+                if (matches[w[k]].get(r)) return Math.max(1, LABEL_POINTS - k);
+            }
+            return 0;
+        }
+
+        int roommatePoints(int i, int j) {
+            int[] w = wants[i];
+            for (int k = 0; k < w.length; k++) {
+                if (w[k] == j) return Math.max(1, ROOMMATE_POINTS - k);
+            }
+            return 0;
+        }
+
+        int pairPoints(int i, int j) {
+            int p = roommatePoints(i, j) + roommatePoints(j, i);
+            if (cohort[i] >= 0 && cohort[i] == cohort[j]) p += 2 * COHORT_POINTS;
+            return p;
+        }
+
+        /** What {@code i} adds to the score in room {@code r}, leaving out itself and {@code skip}. */
+        int gain(int i, int r, int skip) {
+            int g = labelPoints(i, r);
+            int[] occ = occupants[r];
+            for (int k = 0; k < count[r]; k++) {
+                int j = occ[k];
+                if (j != i && j != skip) g += pairPoints(i, j);
+            }
+            return g;
+        }
+
+        void place(int i, int r) {
+            occupants[r][count[r]++] = i;
+            roomOf[i] = r;
+        }
+
+        void remove(int i, int r) {
+            int[] occ = occupants[r];
+            for (int k = 0; k < count[r]; k++) {
+                if (occ[k] == i) {
+                    occ[k] = occ[--count[r]];
+                    return;
+                }
+            }
+        }
+
+        // ---- greedy start ----
+
+        /** Places students group by group (roommate clusters, then cohorts) so groups start out together. */
+        void greedy() {
+            int[] root = new int[n];
+            for (int i = 0; i < n; i++) root[i] = i;
+            for (int i = 0; i < n; i++) {
+                for (int j : wants[i]) {
+                    int a = find(root, i), b = find(root, j);
+                    if (a != b) root[Math.max(a, b)] = Math.min(a, b);
+                }
+            }
+            for (int i = 0; i < n; i++) root[i] = find(root, i);
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> {
+                int c = Integer.compare(cohort[root[a]], cohort[root[b]]);
+                return c != 0 ? c : Integer.compare(root[a], root[b]);
+            });
+
+            int[] labelCursor = new int[matchList.length];
+            int anyCursor = 0;
+            int prev = -1;
+            for (int i : order) {
+                int r = -1;
+                if (prev >= 0 && count[roomOf[prev]] < free[roomOf[prev]]
+                        && (root[prev] == root[i] || (cohort[i] >= 0 && cohort[i] == cohort[prev]))) {
+                    r = roomOf[prev];
+                }
+                for (int k = 0; r < 0 && k < labelWants[i].length; k++) {
+                    int p = labelWants[i][k];
+                    int[] list = matchList[p];
+                    while (labelCursor[p] < list.length && count[list[labelCursor[p]]] == free[list[labelCursor[p]]]) labelCursor[p]++;
+                    if (labelCursor[p] < list.length) r = list[labelCursor[p]];
+                }
+                if (r < 0) {
+                    while (anyCursor < roomCount && count[anyCursor] == free[anyCursor]) anyCursor++;
+                    if (anyCursor == roomCount) break;
+                    r = anyCursor;
+                }
+                place(i, r);
+                placed++;
+                prev = i;
+            }
+        }
+
+        private static int find(int[] root, int i) {
+            while (root[i] != i) i = root[i] = root[root[i]];
+            return i;
+        }
+
+        // ---- parallel local search ----
+
+        void shuffleShards(SplittableRandom rnd, int shards) {
+            int[] perm = new int[roomCount];
+            for (int r = 0; r < roomCount; r++) perm[r] = r;
+            for (int r = roomCount - 1; r > 0; r--) {
+                int k = rnd.nextInt(r + 1);
+                int t = perm[r]; perm[r] = perm[k]; perm[k] = t;
+            }
+            shardOf = new int[roomCount];
+            shardRooms = new int[shards][];
+            for (int s = 0; s < shards; s++) shardRooms[s] = new int[(roomCount - s + shards - 1) / shards];
+            for (int k = 0; k < roomCount; k++) {
+                shardOf[perm[k]] = k % shards;
+                shardRooms[k % shards][k / shards] = perm[k];
+            }
+        }
+
+        /** Searches shards {@code [lo, hi)}, forking halves; returns the number of improving moves. */
+        final class Round extends RecursiveTask<Integer> {
+            private final int lo, hi;
+            private final long seed, deadline;
+
+            Round(int lo, int hi, long seed, long deadline) {
+                this.lo = lo; this.hi = hi; this.seed = seed; this.deadline = deadline;
+            }
+
+            @Override
+            protected Integer compute() {
+                if (hi - lo == 1) return search(lo, new SplittableRandom(seed + lo * 0x9E3779B97F4A7C15L), deadline);
+                int mid = (lo + hi) >>> 1;
+                Round left = new Round(lo, mid, seed, deadline);
+                left.fork();
+                int right = new Round(mid, hi, seed, deadline).compute();
+                return right + left.join();
+            }
+        }
+
+        /**
+         * Tries moves and swaps inside one shard. Targets are mostly a wished-for roommate's room,
+         * a cohort mate's room or a room under a wished-for label; sideways moves are taken too,
+         * to get across plateaus.
+         */
+        int search(int shard, SplittableRandom rnd, long deadline) {
+            int[] rooms = shardRooms[shard];
+            int students = 0;
+            for (int r : rooms) students += count[r];
+            if (students == 0) return 0;
+            int improved = 0;
+            long attempts = (long) ATTEMPTS_PER_STUDENT * students;
+            for (long t = 0; t < attempts; t++) {
+                if ((t & 4095) == 0 && System.nanoTime() > deadline) break;
+                int a = rooms[rnd.nextInt(rooms.length)];
+                if (count[a] == 0) continue;
+                int i = occupants[a][rnd.nextInt(count[a])];
+                int b = target(i, rnd, rooms);
+                if (b < 0 || b == a || shardOf[b] != shard) continue;
+                int delta;
+                if (count[b] < free[b]) {
+                    delta = gain(i, b, -1) - gain(i, a, -1);
+                    if (delta < 0) continue;
+                    remove(i, a);
+                    place(i, b);
+                } else {
+                    int u = occupants[b][rnd.nextInt(count[b])];
+                    delta = gain(i, b, u) + gain(u, a, i) - gain(i, a, -1) - gain(u, b, -1);
+                    if (delta < 0) continue;
+                    remove(i, a);
+                    remove(u, b);
+                    place(i, b);
+                    place(u, a);
+                }
+                if (delta > 0) improved++;
+            }
+            return improved;
+        }
+
+        private int target(int i, SplittableRandom rnd, int[] shardRooms) {
+            switch (rnd.nextInt(4)) {
+                case 0:
+                    if (wants[i].length > 0) return roundStart[wants[i][rnd.nextInt(wants[i].length)]];
+                    break;
+                case 1:
+                    if (cohort[i] >= 0) {
+                        int[] mates = cohortMembers[cohort[i]];
+                        return roundStart[mates[rnd.nextInt(mates.length)]];
+                    }
+                    break;
+                case 2:
+                    if (labelWants[i].length > 0) {
+                        int[] list = matchList[labelWants[i][rnd.nextInt(labelWants[i].length)]];
+                        if (list.length > 0) return list[rnd.nextInt(list.length)];
+                    }
+                    break;
+                default:
+                    break;
+            }
+            return shardRooms[rnd.nextInt(shardRooms.length)];
+        }
+
+        Solution solution(int rounds) {
+            Map<Integer, Integer> plan = new LinkedHashMap<>();
+            long score = 0;
+            int satisfied = 0, total = 0;
+            for (int i = 0; i < n; i++) {
+                int r = roomOf[i];
+                total += wants[i].length + (labelWants[i].length > 0 ? 1 : 0);
+                if (r < 0) continue;
+                plan.put(ids[i], roomIds[r]);
+                int label = labelPoints(i, r);
+                score += label;
+                if (label > 0) satisfied++;
+                for (int j : wants[i]) if (roomOf[j] == r) satisfied++;
+                for (int k = 0; k < count[r]; k++) {
+                    int j = occupants[r][k];
+                    if (j != i) score += roommatePoints(i, j) + (cohort[i] >= 0 && cohort[i] == cohort[j] ? COHORT_POINTS : 0);
+                }
+            }
+            return new Solution(Collections.unmodifiableMap(plan), score, satisfied, total, rounds);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.hostel.service;
+
+import com.hostel.model.Room;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rooms bucketed by free beds. Placing a student moves its room down one bucket, so a whole
+ * run costs O(rooms + students + max free beds) instead of a room scan per student.
+ */
+class VacancyBuckets {
+    private final ArrayDeque<Integer>[] buckets; // index = free beds, values = room ids
+    private int total;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    VacancyBuckets(List<Room> rooms) {
+        int max = 0;
+        for (Room r : rooms) max = Math.max(max, r.getCapacity() - r.getOccupied());
+        buckets = new ArrayDeque[max + 1];
+        for (int i = 0; i <= max; i++) buckets[i] = new ArrayDeque<>();
+        for (Room r : rooms) {
+            int free = r.getCapacity() - r.getOccupied();
+            if (free > 0) {
+                buckets[free].addLast(r.getId());
+                total += free;
+            }
+        }
+    }
+
+    Map<Integer, Integer> assign(List<Integer> students, boolean mostFreeFirst) {
+        Map<Integer, Integer> out = new LinkedHashMap<>();
+        int b = mostFreeFirst ? buckets.length - 1 : 1;
+        for (int sid : students) {
+            if (total == 0) break;
+            if (mostFreeFirst) {
+                // the highest non-empty bucket only ever moves down
+                while (buckets[b].isEmpty()) b--;
+            } else {
+                // a room leaving bucket b lands in b-1, so step back one before scanning up again
+                if (b > 1 && !buckets[b - 1].isEmpty()) b--;
+                while (buckets[b].isEmpty()) b++;
+            }
+            int rid = buckets[b].pollFirst();
+            out.put(sid, rid);
+            total--;
+            if (b > 1) {
+                // spread: rotate to the back of its new bucket; best fit: keep filling the same room
+                if (mostFreeFirst) buckets[b - 1].addLast(rid);
+                else buckets[b - 1].addFirst(rid);
+            }
+        }
+        return out;
+    }
+
+    static Map<Integer, Integer> firstFit(List<Integer> students, List<Room> rooms) {
+        Map<Integer, Integer> out = new LinkedHashMap<>();
+        int i = 0;
+        int free = rooms.isEmpty() ? 0 : rooms.get(0).getCapacity() - rooms.get(0).getOccupied();
+        for (int sid : students) {
+            while (free <= 0 && ++i < rooms.size()) free = rooms.get(i).getCapacity() - rooms.get(i).getOccupied();
+            if (i >= rooms.size()) break;
+            out.put(sid, rooms.get(i).getId());
+            free--;
+        }
+        return out;
+    }
+}
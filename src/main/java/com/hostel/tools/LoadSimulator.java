@@ -0,0 +1,319 @@
+package com.hostel.tools;
+
+import com.hostel.dao.ColumnarInMemoryDatabase;
+import com.hostel.dao.ConcurrentInMemoryDatabase;
+import com.hostel.dao.DatabaseOperations;
+import com.hostel.dao.DurableInMemoryDatabase;
+import com.hostel.dao.InMemoryDatabase;
+import com.hostel.dao.MySQLDatabase;
+import com.hostel.dao.StatisticsDatabase;
+import com.hostel.exception.DatabaseException;
+import com.hostel.exception.InvalidInputException;
+import com.hostel.metrics.LatencyHistogram;
+import com.hostel.model.Room;
+import com.hostel.model.Student;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Admission-day load generator. Seeds a synthetic dataset, then runs a weighted mix of
+ * operations from many threads against one backend and prints throughput, latency percentiles,
+ * conflicts and errors per operation, followed by an overbooking check of the final state.
+ *
+ * <pre>
+ * java -cp hostel.jar com.hostel.tools.LoadSimulator [backend=concurrent] [students=100000]
+ *     [rooms=students/3] [allocated=0.5] [threads=16] [rate=0] [duration=30] [warmup=5]
+ *     [mix=lookup:85,allocate:5,deallocate:4,list:3,report:3] [seed=42]
+ *     [url=... user=... pass=... reset=false]
+ * </pre>
+ * {@code rate} is the total target operations per second (0 = as fast as possible). With a
+ * rate, latency is measured from each operation's scheduled start, so a stalled store is
+ * charged for the requests queued behind it. Backends: {@code memory}, {@code columnar} (both
+ * single-threaded; threads is forced to 1), {@code concurrent}, {@code durable} (temporary
+ * directory) and {@code mysql}, which refuses to load into non-empty tables unless
+ * {@code reset=true} truncates them.
+ */
+public class LoadSimulator {
+    enum Op { LOOKUP, ALLOCATE, DEALLOCATE, LIST, REPORT }
+
+    private static final class OpStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder conflicts = new LongAdder();
+        final LongAdder errors = new LongAdder();
+    }
+
+    private final StatisticsDatabase db;
+    private final int students;
+    private final Op[] table; // weighted mix, 100 slots
+    private final Map<Op, OpStats> stats = new LinkedHashMap<>();
+    private volatile boolean recording;
+    private volatile boolean stopping;
+
+    LoadSimulator(DatabaseOperations db, int students, Map<Op, Integer> mix) throws DatabaseException {
+        this.db = new StatisticsDatabase(db);
+        this.students = students;
+        int total = 0;
+        for (int w : mix.values()) total += w;
+        if (total <= 0) throw new IllegalArgumentException("mix needs a positive weight");
+        List<Op> slots = new ArrayList<>();
+        for (Map.Entry<Op, Integer> e : mix.entrySet()) {
+            int n = (int) Math.round(100.0 * e.getValue() / total);
+            for (int i = 0; i < n; i++) slots.add(e.getKey());
+        }
+        this.table = slots.toArray(new Op[0]);
+        for (Op op : Op.values()) stats.put(op, new OpStats());
+    }
+
+    // ---- dataset ----
+
+    /** Students 1..n with roll number = id, rooms of 1-4 beds, and {@code allocated} of the students placed. */
+    static void seed(DatabaseOperations db, int students, int rooms, double allocated, long seed) throws DatabaseException, InvalidInputException {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        long t0 = System.nanoTime();
+        List<Student> batch = new ArrayList<>(10_000);
+        for (int i = 1; i <= students; i++) {
+            batch.add(new Student("Student " + i, "s" + i + "@hostel.test", Integer.toString(i)));
+            if (batch.size() == 10_000 || i == students) {
+                db.addStudents(batch);
+                batch.clear();
+            }
+        }
+        for (int i = 1; i <= rooms; i++) db.addRoom(new Room(0, "L" + i, 1 + rnd.nextInt(4), 0));
+        int target = (int) (students * allocated), placed = 0;
+        Map<Integer, Integer> plan = new HashMap<>();
+        List<Room> vacant = db.getAvailableRooms();
+        int r = 0, used = 0;
+        for (int sid = 1; sid <= students && placed < target && r < vacant.size(); sid++) {
+            Room room = vacant.get(r);
+            plan.put(sid, room.getId());
+            placed++;
+            if (++used >= room.getCapacity() - room.getOccupied()) {
+                r++;
+                used = 0;
+            }
+            if (plan.size() == 10_000) {
+                db.allocateRooms(plan);
+                plan.clear();
+            }
+        }
+        if (!plan.isEmpty()) db.allocateRooms(plan);
+        System.out.printf("Seeded %d students, %d rooms, %d allocations in %d ms%n",
+                students, rooms, placed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0));
+    }
+
+    // ---- run ----
+
+    void run(int threads, double rate, int warmupSeconds, int durationSeconds, long seed) throws InterruptedException {
+        Thread[] workers = new Thread[threads];
+        long intervalNanos = rate > 0 ? (long) (1e9 * threads / rate) : 0;
+        for (int t = 0; t < threads; t++) {
+            long threadSeed = seed + t;
+            workers[t] = new Thread(() -> work(new SplittableRandom(threadSeed), intervalNanos), "load-" + t);
+            workers[t].start();
+        }
+        Thread.sleep(TimeUnit.SECONDS.toMillis(warmupSeconds));
+        recording = true;
+        long start = System.nanoTime();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(durationSeconds));
+        recording = false;
+        long elapsed = System.nanoTime() - start;
+        stopping = true;
+        for (Thread w : workers) w.join();
+        report(elapsed);
+    }
+
+    private void work(SplittableRandom rnd, long intervalNanos) {
+        long next = System.nanoTime();
+        while (!stopping) {
+            long scheduled;
+            if (intervalNanos > 0) {
+                next += intervalNanos;
+                long wait = next - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+                scheduled = next;
+            } else {
+                scheduled = System.nanoTime();
+            }
+            Op op = table[rnd.nextInt(table.length)];
+            OpStats s = stats.get(op);
+            boolean conflict = false, error = false;
+            try {
+                conflict = !execute(op, rnd);
+            } catch (InvalidInputException e) {
+                conflict = true;
+            } catch (DatabaseException | RuntimeException e) {
+                error = true;
+            }
+            long latency = System.nanoTime() - scheduled;
+            if (!recording) continue;
+            s.latency.record(latency);
+            if (conflict) s.conflicts.increment();
+            if (error) s.errors.increment();
+        }
+    }
+
+    /** Runs one operation; false means it lost a race or found nothing to do (a conflict). */
+    private boolean execute(Op op, SplittableRandom rnd) throws DatabaseException, InvalidInputException {
+        int sid = 1 + rnd.nextInt(students);
+        switch (op) {
+            case LOOKUP: {
+                Student s = db.getStudent(sid);
+                if (s == null) return false;
+                db.getAllocatedRoomForStudent(sid);
+                return true;
+            }
+            case ALLOCATE: {
+                if (db.getAllocatedRoomForStudent(sid) != null) return false;
+                Room free = db.findFirstAvailableRoom();
+                return free != null && db.allocateRoom(sid, free.getId());
+            }
+            case DEALLOCATE:
+                return db.deallocateStudent(sid);
+            case LIST:
+                db.getRoomsPage(rnd.nextInt(Math.max(1, students / 3)), 50);
+                return true;
+            case REPORT:
+                db.snapshot();
+                db.countFreeBeds();
+                return true;
+            default:
+                throw new IllegalStateException(op.name());
+        }
+    }
+
+    private void report(long elapsedNanos) {
+        double secs = elapsedNanos / 1e9;
+        long all = 0;
+        System.out.printf("%n%-11s %10s %10s %9s %9s %9s %9s %9s %9s%n",
+                "op", "count", "ops/s", "p50 us", "p99 us", "p999 us", "max us", "conflict%", "error%");
+        for (Map.Entry<Op, OpStats> e : stats.entrySet()) {
+            OpStats s = e.getValue();
+            long n = s.latency.getCount();
+            all += n;
+            if (n == 0) continue;
+            System.out.printf("%-11s %10d %10.0f %9.1f %9.1f %9.1f %9.1f %9.2f %9.2f%n",
+                    e.getKey().name().toLowerCase(), n, n / secs,
+                    s.latency.percentile(0.50) / 1e3, s.latency.percentile(0.99) / 1e3,
+                    s.latency.percentile(0.999) / 1e3, s.latency.getMaxNanos() / 1e3,
+                    100.0 * s.conflicts.sum() / n, 100.0 * s.errors.sum() / n);
+        }
+        System.out.printf("%-11s %10d %10.0f%n", "total", all, all / secs);
+    }
+
+    /** Recounts beds per room from the allocations and compares with capacity and the stored occupancy. */
+    int checkOverbooking() throws DatabaseException {
+        Map<Integer, Integer> perRoom = new HashMap<>();
+        try (Stream<Map.Entry<Integer, Integer>> allocations = db.streamAllocations()) {
+            allocations.forEach(e -> perRoom.merge(e.getValue(), 1, Integer::sum));
+        }
+        int overbooked = 0, mismatched = 0;
+        try (Stream<Room> rooms = db.streamRooms()) {
+            for (Room r : (Iterable<Room>) rooms::iterator) {
+                int counted = perRoom.getOrDefault(r.getId(), 0);
+                if (counted > r.getCapacity() || r.getOccupied() > r.getCapacity()) overbooked++;
+                if (counted != r.getOccupied()) mismatched++;
+            }
+        }
+        boolean statsOk = db.verify();
+        System.out.printf("Overbooked rooms: %d, occupancy/allocation mismatches: %d, statistics %s%n",
+                overbooked, mismatched, statsOk ? "consistent" : "drifted");
+        return overbooked + mismatched;
+    }
+
+    // ---- command line ----
+
+    static Map<Op, Integer> parseMix(String mix) {
+        Map<Op, Integer> out = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] kv = part.split(":");
+            if (kv.length != 2) throw new IllegalArgumentException("Bad mix entry '" + part + "', expected op:weight");
+            out.put(Op.valueOf(kv[0].trim().toUpperCase()), Integer.parseInt(kv[1].trim()));
+        }
+        return out;
+    }
+
+    static DatabaseOperations open(Map<String, String> opt) throws DatabaseException, IOException {
+        String backend = opt.getOrDefault("backend", "concurrent");
+        switch (backend) {
+            case "memory": return new InMemoryDatabase();
+            case "columnar": return new ColumnarInMemoryDatabase(Integer.parseInt(opt.getOrDefault("students", "100000")));
+            case "concurrent": return new ConcurrentInMemoryDatabase();
+            case "durable": {
+                Path dir = Files.createTempDirectory("hostel-load");
+                System.out.println("Durable store in " + dir);
+                return DurableInMemoryDatabase.open(dir);
+            }
+            case "mysql": {
+                String url = opt.get("url"), user = opt.getOrDefault("user", "root"), pass = opt.getOrDefault("pass", "");
+                MySQLDatabase db = url == null ? new MySQLDatabase() : new MySQLDatabase(url, user, pass, Integer.parseInt(opt.getOrDefault("pool", "32")));
+                db.connect();
+                boolean empty;
+                try (Stream<Student> existing = db.streamStudents()) {
+                    empty = !existing.findAny().isPresent();
+                }
+                if (!empty) {
+                    if (url == null || !Boolean.parseBoolean(opt.get("reset"))) {
+                        throw new DatabaseException("Target database is not empty; pass url=... reset=true to clear it", null);
+                    }
+                    truncate(url, user, pass);
+                }
+                return db;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown backend " + backend);
+        }
+    }
+
+    private static void truncate(String url, String user, String pass) throws DatabaseException {
+        try (Connection c = DriverManager.getConnection(url, user, pass); Statement st = c.createStatement()) {
+            st.execute("SET FOREIGN_KEY_CHECKS = 0");
+            st.execute("TRUNCATE TABLE allocations");
+            st.execute("TRUNCATE TABLE students");
+            st.execute("TRUNCATE TABLE rooms");
+            st.execute("SET FOREIGN_KEY_CHECKS = 1");
+        } catch (SQLException e) {
+            throw new DatabaseException(e.getMessage(), e);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opt = new HashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq < 0) throw new IllegalArgumentException("Expected key=value, got " + a);
+            opt.put(a.substring(0, eq), a.substring(eq + 1));
+        }
+        int students = Integer.parseInt(opt.getOrDefault("students", "100000"));
+        int rooms = Integer.parseInt(opt.getOrDefault("rooms", Integer.toString(Math.max(1, students / 3))));
+        String backend = opt.getOrDefault("backend", "concurrent");
+        int threads = backend.equals("memory") || backend.equals("columnar") ? 1 : Integer.parseInt(opt.getOrDefault("threads", "16"));
+        long seed = Long.parseLong(opt.getOrDefault("seed", "42"));
+
+        DatabaseOperations db = open(opt);
+        seed(db, students, rooms, Double.parseDouble(opt.getOrDefault("allocated", "0.5")), seed);
+        LoadSimulator sim = new LoadSimulator(db, students, parseMix(opt.getOrDefault("mix", "lookup:85,allocate:5,deallocate:4,list:3,report:3")));
+        System.out.printf("Running %s with %d thread(s), rate %s%n", backend, threads,
+                opt.getOrDefault("rate", "0").equals("0") ? "unbounded" : opt.get("rate") + "/s");
+        sim.run(threads, Double.parseDouble(opt.getOrDefault("rate", "0")),
+                Integer.parseInt(opt.getOrDefault("warmup", "5")), Integer.parseInt(opt.getOrDefault("duration", "30")), seed);
+        int problems = sim.checkOverbooking();
+        if (db instanceof AutoCloseable) ((AutoCloseable) db).close();
+        System.exit(problems == 0 ? 0 : 1);
+    }
+}
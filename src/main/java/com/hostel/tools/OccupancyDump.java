@@ -0,0 +1,78 @@
+package com.hostel.tools;
+
+import com.hostel.dao.ColumnarInMemoryDatabase;
+import com.hostel.dao.ConcurrentInMemoryDatabase;
+import com.hostel.dao.DatabaseOperations;
+import com.hostel.dao.DurableInMemoryDatabase;
+import com.hostel.dao.MySQLDatabase;
+import com.hostel.exception.DatabaseException;
+import com.hostel.io.ColumnarSnapshot;
+import com.hostel.io.DumpResult;
+import com.hostel.io.OccupancyCsv;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Exports every student, room and allocation of a store, or loads such an export into another.
+ *
+ * <pre>
+ * java -cp hostel.jar com.hostel.tools.OccupancyDump export|load path=... [format=csv|snapshot]
+ *     [gzip=false] [backend=durable] [dir=hostel-data] [url=... user=... pass=...]
+ * </pre>
+ * {@code csv} writes three CSV files into the directory {@code path}; {@code snapshot} writes
+ * one binary columnar file. Loading detects compression by itself. Backends: {@code durable}
+ * (the embedded store in {@code dir}), {@code mysql}, and {@code concurrent} or
+ * {@code columnar}, which are empty and only useful to time or check a load.
+ */
+public class OccupancyDump {
+    static DatabaseOperations open(Map<String, String> opt) throws DatabaseException {
+        String backend = opt.getOrDefault("backend", "durable");
+        switch (backend) {
+            case "durable": return DurableInMemoryDatabase.open(Paths.get(opt.getOrDefault("dir", "hostel-data")));
+            case "concurrent": return new ConcurrentInMemoryDatabase();
+            case "columnar": return new ColumnarInMemoryDatabase(1 << 16);
+            case "mysql": {
+                String url = opt.get("url");
+                MySQLDatabase db = url == null ? new MySQLDatabase()
+                        : new MySQLDatabase(url, opt.getOrDefault("user", "root"), opt.getOrDefault("pass", ""), 4);
+                db.connect();
+                return db;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown backend " + backend);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0 || !(args[0].equals("export") || args[0].equals("load"))) {
+            System.err.println("Usage: OccupancyDump export|load path=... [format=csv|snapshot] [gzip=false] [backend=durable] ...");
+            System.exit(2);
+        }
+        Map<String, String> opt = new HashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            int eq = args[i].indexOf('=');
+            if (eq < 0) throw new IllegalArgumentException("Expected key=value, got " + args[i]);
+            opt.put(args[i].substring(0, eq), args[i].substring(eq + 1));
+        }
+        String p = opt.get("path");
+        if (p == null) throw new IllegalArgumentException("path=... is required");
+        Path path = Paths.get(p);
+        boolean csv = opt.getOrDefault("format", "csv").equals("csv");
+        boolean gzip = Boolean.parseBoolean(opt.getOrDefault("gzip", "false"));
+
+        DatabaseOperations db = open(opt);
+        try {
+            long start = System.nanoTime();
+            DumpResult r;
+            if (args[0].equals("export")) r = csv ? OccupancyCsv.export(db, path, gzip) : ColumnarSnapshot.export(db, path, gzip);
+            else r = csv ? OccupancyCsv.load(path, db) : ColumnarSnapshot.load(path, db);
+            System.out.printf("%s %s in %.2f s%n", args[0].equals("export") ? "Exported" : "Loaded", r, (System.nanoTime() - start) / 1e9);
+            for (String e : r.getErrors()) System.out.println("  skipped " + e);
+        } finally {
+            if (db instanceof AutoCloseable) ((AutoCloseable) db).close();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+-- One allocation per student; also serves the student_id lookups in allocate/deallocate/delete.
+-- The old allocateRoom could store a second row for a student under load, so keep each student's
+-- earliest allocation and recount the rooms from what is left before adding the key.
+DELETE a FROM allocations a JOIN allocations b ON b.student_id = a.student_id AND b.id < a.id;
+UPDATE rooms r SET occupied = (SELECT COUNT(*) FROM allocations a WHERE a.room_id = r.id);
+ALTER TABLE allocations ADD UNIQUE KEY uq_allocations_student (student_id);
+CREATE INDEX idx_students_roll_no ON students (roll_no);
+CREATE INDEX idx_students_email ON students (email);
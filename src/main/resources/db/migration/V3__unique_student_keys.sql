@@ -0,0 +1,15 @@
+-- Roll number and email each identify one student. Blank values become NULL, which a unique
+-- key allows any number of times.
+UPDATE students SET email = NULL WHERE TRIM(email) = '';
+UPDATE students SET roll_no = NULL WHERE TRIM(roll_no) = '';
+-- Existing duplicates keep the value on the earliest student; later ones get '#<id>' appended
+-- so they stay visible and can be corrected by hand.
+UPDATE students s JOIN students t ON t.roll_no = s.roll_no AND t.id < s.id
+   SET s.roll_no = CONCAT(LEFT(s.roll_no, 39), '#', s.id);
+UPDATE students s JOIN students t ON t.email = s.email AND t.id < s.id
+   SET s.email = CONCAT(LEFT(s.email, 89), '#', s.id);
+CREATE UNIQUE INDEX uq_students_roll_no ON students (roll_no);
+CREATE UNIQUE INDEX uq_students_email ON students (email);
+-- the unique keys serve the lookups the V2 indexes did
+DROP INDEX idx_students_roll_no ON students;
+DROP INDEX idx_students_email ON students;
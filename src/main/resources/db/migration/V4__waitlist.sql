@@ -0,0 +1,11 @@
+-- Students waiting for a bed, in one room or (room_id NULL) in any room. Higher priority first,
+-- then seq, which the application hands out in enqueue order.
+CREATE TABLE IF NOT EXISTS waitlist (
+  student_id INT PRIMARY KEY,
+  room_id INT NULL,
+  priority INT NOT NULL DEFAULT 0,
+  seq BIGINT NOT NULL,
+  enqueued_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  FOREIGN KEY (student_id) REFERENCES students(id) ON DELETE CASCADE,
+  FOREIGN KEY (room_id) REFERENCES rooms(id) ON DELETE CASCADE
+);
@@ -0,0 +1,70 @@
+package com.hostel.dao;
+
+import com.hostel.exception.DatabaseException;
+import com.hostel.model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CachingDatabaseTest {
+    /** Counts the lookups that reach the store. */
+    private static final class Counting extends ForwardingDatabase {
+        int byRollNo, byEmail;
+
+        Counting(DatabaseOperations delegate) { super(delegate); }
+
+        @Override
+        public Student getStudentByRollNo(String rollNo) throws DatabaseException {
+            byRollNo++;
+            return delegate.getStudentByRollNo(rollNo);
+        }
+
+        @Override
+        public Student getStudentByEmail(String email) throws DatabaseException {
+            byEmail++;
+            return delegate.getStudentByEmail(email);
+        }
+    }
+
+    @Test
+    void repeatedLoginsAreServedFromTheCache() throws Exception {
+        Counting store = new Counting(new ConcurrentInMemoryDatabase(false));
+        CachingDatabase db = new CachingDatabase(store, 100, 0);
+        int id = db.addStudent(new Student("Asha", "asha@hostel.test", "101"));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(id, db.getStudentByRollNo(" 101 ").getId());
+            assertEquals(id, db.getStudentByEmail("ASHA@hostel.test").getId());
+        }
+        assertEquals(1, store.byRollNo);
+        assertEquals(1, store.byEmail);
+    }
+
+    @Test
+    void deletingOrReAddingAStudentDropsTheirKeys() throws Exception {
+        Counting store = new Counting(new ConcurrentInMemoryDatabase(false));
+        CachingDatabase db = new CachingDatabase(store, 100, 0);
+        int id = db.addStudent(new Student("Asha", "asha@hostel.test", "101"));
+        db.getStudentByRollNo("101");
+        db.getStudentByEmail("asha@hostel.test");
+
+        db.deleteStudent(id);
+        assertNull(db.getStudentByRollNo("101"));
+        assertNull(db.getStudentByEmail("asha@hostel.test"));
+
+        // same roll number, so the in-memory store hands out the same id, but a new email
+        db.addStudent(new Student("Asha", "asha.k@hostel.test", "101"));
+        assertEquals("asha.k@hostel.test", db.getStudentByRollNo("101").getEmail());
+        assertNull(db.getStudentByEmail("asha@hostel.test"));
+
+        List<Student> roster = new ArrayList<>();
+        roster.add(new Student("Ravi", "ravi@hostel.test", "102"));
+        assertNull(db.getStudentByRollNo("102"));
+        db.addStudents(roster);
+        assertEquals("Ravi", db.getStudentByRollNo("102").getName());
+    }
+}
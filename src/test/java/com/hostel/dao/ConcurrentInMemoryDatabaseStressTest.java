@@ -0,0 +1,170 @@
+package com.hostel.dao;
+
+import com.hostel.exception.InvalidInputException;
+import com.hostel.model.Room;
+import com.hostel.model.Student;
+import com.hostel.model.Transfer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Many threads allocate, deallocate, delete (and re-add), transfer and swap students at once
+ * over a few small rooms, so most writes contend for the same beds. Afterwards every room's
+ * counter must be within capacity and equal to the number of allocations pointing at it.
+ */
+class ConcurrentInMemoryDatabaseStressTest {
+    private static final int THREADS = 16;
+    private static final int OPS_PER_THREAD = 20_000;
+    private static final int STUDENTS = 400;
+    private static final int ROOMS = 40;
+    private static final int CAPACITY = 3;
+
+    @Test
+    void countersMatchAllocationsAfterConcurrentWrites() throws Exception {
+        ConcurrentInMemoryDatabase db = new ConcurrentInMemoryDatabase(false);
+        List<Integer> rooms = new ArrayList<>();
+        for (int i = 0; i < ROOMS; i++) rooms.add(db.addRoom(new Room(0, "R" + i, CAPACITY, 0)));
+        for (int i = 0; i < STUDENTS; i++) db.addStudent(student(i));
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            SplittableRandom rnd = new SplittableRandom(t);
+            done.add(pool.submit(() -> {
+                start.await();
+                for (int k = 0; k < OPS_PER_THREAD; k++) {
+                    int sid = 1000 + rnd.nextInt(STUDENTS);
+                    int rid = rooms.get(rnd.nextInt(ROOMS));
+                    try {
+                        switch (rnd.nextInt(10)) {
+                            case 0: case 1: case 2: db.allocateRoom(sid, rid); break;
+                            case 3: case 4: db.deallocateStudent(sid); break;
+                            case 5:
+                                if (db.deleteStudent(sid)) db.addStudent(student(sid - 1000));
+                                break;
+                            case 6: case 7: db.transferStudent(sid, rid); break;
+                            default: db.swapStudents(sid, 1000 + rnd.nextInt(STUDENTS));
+                        }
+                    } catch (InvalidInputException expected) {
+                        // lost a race, a full room or an unallocated student
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : done) f.get(2, TimeUnit.MINUTES);
+        pool.shutdown();
+
+        Map<Integer, Integer> perRoom = new HashMap<>();
+        for (Map.Entry<Integer, Integer> e : db.getAllAllocations().entrySet()) {
+            assertNotNull(db.getStudent(e.getKey()), "allocation left behind for deleted student " + e.getKey());
+            perRoom.merge(e.getValue(), 1, Integer::sum);
+        }
+        for (Room r : db.getAllRooms()) {
+            assertTrue(r.getOccupied() <= r.getCapacity(), "room " + r.getNumber() + " overbooked: " + r.getOccupied());
+            assertEquals(perRoom.getOrDefault(r.getId(), 0).intValue(), r.getOccupied(), "occupied count of room " + r.getNumber());
+        }
+    }
+
+    /**
+     * Rotates students around rings of full rooms while readers watch every counter. A ring has no
+     * free bed to start from, so this is where a transfer is most tempted to overfill a room.
+     */
+    @Test
+    void ringsOfFullRoomsNeverShowAnOverfullRoom() throws Exception {
+        ConcurrentInMemoryDatabase db = new ConcurrentInMemoryDatabase(false);
+        List<Integer> rooms = new ArrayList<>();
+        for (int i = 0; i < ROOMS; i++) rooms.add(db.addRoom(new Room(0, "R" + i, CAPACITY, 0)));
+        Map<Integer, Integer> plan = new HashMap<>();
+        for (int i = 0; i < ROOMS * CAPACITY; i++) {
+            db.addStudent(student(i));
+            plan.put(1000 + i, rooms.get(i / CAPACITY));
+        }
+        db.allocateRooms(plan);
+
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicInteger overfull = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> readers = new ArrayList<>();
+        for (int t = 0; t < THREADS / 2; t++) {
+            readers.add(pool.submit(() -> {
+                while (!stop.get()) {
+                    for (Room r : db.getAllRooms()) {
+                        if (r.getOccupied() > r.getCapacity()) overfull.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < THREADS / 2; t++) {
+            SplittableRandom rnd = new SplittableRandom(t);
+            writers.add(pool.submit(() -> {
+                for (int k = 0; k < 2_000; k++) {
+                    // one student from each of a few rooms moves on to the next room of the ring
+                    int len = 2 + rnd.nextInt(4), first = rnd.nextInt(ROOMS);
+                    List<Transfer> ring = new ArrayList<>();
+                    for (int j = 0; j < len; j++) {
+                        int from = rooms.get((first + j) % ROOMS), to = rooms.get((first + (j + 1) % len) % ROOMS);
+                        db.getAllAllocations().entrySet().stream().filter(e -> e.getValue() == from).findAny()
+                                .ifPresent(e -> ring.add(new Transfer(e.getKey(), to)));
+                    }
+                    try {
+                        db.applyTransfers(ring);
+                    } catch (InvalidInputException expected) {
+                        // a ring member moved or left in the meantime
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int t = 0; t < 2; t++) {
+            SplittableRandom rnd = new SplittableRandom(100 + t);
+            // students leaving and coming back settle the beds a ring owes, from outside the batch
+            writers.add(pool.submit(() -> {
+                for (int k = 0; k < 20_000; k++) {
+                    int sid = 1000 + rnd.nextInt(ROOMS * CAPACITY);
+                    try {
+                        if (db.deallocateStudent(sid)) db.allocateRoom(sid, rooms.get(rnd.nextInt(ROOMS)));
+                    } catch (InvalidInputException expected) {
+                        // re-allocated by another thread first
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : writers) f.get(2, TimeUnit.MINUTES);
+        stop.set(true);
+        for (Future<?> f : readers) f.get(1, TimeUnit.MINUTES);
+        pool.shutdown();
+
+        assertEquals(0, overfull.get(), "times a reader saw a room over capacity");
+        Map<Integer, Integer> perRoom = new HashMap<>();
+        for (int rid : db.getAllAllocations().values()) perRoom.merge(rid, 1, Integer::sum);
+        for (Room r : db.getAllRooms()) {
+            assertEquals(perRoom.getOrDefault(r.getId(), 0).intValue(), r.getOccupied(), "occupied count of room " + r.getNumber());
+        }
+    }
+
+    private static Student student(int i) {
+        return new Student("Student " + i, "s" + i + "@hostel.test", String.valueOf(1000 + i));
+    }
+}
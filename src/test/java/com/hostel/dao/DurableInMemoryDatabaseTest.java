@@ -0,0 +1,133 @@
+package com.hostel.dao;
+
+import com.hostel.exception.DatabaseException;
+import com.hostel.exception.InvalidInputException;
+import com.hostel.model.Room;
+import com.hostel.model.Student;
+import com.hostel.model.WaitlistEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DurableInMemoryDatabaseTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void allocateRoomsIsAllOrNothingAndSurvivesARestart() throws Exception {
+        Map<Integer, Integer> expected;
+        try (DurableInMemoryDatabase db = DurableInMemoryDatabase.open(dir)) {
+            int small = db.addRoom(new Room(0, "S-1", 1, 0)), big = db.addRoom(new Room(0, "B-1", 4, 0));
+            for (int i = 0; i < 4; i++) db.addStudent(student(i));
+
+            Map<Integer, Integer> tooMany = new HashMap<>();
+            tooMany.put(100, big);
+            tooMany.put(101, small);
+            tooMany.put(102, small);
+            assertThrows(InvalidInputException.class, () -> db.allocateRooms(tooMany));
+            assertTrue(db.getAllAllocations().isEmpty(), "rows applied from a rejected plan");
+
+            Map<Integer, Integer> plan = new HashMap<>();
+            plan.put(100, big);
+            plan.put(101, small);
+            plan.put(102, big);
+            assertEquals(3, db.allocateRooms(plan));
+            expected = db.getAllAllocations();
+        }
+        try (DurableInMemoryDatabase db = DurableInMemoryDatabase.open(dir)) {
+            assertEquals(expected, db.getAllAllocations());
+        }
+    }
+
+    @Test
+    void checkpointsCalledAlongsideTheBackgroundOneRecoverCleanly() throws Exception {
+        Map<Integer, Integer> expected;
+        try (DurableInMemoryDatabase db = DurableInMemoryDatabase.open(dir, 50)) {
+            List<Integer> rooms = new ArrayList<>();
+            for (int i = 0; i < 20; i++) rooms.add(db.addRoom(new Room(0, "C-" + i, 10, 0)));
+            ExecutorService pool = Executors.newFixedThreadPool(4);
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < 2; t++) {
+                int base = t * 1000;
+                done.add(pool.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        db.addStudent(student(base + i));
+                        db.allocateRoom(100 + base + i, rooms.get(i % rooms.size()));
+                    }
+                    return null;
+                }));
+            }
+            for (int t = 0; t < 2; t++) {
+                done.add(pool.submit(() -> {
+                    for (int i = 0; i < 50; i++) db.checkpoint();
+                    return null;
+                }));
+            }
+            for (Future<?> f : done) f.get(1, TimeUnit.MINUTES);
+            pool.shutdown();
+            expected = db.getAllAllocations();
+        }
+        try (DurableInMemoryDatabase db = DurableInMemoryDatabase.open(dir)) {
+            assertEquals(200, db.getAllStudents().size());
+            assertEquals(expected, db.getAllAllocations());
+        }
+    }
+
+    @Test
+    void waitlistEntriesSurviveARestartFromSnapshotAndLog() throws Exception {
+        try (DurableInMemoryDatabase db = DurableInMemoryDatabase.open(dir)) {
+            WaitlistStore store = db.waitlistStore();
+            store.put(new WaitlistEntry(100, null, 0, 1));
+            store.put(new WaitlistEntry(101, 2, 5, 2));
+            store.put(new WaitlistEntry(102, null, 0, 3));
+            store.remove(100);
+            db.checkpoint();
+            store.put(new WaitlistEntry(103, 1, 0, 4));
+            store.remove(101);
+        }
+        try (DurableInMemoryDatabase db = DurableInMemoryDatabase.open(dir)) {
+            Map<Integer, String> waiting = new TreeMap<>();
+            for (WaitlistEntry e : db.waitlistStore().loadAll()) waiting.put(e.getStudentId(), e.getRoomId() + "/" + e.getPriority() + "/" + e.getSeq());
+            Map<Integer, String> expected = new TreeMap<>();
+            expected.put(102, "null/0/3");
+            expected.put(103, "1/0/4");
+            assertEquals(expected, waiting);
+        }
+    }
+
+    @Test
+    void writesAreRejectedOnceTheLogHasFailed() throws Exception {
+        DurableInMemoryDatabase db = DurableInMemoryDatabase.open(dir);
+        db.addStudent(student(0));
+        db.close(); // the log's channel is gone, so the next fsync fails
+        assertThrows(DatabaseException.class, () -> db.addStudent(student(1)));
+        int students = db.getAllStudents().size();
+
+        DatabaseException e = assertThrows(DatabaseException.class, () -> db.addStudent(student(2)));
+        assertTrue(e.getMessage().contains("read-only"), e.getMessage());
+        assertThrows(DatabaseException.class, db::checkpoint);
+        assertEquals(students, db.getAllStudents().size(), "write applied after the log failed");
+
+        try (DurableInMemoryDatabase reopened = DurableInMemoryDatabase.open(dir)) {
+            assertEquals(1, reopened.getAllStudents().size());
+        }
+    }
+
+    private static Student student(int i) {
+        return new Student("Student " + i, "d" + i + "@hostel.test", String.valueOf(100 + i));
+    }
+}
@@ -0,0 +1,127 @@
+package com.hostel.dao;
+
+import com.hostel.model.Room;
+import com.hostel.model.Student;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Races writers on the last bed of a room in a real MySQL/MariaDB database. Skipped unless
+ * {@code -Dhostel.test.url=jdbc:mysql://...} is given (with {@code hostel.test.user} and
+ * {@code hostel.test.pass}); the schema is migrated on connect and every run uses fresh rows.
+ */
+class MySQLDatabaseContentionTest {
+    private static final int THREADS = 32;
+
+    private MySQLDatabase db;
+    private final String run = Long.toString(System.nanoTime(), 36);
+
+    @BeforeEach
+    void connect() throws Exception {
+        String url = System.getProperty("hostel.test.url");
+        assumeTrue(url != null && !url.isBlank(), "no test database configured (-Dhostel.test.url)");
+        db = new MySQLDatabase(url, System.getProperty("hostel.test.user", "root"), System.getProperty("hostel.test.pass", ""), 16);
+        db.connect();
+    }
+
+    @AfterEach
+    void close() {
+        if (db != null) db.close();
+    }
+
+    @Test
+    void exactlyOneStudentGetsTheLastBed() throws Exception {
+        int room = db.addRoom(new Room(0, "last-" + run, 1, 0));
+        List<Integer> students = addStudents(THREADS);
+
+        List<Boolean> results = race(students, sid -> db.allocateRoom(sid, room));
+
+        assertEquals(1, results.stream().filter(b -> b).count(), "successful allocations");
+        assertConsistent(room, 1);
+    }
+
+    @Test
+    void allocateDeallocateAndDeleteLeaveNoOrphans() throws Exception {
+        int room = db.addRoom(new Room(0, "churn-" + run, 1, 0));
+        List<Integer> students = addStudents(THREADS);
+
+        race(students, sid -> {
+            for (int k = 0; k < 20; k++) {
+                if (db.allocateRoom(sid, room)) {
+                    if (k % 3 == 0) db.deleteStudent(sid);
+                    else db.deallocateStudent(sid);
+                    if (k % 3 == 0) return true;
+                }
+            }
+            return false;
+        });
+
+        Room r = roomById(room);
+        assertConsistent(room, r.getOccupied());
+        for (Map.Entry<Integer, Integer> e : db.getAllAllocations().entrySet()) {
+            if (e.getValue() == room) assertNotNull(db.getStudent(e.getKey()), "allocation row for deleted student " + e.getKey());
+        }
+    }
+
+    private interface Step {
+        boolean run(int studentId) throws Exception;
+    }
+
+    /** Runs {@code step} once per student, all threads released at the same moment. */
+    private List<Boolean> race(List<Integer> students, Step step) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(students.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int sid : students) {
+            Callable<Boolean> task = () -> {
+                start.await();
+                return step.run(sid);
+            };
+            futures.add(pool.submit(task));
+        }
+        start.countDown();
+        List<Boolean> out = new ArrayList<>();
+        for (Future<Boolean> f : futures) out.add(f.get(2, TimeUnit.MINUTES));
+        pool.shutdown();
+        return out;
+    }
+
+    private List<Integer> addStudents(int n) throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            ids.add(db.addStudent(new Student("Racer " + i, run + "-" + i + "@hostel.test", run + "-" + i)));
+        }
+        return ids;
+    }
+
+    private Room roomById(int roomId) throws Exception {
+        for (Room r : db.getAllRooms()) {
+            if (r.getId() == roomId) return r;
+        }
+        throw new AssertionError("room " + roomId + " missing");
+    }
+
+    /** The room holds {@code expected} students, within capacity, and its counter matches its allocation rows. */
+    private void assertConsistent(int roomId, int expected) throws Exception {
+        Room r = roomById(roomId);
+        long rows = db.getAllAllocations().values().stream().filter(v -> v == roomId).count();
+        assertEquals(expected, r.getOccupied(), "occupied");
+        assertEquals(rows, r.getOccupied(), "allocation rows for the room");
+        assertEquals(true, r.getOccupied() <= r.getCapacity(), "within capacity");
+    }
+}
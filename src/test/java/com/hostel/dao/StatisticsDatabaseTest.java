@@ -0,0 +1,57 @@
+package com.hostel.dao;
+
+import com.hostel.exception.DatabaseException;
+import com.hostel.model.Room;
+import com.hostel.model.Student;
+import com.hostel.model.Transfer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatisticsDatabaseTest {
+    /** Counts full scans of the rooms. */
+    private static final class Counting extends ForwardingDatabase {
+        int scans;
+
+        Counting(DatabaseOperations delegate) { super(delegate); }
+
+        @Override
+        public Stream<Room> streamRooms() throws DatabaseException {
+            scans++;
+            return delegate.streamRooms();
+        }
+    }
+
+    @Test
+    void bulkWritesKeepTheCountersWithoutARescan() throws Exception {
+        Counting store = new Counting(new ConcurrentInMemoryDatabase(false));
+        StatisticsDatabase db = new StatisticsDatabase(store);
+        List<Integer> rooms = new ArrayList<>();
+        for (int i = 0; i < 6; i++) rooms.add(db.addRoom(new Room(0, (i < 3 ? "A-" : "B-") + i, 2, 0)));
+        Map<Integer, Integer> plan = new HashMap<>();
+        for (int i = 0; i < 12; i++) plan.put(db.addStudent(new Student("Student " + i, "st" + i + "@hostel.test", String.valueOf(100 + i))), rooms.get(i / 2));
+        db.allocateRooms(plan);
+        assertEquals(12, db.snapshot().getAllocatedStudents());
+
+        db.applyTransfers(Arrays.asList(new Transfer(100, rooms.get(1)), new Transfer(102, rooms.get(0))));
+        assertEquals(1, db.deallocateStudents(Arrays.asList(104, 999)));
+        assertEquals(2, db.vacateRooms(Arrays.asList(rooms.get(3))));
+        assertEquals(4, db.vacateByLabelPrefix("B-"));
+        assertEquals(rooms.get(0).intValue(), db.deallocateReturningRoom(101));
+        assertTrue(db.deleteStudent(103));
+        assertTrue(db.deleteStudent(111));
+
+        assertEquals(1, store.scans, "full scans");
+        assertEquals(3, db.snapshot().getOccupiedBeds());
+        assertEquals(10, db.snapshot().getTotalStudents());
+        assertTrue(db.verify(), "counters drifted from a fresh scan");
+    }
+}
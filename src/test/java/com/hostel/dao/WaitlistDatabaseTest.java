@@ -0,0 +1,82 @@
+package com.hostel.dao;
+
+import com.hostel.exception.DatabaseException;
+import com.hostel.exception.InvalidInputException;
+import com.hostel.model.Room;
+import com.hostel.model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WaitlistDatabaseTest {
+    /** Holds deallocations until released, like a store round trip that takes a while. */
+    private static final class Slow extends ForwardingDatabase {
+        final CountDownLatch entered = new CountDownLatch(1), release = new CountDownLatch(1);
+
+        Slow(DatabaseOperations delegate) { super(delegate); }
+
+        @Override
+        public int deallocateReturningRoom(int studentId) throws DatabaseException {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return delegate.deallocateReturningRoom(studentId);
+        }
+    }
+
+    @Test
+    void positionLookupsDoNotWaitBehindAStoreWrite() throws Exception {
+        Slow store = new Slow(new ConcurrentInMemoryDatabase(false));
+        WaitlistDatabase db = new WaitlistDatabase(store, new InMemoryWaitlistStore());
+        int room = db.addRoom(new Room(0, "W-1", 1, 0));
+        int housed = db.addStudent(new Student("Asha", "asha@hostel.test", "101"));
+        int waiting = db.addStudent(new Student("Ravi", "ravi@hostel.test", "102"));
+        db.allocateRoom(housed, room);
+        assertEquals(1, db.enqueue(waiting, room, 0));
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        Future<Boolean> leaving = pool.submit(() -> db.deallocateStudent(housed));
+        store.entered.await(1, TimeUnit.MINUTES);
+        assertEquals(1, pool.submit(() -> db.getPosition(waiting)).get(5, TimeUnit.SECONDS).intValue());
+
+        store.release.countDown();
+        assertEquals(true, leaving.get(1, TimeUnit.MINUTES));
+        pool.shutdown();
+        assertEquals(room, db.getAllocatedRoomForStudent(waiting).getId());
+        assertEquals(0, db.getPosition(waiting));
+    }
+
+    @Test
+    void anyRoomEntryKeepsFillingFreeRoomsUntilItIsServed() throws Exception {
+        ConcurrentInMemoryDatabase store = new ConcurrentInMemoryDatabase(false);
+        WaitlistDatabase db = new WaitlistDatabase(store, new InMemoryWaitlistStore());
+        int[] rooms = new int[3], housed = new int[3];
+        for (int i = 0; i < 3; i++) {
+            rooms[i] = db.addRoom(new Room(0, "W-" + i, 1, 0));
+            housed[i] = db.addStudent(new Student("Housed " + i, "h" + i + "@hostel.test", String.valueOf(200 + i)));
+            db.allocateRoom(housed[i], rooms[i]);
+        }
+        int first = db.addStudent(new Student("First", "first@hostel.test", "301"));
+        int second = db.addStudent(new Student("Second", "second@hostel.test", "302"));
+        assertEquals(1, db.enqueue(first, null, 0));
+        assertEquals(2, db.enqueue(second, null, 0));
+        // beds freed around the waitlist are only seen on the next write through it
+        for (int sid : housed) store.deallocateStudent(sid);
+
+        int late = db.addStudent(new Student("Late", "late@hostel.test", "303"));
+        assertEquals(0, db.enqueue(late, null, 0));
+        for (int sid : new int[] {first, second, late}) assertEquals(0, db.getPosition(sid));
+        assertEquals(0, db.size());
+        assertThrows(InvalidInputException.class, () -> db.enqueue(db.addStudent(new Student("Lost", "lost@hostel.test", "304")), rooms[2] + 100, 0));
+    }
+}
@@ -0,0 +1,91 @@
+package com.hostel.events;
+
+import com.hostel.dao.ConcurrentInMemoryDatabase;
+import com.hostel.exception.InvalidInputException;
+import com.hostel.model.Room;
+import com.hostel.model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Writers race on a few small, mostly full rooms through different students while a subscriber
+ * replays the events into per-room head counts. If events for one room came out of order, the
+ * replay would see a room above capacity or below zero.
+ */
+class EventPublishingDatabaseTest {
+    private static final int THREADS = 8;
+    private static final int ROOMS = 6;
+    private static final int CAPACITY = 2;
+    private static final int STUDENTS = 30;
+
+    @Test
+    void eventsForOneRoomComeOutInWriteOrder() throws Exception {
+        ConcurrentInMemoryDatabase store = new ConcurrentInMemoryDatabase();
+        EventRing ring = new EventRing(1 << 12);
+        EventPublishingDatabase db = new EventPublishingDatabase(store, ring, 10_000);
+        List<Integer> rooms = new ArrayList<>();
+        for (int i = 0; i < ROOMS; i++) rooms.add(db.addRoom(new Room(0, "E" + i, CAPACITY, 0)));
+        for (int i = 0; i < STUDENTS; i++) db.addStudent(new Student("Student " + i, "e" + i + "@hostel.test", String.valueOf(5000 + i)));
+
+        Map<Integer, Integer> heads = new HashMap<>();
+        AtomicInteger violations = new AtomicInteger();
+        AtomicBoolean stop = new AtomicBoolean();
+        EventRing.Subscription sub = ring.subscribe();
+        Thread replay = new Thread(() -> {
+            while (!stop.get() || sub.lag() > 0) {
+                sub.await(e -> {
+                    if (!rooms.contains(e.getRoomId())) return;
+                    int delta = e.getType() == ChangeEvent.Type.ALLOCATED ? 1 : e.getType() == ChangeEvent.Type.DEALLOCATED ? -1 : 0;
+                    int n = heads.merge(e.getRoomId(), delta, Integer::sum);
+                    if (n < 0 || n > CAPACITY) violations.incrementAndGet();
+                }, 256, 10, TimeUnit.MILLISECONDS);
+            }
+        });
+        replay.start();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            SplittableRandom rnd = new SplittableRandom(t);
+            done.add(pool.submit(() -> {
+                for (int k = 0; k < 20_000; k++) {
+                    int sid = 5000 + rnd.nextInt(STUDENTS), rid = rooms.get(rnd.nextInt(ROOMS));
+                    try {
+                        switch (rnd.nextInt(3)) {
+                            case 0: db.allocateRoom(sid, rid); break;
+                            case 1: db.deallocateStudent(sid); break;
+                            default: db.transferStudent(sid, rid);
+                        }
+                    } catch (InvalidInputException expected) {
+                        // unallocated, already allocated or the room is full
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : done) f.get(2, TimeUnit.MINUTES);
+        pool.shutdown();
+        stop.set(true);
+        replay.join();
+        sub.close();
+
+        assertEquals(0, db.getDropped(), "dropped events");
+        assertEquals(0, violations.get(), "times the replay saw a room over capacity or below zero");
+        Map<Integer, Integer> truth = new HashMap<>();
+        for (int rid : store.getAllAllocations().values()) truth.merge(rid, 1, Integer::sum);
+        for (int rid : rooms) assertEquals(truth.getOrDefault(rid, 0), heads.getOrDefault(rid, 0), "replayed head count of room " + rid);
+    }
+}
@@ -0,0 +1,29 @@
+package com.hostel.io;
+
+import com.hostel.dao.ConcurrentInMemoryDatabase;
+import com.hostel.model.Room;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DumpLoaderTest {
+    /** The concurrent store applies allocateRooms row by row, so a failed batch leaves its first rows in. */
+    @Test
+    void rowsAppliedBeforeAFailedBatchCountAsLoaded() throws Exception {
+        ConcurrentInMemoryDatabase db = new ConcurrentInMemoryDatabase();
+        DumpResult result = new DumpResult();
+        DumpLoader loader = new DumpLoader(db, result);
+        loader.room(1, "A-1", 5);
+        loader.room(2, "B-1", 5);
+        for (int i = 1; i <= 3; i++) loader.student(i, "Student " + i, "l" + i + "@hostel.test", String.valueOf(100 + i));
+        loader.allocation(1, 1);
+        int other = db.getAllRooms().stream().filter(r -> "B-1".equals(r.getNumber())).mapToInt(Room::getId).findFirst().getAsInt();
+        db.allocateRoom(103, other); // student 3 already has a bed, so the batch fails on its row
+        loader.allocation(2, 1);
+        loader.allocation(3, 1);
+        loader.finish();
+
+        assertEquals(2, result.getAllocations());
+        assertEquals(1, result.getSkipped(), String.valueOf(result.getErrors()));
+    }
+}
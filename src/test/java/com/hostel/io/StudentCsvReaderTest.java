@@ -0,0 +1,26 @@
+package com.hostel.io;
+
+import com.hostel.model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StudentCsvReaderTest {
+    @Test
+    void onlyAHeaderWhoseFirstFieldIsNameIsSkipped() {
+        assertEquals(Arrays.asList("Asha", "Namrata"), names("Name, Email ,roll_no\nAsha,asha@hostel.test,101\nNamrata,nam@hostel.test,102\n"));
+        assertEquals(Arrays.asList("Namrata", "Naman"), names("\nNamrata,nam@hostel.test,102\nNaman,naman@hostel.test,103\n"));
+        assertEquals(Arrays.asList("Nandini"), names("\"name\",email,roll_no\nNandini,nan@hostel.test,104\n"));
+    }
+
+    private static List<String> names(String csv) {
+        List<String> out = new ArrayList<>();
+        for (Student s : new StudentCsvReader(new StringReader(csv))) out.add(s.getName());
+        return out;
+    }
+}
@@ -0,0 +1,49 @@
+package com.hostel.service;
+
+import com.hostel.dao.AsyncDatabaseOperations;
+import com.hostel.model.Student;
+import com.hostel.model.StudentWithRoom;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AsyncAllocationServiceTest {
+    /** Answers every student lookup at once, as a cache or a synchronous store would. */
+    private static AsyncDatabaseOperations completedStore() {
+        return (AsyncDatabaseOperations) Proxy.newProxyInstance(AsyncDatabaseOperations.class.getClassLoader(),
+                new Class<?>[] {AsyncDatabaseOperations.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getStudent": {
+                            int id = (Integer) args[0];
+                            if (id % 2 == 1) return CompletableFuture.completedFuture(null);
+                            Student s = new Student("Student " + id, id + "@hostel.test", String.valueOf(id));
+                            s.setId(id);
+                            return CompletableFuture.completedFuture(s);
+                        }
+                        case "getAllocatedRoomForStudent":
+                            return CompletableFuture.completedFuture(null);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    @Test
+    void lookupAllOverCompletedFuturesDoesNotGrowTheStack() throws Exception {
+        AsyncAllocationService service = new AsyncAllocationService(completedStore(), 2);
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) ids.add(i);
+
+        Map<Integer, StudentWithRoom> found = service.lookupAll(ids).get(1, TimeUnit.MINUTES);
+
+        assertEquals(100_000, found.size());
+        assertEquals(0, found.keySet().iterator().next());
+    }
+}